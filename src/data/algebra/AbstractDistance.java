@@ -0,0 +1,86 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.algebra;
+
+import java.util.List;
+
+
+/**
+ * Provides the batch distance calculations of {@link Distance} by calling {@link Distance#distanceSq(Object, Object)}
+ * for each pair of elements. Distance measures that can calculate batches more efficiently should override them.
+ *
+ * @author Roland Winkler
+ */
+public abstract class AbstractDistance<T> implements Distance<T>
+{
+	/**  */
+	private static final long	serialVersionUID	= 4970816315236941553L;
+
+	/* (non-Javadoc)
+	 * @see data.algebra.Distance#distanceSq(java.lang.Object, java.util.List, double[])
+	 */
+	@Override
+	public void distanceSq(T x, List<T> y, double[] distancesSq)
+	{
+		if(distancesSq.length < y.size()) throw new IllegalArgumentException("The result array must have at least as many elements as y. Result length: " + distancesSq.length + " y size: " + y.size());
+		
+		for(int i=0; i<y.size(); i++)
+		{
+			distancesSq[i] = this.distanceSq(x, y.get(i));
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see data.algebra.Distance#distanceSq(java.util.List, java.util.List, double[])
+	 */
+	@Override
+	public void distanceSq(List<T> x, List<T> y, double[] distancesSq)
+	{
+		int k = 0;
+		
+		if(distancesSq.length < x.size()*y.size()) throw new IllegalArgumentException("The result array must have at least x.size()*y.size() elements. Result length: " + distancesSq.length + " required: " + (x.size()*y.size()));
+		
+		for(int j=0; j<x.size(); j++)
+		{
+			for(int i=0; i<y.size(); i++, k++)
+			{
+				distancesSq[k] = this.distanceSq(x.get(j), y.get(i));
+			}
+		}
+	}
+}
@@ -41,7 +41,7 @@ package data.algebra;
  *
  * @author Roland Winkler
  */
-public abstract class AbstractNormedVectorSpace<T> implements NormedVectorSpace<T>
+public abstract class AbstractNormedVectorSpace<T> extends AbstractDistance<T> implements NormedVectorSpace<T>
 {
 
 	/**  */
@@ -36,6 +36,7 @@ THE POSSIBILITY OF SUCH DAMAGE.
 
 package data.algebra;
 
+import java.util.List;
 
 /**
  * TODO Class Description
@@ -47,4 +48,23 @@ public interface Distance<T> extends AlgebraicStructure<T>
 	public double distance(T x, T y);
 	
 	public double distanceSq(T x, T y);
+	
+	/**
+	 * Calculates the squared distances from x to all elements of y: distancesSq[i] = distanceSq(x, y.get(i)).
+	 * 
+	 * @param x
+	 * @param y
+	 * @param distancesSq the array to store the results in, it must have at least y.size() elements.
+	 */
+	public void distanceSq(T x, List<T> y, double[] distancesSq);
+	
+	/**
+	 * Calculates the squared distances from all elements of x to all elements of y. The result is stored row by row,
+	 * i.e. distancesSq[j*y.size() + i] = distanceSq(x.get(j), y.get(i)).
+	 * 
+	 * @param x
+	 * @param y
+	 * @param distancesSq the array to store the results in, it must have at least x.size()*y.size() elements.
+	 */
+	public void distanceSq(List<T> x, List<T> y, double[] distancesSq);
 }
@@ -91,6 +91,27 @@ public interface VectorSpace<T> extends AlgebraicStructure<T>
 	 * @param a
 	 */
 	public void mul(T x, double a);
+	
+	/**
+	 * Adds the a-multiple of y to x (x := x + a * y). This is equivalent to a copy, mul and add
+	 * with a temporary vector, but it does not need the temporary and runs over the data only once.
+	 * 
+	 * @param x
+	 * @param y
+	 * @param a
+	 */
+	public void addMul(T x, T y, double a);
+	
+	/**
+	 * Moves y by the a-multiple of the difference of x and y and stores the result in x (x := y + a * (x - y)).
+	 * For a between 0 and 1, this is the convex combination of x and y. This is equivalent to a sub, mul and add
+	 * but runs over the data only once.
+	 * 
+	 * @param x
+	 * @param y
+	 * @param a
+	 */
+	public void interpolate(T x, T y, double a);
 
 	/**
 	 * copies x (z := x) 
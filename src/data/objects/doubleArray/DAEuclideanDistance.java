@@ -38,6 +38,7 @@ THE POSSIBILITY OF SUCH DAMAGE.
 package data.objects.doubleArray;
 
 import java.io.Serializable;
+import java.util.List;
 
 import data.algebra.Distance;
 
@@ -68,14 +69,50 @@ public class DAEuclideanDistance implements Distance<double[]>, Serializable
 	@Override
 	public double distanceSq(double[] x, double[] y)
 	{
-		double dist = 0.0d;
+		return DAKernels.distanceSq(x, y, Math.min(x.length, y.length));
+	}
+
+	/* (non-Javadoc)
+	 * @see data.algebra.Distance#distanceSq(java.lang.Object, java.util.List, double[])
+	 */
+	@Override
+	public void distanceSq(double[] x, List<double[]> y, double[] distancesSq)
+	{
+		double[] yi;
 		
-		for(int i=0; i<x.length && i<y.length; i++)
+		if(distancesSq.length < y.size()) throw new IllegalArgumentException("The result array must have at least as many elements as y. Result length: " + distancesSq.length + " y size: " + y.size());
+		
+		for(int i=0; i<y.size(); i++)
 		{
-			dist += (x[i]-y[i])*(x[i]-y[i]);
+			yi = y.get(i);
+			distancesSq[i] = DAKernels.distanceSq(x, yi, Math.min(x.length, yi.length));
 		}
+	}
+
+	/* (non-Javadoc)
+	 * @see data.algebra.Distance#distanceSq(java.util.List, java.util.List, double[])
+	 */
+	@Override
+	public void distanceSq(List<double[]> x, List<double[]> y, double[] distancesSq)
+	{
+		int k = 0, ySize = y.size();
+		double[] xj, yi;
+		double[][] yArray;
+		
+		if(distancesSq.length < x.size()*ySize) throw new IllegalArgumentException("The result array must have at least x.size()*y.size() elements. Result length: " + distancesSq.length + " required: " + (x.size()*ySize));
 		
-		return dist;
+		// resolve the list once, it is traversed for each element of x
+		yArray = y.toArray(new double[ySize][]);
+		
+		for(int j=0; j<x.size(); j++)
+		{
+			xj = x.get(j);
+			for(int i=0; i<ySize; i++, k++)
+			{
+				yi = yArray[i];
+				distancesSq[k] = DAKernels.distanceSq(xj, yi, Math.min(xj.length, yi.length));
+			}
+		}
 	}
 	
 	
@@ -99,15 +136,8 @@ public class DAEuclideanDistance implements Distance<double[]>, Serializable
 	 */
 	public double distanceSq(double[] x, double[] y, int dim)
 	{
-		double dist = 0.0d;
-		
 		if(x.length < dim || y.length < dim) throw new IllegalArgumentException("The number of elements in x and y must be at least dim.");
 		
-		for(int i=0; i<dim; i++)
-		{
-			dist += (x[i]-y[i])*(x[i]-y[i]);
-		}
-		
-		return dist;
+		return DAKernels.distanceSq(x, y, dim);
 	}	
 }
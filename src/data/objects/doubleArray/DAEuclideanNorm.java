@@ -68,14 +68,7 @@ public class DAEuclideanNorm implements Norm<double[]>, Serializable
 	@Override
 	public double lengthSq(double[] x)
 	{
-		double length = 0.0d;
-		
-		for(int i=0; i<x.length; i++)
-		{
-			length += x[i]*x[i];
-		}
-		
-		return length;
+		return DAKernels.lengthSq(x, x.length);
 	}
 
 
@@ -86,7 +79,7 @@ public class DAEuclideanNorm implements Norm<double[]>, Serializable
 	 */
 	public double length(double[] x, int dim)
 	{
-		return Math.sqrt(this.lengthSq(x));
+		return Math.sqrt(this.lengthSq(x, dim));
 	}
 
 	
@@ -97,16 +90,9 @@ public class DAEuclideanNorm implements Norm<double[]>, Serializable
 	 */
 	public double lengthSq(double[] x, int dim)
 	{
-		double length = 0.0d;
-		
 		if(x.length < dim) throw new IllegalArgumentException("The number of elements in x must be at least dim.");
 		
-		for(int i=0; i<dim; i++)
-		{
-			length += x[i]*x[i];
-		}
-		
-		return length;
+		return DAKernels.lengthSq(x, dim);
 	}
 
 }
@@ -58,14 +58,7 @@ public class DAEuclideanScalarProduct extends DAEuclideanNorm implements ScalarP
 	@Override
 	public double scalarProduct(double[] x, double[] y)
 	{
-		double prod = 0.0d;
-		
-		for(int i=0; i<x.length && i<y.length; i++)
-		{
-			prod += x[i]*y[i];
-		}
-		
-		return prod;
+		return DAKernels.scalarProduct(x, y, Math.min(x.length, y.length));
 	}
 
 	/**
@@ -76,16 +69,9 @@ public class DAEuclideanScalarProduct extends DAEuclideanNorm implements ScalarP
 	 */
 	public double scalarProduct(double[] x, double[] y, int dim)
 	{
-		double prod = 0.0d;
-		
 		if(x.length < dim || y.length < dim) throw new IllegalArgumentException("The number of elements in x and y must be at least dim.");
 		
-		for(int i=0; i<dim; i++)
-		{
-			prod += x[i]*y[i];
-		}
-		
-		return prod;
+		return DAKernels.scalarProduct(x, y, dim);
 	}
 	
 }
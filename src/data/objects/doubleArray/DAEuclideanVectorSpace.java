@@ -38,6 +38,7 @@ THE POSSIBILITY OF SUCH DAMAGE.
 package data.objects.doubleArray;
 
 import java.io.Serializable;
+import java.util.List;
 
 import data.algebra.AbstractEuclideanVectorSpace;
 import data.algebra.EuclideanVectorSpace;
@@ -93,6 +94,44 @@ public class DAEuclideanVectorSpace extends AbstractEuclideanVectorSpace<double[
 		return distance.distanceSq(x, y, this.vectorSpace.dim);
 	}
 
+	/* (non-Javadoc)
+	 * @see data.algebra.AbstractDistance#distanceSq(java.lang.Object, java.util.List, double[])
+	 */
+	@Override
+	public void distanceSq(double[] x, List<double[]> y, double[] distancesSq)
+	{
+		if(distancesSq.length < y.size()) throw new IllegalArgumentException("The result array must have at least as many elements as y. Result length: " + distancesSq.length + " y size: " + y.size());
+		
+		for(int i=0; i<y.size(); i++)
+		{
+			distancesSq[i] = distance.distanceSq(x, y.get(i), this.vectorSpace.dim);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see data.algebra.AbstractDistance#distanceSq(java.util.List, java.util.List, double[])
+	 */
+	@Override
+	public void distanceSq(List<double[]> x, List<double[]> y, double[] distancesSq)
+	{
+		int k = 0, ySize = y.size();
+		double[] xj;
+		double[][] yArray;
+		
+		if(distancesSq.length < x.size()*ySize) throw new IllegalArgumentException("The result array must have at least x.size()*y.size() elements. Result length: " + distancesSq.length + " required: " + (x.size()*ySize));
+		
+		yArray = y.toArray(new double[ySize][]);
+		
+		for(int j=0; j<x.size(); j++)
+		{
+			xj = x.get(j);
+			for(int i=0; i<ySize; i++, k++)
+			{
+				distancesSq[k] = distance.distanceSq(xj, yArray[i], this.vectorSpace.dim);
+			}
+		}
+	}
+
 	/**
 	 * @param x
 	 * @return
@@ -203,6 +242,28 @@ public class DAEuclideanVectorSpace extends AbstractEuclideanVectorSpace<double[
 		vectorSpace.mul(x, a);
 	}
 
+	/**
+	 * @param x
+	 * @param y
+	 * @param a
+	 * @see data.objects.doubleArray.DAStandardVectorSpace#addMul(double[], double[], double)
+	 */
+	public void addMul(double[] x, double[] y, double a)
+	{
+		vectorSpace.addMul(x, y, a);
+	}
+
+	/**
+	 * @param x
+	 * @param y
+	 * @param a
+	 * @see data.objects.doubleArray.DAStandardVectorSpace#interpolate(double[], double[], double)
+	 */
+	public void interpolate(double[] x, double[] y, double a)
+	{
+		vectorSpace.interpolate(x, y, a);
+	}
+
 	/**
 	 * @param x
 	 * @param a
@@ -0,0 +1,307 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.objects.doubleArray;
+
+/**
+ * Computational kernels for the double array algebra. The reductions (squared distance, scalar product, squared length)
+ * are the innermost operation of all clustering algorithms and tree queries. The JIT compiler does not vectorise
+ * floating point reductions because that would change the summation order, so for larger dimensions, the kernels
+ * process four coordinates per step into four independent accumulators. That removes the dependency between
+ * subsequent additions and allows the processor to execute them in parallel (and the JIT to use packed instructions
+ * for the multiplications). For small dimensions, the overhead of the unrolled version does not pay off and the
+ * plain scalar loop is used. The choice is made at runtime for each call, based on the dimension.<br>
+ * <br>
+ * The element-wise operations (add, sub, mul, ...) are written as simple counted loops over local variables,
+ * which the JIT compiler vectorises on its own.<br>
+ * <br>
+ * All kernels expect the caller to have checked that the arrays contain at least n elements.
+ *
+ * @author Roland Winkler
+ */
+public final class DAKernels
+{
+	/** The dimension from which on the unrolled reductions are used. */
+	public static final int UNROLL_THRESHOLD = 8;
+	
+	/** no instances */
+	private DAKernels()
+	{}
+	
+	/**
+	 * @param x
+	 * @param y
+	 * @param n the number of coordinates
+	 * @return the squared euclidean distance of the first n coordinates of x and y
+	 */
+	public static double distanceSq(double[] x, double[] y, int n)
+	{
+		return (n < DAKernels.UNROLL_THRESHOLD)? DAKernels.distanceSqScalar(x, y, n) : DAKernels.distanceSqUnrolled(x, y, n);
+	}
+	
+	/**
+	 * @param x
+	 * @param y
+	 * @param n the number of coordinates
+	 * @return the squared euclidean distance of the first n coordinates of x and y, calculated with a plain loop
+	 */
+	public static double distanceSqScalar(double[] x, double[] y, int n)
+	{
+		double dist = 0.0d, tmp;
+		
+		for(int i=0; i<n; i++)
+		{
+			tmp = x[i] - y[i];
+			dist += tmp*tmp;
+		}
+		
+		return dist;
+	}
+	
+	/**
+	 * @param x
+	 * @param y
+	 * @param n the number of coordinates
+	 * @return the squared euclidean distance of the first n coordinates of x and y, calculated with four accumulators
+	 */
+	public static double distanceSqUnrolled(double[] x, double[] y, int n)
+	{
+		double s0 = 0.0d, s1 = 0.0d, s2 = 0.0d, s3 = 0.0d;
+		double t0, t1, t2, t3;
+		int i = 0, m = n & ~3;
+		
+		for(; i<m; i+=4)
+		{
+			t0 = x[i]   - y[i];
+			t1 = x[i+1] - y[i+1];
+			t2 = x[i+2] - y[i+2];
+			t3 = x[i+3] - y[i+3];
+			s0 += t0*t0;
+			s1 += t1*t1;
+			s2 += t2*t2;
+			s3 += t3*t3;
+		}
+		for(; i<n; i++)
+		{
+			t0 = x[i] - y[i];
+			s0 += t0*t0;
+		}
+		
+		return (s0 + s1) + (s2 + s3);
+	}
+	
+	/**
+	 * Squared distance to a vector that is stored inside a larger array, for example a row of a row-major matrix.
+	 * The result is identical to {@link #distanceSq(double[], double[], int)} with a copy of the row.
+	 * 
+	 * @param x
+	 * @param y the array that contains the second vector
+	 * @param offset the index of the first coordinate of the second vector in y
+	 * @param n the number of coordinates
+	 * @return the squared euclidean distance of the first n coordinates of x and y[offset, offset+n)
+	 */
+	public static double distanceSq(double[] x, double[] y, int offset, int n)
+	{
+		double s0 = 0.0d, s1 = 0.0d, s2 = 0.0d, s3 = 0.0d;
+		double t0, t1, t2, t3;
+		int i = 0, m = n & ~3;
+		
+		if(n < DAKernels.UNROLL_THRESHOLD)
+		{
+			for(; i<n; i++)
+			{
+				t0 = x[i] - y[offset+i];
+				s0 += t0*t0;
+			}
+			return s0;
+		}
+		
+		for(; i<m; i+=4)
+		{
+			t0 = x[i]   - y[offset+i];
+			t1 = x[i+1] - y[offset+i+1];
+			t2 = x[i+2] - y[offset+i+2];
+			t3 = x[i+3] - y[offset+i+3];
+			s0 += t0*t0;
+			s1 += t1*t1;
+			s2 += t2*t2;
+			s3 += t3*t3;
+		}
+		for(; i<n; i++)
+		{
+			t0 = x[i] - y[offset+i];
+			s0 += t0*t0;
+		}
+		
+		return (s0 + s1) + (s2 + s3);
+	}
+	
+	/**
+	 * @param x
+	 * @param y
+	 * @param n the number of coordinates
+	 * @return the scalar product of the first n coordinates of x and y
+	 */
+	public static double scalarProduct(double[] x, double[] y, int n)
+	{
+		if(n < DAKernels.UNROLL_THRESHOLD)
+		{
+			double prod = 0.0d;
+			for(int i=0; i<n; i++) prod += x[i]*y[i];
+			return prod;
+		}
+		
+		double s0 = 0.0d, s1 = 0.0d, s2 = 0.0d, s3 = 0.0d;
+		int i = 0, m = n & ~3;
+		
+		for(; i<m; i+=4)
+		{
+			s0 += x[i]  *y[i];
+			s1 += x[i+1]*y[i+1];
+			s2 += x[i+2]*y[i+2];
+			s3 += x[i+3]*y[i+3];
+		}
+		for(; i<n; i++) s0 += x[i]*y[i];
+		
+		return (s0 + s1) + (s2 + s3);
+	}
+	
+	/**
+	 * Scalar product with a vector that is stored inside a larger array, for example a row of a row-major matrix.
+	 * 
+	 * @param x
+	 * @param y the array that contains the second vector
+	 * @param offset the index of the first coordinate of the second vector in y
+	 * @param n the number of coordinates
+	 * @return the scalar product of the first n coordinates of x and y[offset, offset+n)
+	 */
+	public static double scalarProduct(double[] x, double[] y, int offset, int n)
+	{
+		if(n < DAKernels.UNROLL_THRESHOLD)
+		{
+			double prod = 0.0d;
+			for(int i=0; i<n; i++) prod += x[i]*y[offset+i];
+			return prod;
+		}
+		
+		double s0 = 0.0d, s1 = 0.0d, s2 = 0.0d, s3 = 0.0d;
+		int i = 0, m = n & ~3;
+		
+		for(; i<m; i+=4)
+		{
+			s0 += x[i]  *y[offset+i];
+			s1 += x[i+1]*y[offset+i+1];
+			s2 += x[i+2]*y[offset+i+2];
+			s3 += x[i+3]*y[offset+i+3];
+		}
+		for(; i<n; i++) s0 += x[i]*y[offset+i];
+		
+		return (s0 + s1) + (s2 + s3);
+	}
+	
+	/**
+	 * @param x
+	 * @param n the number of coordinates
+	 * @return the squared euclidean length of the first n coordinates of x
+	 */
+	public static double lengthSq(double[] x, int n)
+	{
+		return DAKernels.scalarProduct(x, x, n);
+	}
+	
+	/**
+	 * x := x + y
+	 * 
+	 * @param x
+	 * @param y
+	 * @param n the number of coordinates
+	 */
+	public static void add(double[] x, double[] y, int n)
+	{
+		for(int i=0; i<n; i++) x[i] += y[i];
+	}
+	
+	/**
+	 * x := x - y
+	 * 
+	 * @param x
+	 * @param y
+	 * @param n the number of coordinates
+	 */
+	public static void sub(double[] x, double[] y, int n)
+	{
+		for(int i=0; i<n; i++) x[i] -= y[i];
+	}
+	
+	/**
+	 * x := a*x
+	 * 
+	 * @param x
+	 * @param a
+	 * @param n the number of coordinates
+	 */
+	public static void mul(double[] x, double a, int n)
+	{
+		for(int i=0; i<n; i++) x[i] *= a;
+	}
+	
+	/**
+	 * x := x + a*y
+	 * 
+	 * @param x
+	 * @param y
+	 * @param a
+	 * @param n the number of coordinates
+	 */
+	public static void addMul(double[] x, double[] y, double a, int n)
+	{
+		for(int i=0; i<n; i++) x[i] += a*y[i];
+	}
+	
+	/**
+	 * x := y + a*(x - y)
+	 * 
+	 * @param x
+	 * @param y
+	 * @param a
+	 * @param n the number of coordinates
+	 */
+	public static void interpolate(double[] x, double[] y, double a, int n)
+	{
+		for(int i=0; i<n; i++) x[i] = y[i] + a*(x[i] - y[i]);
+	}
+}
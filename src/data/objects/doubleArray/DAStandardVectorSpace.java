@@ -91,7 +91,7 @@ public class DAStandardVectorSpace implements VectorSpace<double[]>, Serializabl
 	{
 		if(x.length < this.dim || y.length < this.dim) throw new IllegalArgumentException("The number of elements in x and y must be at least dim.");
 		
-		for(int i=0; i<this.dim; i++)	x[i] += y[i];
+		DAKernels.add(x, y, this.dim);
 	}
 
 	/* (non-Javadoc)
@@ -143,7 +143,29 @@ public class DAStandardVectorSpace implements VectorSpace<double[]>, Serializabl
 	{
 		if(x.length < this.dim) throw new IllegalArgumentException("The number of elements in x must be at least dim.");
 		
-		for(int i=0; i<this.dim; i++)	x[i] *= a;		
+		DAKernels.mul(x, a, this.dim);
+	}
+
+	/* (non-Javadoc)
+	 * @see data.algebra.VectorSpace#addMul(java.lang.Object, java.lang.Object, double)
+	 */
+	@Override
+	public void addMul(double[] x, double[] y, double a)
+	{
+		if(x.length < this.dim || y.length < this.dim) throw new IllegalArgumentException("The number of elements in x and y must be at least dim.");
+		
+		DAKernels.addMul(x, y, a, this.dim);
+	}
+
+	/* (non-Javadoc)
+	 * @see data.algebra.VectorSpace#interpolate(java.lang.Object, java.lang.Object, double)
+	 */
+	@Override
+	public void interpolate(double[] x, double[] y, double a)
+	{
+		if(x.length < this.dim || y.length < this.dim) throw new IllegalArgumentException("The number of elements in x and y must be at least dim.");
+		
+		DAKernels.interpolate(x, y, a, this.dim);
 	}
 
 	/* (non-Javadoc)
@@ -169,7 +191,7 @@ public class DAStandardVectorSpace implements VectorSpace<double[]>, Serializabl
 	{
 		if(x.length < this.dim || y.length < this.dim) throw new IllegalArgumentException("The number of elements in x and y must be at least dim.");
 		
-		for(int i=0; i<this.dim; i++)	x[i] -= y[i];
+		DAKernels.sub(x, y, this.dim);
 	}
 
 	/* (non-Javadoc)
@@ -204,7 +226,7 @@ public class DAStandardVectorSpace implements VectorSpace<double[]>, Serializabl
 	{
 		if(x.length < this.dim || y.length < this.dim) throw new IllegalArgumentException("The number of elements in x and y must be at least dim.");
 		
-		for(int i=0; i<this.dim; i++) x[i] = y[i];
+		System.arraycopy(y, 0, x, 0, this.dim);
 	}
 
 	/* (non-Javadoc)
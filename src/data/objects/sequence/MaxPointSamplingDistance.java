@@ -39,6 +39,7 @@ package data.objects.sequence;
 
 import java.io.Serializable;
 
+import data.algebra.AbstractDistance;
 import data.algebra.Distance;
 import etc.MyMath;
 
@@ -47,7 +48,7 @@ import etc.MyMath;
  *
  * @author Roland Winkler
  */
-public class MaxPointSamplingDistance implements Distance<DoubleArraySequence>, Serializable
+public class MaxPointSamplingDistance extends AbstractDistance<DoubleArraySequence> implements Distance<DoubleArraySequence>, Serializable
 {
 	/**  */
 	private static final long	serialVersionUID	= 7053934220906860988L;
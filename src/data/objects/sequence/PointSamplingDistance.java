@@ -39,6 +39,7 @@ package data.objects.sequence;
 
 import java.io.Serializable;
 
+import data.algebra.AbstractDistance;
 import data.algebra.Distance;
 import etc.MyMath;
 
@@ -47,7 +48,7 @@ import etc.MyMath;
  *
  * @author Roland Winkler
  */
-public class PointSamplingDistance implements Distance<DoubleArraySequence>, Serializable
+public class PointSamplingDistance extends AbstractDistance<DoubleArraySequence> implements Distance<DoubleArraySequence>, Serializable
 {
 	/**  */
 	private static final long	serialVersionUID	= -3808294293183147878L;
@@ -0,0 +1,385 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A sealed data set of double arrays of fixed dimension, whose coordinates are not stored in one double array per data object
+ * but in a storage that is defined by the subclass. The coordinates are accessed through the index of the data object.<br>
+ * <br>
+ * For compatibility with algorithms that work on IndexedDataSets, the data set provides IndexedDataObjects
+ * as well. They are short-lived views: each call of {@link #get(int)} creates a new IndexedDataObject that holds
+ * a copy of the coordinates of the data object, the data set does not keep it. Two views of the same index are
+ * equal, because IndexedDataObjects are compared by data set and index. Because the data set is sealed, the
+ * coordinates of a data object never change and a copy is always valid. Algorithms that keep the data objects,
+ * e.g. the nodes of a BallTree, keep the copies as well. Hot loops should use the index based accessors
+ * {@link #getCoordinate(int, int)}, {@link #copyCoordinates(int, double[])} and {@link #distanceSq(int, double[])},
+ * which do not allocate.
+ *
+ * @author Roland Winkler
+ */
+public abstract class AbstractDoubleArrayDataSet extends IndexedDataSet<double[]>
+{
+	/**  */
+	private static final long	serialVersionUID	= 3926620954185236412L;
+
+	/** the number of coordinates of each data object */
+	protected final int dim;
+
+	/** the number of data objects */
+	protected final int size;
+	
+	/**
+	 * Creates the data set and seals it.
+	 * 
+	 * @param size the number of data objects
+	 * @param dim the number of coordinates of each data object
+	 */
+	protected AbstractDoubleArrayDataSet(int size, int dim)
+	{
+		super();
+		
+		if(dim < 1) throw new IllegalArgumentException("The dimension must be at least 1. Specified dimension: " + dim);
+		if(size < 0) throw new IllegalArgumentException("The size must not be negative. Specified size: " + size);
+		
+		this.dim = dim;
+		this.size = size;
+		
+		this.seal();
+	}
+	
+	/**
+	 * @param index the index of the data object
+	 * @param k the index of the coordinate
+	 * @return coordinate k of data object index
+	 */
+	public abstract double getCoordinate(int index, int k);
+	
+	/**
+	 * Copies the coordinates of the data object into x.
+	 * 
+	 * @param index the index of the data object
+	 * @param x the array to be filled, must have at least dim elements
+	 * @return x
+	 */
+	public abstract double[] copyCoordinates(int index, double[] x);
+	
+	/**
+	 * @return the number of coordinates of each data object
+	 */
+	public int getDimension()
+	{
+		return this.dim;
+	}
+	
+	/**
+	 * Calculates the squared euclidean distance of the data object with the specified index to y
+	 * without creating the indexed data object.
+	 * 
+	 * @param index the index of the data object
+	 * @param y
+	 * @return the squared euclidean distance
+	 */
+	public double distanceSq(int index, double[] y)
+	{
+		if(y.length < this.dim) throw new IllegalArgumentException("The number of elements in y must be at least dim.");
+		
+		double dist = 0.0d, tmp;
+		
+		for(int k=0; k<this.dim; k++)
+		{
+			tmp = this.getCoordinate(index, k) - y[k];
+			dist += tmp*tmp;
+		}
+		
+		return dist;
+	}
+	
+	/** O(dim), creates a new view of the data object, it is not kept by the data set. 
+	 * 
+	 * @see data.set.IndexedDataSet#get(int)
+	 */
+	@Override
+	public IndexedDataObject<double[]> get(int index)
+	{
+		if(index < 0 || index >= this.size) throw new IndexOutOfBoundsException("Index: "+index+", Size: "+this.size);
+		
+		IndexedDataObject<double[]> obj = new IndexedDataObject<double[]>(this.copyCoordinates(index, new double[this.dim]));
+		obj.setDataSetConnection(index, this);
+		
+		return obj;
+	}
+
+	/** O(1)
+	 * 
+	 * @see data.set.IndexedDataSet#size()
+	 */
+	@Override
+	public int size()
+	{
+		return this.size;
+	}
+
+	/** O(1)
+	 * 
+	 * @see data.set.IndexedDataSet#isEmpty()
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+
+	/** O(1)
+	 * 
+	 * @see data.set.IndexedDataSet#iterator()
+	 */
+	@Override
+	public Iterator<IndexedDataObject<double[]>> iterator()
+	{
+		return new IndexListIterator(0);
+	}
+
+	/** O(1)
+	 * 
+	 * @see data.set.IndexedDataSet#listIterator()
+	 */
+	@Override
+	public ListIterator<IndexedDataObject<double[]>> listIterator()
+	{
+		return new IndexListIterator(0);
+	}
+
+	/** O(1)
+	 * 
+	 * @see data.set.IndexedDataSet#listIterator(int)
+	 */
+	@Override
+	public ListIterator<IndexedDataObject<double[]>> listIterator(int index)
+	{
+		if (index > this.size || index < 0) throw new IndexOutOfBoundsException("Index: "+index+", Size: "+this.size);
+		
+		return new IndexListIterator(index);
+	}
+
+	/** O(toIndex-fromIndex)
+	 * 
+	 * @see data.set.IndexedDataSet#subList(int, int)
+	 */
+	@Override
+	public List<IndexedDataObject<double[]>> subList(int fromIndex, int toIndex)
+	{
+		if(fromIndex < 0 || toIndex > this.size || fromIndex > toIndex) throw new IndexOutOfBoundsException("fromIndex: "+fromIndex+", toIndex: "+toIndex+", Size: "+this.size);
+		
+		ArrayList<IndexedDataObject<double[]>> list = new ArrayList<IndexedDataObject<double[]>>(toIndex-fromIndex);
+		for(int j=fromIndex; j<toIndex; j++) list.add(this.get(j));
+		
+		return Collections.unmodifiableList(list);
+	}
+
+	/** O(n)
+	 * n = this.size()
+	 * 
+	 * @see data.set.IndexedDataSet#toArray()
+	 */
+	@Override
+	public Object[] toArray()
+	{
+		return this.subList(0, this.size).toArray();
+	}
+
+	/** O(n)
+	 * n = this.size()
+	 * 
+	 * @see data.set.IndexedDataSet#toArray(S[])
+	 */
+	@Override
+	public <S> S[] toArray(S[] a)
+	{
+		return this.subList(0, this.size).toArray(a);
+	}
+
+	/** 
+	 * The data set is sealed, this always throws a ChangeNotAllowedException.
+	 * 
+	 * @see data.set.IndexedDataSet#remove(int)
+	 */
+	@Override
+	public IndexedDataObject<double[]> remove(int index)
+	{
+		throw new ChangeNotAllowedException("The instance is sealed and can not be changed any more.");
+	}
+
+	/** 
+	 * The data set is sealed, this always throws a ChangeNotAllowedException.
+	 * 
+	 * @see data.set.IndexedDataSet#removeAll(java.util.Collection)
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c)
+	{
+		throw new ChangeNotAllowedException("The instance is sealed and can not be changed any more.");
+	}
+
+	/*** O(1)
+	 * 
+	 * @see data.set.IndexedDataSet#first()
+	 */
+	@Override
+	public IndexedDataObject<double[]> first()
+	{
+		if(this.isEmpty()) throw new NoSuchElementException();
+		
+		return this.get(0);
+	}
+
+	/*** O(1)
+	 * 
+	 * @see data.set.IndexedDataSet#last()
+	 */
+	@Override
+	public IndexedDataObject<double[]> last()
+	{
+		if(this.isEmpty()) throw new NoSuchElementException();
+		
+		return this.get(this.size-1);
+	}
+	
+	/**
+	 * Index based iterator over the data objects, each data object is a new view.
+	 * It throws a IteratorModificationsNotSupportedException when ever it is tried to modify the data set through the iterator.
+	 * 
+	 * @author Roland Winkler
+	 */
+	private class IndexListIterator implements ListIterator<IndexedDataObject<double[]>>
+	{
+		/** the index of the data object returned by next() */
+		private int cursor;
+		
+		/** */
+		public IndexListIterator(int index)
+		{
+			this.cursor = index;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.ListIterator#hasNext()
+		 */
+		public boolean hasNext()
+		{
+			return this.cursor < AbstractDoubleArrayDataSet.this.size;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.ListIterator#next()
+		 */
+		public IndexedDataObject<double[]> next()
+		{
+			if(!this.hasNext()) throw new NoSuchElementException();
+			
+			this.cursor++;
+			return AbstractDoubleArrayDataSet.this.get(this.cursor-1);
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.ListIterator#hasPrevious()
+		 */
+		public boolean hasPrevious()
+		{
+			return this.cursor > 0;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.ListIterator#previous()
+		 */
+		public IndexedDataObject<double[]> previous()
+		{
+			if(!this.hasPrevious()) throw new NoSuchElementException();
+			
+			this.cursor--;
+			return AbstractDoubleArrayDataSet.this.get(this.cursor);
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.ListIterator#nextIndex()
+		 */
+		public int nextIndex()
+		{
+			return this.cursor;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.ListIterator#previousIndex()
+		 */
+		public int previousIndex()
+		{
+			return this.cursor-1;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.ListIterator#remove()
+		 */
+		public void remove()
+		{
+			throw new IteratorModificationsNotSupportedException("Operations modifying the contents of the data set through an iterator are not supported.");
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.ListIterator#set(java.lang.Object)
+		 */
+		public void set(IndexedDataObject<double[]> e)
+		{
+			throw new IteratorModificationsNotSupportedException("Operations modifying the contents of the data set through an iterator are not supported.");
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.ListIterator#add(java.lang.Object)
+		 */
+		public void add(IndexedDataObject<double[]> e)
+		{
+			throw new IteratorModificationsNotSupportedException("Operations modifying the contents of the data set through an iterator are not supported.");
+		}
+	}
+}
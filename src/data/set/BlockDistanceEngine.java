@@ -0,0 +1,86 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set;
+
+import java.util.List;
+
+import data.algebra.Distance;
+
+/**
+ * A distance engine calculates the squared distances between a range of data objects of a data set and
+ * a list of other elements (usually the prototypes of a clustering algorithm) in one call. In contrast to
+ * {@link data.algebra.Distance}, the engine is bound to one data set and may therefore precompute and cache
+ * information about the data objects, and it may reorganize the calculation in blocks that fit into the cache.<br>
+ * <br>
+ * The data set must be sealed when the engine is created, because the engine relies on the data objects not to change.
+ *
+ * @author Roland Winkler
+ */
+public interface BlockDistanceEngine<T>
+{
+	/**
+	 * @return the data set the engine is bound to
+	 */
+	public IndexedDataSet<T> getDataSet();
+	
+	/**
+	 * Calculates the squared distances between the data objects with indices <code>from</code> (inclusive) to
+	 * <code>to</code> (exclusive) and all elements of y. The result is stored row by row, i.e.
+	 * distancesSq[(j-from)*y.size() + i] is the squared distance between data object j and y.get(i).
+	 * 
+	 * @param from the index of the first data object
+	 * @param to the index after the last data object
+	 * @param y
+	 * @param distancesSq the array to store the results in, it must have at least (to-from)*y.size() elements.
+	 */
+	public void distanceSq(int from, int to, List<T> y, double[] distancesSq);
+	
+	/**
+	 * Checks whether the engine calculates the same squared distances as the specified distance function.
+	 * Clustering algorithms only accept an engine that is equivalent to their distance function.
+	 * 
+	 * @param distance the distance function
+	 * @return true, if the engine calculates the squared distances of the distance function
+	 */
+	public boolean isEquivalentTo(Distance<T> distance);
+	
+	/**
+	 * @return the number of data objects that should be processed in one call to {@link #distanceSq(int, int, List, double[])} 
+	 */
+	public int getBlockSize();
+}
@@ -0,0 +1,203 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A sealed data set of double arrays, that stores all coordinates in one contiguous, row-major double array.
+ * The coordinate k of the data object with index j is located at <code>getCoordinates()[j*getDimension() + k]</code>.
+ * Compared to an IndexedDataSet of double arrays, this saves the object headers and references of one indexed
+ * data object and one double array per data object and keeps the data of subsequent objects close in memory.<br>
+ * <br>
+ * The saving holds for the index based accessors {@link #getCoordinates()}, {@link #offsetOf(int)},
+ * {@link #copyCoordinates(int, double[])} and {@link #distanceSq(int, double[])}, which fuzzy c-means and its variants,
+ * hard c-means and expectation maximization use in their iterations. The data objects provided by {@link #get(int)} and the
+ * iterators are short-lived copies that are not kept by the data set. Structures that keep them, like the nodes
+ * of a BallTree, hold one indexed data object and one double array per data object again.<br>
+ * <br>
+ * The number of coordinates (size*dimension) is limited to Integer.MAX_VALUE.
+ *
+ * @author Roland Winkler
+ */
+public class DenseDoubleDataSet extends AbstractDoubleArrayDataSet
+{
+	/**  */
+	private static final long	serialVersionUID	= -2406186011811812544L;
+
+	/** the coordinates of all data objects, row-major */
+	protected final double[] coordinates;
+	
+	/**
+	 * Creates a data set that uses the specified array as storage for its coordinates. The array is not copied,
+	 * it must not be changed after the data set is created.
+	 * 
+	 * @param coordinates the coordinates of all data objects, row-major
+	 * @param dim the number of coordinates of each data object
+	 */
+	public DenseDoubleDataSet(double[] coordinates, int dim)
+	{
+		super(DenseDoubleDataSet.sizeOf(coordinates, dim), dim);
+		
+		this.coordinates = coordinates;
+	}
+	
+	/**
+	 * Creates a data set by copying the first <code>dim</code> coordinates of each element of <code>data</code>
+	 * into the contiguous storage. The order of the data objects is the iteration order of <code>data</code>.
+	 * 
+	 * @param data the data objects
+	 * @param dim the number of coordinates of each data object
+	 */
+	public DenseDoubleDataSet(Collection<double[]> data, int dim)
+	{
+		this(DenseDoubleDataSet.pack(data, dim), dim);
+	}
+	
+	/**
+	 * Creates a data set by copying the coordinates of each element of <code>data</code>
+	 * into the contiguous storage. The dimension is the length of the first element.
+	 * 
+	 * @param data the data objects
+	 */
+	public DenseDoubleDataSet(List<double[]> data)
+	{
+		this(data, data.isEmpty()? 1 : data.get(0).length);
+	}
+	
+	/**
+	 * @param coordinates
+	 * @param dim
+	 * @return the number of data objects stored in coordinates
+	 */
+	private static int sizeOf(double[] coordinates, int dim)
+	{
+		if(dim < 1) throw new IllegalArgumentException("The dimension must be at least 1. Specified dimension: " + dim);
+		if(coordinates.length % dim != 0) throw new IllegalArgumentException("The number of coordinates (" + coordinates.length + ") is not a multiple of the dimension (" + dim + ").");
+		
+		return coordinates.length / dim;
+	}
+	
+	/**
+	 * @param data
+	 * @param dim
+	 * @return the row-major coordinate array of the data
+	 */
+	private static double[] pack(Collection<double[]> data, int dim)
+	{
+		if(((long)data.size())*((long)dim) > Integer.MAX_VALUE) throw new IllegalArgumentException("The number of coordinates (" + (((long)data.size())*((long)dim)) + ") exceeds the maximal array size.");
+		
+		double[] coordinates = new double[data.size()*dim];
+		int offset = 0;
+		
+		for(double[] x:data)
+		{
+			if(x.length < dim) throw new IllegalArgumentException("The number of elements in x must be at least dim.");
+			System.arraycopy(x, 0, coordinates, offset, dim);
+			offset += dim;
+		}
+		
+		return coordinates;
+	}
+	
+	/**
+	 * Returns the storage of the data set. It must not be changed.
+	 * 
+	 * @return the coordinates of all data objects, row-major
+	 */
+	public double[] getCoordinates()
+	{
+		return this.coordinates;
+	}
+	
+	/**
+	 * @param index the index of the data object
+	 * @return the position of the first coordinate of the data object in the coordinate array
+	 */
+	public int offsetOf(int index)
+	{
+		if(index < 0 || index >= this.size) throw new IndexOutOfBoundsException("Index: "+index+", Size: "+this.size);
+		
+		return index*this.dim;
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.set.AbstractDoubleArrayDataSet#getCoordinate(int, int)
+	 */
+	@Override
+	public double getCoordinate(int index, int k)
+	{
+		if(k < 0 || k >= this.dim) throw new IndexOutOfBoundsException("Coordinate: "+k+", Dimension: "+this.dim);
+		
+		return this.coordinates[this.offsetOf(index) + k];
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.set.AbstractDoubleArrayDataSet#copyCoordinates(int, double[])
+	 */
+	@Override
+	public double[] copyCoordinates(int index, double[] x)
+	{
+		if(x.length < this.dim) throw new IllegalArgumentException("The number of elements in x must be at least dim.");
+		
+		System.arraycopy(this.coordinates, this.offsetOf(index), x, 0, this.dim);
+		
+		return x;
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.set.AbstractDoubleArrayDataSet#distanceSq(int, double[])
+	 */
+	@Override
+	public double distanceSq(int index, double[] y)
+	{
+		if(y.length < this.dim) throw new IllegalArgumentException("The number of elements in y must be at least dim.");
+		
+		double dist = 0.0d, tmp;
+		int offset = this.offsetOf(index);
+		
+		for(int k=0; k<this.dim; k++)
+		{
+			tmp = this.coordinates[offset + k] - y[k];
+			dist += tmp*tmp;
+		}
+		
+		return dist;
+	}
+}
@@ -0,0 +1,442 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set;
+
+import java.io.Serializable;
+import java.util.List;
+
+import data.algebra.Distance;
+import data.objects.doubleArray.DAEuclideanDistance;
+import data.objects.doubleArray.DAEuclideanVectorSpace;
+
+/**
+ * A {@link BlockDistanceEngine} for euclidean distances of double array data. The squared distance is calculated
+ * as ||x - v||^2 = ||x||^2 - 2 x*v + ||v||^2, the squared norms of the data objects are calculated once when the
+ * engine is created. The scalar products between a block of data objects and all prototypes are calculated like
+ * a blocked matrix product: the dimensions are processed in chunks, such that the part of the data objects and
+ * prototypes used in the inner loops stays in the cache, and four prototypes are processed at the same time to reuse
+ * each data value that is loaded. This pays off for high dimensional data (about 64 dimensions and more); for low
+ * dimensions, the direct calculation of the distance is faster.<br>
+ * <br>
+ * The decomposition suffers from cancellation if a data object and a prototype are close to each other compared
+ * to their norms. In that case, the result can even become negative. Therefore, if the calculated squared distance is
+ * smaller than {@link #CANCELLATION_THRESHOLD} times the sum of the squared norms, it is recalculated directly. That way,
+ * the results are never negative and zero distances are recognised exactly.<br>
+ * <br>
+ * If the data set is a {@link DenseDoubleDataSet}, its coordinate array is used directly. Other
+ * {@link AbstractDoubleArrayDataSet}s, like {@link MappedDoubleDataSet}, are not copied: the coordinates of each block
+ * of data objects are read into a small tile with {@link AbstractDoubleArrayDataSet#copyCoordinates(int, double[])}
+ * when the block is processed, so only the squared norms are kept on the heap. The data objects of all other data sets
+ * are copied into one row-major array. All data objects must have at least the dimension of the first data object.<br>
+ * <br>
+ * Calculating distances does not change the engine, so it can be used by several threads concurrently. Each thread
+ * keeps its own buffers for the packed prototypes and the tile, which are reused in subsequent calls.
+ *
+ * @author Roland Winkler
+ */
+public class DoubleArrayBlockDistanceEngine implements BlockDistanceEngine<double[]>, Serializable
+{
+	/**  */
+	private static final long	serialVersionUID	= 2286012563218472407L;
+	
+	/** Squared distances below this fraction of ||x||^2 + ||v||^2 are recalculated directly. */
+	public static final double CANCELLATION_THRESHOLD = 1.0e-6d;
+
+	/** The default number of data objects in one block */
+	public static final int DEFAULT_BLOCK_SIZE = 64;
+	
+	/** The default number of dimensions that are processed in one chunk */
+	public static final int DEFAULT_DIMENSION_BLOCK_SIZE = 128;
+	
+	/** The data set the engine is bound to */
+	protected final IndexedDataSet<double[]> dataSet;
+	
+	/** The coordinates of all data objects, row-major, or null if they are read from <code>coordinateSet</code> */
+	protected final double[] coordinates;
+	
+	/** The data set the coordinates are read from block by block, or null if they are stored in <code>coordinates</code> */
+	protected final AbstractDoubleArrayDataSet coordinateSet;
+	
+	/** The squared norms of all data objects */
+	protected final double[] normsSq;
+	
+	/** The dimension of the data */
+	protected final int dim;
+	
+	/** The number of data objects in one block */
+	protected int blockSize;
+	
+	/** The number of dimensions in one chunk of the scalar product calculation */
+	protected int dimensionBlockSize;
+	
+	/** The buffers of each thread, created when they are first needed */
+	private transient volatile ThreadLocal<Workspace> workspace;
+	
+	/**
+	 * The buffers of one thread for the packed prototypes and the coordinates of a block of data objects.
+	 * 
+	 * @author Roland Winkler
+	 */
+	private static class Workspace
+	{
+		/** The packed prototypes, row-major */
+		double[] prototypes = new double[0];
+		
+		/** The squared norms of the prototypes */
+		double[] prototypeNormsSq = new double[0];
+		
+		/** The coordinates of one block of data objects, row-major */
+		double[] tile = new double[0];
+		
+		/** The coordinates of one data object */
+		double[] row = new double[0];
+	}
+	
+	
+	/**
+	 * Creates the engine and calculates the squared norms of all data objects.
+	 * 
+	 * @param dataSet a sealed data set
+	 */
+	public DoubleArrayBlockDistanceEngine(IndexedDataSet<double[]> dataSet)
+	{
+		if(!dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		
+		int j, k, n = dataSet.size();
+		double norm;
+		double[] x = null;
+		
+		this.dataSet = dataSet;
+		this.blockSize = DoubleArrayBlockDistanceEngine.DEFAULT_BLOCK_SIZE;
+		this.dimensionBlockSize = DoubleArrayBlockDistanceEngine.DEFAULT_DIMENSION_BLOCK_SIZE;
+		
+		if(dataSet instanceof DenseDoubleDataSet)
+		{
+			this.dim = ((DenseDoubleDataSet)dataSet).getDimension();
+			this.coordinates = ((DenseDoubleDataSet)dataSet).getCoordinates();
+			this.coordinateSet = null;
+		}
+		else if(dataSet instanceof AbstractDoubleArrayDataSet)
+		{
+			this.dim = ((AbstractDoubleArrayDataSet)dataSet).getDimension();
+			this.coordinates = null;
+			this.coordinateSet = (AbstractDoubleArrayDataSet)dataSet;
+			x = new double[this.dim];
+		}
+		else
+		{
+			this.dim = (n > 0)? dataSet.get(0).element.length : 0;
+			if(((long)n)*this.dim > Integer.MAX_VALUE) throw new IllegalArgumentException("The data set is too large to be copied into one array: " + n + " objects of dimension " + this.dim + ".");
+			
+			this.coordinates = new double[n*this.dim];
+			this.coordinateSet = null;
+			for(j=0; j<n; j++)
+			{
+				x = dataSet.get(j).element;
+				if(x.length < this.dim) throw new IllegalArgumentException("All data objects must have at least " + this.dim + " elements, data object " + j + " has " + x.length + ".");
+				System.arraycopy(x, 0, this.coordinates, j*this.dim, this.dim);
+			}
+		}
+		
+		this.normsSq = new double[n];
+		for(j=0; j<n; j++)
+		{
+			norm = 0.0d;
+			if(this.coordinates != null)
+			{
+				for(k=j*this.dim; k<(j+1)*this.dim; k++) norm += this.coordinates[k]*this.coordinates[k];
+			}
+			else
+			{
+				this.coordinateSet.copyCoordinates(j, x);
+				for(k=0; k<this.dim; k++) norm += x[k]*x[k];
+			}
+			this.normsSq[j] = norm;
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.set.BlockDistanceEngine#getDataSet()
+	 */
+	@Override
+	public IndexedDataSet<double[]> getDataSet()
+	{
+		return this.dataSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.BlockDistanceEngine#distanceSq(int, int, java.util.List, double[])
+	 */
+	@Override
+	public void distanceSq(int from, int to, List<double[]> y, double[] distancesSq)
+	{
+		int i, j, k, r, d0, d1, xOffset, rOffset, xFirst;
+		int prototypeCount = y.size();
+		double s0, s1, s2, s3, xk, tmp;
+		double[] yi;
+		double[] prototypes, prototypeNormsSq, x;
+		Workspace workspace;
+		
+		if(from < 0 || to > this.normsSq.length || from > to) throw new IndexOutOfBoundsException("Invalid range of data objects: from " + from + " to " + to + ", number of data objects: " + this.normsSq.length);
+		if(distancesSq.length < (to-from)*prototypeCount) throw new IllegalArgumentException("The result array must have at least (to-from)*y.size() elements. Result length: " + distancesSq.length + " required: " + ((to-from)*prototypeCount));
+		
+		workspace = this.getWorkspace(prototypeCount);
+		
+		// pack the prototypes into one array and calculate their norms
+		prototypes = workspace.prototypes;
+		prototypeNormsSq = workspace.prototypeNormsSq;
+		for(i=0; i<prototypeCount; i++)
+		{
+			yi = y.get(i);
+			if(yi.length < this.dim) throw new IllegalArgumentException("All elements of y must have at least " + this.dim + " elements, element " + i + " has " + yi.length + ".");
+			System.arraycopy(yi, 0, prototypes, i*this.dim, this.dim);
+			tmp = 0.0d;
+			for(k=0; k<this.dim; k++) tmp += yi[k]*yi[k];
+			prototypeNormsSq[i] = tmp;
+		}
+		
+		for(r=from; r<to; r+=this.blockSize)
+		{
+			int rEnd = Math.min(to, r+this.blockSize);
+			
+			// the coordinates of the block, either in the coordinate array or read into the tile
+			if(this.coordinates != null)
+			{
+				x = this.coordinates;
+				xFirst = 0;
+			}
+			else
+			{
+				x = workspace.tile;
+				xFirst = r;
+				for(j=r; j<rEnd; j++)
+				{
+					this.coordinateSet.copyCoordinates(j, workspace.row);
+					System.arraycopy(workspace.row, 0, x, (j-r)*this.dim, this.dim);
+				}
+			}
+			
+			for(j=r; j<rEnd; j++)
+			{
+				rOffset = (j-from)*prototypeCount;
+				for(i=0; i<prototypeCount; i++) distancesSq[rOffset+i] = 0.0d;
+			}
+			
+			// scalar products, chunk by chunk of dimensions
+			for(d0=0; d0<this.dim; d0+=this.dimensionBlockSize)
+			{
+				d1 = Math.min(this.dim, d0+this.dimensionBlockSize);
+				
+				for(j=r; j<rEnd; j++)
+				{
+					xOffset = (j-xFirst)*this.dim;
+					rOffset = (j-from)*prototypeCount;
+					
+					for(i=0; i+3<prototypeCount; i+=4)
+					{
+						int p0 = i*this.dim, p1 = p0+this.dim, p2 = p1+this.dim, p3 = p2+this.dim;
+						s0 = 0.0d; s1 = 0.0d; s2 = 0.0d; s3 = 0.0d;
+						for(k=d0; k<d1; k++)
+						{
+							xk = x[xOffset+k];
+							s0 += xk*prototypes[p0+k];
+							s1 += xk*prototypes[p1+k];
+							s2 += xk*prototypes[p2+k];
+							s3 += xk*prototypes[p3+k];
+						}
+						distancesSq[rOffset+i]   += s0;
+						distancesSq[rOffset+i+1] += s1;
+						distancesSq[rOffset+i+2] += s2;
+						distancesSq[rOffset+i+3] += s3;
+					}
+					for(; i<prototypeCount; i++)
+					{
+						int p0 = i*this.dim;
+						s0 = 0.0d;
+						for(k=d0; k<d1; k++) s0 += x[xOffset+k]*prototypes[p0+k];
+						distancesSq[rOffset+i] += s0;
+					}
+				}
+			}
+			
+			// combine the norms and scalar products, recalculate the distances that suffer from cancellation
+			for(j=r; j<rEnd; j++)
+			{
+				rOffset = (j-from)*prototypeCount;
+				for(i=0; i<prototypeCount; i++)
+				{
+					tmp = this.normsSq[j] + prototypeNormsSq[i];
+					s0 = tmp - 2.0d*distancesSq[rOffset+i];
+					if(s0 < DoubleArrayBlockDistanceEngine.CANCELLATION_THRESHOLD*tmp)
+					{
+						s0 = this.directDistanceSq(x, (j-xFirst)*this.dim, prototypes, i*this.dim);
+					}
+					distancesSq[rOffset+i] = s0;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the buffers of the calling thread, large enough for <code>prototypeCount</code> prototypes.
+	 * 
+	 * @param prototypeCount the number of prototypes
+	 * @return the buffers of the calling thread
+	 */
+	private Workspace getWorkspace(int prototypeCount)
+	{
+		ThreadLocal<Workspace> local = this.workspace;
+		Workspace workspace;
+		
+		if(local == null)
+		{
+			synchronized(this)
+			{
+				if(this.workspace == null) this.workspace = new ThreadLocal<Workspace>();
+				local = this.workspace;
+			}
+		}
+		
+		workspace = local.get();
+		if(workspace == null)
+		{
+			workspace = new Workspace();
+			local.set(workspace);
+		}
+		if(workspace.prototypeNormsSq.length < prototypeCount)
+		{
+			workspace.prototypes = new double[prototypeCount*this.dim];
+			workspace.prototypeNormsSq = new double[prototypeCount];
+		}
+		if(this.coordinateSet != null && workspace.tile.length < this.blockSize*this.dim)
+		{
+			workspace.tile = new double[this.blockSize*this.dim];
+			workspace.row = new double[this.dim];
+		}
+		
+		return workspace;
+	}
+	
+	/**
+	 * Calculates the squared distance of a data object and a prototype without the decomposition.
+	 * 
+	 * @param x the coordinates of the data objects, row-major
+	 * @param xOffset the offset of the data object in <code>x</code>
+	 * @param prototypes the packed prototypes
+	 * @param yOffset the offset of the prototype in the prototype array
+	 * @return the squared distance
+	 */
+	protected double directDistanceSq(double[] x, int xOffset, double[] prototypes, int yOffset)
+	{
+		double dist = 0.0d, tmp;
+		
+		for(int k=0; k<this.dim; k++)
+		{
+			tmp = x[xOffset+k] - prototypes[yOffset+k];
+			dist += tmp*tmp;
+		}
+		
+		return dist;
+	}
+	
+	/**
+	 * @return the dimension of the data
+	 */
+	public int getDimension()
+	{
+		return this.dim;
+	}
+	
+	/**
+	 * @param j the index of the data object
+	 * @return the squared norm of the data object
+	 */
+	public double getNormSq(int j)
+	{
+		return this.normsSq[j];
+	}
+	
+	/** 
+	 * The engine calculates squared euclidean distances, so it is equivalent to {@link DAEuclideanDistance}
+	 * and {@link DAEuclideanVectorSpace}.
+	 * 
+	 * @see data.set.BlockDistanceEngine#isEquivalentTo(data.algebra.Distance)
+	 */
+	@Override
+	public boolean isEquivalentTo(Distance<double[]> distance)
+	{
+		return distance instanceof DAEuclideanDistance || distance instanceof DAEuclideanVectorSpace;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.BlockDistanceEngine#getBlockSize()
+	 */
+	@Override
+	public int getBlockSize()
+	{
+		return this.blockSize;
+	}
+
+	/**
+	 * @param blockSize the number of data objects in one block
+	 */
+	public void setBlockSize(int blockSize)
+	{
+		if(blockSize < 1) throw new IllegalArgumentException("The block size must be at least 1. Specified block size: " + blockSize);
+		
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * @return the number of dimensions that are processed in one chunk
+	 */
+	public int getDimensionBlockSize()
+	{
+		return this.dimensionBlockSize;
+	}
+
+	/**
+	 * @param dimensionBlockSize the number of dimensions that are processed in one chunk
+	 */
+	public void setDimensionBlockSize(int dimensionBlockSize)
+	{
+		if(dimensionBlockSize < 1) throw new IllegalArgumentException("The dimension block size must be at least 1. Specified dimension block size: " + dimensionBlockSize);
+		
+		this.dimensionBlockSize = dimensionBlockSize;
+	}
+}
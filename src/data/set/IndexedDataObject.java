@@ -110,9 +110,22 @@ public class IndexedDataObject<T> implements Serializable, Comparable<IndexedDat
 	@Override
 	public final boolean equals(Object o)
 	{
+		if(this == o) return true;
 		if(!(o instanceof IndexedDataObject)) return false;
 		
-		return this.dataSet == ((IndexedDataObject<?>)o).dataSet && this.id == ((IndexedDataObject<?>)o).id;
+		// data objects that are not contained in a data set are only equal to themselves
+		return this.dataSet != null && this.dataSet == ((IndexedDataObject<?>)o).dataSet && this.id == ((IndexedDataObject<?>)o).id;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public final int hashCode()
+	{
+		// the data set and the id change when data objects are removed from the data set, so they can not be used
+		// without corrupting hash based collections. Hash based collections therefore identify data objects by instance.
+		return System.identityHashCode(this);
 	}
 	
 	/**
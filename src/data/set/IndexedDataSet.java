@@ -349,7 +349,7 @@ public class IndexedDataSet<T> extends AbstractSealable implements List<IndexedD
 		
 		this.list.remove(index);
 		d.clearDataSetConnection();
-		this.reindexFrom(d.getID());
+		this.reindexFrom(index);
 		
 		return d;
 	}
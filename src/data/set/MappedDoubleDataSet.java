@@ -0,0 +1,333 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * A sealed data set of double arrays, whose coordinates are stored in a binary file that is mapped into memory.
+ * The coordinates are not loaded onto the heap: the operating system pages them in on demand, a restart of the
+ * application does not need to parse the data again and several processes that map the same file share one copy
+ * in the page cache. Use {@link #write(File, Collection, int)} to create a file.<br>
+ * <br>
+ * The data set does not keep any data object on the heap. {@link #get(int)} and the iterators return short-lived
+ * copies. Fuzzy c-means and its variants, hard c-means and expectation maximization read the coordinates through the
+ * index based accessors and only need memory for their prototypes and results. DoubleArrayBlockDistanceEngine reads the
+ * coordinates block by block and only keeps the squared norms of the data objects. Structures that keep the data objects
+ * or their coordinates hold them on the heap: BallTree and CenteredBallTree keep one data object per node,
+ * DoubleArrayFlatBallTree and DoubleArrayKDTree copy all coordinates into one array while building, without
+ * creating data objects.<br>
+ * <br>
+ * File format (little endian): a header of {@link #HEADER_SIZE} bytes, containing the magic number
+ * {@link #MAGIC_NUMBER} (int), the format version (int), the dimension (int), a reserved int and the number
+ * of data objects (long), followed by the coordinates of all data objects, row-major.<br>
+ * <br>
+ * Because a single mapping is limited to Integer.MAX_VALUE bytes, the file is mapped in several blocks,
+ * each containing the coordinates of a whole number of data objects. The size of the data set is limited to
+ * Integer.MAX_VALUE data objects.
+ *
+ * @author Roland Winkler
+ */
+public class MappedDoubleDataSet extends AbstractDoubleArrayDataSet
+{
+	/**  */
+	private static final long	serialVersionUID	= 5542871623560318418L;
+
+	/** The magic number at the start of the file: "EDMD" */
+	public static final int MAGIC_NUMBER = 0x45444D44;
+	
+	/** The version of the file format */
+	public static final int FORMAT_VERSION = 1;
+	
+	/** The number of bytes before the first coordinate */
+	public static final int HEADER_SIZE = 24;
+	
+	/** The maximal number of bytes of one mapped block */
+	private static final long MAX_BLOCK_SIZE = Integer.MAX_VALUE - 7;
+	
+	/** The mapped file */
+	protected final File file;
+	
+	/** The number of data objects in each block (except the last one) */
+	protected final int objectsPerBlock;
+	
+	/** The mapped blocks of coordinates */
+	protected transient DoubleBuffer[] blocks;
+	
+	/**
+	 * Maps the specified file read-only into memory.
+	 * 
+	 * @param file the file, created with {@link #write(File, Collection, int)}
+	 * @throws IOException if the file can not be read or is not a valid file
+	 */
+	public MappedDoubleDataSet(File file) throws IOException
+	{
+		this(file, MappedDoubleDataSet.readHeader(file));
+	}
+	
+	/**
+	 * @param file
+	 * @param header the dimension and the number of data objects
+	 * @throws IOException
+	 */
+	private MappedDoubleDataSet(File file, long[] header) throws IOException
+	{
+		super((int)header[1], (int)header[0]);
+		
+		this.file = file;
+		this.objectsPerBlock = (int)(MappedDoubleDataSet.MAX_BLOCK_SIZE / (8L*this.dim));
+		this.blocks = this.map();
+	}
+	
+	/**
+	 * @param file
+	 * @return the dimension and the number of data objects stored in the file
+	 * @throws IOException
+	 */
+	private static long[] readHeader(File file) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		
+		try
+		{
+			ByteBuffer header = ByteBuffer.allocate(MappedDoubleDataSet.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			raf.getChannel().read(header, 0L);
+			header.flip();
+			if(header.remaining() < MappedDoubleDataSet.HEADER_SIZE) throw new IOException("File Format wrong: the file is too short for the header. (" + file + ")");
+			
+			int magic = header.getInt(), version = header.getInt(), dim = header.getInt();
+			header.getInt();
+			long size = header.getLong();
+			
+			if(magic != MappedDoubleDataSet.MAGIC_NUMBER) throw new IOException("File Format wrong: unknown magic number. (" + file + ")");
+			if(version != MappedDoubleDataSet.FORMAT_VERSION) throw new IOException("File Format wrong: unsupported version " + version + ". (" + file + ")");
+			if(dim < 1 || size < 0 || size > Integer.MAX_VALUE) throw new IOException("File Format wrong: invalid dimension (" + dim + ") or size (" + size + "). (" + file + ")");
+			if(raf.length() < MappedDoubleDataSet.HEADER_SIZE + 8L*dim*size) throw new IOException("File Format wrong: the file is shorter than the header specifies. (" + file + ")");
+			
+			return new long[]{dim, size};
+		}
+		finally
+		{
+			raf.close();
+		}
+	}
+	
+	/**
+	 * Maps the coordinates of the file block by block.
+	 * 
+	 * @return the mapped blocks
+	 * @throws IOException
+	 */
+	private DoubleBuffer[] map() throws IOException
+	{
+		int blockCount = (this.size + this.objectsPerBlock - 1) / this.objectsPerBlock;
+		DoubleBuffer[] blocks = new DoubleBuffer[blockCount];
+		RandomAccessFile raf = new RandomAccessFile(this.file, "r");
+		
+		try
+		{
+			FileChannel channel = raf.getChannel();
+			long position = MappedDoubleDataSet.HEADER_SIZE;
+			long length;
+			MappedByteBuffer buffer;
+			
+			for(int b=0; b<blockCount; b++)
+			{
+				length = 8L*this.dim*Math.min(this.objectsPerBlock, this.size - b*this.objectsPerBlock);
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+				blocks[b] = buffer.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+				position += length;
+			}
+		}
+		finally
+		{
+			// the mapping stays valid after the channel is closed
+			raf.close();
+		}
+		
+		return blocks;
+	}
+	
+	/**
+	 * Writes the first <code>dim</code> coordinates of each element of data into a file that can be mapped by this class.
+	 * 
+	 * @param file the file to be written, an existing file is overwritten
+	 * @param data the data objects
+	 * @param dim the number of coordinates of each data object
+	 * @throws IOException
+	 */
+	public static void write(File file, Collection<double[]> data, int dim) throws IOException
+	{
+		if(dim < 1) throw new IllegalArgumentException("The dimension must be at least 1. Specified dimension: " + dim);
+		
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		
+		try
+		{
+			FileChannel channel = raf.getChannel();
+			ByteBuffer buffer = ByteBuffer.allocate(Math.max(MappedDoubleDataSet.HEADER_SIZE, 8*dim*Math.max(1, 65536/(8*dim)))).order(ByteOrder.LITTLE_ENDIAN);
+			
+			raf.setLength(0L);
+			
+			buffer.putInt(MappedDoubleDataSet.MAGIC_NUMBER);
+			buffer.putInt(MappedDoubleDataSet.FORMAT_VERSION);
+			buffer.putInt(dim);
+			buffer.putInt(0);
+			buffer.putLong(data.size());
+			
+			for(double[] x:data)
+			{
+				if(x.length < dim) throw new IllegalArgumentException("The number of elements in x must be at least dim.");
+				if(buffer.remaining() < 8*dim)
+				{
+					buffer.flip();
+					while(buffer.hasRemaining()) channel.write(buffer);
+					buffer.clear();
+				}
+				
+				for(int k=0; k<dim; k++) buffer.putDouble(x[k]);
+			}
+			
+			buffer.flip();
+			while(buffer.hasRemaining()) channel.write(buffer);
+		}
+		finally
+		{
+			raf.close();
+		}
+	}
+	
+	/**
+	 * Writes all data objects of the data set into a file that can be mapped by this class.
+	 * The dimension is the length of the first element.
+	 * 
+	 * @param file the file to be written, an existing file is overwritten
+	 * @param dataSet the data set
+	 * @throws IOException
+	 */
+	public static void write(File file, IndexedDataSet<double[]> dataSet) throws IOException
+	{
+		ArrayList<double[]> data = new ArrayList<double[]>(dataSet.size());
+		for(IndexedDataObject<double[]> d:dataSet) data.add(d.element);
+		
+		MappedDoubleDataSet.write(file, data, dataSet.isEmpty()? 1 : dataSet.first().element.length);
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.set.AbstractDoubleArrayDataSet#getCoordinate(int, int)
+	 */
+	@Override
+	public double getCoordinate(int index, int k)
+	{
+		if(index < 0 || index >= this.size) throw new IndexOutOfBoundsException("Index: "+index+", Size: "+this.size);
+		if(k < 0 || k >= this.dim) throw new IndexOutOfBoundsException("Coordinate: "+k+", Dimension: "+this.dim);
+		
+		return this.blocks[index / this.objectsPerBlock].get((index % this.objectsPerBlock)*this.dim + k);
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.AbstractDoubleArrayDataSet#copyCoordinates(int, double[])
+	 */
+	@Override
+	public double[] copyCoordinates(int index, double[] x)
+	{
+		if(index < 0 || index >= this.size) throw new IndexOutOfBoundsException("Index: "+index+", Size: "+this.size);
+		if(x.length < this.dim) throw new IllegalArgumentException("The number of elements in x must be at least dim.");
+		
+		// use absolute get operations only, so the buffers can be read by several threads at once
+		DoubleBuffer block = this.blocks[index / this.objectsPerBlock];
+		int offset = (index % this.objectsPerBlock)*this.dim;
+		for(int k=0; k<this.dim; k++) x[k] = block.get(offset + k);
+		
+		return x;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.AbstractDoubleArrayDataSet#distanceSq(int, double[])
+	 */
+	@Override
+	public double distanceSq(int index, double[] y)
+	{
+		if(index < 0 || index >= this.size) throw new IndexOutOfBoundsException("Index: "+index+", Size: "+this.size);
+		if(y.length < this.dim) throw new IllegalArgumentException("The number of elements in y must be at least dim.");
+		
+		DoubleBuffer block = this.blocks[index / this.objectsPerBlock];
+		int offset = (index % this.objectsPerBlock)*this.dim;
+		double dist = 0.0d, tmp;
+		
+		for(int k=0; k<this.dim; k++)
+		{
+			tmp = block.get(offset + k) - y[k];
+			dist += tmp*tmp;
+		}
+		
+		return dist;
+	}
+	
+	/**
+	 * @return the mapped file
+	 */
+	public File getFile()
+	{
+		return this.file;
+	}
+	
+	/**
+	 * The mapping is not serialised, only the file name. The file is mapped again after deserialisation.
+	 * 
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		
+		this.blocks = this.map();
+	}
+}
@@ -208,7 +208,7 @@ public abstract class AbstractTree<T, Node extends AbstractTreeNode<T, Node, Tre
 	{
 		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
 		
-		return this.root.getSize();
+		return (this.root == null)? 0 : this.root.getSize();
 	}
 
 	/**
@@ -278,8 +278,6 @@ public abstract class AbstractTree<T, Node extends AbstractTreeNode<T, Node, Tre
 		this.root = null;
 		this.nodeList.clear();
 		this.build = false;
-		
-		System.gc();
 	}
 
 	/* (non-Javadoc)
@@ -288,6 +286,6 @@ public abstract class AbstractTree<T, Node extends AbstractTreeNode<T, Node, Tre
 	@Override
 	public boolean isBuild()
 	{
-		return this.isBuild();
+		return this.build;
 	}
 }
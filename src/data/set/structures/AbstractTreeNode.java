@@ -114,6 +114,20 @@ public class AbstractTreeNode<T, Node extends AbstractTreeNode<T, Node, Tree>, T
 		if(this.leftChild != null) this.leftChild.collectSubtreeElements(localDataSet);
 		if(this.rightChild != null) this.rightChild.collectSubtreeElements(localDataSet);
 	}
+	
+	/** adds the indices of all data objects of the current subset to the result buffer of the query context
+	 * @param context
+	 */
+	public void collectSubtreeIndices(QueryContext context)
+	{
+		// add this element and all its equivalents
+		context.addResult(this.obj.getID());
+		if(this.equivalents != null) for(IndexedDataObject<T> equivalent:this.equivalents) context.addResult(equivalent.getID());
+		
+		// recursively add all child data objects
+		if(this.leftChild != null) this.leftChild.collectSubtreeIndices(context);
+		if(this.rightChild != null) this.rightChild.collectSubtreeIndices(context);
+	}
 
 	/**
 	 * @return
@@ -198,6 +212,14 @@ public class AbstractTreeNode<T, Node extends AbstractTreeNode<T, Node, Tree>, T
 		return this.obj;
 	}
 
+	/**
+	 * @return the data objects that are equivalent to this.obj, or null if there are none
+	 */
+	public HashSet<IndexedDataObject<T>> getEquivalents()
+	{
+		return this.equivalents;
+	}
+
 	/**
 	 * @return the parent
 	 */
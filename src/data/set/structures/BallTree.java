@@ -37,18 +37,26 @@ THE POSSIBILITY OF SUCH DAMAGE.
 
 package data.set.structures;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 import data.algebra.Distance;
 import data.set.DataSetNotSealedException;
 import data.set.IndexedDataObject;
 import data.set.IndexedDataSet;
 import data.set.structures.order.OrderedDataObject;
-import data.set.structures.queries.KNNQueryProvider;
-import data.set.structures.queries.SphereQueryProvider;
+import data.set.structures.queries.KNNIndexQueryProvider;
+import data.set.structures.queries.SphereCountQueryProvider;
+import data.set.structures.queries.SphereIndexQueryProvider;
 
 /**
  * TODO Class Description
@@ -57,12 +65,20 @@ import data.set.structures.queries.SphereQueryProvider;
  * Paper: Uhlmann, J. K. Satisfying general proximity / similarity queries with metric trees Information Processing Letters, 1991, 40, 175 - 179
  * Paper: Ciaccia, P.; Patella, M. & Zezula, P. M-tree: An Efficient Access Method for Similarity Search in Metric Spaces Proceedings of the 23rd International Conference on Very Large Data Bases, Morgan Kaufmann Publishers Inc., 1997, 426-435
  *
+ * The default build method is a top-down bulk loading that splits each node at the median along the direction
+ * of a far apart pair of data objects, see {@link #buildBalanced()}. With a parallelism larger than 1, independent
+ * subtrees are build concurrently, which yields the same tree as the sequential construction.<br>
+ * The tree can be kept up to date with a changing (not sealed) data set without a complete rebuild, see {@link #update()},
+ * {@link #insert(IndexedDataObject)} and {@link #delete(IndexedDataObject)}. Subtrees that become unbalanced through
+ * these changes are rebuild with the balanced construction, similar to a scapegoat tree.<br>
+ * A built tree can be stored with {@link #writeSnapshot(File)} and restored with {@link #buildFromSnapshot(File)}.
+ *
  * @author Roland Winkler
  * 
  * TODO: more building algorithms
  *
  */
-public class BallTree<T> extends AbstractTree<T, BallTreeNode<T>, BallTree<T>> implements KNNQueryProvider<T>, SphereQueryProvider<T>
+public class BallTree<T> extends AbstractTree<T, BallTreeNode<T>, BallTree<T>> implements KNNIndexQueryProvider<T>, SphereIndexQueryProvider<T>, SphereCountQueryProvider<T>
 {
 	
 	/**  */
@@ -70,6 +86,30 @@ public class BallTree<T> extends AbstractTree<T, BallTreeNode<T>, BallTree<T>> i
 	/**  */
 	protected final Distance<T> distanceFunction;
 	
+	/**
+	 *	The number of worker threads that are used by {@link #buildBalanced()}. If it is 1, the tree is build
+	 *	sequentially in the calling thread. Otherwise, the two subtrees of a node are build in a fork/join pool
+	 *	if both contain at least {@link #MIN_PARALLEL_SUBTREE_SIZE} data objects.<br>
+	 *	<br>
+	 *	Range of values: <code>parallelism</code> >= 1
+	 */
+	protected int parallelism;
+	
+	/** The minimal number of data objects of a subtree that is build in its own task if the tree is build in parallel. */
+	protected static final int MIN_PARALLEL_SUBTREE_SIZE = 4096;
+	
+	/** The change counter of the data set of which all changes have been applied to the tree. */
+	protected long appliedChangeCounter;
+	
+	/**
+	 * The largest fraction of the data objects of a subtree that one of its child subtrees may contain
+	 * after dynamic changes. If it is exceeded, the subtree is rebuild.
+	 */
+	protected static final double MAX_CHILD_FRACTION = 0.75d;
+	
+	/** The minimal number of data objects of a subtree that is rebuild if it becomes unbalanced. */
+	protected static final int MIN_REBALANCE_SIZE = 16;
+	
 	/**
 	 * 
 	 * @param dataSet
@@ -80,6 +120,8 @@ public class BallTree<T> extends AbstractTree<T, BallTreeNode<T>, BallTree<T>> i
 		super(dataSet);
 		
 		this.distanceFunction = distance;
+		this.parallelism = 1;
+		this.appliedChangeCounter = 0L;
 	}
 	
 	/* (non-Javadoc)
@@ -91,7 +133,710 @@ public class BallTree<T> extends AbstractTree<T, BallTreeNode<T>, BallTree<T>> i
 		if(!this.dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
 		if(this.isBuild()) this.clearBuild();
 		
-		this.buildNaive();
+		this.buildBalanced();
+	}
+	
+	/**
+	 * Builds a balanced tree top-down. For each node, two far apart data objects a and b are selected
+	 * (a is the farthest from an arbitrary data object, b the farthest from a) and the data objects are ordered by
+	 * dist(x, a)^2 - dist(x, b)^2, which is their position along the line from a to b in euclidean spaces.
+	 * The median becomes the data object of the node, the lower half forms the left and the upper half the right subtree.
+	 * Therefore, the height of the tree is at most log2(n) + 1, independent of the order of the data set,
+	 * and the recursion depth of the construction is bounded by the height.
+	 * The construction requires O(n log(n)) distance calculations.<br>
+	 * If the parallelism is larger than 1, the subtrees are build in a fork/join pool. Since the two subtrees of a
+	 * node consist of disjoint ranges of data objects and the split of a node only depends on its own range,
+	 * the resulting tree is exactly the same as the one of the sequential construction. The distance function
+	 * must be safe for concurrent use in that case.
+	 */
+	public void buildBalanced()
+	{
+		if(!this.dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		if(this.isBuild()) this.clearBuild();
+		
+		// if there are no data objects in the data set, do nothing.
+		if(this.dataSet.isEmpty()) return;
+		
+		this.buildBalancedTree();
+	}
+	
+	/**
+	 * Builds the balanced tree from all data objects of the data set, without checking whether it is sealed.
+	 * The tree is marked as build even if the data set is empty.
+	 */
+	private void buildBalancedTree()
+	{
+		this.root = null;
+		this.appliedChangeCounter = this.dataSet.getChangeCounter();
+		if(this.dataSet.isEmpty())
+		{
+			this.build = true;
+			return;
+		}
+		
+		ArrayList<IndexedDataObject<T>> elements = new ArrayList<IndexedDataObject<T>>(this.dataSet);
+		double[] keys = new double[elements.size()];
+		
+		if(this.parallelism > 1)
+		{
+			ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+			try
+			{
+				this.root = pool.invoke(new BalancedSubtreeTask(null, elements, keys, 0, elements.size()));
+			}
+			finally
+			{
+				pool.shutdown();
+			}
+		}
+		else
+		{
+			this.root = this.buildBalancedSubtree(null, elements, keys, 0, elements.size());
+		}
+
+		this.build = true;
+	}
+	
+	/**
+	 * Builds the subtree of the data objects <code>elements[from, to)</code>. The order of the elements is changed.
+	 * If called inside a fork/join pool with a parallelism larger than 1, large subtrees are build concurrently.
+	 * 
+	 * @param parent the parent of the new node, or null for the root
+	 * @param elements the data objects
+	 * @param keys working array with the same length as <code>elements</code>
+	 * @param from first index of the subtree elements, inclusive
+	 * @param to last index of the subtree elements, exclusive
+	 * @return the root of the new subtree
+	 */
+	protected BallTreeNode<T> buildBalancedSubtree(BallTreeNode<T> parent, ArrayList<IndexedDataObject<T>> elements, double[] keys, int from, int to)
+	{
+		int i, a, b, median, leftEnd, rightEnd;
+		double distSq, distMax;
+		T elementA, elementB;
+		BallTreeNode<T> node, lowerChild, upperChild;
+		BalancedSubtreeTask lowerTask, upperTask;
+		
+		// select two far apart data objects
+		a = from;
+		distMax = -1.0d;
+		for(i=from; i<to; i++)
+		{
+			distSq = this.distanceFunction.distanceSq(elements.get(from).element, elements.get(i).element);
+			if(distSq > distMax)
+			{
+				distMax = distSq;
+				a = i;
+			}
+		}
+		b = a;
+		distMax = -1.0d;
+		for(i=from; i<to; i++)
+		{
+			distSq = this.distanceFunction.distanceSq(elements.get(a).element, elements.get(i).element);
+			if(distSq > distMax)
+			{
+				distMax = distSq;
+				b = i;
+			}
+		}
+		
+		// order the data objects along the line from a to b and use the median as data object of the node
+		elementA = elements.get(a).element;
+		elementB = elements.get(b).element;
+		for(i=from; i<to; i++)
+		{
+			keys[i] = this.distanceFunction.distanceSq(elementA, elements.get(i).element) - this.distanceFunction.distanceSq(elementB, elements.get(i).element);
+		}
+		median = (from + to)/2;
+		BallTree.select(elements, keys, from, to, median);
+		
+		node = new BallTreeNode<T>(this, parent, elements.get(median));
+		node.size = to - from;
+		
+		// calculate the radius and remove the equivalents of the node data object from both halves
+		leftEnd = this.separateEquivalents(node, elements, keys, from, median);
+		rightEnd = this.separateEquivalents(node, elements, keys, median+1, to);
+		
+		lowerChild = null;
+		upperChild = null;
+		
+		// both halves are disjoint ranges of the elements, so they can be build concurrently
+		if(this.parallelism > 1 && ForkJoinTask.inForkJoinPool() && leftEnd - from >= BallTree.MIN_PARALLEL_SUBTREE_SIZE && rightEnd - (median+1) >= BallTree.MIN_PARALLEL_SUBTREE_SIZE)
+		{
+			lowerTask = new BalancedSubtreeTask(node, elements, keys, from, leftEnd);
+			upperTask = new BalancedSubtreeTask(node, elements, keys, median+1, rightEnd);
+			ForkJoinTask.invokeAll(lowerTask, upperTask);
+			lowerChild = lowerTask.join();
+			upperChild = upperTask.join();
+		}
+		else
+		{
+			if(leftEnd > from) lowerChild = this.buildBalancedSubtree(node, elements, keys, from, leftEnd);
+			if(rightEnd > median+1) upperChild = this.buildBalancedSubtree(node, elements, keys, median+1, rightEnd);
+		}
+		
+		if(lowerChild != null)
+		{
+			node.leftChild = lowerChild;
+			node.height = node.leftChild.height + 1;
+		}
+		if(upperChild != null)
+		{
+			if(node.leftChild == null)
+			{
+				node.leftChild = upperChild;
+				node.height = node.leftChild.height + 1;
+			}
+			else
+			{
+				node.rightChild = upperChild;
+				node.height = Math.max(node.leftChild.height, node.rightChild.height) + 1;
+			}
+		}
+		
+		return node;
+	}
+	
+	/**
+	 * Applies all changes of the data set since the tree was build or last updated, without rebuilding the complete tree.
+	 * If the change counter of the data set did not change since then, nothing is done. Otherwise, the data objects of
+	 * the tree that are no longer contained in the data set are deleted and the data objects of the data set that are
+	 * not contained in the tree are inserted. Finding them requires a run over the tree and the data set, but no distance
+	 * calculations. If the changes affect more than half of the data objects, the tree is rebuild completely.<br>
+	 * In contrast to {@link #build()}, the data set does not need to be sealed. If the tree is not build, it is build
+	 * with the balanced construction.
+	 */
+	public void update()
+	{
+		if(!this.build)
+		{
+			this.buildBalancedTree();
+			return;
+		}
+		if(this.appliedChangeCounter == this.dataSet.getChangeCounter()) return;
+		
+		ArrayList<IndexedDataObject<T>> treeElements = new ArrayList<IndexedDataObject<T>>((this.root == null)? 0 : this.root.size);
+		ArrayList<IndexedDataObject<T>> removed = new ArrayList<IndexedDataObject<T>>();
+		ArrayList<IndexedDataObject<T>> added = new ArrayList<IndexedDataObject<T>>();
+		boolean[] contained = new boolean[this.dataSet.size()];
+		
+		if(this.root != null) this.root.collectSubtreeElements(treeElements);
+		for(IndexedDataObject<T> d:treeElements)
+		{
+			if(d.isInSet(this.dataSet))	contained[d.getID()] = true;
+			else						removed.add(d);
+		}
+		for(int i=0; i<contained.length; i++)
+		{
+			if(!contained[i]) added.add(this.dataSet.get(i));
+		}
+		
+		// many changes are faster applied with a new tree 
+		if(2*(removed.size() + added.size()) > treeElements.size())
+		{
+			this.buildBalancedTree();
+			return;
+		}
+		
+		for(IndexedDataObject<T> d:removed) this.deleteObject(d);
+		for(IndexedDataObject<T> d:added) this.insertObject(d);
+		
+		this.appliedChangeCounter = this.dataSet.getChangeCounter();
+	}
+	
+	/**
+	 * Inserts a data object that has been added to the data set into the tree. The data object is passed down the tree
+	 * to the closer child node until it is equivalent to the data object of a node or a node with less than two children is reached.
+	 * The radii and subtree sizes along the path are updated and the highest subtree that became unbalanced is rebuild.<br>
+	 * The caller is responsible to insert all data objects that are added to the data set, because the current change counter
+	 * of the data set is regarded as applied afterwards. Otherwise, {@link #update()} finds all changes.
+	 * 
+	 * @param dataObj the data object, it must be contained in the data set and must not be contained in the tree
+	 */
+	public void insert(IndexedDataObject<T> dataObj)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		if(!dataObj.isInSet(this.dataSet)) throw new IllegalArgumentException("The data object is not contained in the data set of the tree. id: " + dataObj.getID());
+		
+		this.insertObject(dataObj);
+		
+		this.appliedChangeCounter = this.dataSet.getChangeCounter();
+	}
+	
+	/**
+	 * Deletes a data object from the tree. If it is an equivalent of a node data object or the data object of a leaf
+	 * without equivalents, it is simply removed, otherwise the subtree of its node is rebuild without it. Radii are not
+	 * reduced, they remain valid upper bounds. The highest subtree that became unbalanced is rebuild.<br>
+	 * The data object may already be removed from the data set. The caller is responsible to delete all data objects that
+	 * are removed from the data set, because the current change counter of the data set is regarded as applied afterwards.
+	 * Otherwise, {@link #update()} finds all changes.
+	 * 
+	 * @param dataObj the data object
+	 * @return true if the data object was contained in the tree, false otherwise
+	 */
+	public boolean delete(IndexedDataObject<T> dataObj)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		boolean deleted = this.deleteObject(dataObj);
+		
+		this.appliedChangeCounter = this.dataSet.getChangeCounter();
+		
+		return deleted;
+	}
+	
+	/**
+	 * @return true if the tree is build and all changes of the data set have been applied to it
+	 */
+	public boolean isUpToDate()
+	{
+		return this.build && this.appliedChangeCounter == this.dataSet.getChangeCounter();
+	}
+	
+	/**
+	 * @return the change counter of the data set of which all changes have been applied to the tree
+	 */
+	public long getAppliedChangeCounter()
+	{
+		return this.appliedChangeCounter;
+	}
+	
+	/**
+	 * Writes a binary snapshot of the tree, which can be restored with {@link #buildFromSnapshot(File)} for the same
+	 * data set. The nodes are written in preorder with their data object indices, radii, subtree sizes, heights and
+	 * equivalents, together with a fingerprint of the data set.
+	 * 
+	 * @param file the file to be written, an existing file is overwritten
+	 * @throws IOException if the file can not be written
+	 */
+	public void writeSnapshot(File file) throws IOException
+	{
+		if(!this.isUpToDate()) throw new DataStructureNotBuildException("Data structure is not build or not up to date.");
+		
+		ArrayList<BallTreeNode<T>> nodes = TreeSnapshot.preorder(this.root, this.dataSet.size());
+		double[] radius = new double[nodes.size()];
+		for(int i=0; i<nodes.size(); i++) radius[i] = nodes.get(i).radius;
+		
+		TreeSnapshot.write(file, TreeSnapshot.BALL_TREE, this.dataSet, nodes, radius, 0, null);
+	}
+	
+	/**
+	 * Restores the tree from a snapshot that was written by {@link #writeSnapshot(File)}. The file is mapped into memory
+	 * and the nodes are created from the mapped arrays, which requires no distance calculations.
+	 * The snapshot is only accepted if it was written for a data set of the same size and content.
+	 * 
+	 * @param file the snapshot file
+	 * @throws IOException if the file can not be read, is not a valid snapshot or was written for a different data set
+	 */
+	public void buildFromSnapshot(File file) throws IOException
+	{
+		if(!this.dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		if(this.isBuild()) this.clearBuild();
+		
+		TreeSnapshot snapshot = new TreeSnapshot(file, TreeSnapshot.BALL_TREE, this.dataSet);
+		ArrayList<BallTreeNode<T>> nodes = new ArrayList<BallTreeNode<T>>(snapshot.nodeCount);
+		BallTreeNode<T> node, parent;
+		
+		// in preorder, the parent of a node is always restored before the node
+		for(int i=0; i<snapshot.nodeCount; i++)
+		{
+			parent = (snapshot.parent[i] < 0)? null : nodes.get(snapshot.parent[i]);
+			node = new BallTreeNode<T>(this, parent, this.dataSet.get(snapshot.obj.get(i)));
+			node.radius = snapshot.radius.get(i);
+			snapshot.restoreNode(node, i, this.dataSet);
+			
+			if(parent != null)
+			{
+				if(snapshot.left.get(snapshot.parent[i]) == i)	parent.leftChild = node;
+				else											parent.rightChild = node;
+			}
+			nodes.add(node);
+		}
+		
+		this.root = nodes.isEmpty()? null : nodes.get(0);
+		this.appliedChangeCounter = this.dataSet.getChangeCounter();
+		this.build = true;
+	}
+	
+	/**
+	 * Inserts the data object without updating the applied change counter.
+	 * 
+	 * @param dataObj the data object
+	 */
+	private void insertObject(IndexedDataObject<T> dataObj)
+	{
+		BallTreeNode<T> node;
+		double dist, distanceA, distanceB;
+		
+		if(this.root == null)
+		{
+			this.root = new BallTreeNode<T>(this, null, dataObj);
+			return;
+		}
+		
+		node = this.root;
+		dist = this.distanceFunction.distance(node.obj.element, dataObj.element);
+		while(true)
+		{
+			// the data object is equivalent to the node data object
+			if(dist == 0.0d)
+			{
+				if(node.obj.equals(dataObj)) throw new IllegalArgumentException("Data Object multiple times added! id: " + dataObj.getID());
+				if(node.equivalents == null) node.equivalents = new HashSet<IndexedDataObject<T>>();
+				else for(IndexedDataObject<T> d:node.equivalents)
+				{
+					if(d.equals(dataObj)) throw new IllegalArgumentException("Data Object multiple times added! id: " + dataObj.getID());
+				}
+				
+				node.equivalents.add(dataObj);
+				break;
+			}
+			
+			if(dist > node.radius) node.radius = dist;
+			
+			if(node.leftChild == null)
+			{
+				node.leftChild = new BallTreeNode<T>(this, node, dataObj);
+				break;
+			}
+			if(node.rightChild == null)
+			{
+				node.rightChild = new BallTreeNode<T>(this, node, dataObj);
+				break;
+			}
+			
+			distanceA = this.distanceFunction.distance(node.leftChild.obj.element, dataObj.element);
+			distanceB = this.distanceFunction.distance(node.rightChild.obj.element, dataObj.element);
+			if(distanceA <= distanceB)
+			{
+				node = node.leftChild;
+				dist = distanceA;
+			}
+			else
+			{
+				node = node.rightChild;
+				dist = distanceB;
+			}
+		}
+		
+		this.updateAncestors(node, 1);
+	}
+	
+	/**
+	 * Deletes the data object without updating the applied change counter.
+	 * 
+	 * @param dataObj the data object
+	 * @return true if the data object was contained in the tree
+	 */
+	private boolean deleteObject(IndexedDataObject<T> dataObj)
+	{
+		BallTreeNode<T> node, parent;
+		Iterator<IndexedDataObject<T>> iter;
+		
+		if(this.root == null) return false;
+		
+		node = this.nodeOf(this.root, dataObj, this.distanceFunction.distance(this.root.obj.element, dataObj.element));
+		if(node == null) return false;
+		parent = node.parent;
+		
+		if(!node.obj.equals(dataObj))
+		{
+			// the data object is an equivalent, removed data objects are only equal to themselves
+			iter = node.equivalents.iterator();
+			while(iter.hasNext())
+			{
+				if(iter.next().equals(dataObj))
+				{
+					iter.remove();
+					break;
+				}
+			}
+			if(node.equivalents.isEmpty()) node.equivalents = null;
+			this.updateAncestors(node, -1);
+		}
+		else if(node.leftChild == null && node.equivalents == null)
+		{
+			// a leaf without equivalents is removed, the remaining child of the parent becomes its left child
+			if(parent == null)
+			{
+				this.root = null;
+				return true;
+			}
+			if(parent.leftChild == node) parent.leftChild = parent.rightChild;
+			parent.rightChild = null;
+			this.updateAncestors(parent, -1);
+		}
+		else
+		{
+			this.rebuildSubtree(node, dataObj);
+			if(parent != null) this.updateAncestors(parent, -1);
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Searches the node that contains the data object, either as its data object or as an equivalent.
+	 * Only subtrees whose ball contains the data object are searched.
+	 * 
+	 * @param node the root of the subtree
+	 * @param dataObj the data object
+	 * @param dist the distance between the data object of the node and <code>dataObj</code>
+	 * @return the node, or null if the data object is not contained in the subtree
+	 */
+	private BallTreeNode<T> nodeOf(BallTreeNode<T> node, IndexedDataObject<T> dataObj, double dist)
+	{
+		BallTreeNode<T> result;
+		double distanceA, distanceB;
+		
+		if(dist == 0.0d)
+		{
+			if(node.obj.equals(dataObj)) return node;
+			if(node.equivalents != null) for(IndexedDataObject<T> d:node.equivalents)
+			{
+				if(d.equals(dataObj)) return node;
+			}
+		}
+		if(dist > node.radius || node.leftChild == null) return null;
+		
+		distanceA = this.distanceFunction.distance(node.leftChild.obj.element, dataObj.element);
+		distanceB = (node.rightChild == null)? Double.POSITIVE_INFINITY : this.distanceFunction.distance(node.rightChild.obj.element, dataObj.element);
+		
+		// search the closer child first
+		if(distanceA <= distanceB)
+		{
+			result = this.nodeOf(node.leftChild, dataObj, distanceA);
+			if(result == null && node.rightChild != null) result = this.nodeOf(node.rightChild, dataObj, distanceB);
+		}
+		else
+		{
+			result = this.nodeOf(node.rightChild, dataObj, distanceB);
+			if(result == null) result = this.nodeOf(node.leftChild, dataObj, distanceA);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Adds <code>sizeChange</code> to the subtree sizes of the node and all its ancestors, updates their heights and
+	 * rebuilds the highest of them if one of its child subtrees contains more than {@link #MAX_CHILD_FRACTION} of its data objects.
+	 * 
+	 * @param node the lowest node that changed
+	 * @param sizeChange the change of the number of data objects
+	 */
+	private void updateAncestors(BallTreeNode<T> node, int sizeChange)
+	{
+		BallTreeNode<T> unbalanced = null;
+		
+		for(; node != null; node = node.parent)
+		{
+			node.size += sizeChange;
+			BallTree.updateHeight(node);
+			
+			if(node.size >= BallTree.MIN_REBALANCE_SIZE && node.leftChild != null && (node.leftChild.size > BallTree.MAX_CHILD_FRACTION*node.size ||
+				(node.rightChild != null && node.rightChild.size > BallTree.MAX_CHILD_FRACTION*node.size)))
+			{
+				unbalanced = node;
+			}
+		}
+		
+		if(unbalanced != null)
+		{
+			node = this.rebuildSubtree(unbalanced, null);
+			for(node = node.parent; node != null; node = node.parent) BallTree.updateHeight(node);
+		}
+	}
+	
+	/**
+	 * Replaces the subtree of the node with a balanced subtree of the same data objects.
+	 * The sizes and heights of the ancestors are not changed.
+	 * 
+	 * @param node the root of the subtree
+	 * @param removed a data object that is not taken into the new subtree, or null
+	 * @return the root of the new subtree
+	 */
+	private BallTreeNode<T> rebuildSubtree(BallTreeNode<T> node, IndexedDataObject<T> removed)
+	{
+		ArrayList<IndexedDataObject<T>> elements = new ArrayList<IndexedDataObject<T>>(node.size);
+		BallTreeNode<T> subtreeRoot;
+		
+		node.collectSubtreeElements(elements);
+		if(removed != null) for(int i=0; i<elements.size(); i++)
+		{
+			if(elements.get(i).equals(removed))
+			{
+				elements.remove(i);
+				break;
+			}
+		}
+		
+		subtreeRoot = this.buildBalancedSubtree(node.parent, elements, new double[elements.size()], 0, elements.size());
+		
+		if(node.parent == null)						this.root = subtreeRoot;
+		else if(node.parent.leftChild == node)		node.parent.leftChild = subtreeRoot;
+		else										node.parent.rightChild = subtreeRoot;
+		
+		return subtreeRoot;
+	}
+	
+	/**
+	 * Sets the height of the node from the heights of its children.
+	 * 
+	 * @param node the node
+	 */
+	private static <T> void updateHeight(BallTreeNode<T> node)
+	{
+		if(node.leftChild == null)			node.height = 0;
+		else if(node.rightChild == null)	node.height = node.leftChild.height + 1;
+		else								node.height = Math.max(node.leftChild.height, node.rightChild.height) + 1;
+	}
+	
+	/**
+	 * Fork/join task for the parallel construction of a subtree with {@link BallTree#buildBalancedSubtree(BallTreeNode, ArrayList, double[], int, int)}.
+	 * Each task only changes the order of its own range of data objects and keys.
+	 */
+	protected class BalancedSubtreeTask extends RecursiveTask<BallTreeNode<T>>
+	{
+		/**  */
+		private static final long	serialVersionUID	= 4380147412563412085L;
+
+		/** the parent of the subtree */
+		private final BallTreeNode<T> parent;
+		
+		/** the data objects */
+		private final ArrayList<IndexedDataObject<T>> elements;
+		
+		/** the working array of keys */
+		private final double[] keys;
+		
+		/** the first index of the subtree elements */
+		private final int from;
+		
+		/** the index after the last subtree element */
+		private final int to;
+		
+		/**
+		 * @param parent
+		 * @param elements
+		 * @param keys
+		 * @param from
+		 * @param to
+		 */
+		public BalancedSubtreeTask(BallTreeNode<T> parent, ArrayList<IndexedDataObject<T>> elements, double[] keys, int from, int to)
+		{
+			this.parent = parent;
+			this.elements = elements;
+			this.keys = keys;
+			this.from = from;
+			this.to = to;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveTask#compute()
+		 */
+		@Override
+		protected BallTreeNode<T> compute()
+		{
+			return BallTree.this.buildBalancedSubtree(this.parent, this.elements, this.keys, this.from, this.to);
+		}
+	}
+	
+	/**
+	 * Updates the radius of <code>node</code> with the data objects <code>elements[from, to)</code> and moves the
+	 * data objects that are equivalent to the data object of the node to the end of the range.
+	 * 
+	 * @param node the node
+	 * @param elements the data objects
+	 * @param keys the keys of the data objects, swapped along with them
+	 * @param from first index, inclusive
+	 * @param to last index, exclusive
+	 * @return the end of the range without the equivalent data objects
+	 */
+	private int separateEquivalents(BallTreeNode<T> node, ArrayList<IndexedDataObject<T>> elements, double[] keys, int from, int to)
+	{
+		int i = from;
+		double dist;
+		
+		while(i < to)
+		{
+			dist = this.distanceFunction.distance(node.obj.element, elements.get(i).element);
+			if(dist == 0.0d)
+			{
+				if(node.equivalents == null) node.equivalents = new HashSet<IndexedDataObject<T>>();
+				node.equivalents.add(elements.get(i));
+				to--;
+				BallTree.swap(elements, keys, i, to);
+			}
+			else
+			{
+				if(dist > node.radius) node.radius = dist;
+				i++;
+			}
+		}
+		
+		return to;
+	}
+	
+	/**
+	 * Rearranges <code>elements[from, to)</code> such that the element with index <code>k</code> is at the
+	 * position it would have if the range was sorted by <code>keys</code>, with smaller or equal keys in front of it
+	 * and larger or equal keys behind it. Uses three-way partitioning, so many equal keys do not slow it down.
+	 * 
+	 * @param elements the data objects
+	 * @param keys the keys, swapped along with the data objects
+	 * @param from first index, inclusive
+	 * @param to last index, exclusive
+	 * @param k the index to select
+	 */
+	protected static <T> void select(ArrayList<IndexedDataObject<T>> elements, double[] keys, int from, int to, int k)
+	{
+		int lo = from, hi = to - 1, lt, gt, i;
+		double pivot;
+		
+		while(lo < hi)
+		{
+			// median of three as pivot
+			pivot = BallTree.median(keys[lo], keys[(lo + hi) >>> 1], keys[hi]);
+			
+			lt = lo;
+			gt = hi;
+			i = lo;
+			while(i <= gt)
+			{
+				if(keys[i] < pivot)			BallTree.swap(elements, keys, lt++, i++);
+				else if(keys[i] > pivot)	BallTree.swap(elements, keys, i, gt--);
+				else						i++;
+			}
+			
+			if(k < lt)		hi = lt - 1;
+			else if(k > gt)	lo = gt + 1;
+			else			return;
+		}
+	}
+	
+	/**
+	 * @return the median of the three values
+	 */
+	private static double median(double a, double b, double c)
+	{
+		if(a < b)
+		{
+			if(b < c) return b;
+			return (a < c)? c : a;
+		}
+		if(a < c) return a;
+		return (b < c)? c : b;
+	}
+	
+	/**
+	 * Swaps two data objects and their keys.
+	 */
+	private static <T> void swap(ArrayList<IndexedDataObject<T>> elements, double[] keys, int i, int j)
+	{
+		double tmp = keys[i];
+		keys[i] = keys[j];
+		keys[j] = tmp;
+		Collections.swap(elements, i, j);
 	}
 	
 	/**
@@ -120,6 +865,7 @@ public class BallTree<T> extends AbstractTree<T, BallTreeNode<T>, BallTree<T>> i
 			this.root.addNaive(next, this.distanceFunction.distance(this.root.getObj().element, next.element));
 		}
 
+		this.appliedChangeCounter = this.dataSet.getChangeCounter();
 		this.build = true;
 	}
 	
@@ -132,6 +878,7 @@ public class BallTree<T> extends AbstractTree<T, BallTreeNode<T>, BallTree<T>> i
 		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
 		
 		if(result == null) result = new ArrayList<IndexedDataObject<T>>();
+		if(this.root == null) return result;
 		
 		this.root.sphereQuery(result, centre, radius);
 		
@@ -147,6 +894,7 @@ public class BallTree<T> extends AbstractTree<T, BallTreeNode<T>, BallTree<T>> i
 		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
 		
 		if(result == null) result = new ArrayList<IndexedDataObject<T>>(k);
+		if(this.root == null) return result;
 		PriorityQueue<OrderedDataObject<T>> queue = new PriorityQueue<OrderedDataObject<T>>(k);
 		ArrayList<IndexedDataObject<T>> reversedResult = new ArrayList<IndexedDataObject<T>>(k);
 		
@@ -166,6 +914,50 @@ public class BallTree<T> extends AbstractTree<T, BallTreeNode<T>, BallTree<T>> i
 		return result;
 	}
 
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereIndexQueryProvider#sphereQuery(java.lang.Object, double, data.set.structures.QueryContext)
+	 */
+	@Override
+	public int sphereQuery(T centre, double radius, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		context.startSphere();
+		if(this.root != null) this.root.sphereQuery(context, centre, radius);
+		
+		return context.resultCount();
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereCountQueryProvider#sphereCount(java.lang.Object, double, int)
+	 */
+	@Override
+	public int sphereCount(T centre, double radius, int threshold)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(this.root == null) return 0;
+		
+		return this.root.sphereCount(centre, radius, 0, threshold);
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNIndexQueryProvider#knnQuery(java.lang.Object, int, int[], double[], data.set.structures.QueryContext)
+	 */
+	@Override
+	public int knnQuery(T centre, int k, int[] indices, double[] distances, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(k <= 0) return 0;
+		if(indices.length < k || (distances != null && distances.length < k)) throw new IllegalArgumentException("The result arrays must have at least k elements. k: " + k);
+		
+		context.startKNN(k);
+		if(this.root != null) this.root.kNNQuery(context, centre, this.distanceFunction.distance(this.root.obj.element, centre));
+		
+		return context.drainNeighbours(indices, distances);
+	}
+
 	/**
 	 * @return the distanceFunction
 	 */
@@ -174,6 +966,26 @@ public class BallTree<T> extends AbstractTree<T, BallTreeNode<T>, BallTree<T>> i
 		return this.distanceFunction;
 	}
 
+	/**
+	 * @return the number of worker threads used by {@link #buildBalanced()}
+	 */
+	public int getParallelism()
+	{
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of worker threads used by {@link #buildBalanced()}. A value of 1 selects the sequential construction.
+	 * 
+	 * @param parallelism the number of worker threads to set
+	 */
+	public void setParallelism(int parallelism)
+	{
+		if(parallelism < 1) throw new IllegalArgumentException("The parallelism must be at least 1. Specified parallelism: " + parallelism);
+		
+		this.parallelism = parallelism;
+	}
+
 	/**
 	 * @return the radiusList
 	 */
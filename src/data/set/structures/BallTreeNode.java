@@ -227,6 +227,124 @@ public class BallTreeNode<T> extends AbstractTreeNode<T, BallTreeNode<T>, BallTr
 		
 	}
 
+	/**
+	 * Collects the indices of all data objects inside the hypersphere defined by queryRadius of centre
+	 * in the result buffer of the query context.
+	 * 
+	 * @param context the query context
+	 * @param queryCenter the centre of the query
+	 * @param queryRadius the radius of the query
+	 */
+	public void sphereQuery(QueryContext context, T queryCenter, double queryRadius)
+	{
+		double distToCentre = this.tree.getDistanceFunction().distance(this.obj.element, queryCenter);
+		
+		// if the query ball does not intersects the local subset ball, do nothing
+		if(distToCentre > queryRadius + this.getRadius()) return;
+		
+		// if the query covers the local subset ball completely, report all data objects of this subtree and return
+		if(distToCentre + this.getRadius() < queryRadius)
+		{
+			this.collectSubtreeIndices(context);
+			return;
+		}
+
+		// if this data object is inside the query sphere
+		if(distToCentre < queryRadius)
+		{
+			context.addResult(this.obj.getID());
+			if(this.equivalents != null) for(IndexedDataObject<T> equivalent:this.equivalents) context.addResult(equivalent.getID());
+		}
+
+		// the query sphere intersects with the local subset, use recursion
+		if(this.leftChild != null) this.leftChild.sphereQuery(context, queryCenter, queryRadius);
+		if(this.rightChild != null) this.rightChild.sphereQuery(context, queryCenter, queryRadius);
+	}
+	
+	/**
+	 * Counts the data objects inside the hypersphere defined by queryRadius of centre. Subtrees that are completely
+	 * inside the query sphere are counted by their size. The recursion stops as soon as the count reaches the threshold.
+	 * 
+	 * @param queryCenter the centre of the query
+	 * @param queryRadius the radius of the query
+	 * @param count the number of data objects counted so far
+	 * @param threshold the count at which the query stops
+	 * @return the number of data objects counted so far, including the ones of this subtree
+	 */
+	public int sphereCount(T queryCenter, double queryRadius, int count, int threshold)
+	{
+		double distToCentre = this.tree.getDistanceFunction().distance(this.obj.element, queryCenter);
+		
+		// if the query ball does not intersects the local subset ball, do nothing
+		if(distToCentre > queryRadius + this.getRadius()) return count;
+		
+		// if the query covers the local subset ball completely, count all data objects of this subtree
+		if(distToCentre + this.getRadius() < queryRadius) return count + this.size;
+
+		// if this data object is inside the query sphere
+		if(distToCentre < queryRadius)
+		{
+			count++;
+			if(this.equivalents != null) count += this.equivalents.size();
+		}
+
+		// the query sphere intersects with the local subset, use recursion
+		if(this.leftChild != null && count < threshold) count = this.leftChild.sphereCount(queryCenter, queryRadius, count, threshold);
+		if(this.rightChild != null && count < threshold) count = this.rightChild.sphereCount(queryCenter, queryRadius, count, threshold);
+		
+		return count;
+	}
+	
+	/**
+	 * Offers the data objects of this subtree to the neighbour heap of the query context.
+	 * 
+	 * @param context the query context, the k-nearest neighbour query must be started
+	 * @param query the query object
+	 * @param distanceX the distance of the data object of this node to the query
+	 */
+	public void kNNQuery(QueryContext context, T query, double distanceX)
+	{
+		double distanceA, distanceB;
+		
+		// if this.obj is closer to the query than previously found data objects
+		if(context.offer(this.obj.getID(), distanceX))
+		{
+			// fill up with equivalents
+			if(this.equivalents != null)
+			{		
+				Iterator<IndexedDataObject<T>> iter = this.equivalents.iterator();
+				while(iter.hasNext() && distanceX < context.kthDistance()) context.offer(iter.next().getID(), distanceX);
+			}
+		}
+		
+		// the node is a leaf: stop
+		if(this.leftChild == null) return;
+		
+		// if rightChild is null and leftChild is not, only test leftChild for recursion
+		if(this.rightChild == null)
+		{
+			distanceA = this.tree.getDistanceFunction().distance(this.leftChild.getObj().element, query);
+			if(distanceA - this.leftChild.radius < context.kthDistance()) this.leftChild.kNNQuery(context, query, distanceA);
+			
+			return;
+		}
+
+		// this node has two childs, recurse with the one closer to the data object first, then with the other.
+		distanceA = this.tree.getDistanceFunction().distance(this.leftChild.getObj().element, query);
+		distanceB = this.tree.getDistanceFunction().distance(this.rightChild.getObj().element, query);
+		
+		if(distanceA <= distanceB)
+		{
+			if(distanceA - this.leftChild.radius < context.kthDistance()) this.leftChild.kNNQuery(context, query, distanceA);
+			if(distanceB - this.rightChild.radius < context.kthDistance()) this.rightChild.kNNQuery(context, query, distanceB);
+		}
+		else
+		{
+			if(distanceB - this.rightChild.radius < context.kthDistance()) this.rightChild.kNNQuery(context, query, distanceB);
+			if(distanceA - this.leftChild.radius < context.kthDistance()) this.leftChild.kNNQuery(context, query, distanceA);
+		}
+	}
+
 	/**
 	 * @return the radius
 	 */
@@ -37,9 +37,12 @@ THE POSSIBILITY OF SUCH DAMAGE.
 
 package data.set.structures;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
 
 import data.algebra.Distance;
 import data.algebra.VectorSpace;
@@ -47,8 +50,9 @@ import data.set.DataSetNotSealedException;
 import data.set.IndexedDataObject;
 import data.set.IndexedDataSet;
 import data.set.structures.order.OrderedDataObject;
-import data.set.structures.queries.KNNQueryProvider;
-import data.set.structures.queries.SphereQueryProvider;
+import data.set.structures.queries.KNNIndexQueryProvider;
+import data.set.structures.queries.SphereIndexQueryProvider;
+import data.set.structures.queries.SphereSumQueryProvider;
 
 /**
  * TODO Class Description
@@ -56,9 +60,12 @@ import data.set.structures.queries.SphereQueryProvider;
  * Paper: Omohundro, S. M. Five Balltree Construction Algorithms International Computer Science Institute, 1989
  * Paper: Uhlmann, J. K. Satisfying general proximity / similarity queries with metric trees Information Processing Letters, 1991, 40, 175 - 179
  *
+ * A built tree can be stored with {@link #writeSnapshot(File)} and restored with {@link #buildFromSnapshot(File)}
+ * if the data objects are double arrays.
+ *
  * @author Roland Winkler
  */
-public class CenteredBallTree<T> extends AbstractTree<T, CenteredBallTreeNode<T>, CenteredBallTree<T>> implements KNNQueryProvider<T>, SphereQueryProvider<T>
+public class CenteredBallTree<T> extends AbstractTree<T, CenteredBallTreeNode<T>, CenteredBallTree<T>> implements KNNIndexQueryProvider<T>, SphereIndexQueryProvider<T>, SphereSumQueryProvider<T>
 {
 
 	/**  */
@@ -70,6 +77,18 @@ public class CenteredBallTree<T> extends AbstractTree<T, CenteredBallTreeNode<T>
 	/**  */
 	protected final Distance<T> distanceFunction;
 	
+	/**
+	 *	The number of worker threads that are used by {@link #buildNaive()}. If it is 1, the tree is build
+	 *	sequentially in the calling thread. Otherwise, the two subtrees of a node are build in a fork/join pool
+	 *	if both contain at least {@link #MIN_PARALLEL_SUBTREE_SIZE} data objects.<br>
+	 *	<br>
+	 *	Range of values: <code>parallelism</code> >= 1
+	 */
+	protected int parallelism;
+	
+	/** The minimal number of data objects of a subtree that is build in its own task if the tree is build in parallel. */
+	protected static final int MIN_PARALLEL_SUBTREE_SIZE = 4096;
+	
 	/**
 	 * 
 	 * @param dataSet
@@ -81,6 +100,7 @@ public class CenteredBallTree<T> extends AbstractTree<T, CenteredBallTreeNode<T>
 		
 		this.vectorSpace = vectorSpace;
 		this.distanceFunction = distance;
+		this.parallelism = 1;
 	}
 	
 	/* (non-Javadoc)
@@ -96,7 +116,11 @@ public class CenteredBallTree<T> extends AbstractTree<T, CenteredBallTreeNode<T>
 	
 	/**
 	 * A naive way of building the tree, adding data objects one by one, no optimization.
-	 * Seals the data set.
+	 * Seals the data set.<br>
+	 * If the parallelism is larger than 1, the subtrees are build in a fork/join pool. The partition of the data objects
+	 * of a node into its two subtrees does not depend on the other nodes, so the resulting tree is exactly the same
+	 * as the one of the sequential construction. The vector space and the distance function must be safe for concurrent
+	 * use in that case.
 	 */
 	public void buildNaive()
 	{
@@ -106,12 +130,98 @@ public class CenteredBallTree<T> extends AbstractTree<T, CenteredBallTreeNode<T>
 		for(int i=1; i<this.dataSet.size(); i++) subelements.add(this.dataSet.get(i));
 
 		this.root = new CenteredBallTreeNode<T>(this, null, this.dataSet.get(0));
-		this.root.addNaive(subelements);
+		if(this.parallelism > 1)
+		{
+			ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+			try
+			{
+				pool.invoke(new CenteredBallTreeNode.AddNaiveTask<T>(this.root, subelements));
+			}
+			finally
+			{
+				pool.shutdown();
+			}
+		}
+		else
+		{
+			this.root.addNaive(subelements);
+		}
 		
 		this.build = true;
 	}
 	
 
+	/**
+	 * Writes a binary snapshot of the tree, which can be restored with {@link #buildFromSnapshot(File)} for the same
+	 * data set. The nodes are written in preorder with their data object indices, centers of gravity, radii,
+	 * subtree sizes, heights and equivalents, together with a fingerprint of the data set.
+	 * The centers of gravity can only be stored if they are double arrays.
+	 * 
+	 * @param file the file to be written, an existing file is overwritten
+	 * @throws IOException if the file can not be written
+	 */
+	public void writeSnapshot(File file) throws IOException
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		if(!(this.root.centerOfGravity instanceof double[])) throw new UnsupportedOperationException("Snapshots of centered ball trees require double array data objects.");
+		
+		ArrayList<CenteredBallTreeNode<T>> nodes = TreeSnapshot.preorder(this.root, this.dataSet.size());
+		int dim = ((double[])this.root.centerOfGravity).length;
+		double[] radius = new double[nodes.size()];
+		double[] centers = new double[nodes.size()*dim];
+		
+		for(int i=0; i<nodes.size(); i++)
+		{
+			radius[i] = nodes.get(i).radius;
+			System.arraycopy(nodes.get(i).centerOfGravity, 0, centers, i*dim, dim);
+		}
+		
+		TreeSnapshot.write(file, TreeSnapshot.CENTERED_BALL_TREE, this.dataSet, nodes, radius, dim, centers);
+	}
+	
+	/**
+	 * Restores the tree from a snapshot that was written by {@link #writeSnapshot(File)}. The file is mapped into memory
+	 * and the nodes are created from the mapped arrays, which requires neither distance calculations nor recalculating
+	 * the centers of gravity. The snapshot is only accepted if it was written for a data set of the same size and content.
+	 * 
+	 * @param file the snapshot file
+	 * @throws IOException if the file can not be read, is not a valid snapshot or was written for a different data set
+	 */
+	public void buildFromSnapshot(File file) throws IOException
+	{
+		if(!this.dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		if(this.isBuild()) this.clearBuild();
+		
+		TreeSnapshot snapshot = new TreeSnapshot(file, TreeSnapshot.CENTERED_BALL_TREE, this.dataSet);
+		ArrayList<CenteredBallTreeNode<T>> nodes = new ArrayList<CenteredBallTreeNode<T>>(snapshot.nodeCount);
+		CenteredBallTreeNode<T> node, parent;
+		double[] center;
+		
+		if(snapshot.nodeCount > 0 && !(this.dataSet.get(0).element instanceof double[])) throw new UnsupportedOperationException("Snapshots of centered ball trees require double array data objects.");
+		
+		// in preorder, the parent of a node is always restored before the node
+		for(int i=0; i<snapshot.nodeCount; i++)
+		{
+			parent = (snapshot.parent[i] < 0)? null : nodes.get(snapshot.parent[i]);
+			node = new CenteredBallTreeNode<T>(this, parent, this.dataSet.get(snapshot.obj.get(i)));
+			center = (double[])node.centerOfGravity;
+			if(center.length != snapshot.centerDim) throw new IOException("The snapshot does not match the data set: the dimension is " + snapshot.centerDim + ". (" + file + ")");
+			for(int k=0; k<center.length; k++) center[k] = snapshot.centers.get(i*center.length + k);
+			node.radius = snapshot.radius.get(i);
+			snapshot.restoreNode(node, i, this.dataSet);
+			
+			if(parent != null)
+			{
+				if(snapshot.left.get(snapshot.parent[i]) == i)	parent.leftChild = node;
+				else											parent.rightChild = node;
+			}
+			nodes.add(node);
+		}
+		
+		this.root = nodes.isEmpty()? null : nodes.get(0);
+		this.build = true;
+	}
+
 	/* (non-Javadoc)
 	 * @see data.set.structures.queries.SphereQueryProvider#sphereQuery(java.util.Collection, java.lang.Object, double)
 	 */
@@ -155,6 +265,76 @@ public class CenteredBallTree<T> extends AbstractTree<T, CenteredBallTreeNode<T>
 		return result;
 	}
 
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereIndexQueryProvider#sphereQuery(java.lang.Object, double, data.set.structures.QueryContext)
+	 */
+	@Override
+	public int sphereQuery(T centre, double radius, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		context.startSphere();
+		this.root.sphereQuery(context, centre, radius);
+		
+		return context.resultCount();
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereCountQueryProvider#sphereCount(java.lang.Object, double, int)
+	 */
+	@Override
+	public int sphereCount(T centre, double radius, int threshold)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(this.root == null) return 0;
+		
+		return this.root.sphereCount(centre, radius, 0, threshold);
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereSumQueryProvider#sphereSum(java.lang.Object, double, java.lang.Object)
+	 */
+	@Override
+	public int sphereSum(T centre, double radius, T sum)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		this.vectorSpace.resetToAddNeutralElement(sum);
+		if(this.root == null) return 0;
+		
+		return this.root.sphereSum(sum, centre, radius);
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereSumQueryProvider#sphereMean(java.lang.Object, double, java.lang.Object)
+	 */
+	@Override
+	public int sphereMean(T centre, double radius, T mean)
+	{
+		int count = this.sphereSum(centre, radius, mean);
+		if(count > 0) this.vectorSpace.mul(mean, 1.0d/((double)count));
+		
+		return count;
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNIndexQueryProvider#knnQuery(java.lang.Object, int, int[], double[], data.set.structures.QueryContext)
+	 */
+	@Override
+	public int knnQuery(T centre, int k, int[] indices, double[] distances, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(k <= 0) return 0;
+		if(indices.length < k || (distances != null && distances.length < k)) throw new IllegalArgumentException("The result arrays must have at least k elements. k: " + k);
+		
+		context.startKNN(k);
+		this.root.kNNQuery(context, centre);
+		
+		return context.drainNeighbours(indices, distances);
+	}
+
 	/**
 	 * @return the distanceFunction
 	 */
@@ -163,6 +343,26 @@ public class CenteredBallTree<T> extends AbstractTree<T, CenteredBallTreeNode<T>
 		return this.distanceFunction;
 	}
 
+	/**
+	 * @return the number of worker threads used by {@link #buildNaive()}
+	 */
+	public int getParallelism()
+	{
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of worker threads used by {@link #buildNaive()}. A value of 1 selects the sequential construction.
+	 * 
+	 * @param parallelism the number of worker threads to set
+	 */
+	public void setParallelism(int parallelism)
+	{
+		if(parallelism < 1) throw new IllegalArgumentException("The parallelism must be at least 1. Specified parallelism: " + parallelism);
+		
+		this.parallelism = parallelism;
+	}
+
 	/**
 	 * @return the radiusList
 	 */
@@ -42,6 +42,8 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import data.set.IndexedDataObject;
 import data.set.structures.order.OrderedDataObject;
@@ -73,7 +75,8 @@ public class CenteredBallTreeNode<T> extends AbstractTreeNode<T, CenteredBallTre
 		this.radius = 0.0d;
 	}
 	
-	/** adds new data objects recursively
+	/** adds new data objects recursively. If called inside a fork/join pool and the tree has a parallelism
+	 * larger than 1, the two subtrees are build concurrently if both are large enough.
 	 * 
 	 * @param subtreeElements
 	 */
@@ -168,6 +171,17 @@ public class CenteredBallTreeNode<T> extends AbstractTreeNode<T, CenteredBallTre
 		
 		
 		// information regarding this node have been processed. Proceed with recursion.
+		// the subtrees do not share any data, so they can be build concurrently
+		if(right != null && this.tree.parallelism > 1 && ForkJoinTask.inForkJoinPool() &&
+			leftSubtreeElements.size() >= CenteredBallTree.MIN_PARALLEL_SUBTREE_SIZE && rightSubtreeElements.size() >= CenteredBallTree.MIN_PARALLEL_SUBTREE_SIZE)
+		{
+			this.leftChild = new CenteredBallTreeNode<T>(this.tree, this, left);
+			this.rightChild = new CenteredBallTreeNode<T>(this.tree, this, right);
+			ForkJoinTask.invokeAll(new AddNaiveTask<T>(this.leftChild, leftSubtreeElements), new AddNaiveTask<T>(this.rightChild, rightSubtreeElements));
+			this.height = Math.max(this.leftChild.getHeight(), this.rightChild.getHeight()) + 1;
+			return;
+		}
+		
 		if(left != null)
 		{
 			this.leftChild = new CenteredBallTreeNode<T>(this.tree, this, left);
@@ -183,6 +197,40 @@ public class CenteredBallTreeNode<T> extends AbstractTreeNode<T, CenteredBallTre
 		}
 	}
 	
+	/**
+	 * Fork/join task for the parallel construction of a subtree with {@link CenteredBallTreeNode#addNaive(Collection)}.
+	 */
+	protected static class AddNaiveTask<T> extends RecursiveAction
+	{
+		/**  */
+		private static final long	serialVersionUID	= -5468031940257723871L;
+
+		/** the root of the subtree */
+		private final CenteredBallTreeNode<T> node;
+		
+		/** the data objects of the subtree without the data object of the node */
+		private final Collection<IndexedDataObject<T>> subtreeElements;
+		
+		/**
+		 * @param node
+		 * @param subtreeElements
+		 */
+		public AddNaiveTask(CenteredBallTreeNode<T> node, Collection<IndexedDataObject<T>> subtreeElements)
+		{
+			this.node = node;
+			this.subtreeElements = subtreeElements;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute()
+		{
+			this.node.addNaive(this.subtreeElements);
+		}
+	}
+	
 	/**
 	 * Collects all data objects inside the hypersphere defined by queryCenter and queryRadius
 	 * 
@@ -280,6 +328,167 @@ public class CenteredBallTreeNode<T> extends AbstractTreeNode<T, CenteredBallTre
 		}
 	}
 
+	/**
+	 * Collects the indices of all data objects inside the hypersphere defined by queryRadius of centre
+	 * in the result buffer of the query context.
+	 * 
+	 * @param context the query context
+	 * @param queryCenter the centre of the query
+	 * @param queryRadius the radius of the query
+	 */
+	public void sphereQuery(QueryContext context, T queryCenter, double queryRadius)
+	{
+		double distqueryToCoG = this.tree.getDistanceFunction().distance(this.centerOfGravity, queryCenter);
+		
+		// if the query ball does not intersects the local subset ball, do nothing
+		if(distqueryToCoG > queryRadius + this.getRadius()) return;
+		
+		// if the query covers the local subset ball completely, report all data objects of this subtree and return
+		if(distqueryToCoG + this.getRadius() < queryRadius)
+		{
+			this.collectSubtreeIndices(context);
+			return;
+		}
+
+		// if the local element is inside the query sphere
+		if(this.tree.getDistanceFunction().distance(this.obj.element, queryCenter) < queryRadius)
+		{
+			context.addResult(this.obj.getID());
+			if(this.equivalents != null) for(IndexedDataObject<T> equivalent:this.equivalents) context.addResult(equivalent.getID());
+		}
+
+		// the query sphere intersects with the local subset, use recursion
+		if(this.leftChild != null) this.leftChild.sphereQuery(context, queryCenter, queryRadius);
+		if(this.rightChild != null) this.rightChild.sphereQuery(context, queryCenter, queryRadius);
+	}
+	
+	/**
+	 * Counts the data objects inside the hypersphere defined by queryRadius of centre. Subtrees that are completely
+	 * inside the query sphere are counted by their size. The recursion stops as soon as the count reaches the threshold.
+	 * 
+	 * @param queryCenter the centre of the query
+	 * @param queryRadius the radius of the query
+	 * @param count the number of data objects counted so far
+	 * @param threshold the count at which the query stops
+	 * @return the number of data objects counted so far, including the ones of this subtree
+	 */
+	public int sphereCount(T queryCenter, double queryRadius, int count, int threshold)
+	{
+		double distqueryToCoG = this.tree.getDistanceFunction().distance(this.centerOfGravity, queryCenter);
+		
+		// if the query ball does not intersects the local subset ball, do nothing
+		if(distqueryToCoG > queryRadius + this.getRadius()) return count;
+		
+		// if the query covers the local subset ball completely, count all data objects of this subtree
+		if(distqueryToCoG + this.getRadius() < queryRadius) return count + this.size;
+
+		// if the local element is inside the query sphere
+		if(this.tree.getDistanceFunction().distance(this.obj.element, queryCenter) < queryRadius)
+		{
+			count++;
+			if(this.equivalents != null) count += this.equivalents.size();
+		}
+
+		// the query sphere intersects with the local subset, use recursion
+		if(this.leftChild != null && count < threshold) count = this.leftChild.sphereCount(queryCenter, queryRadius, count, threshold);
+		if(this.rightChild != null && count < threshold) count = this.rightChild.sphereCount(queryCenter, queryRadius, count, threshold);
+		
+		return count;
+	}
+	
+	/**
+	 * Adds the data objects inside the hypersphere defined by queryRadius of centre to the sum. Subtrees that are
+	 * completely inside the query sphere are added as their centre of gravity, weighted by their size.
+	 * 
+	 * @param sum the sum of the data objects found so far, it is changed
+	 * @param queryCenter the centre of the query
+	 * @param queryRadius the radius of the query
+	 * @return the number of data objects of this subtree that are added to the sum
+	 */
+	public int sphereSum(T sum, T queryCenter, double queryRadius)
+	{
+		double distqueryToCoG = this.tree.getDistanceFunction().distance(this.centerOfGravity, queryCenter);
+		int count = 0;
+		
+		// if the query ball does not intersects the local subset ball, do nothing
+		if(distqueryToCoG > queryRadius + this.getRadius()) return 0;
+		
+		// if the query covers the local subset ball completely, add the sum of the subtree
+		if(distqueryToCoG + this.getRadius() < queryRadius)
+		{
+			this.tree.vectorSpace.addMul(sum, this.centerOfGravity, this.size);
+			return this.size;
+		}
+
+		// if the local element is inside the query sphere
+		if(this.tree.getDistanceFunction().distance(this.obj.element, queryCenter) < queryRadius)
+		{
+			this.tree.vectorSpace.add(sum, this.obj.element);
+			count++;
+			if(this.equivalents != null)
+			{
+				for(IndexedDataObject<T> equivalent:this.equivalents) this.tree.vectorSpace.add(sum, equivalent.element);
+				count += this.equivalents.size();
+			}
+		}
+
+		// the query sphere intersects with the local subset, use recursion
+		if(this.leftChild != null) count += this.leftChild.sphereSum(sum, queryCenter, queryRadius);
+		if(this.rightChild != null) count += this.rightChild.sphereSum(sum, queryCenter, queryRadius);
+		
+		return count;
+	}
+	
+	/**
+	 * Offers the data objects of this subtree to the neighbour heap of the query context.
+	 * 
+	 * @param context the query context, the k-nearest neighbour query must be started
+	 * @param query the query object
+	 */
+	public void kNNQuery(QueryContext context, T query)
+	{
+		double distanceX = this.tree.distanceFunction.distance(this.obj.element, query);
+		double distanceA, distanceB;
+		
+		// if this.obj is closer to the query than previously found data objects
+		if(context.offer(this.obj.getID(), distanceX))
+		{
+			// fill up with equivalents
+			if(this.equivalents != null)
+			{		
+				Iterator<IndexedDataObject<T>> iter = this.equivalents.iterator();
+				while(iter.hasNext() && distanceX < context.kthDistance()) context.offer(iter.next().getID(), distanceX);
+			}
+		}
+		
+		// the node is a leaf: stop
+		if(this.leftChild == null) return;
+		
+		// if rightChild is null and leftChild is not, only test leftChild for recursion
+		if(this.rightChild == null)
+		{
+			distanceA = this.tree.getDistanceFunction().distance(this.leftChild.centerOfGravity, query);
+			if(distanceA - this.leftChild.radius < context.kthDistance()) this.leftChild.kNNQuery(context, query);
+			
+			return;
+		}
+		
+		// this node has two childs, recurse with the one closer to the data object first, then with the other.
+		distanceA = this.tree.getDistanceFunction().distance(this.leftChild.centerOfGravity, query);
+		distanceB = this.tree.getDistanceFunction().distance(this.rightChild.centerOfGravity, query);
+		
+		if(distanceA <= distanceB)
+		{
+			if(distanceA - this.leftChild.radius < context.kthDistance()) this.leftChild.kNNQuery(context, query);
+			if(distanceB - this.rightChild.radius < context.kthDistance()) this.rightChild.kNNQuery(context, query);
+		}
+		else
+		{
+			if(distanceB - this.rightChild.radius < context.kthDistance()) this.rightChild.kNNQuery(context, query);
+			if(distanceA - this.leftChild.radius < context.kthDistance()) this.leftChild.kNNQuery(context, query);
+		}
+	}
+
 	/**
 	 * @return the radius
 	 */
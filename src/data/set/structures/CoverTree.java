@@ -0,0 +1,718 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set.structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import data.algebra.Distance;
+import data.set.DataSetNotSealedException;
+import data.set.IndexedDataObject;
+import data.set.IndexedDataSet;
+import data.set.structures.queries.KNNIndexQueryProvider;
+import data.set.structures.queries.SphereIndexQueryProvider;
+
+/**
+ * A cover tree for arbitrary metrics. Only the distance function is used, so the data objects can be of any
+ * type, as long as the distance function satisfies the triangle inequality. Since the distance calculations are
+ * usually the expensive part for such data types, the tree is designed to avoid them wherever possible.<br>
+ * <br>
+ * Each node has a routing object and belongs to a scale s, all data objects of its subtree are closer than
+ * expansion^s to the routing object. The children of a node are on the next lower scale and their routing objects
+ * are further apart than expansion^(s-1) from each other. The first child of a node usually has the same routing
+ * object as the node itself, its distance to a query object is therefore known without calculation. For the number
+ * of data objects in the tree n and the expansion constant c of the data set, the number of distance calculations of a
+ * nearest neighbour query is O(c^12 log(n)) in the original analysis, i.e. it grows only logarithmically with the size
+ * of the data set for data sets with a low intrinsic dimension, independent of the type of the data objects.<br>
+ * <br>
+ * The tree is build in batch, top-down: for a node, all data objects farther than expansion^(s-1) from the routing
+ * object are grouped greedily around new routing objects. Each node stores the exact distance to the farthest data
+ * object of its subtree and the distance to the routing object of its parent node, the data objects in the buckets
+ * store the distance to the routing object of their node. With these distances, the triangle inequality
+ * excludes most nodes and data objects from a query without calculating their distance to the query object.
+ * The data objects of each subtree are stored contiguously, so that subtrees that are completely inside a
+ * query sphere are reported without any distance calculation.<br>
+ * <br>
+ * The k-nearest neighbour query processes the nodes best first w.r.t. the lower bound of the distances of their
+ * data objects. The queries are iterative and report the same data objects as {@link BallTree}.
+ *
+ * Paper: Beygelzimer, A.; Kakade, S. & Langford, J. Cover Trees for Nearest Neighbor Proceedings of the 23rd International Conference on Machine Learning, ACM, 2006, 97-104
+ *
+ * @author Roland Winkler
+ */
+public class CoverTree<T> implements KNNIndexQueryProvider<T>, SphereIndexQueryProvider<T>
+{
+	/**  */
+	private static final long	serialVersionUID	= -2407533317457165032L;
+
+	/** The default ratio of the cover radii of two consecutive scales. */
+	public static final double DEFAULT_EXPANSION = 1.3d;
+	
+	/** The default maximal number of data objects in a leaf. */
+	public static final int DEFAULT_BUCKET_SIZE = 8;
+	
+	/** The data set */
+	protected IndexedDataSet<T> dataSet;
+	
+	/** The distance function, it must satisfy the triangle inequality. */
+	protected final Distance<T> distanceFunction;
+	
+	/** The ratio of the cover radii of two consecutive scales. */
+	protected final double expansion;
+	
+	/** The lowest scale, the cover radius of this scale is the smallest positive double value. */
+	protected final int minScale;
+	
+	/** The maximal number of data objects in a leaf. */
+	protected int bucketSize;
+	
+	/** true if the tree is build */
+	protected boolean build;
+	
+	/** The number of nodes */
+	protected int nodeCount;
+	
+	/** The height of the tree, a tree that consists only of the root has height 0. */
+	protected int height;
+	
+	/** The indices of the data objects in the data set, the data objects of each subtree are stored contiguously. */
+	protected int[] dataIndex;
+	
+	/** The distance of each data object in a bucket to the routing object of its node. */
+	protected double[] pointDist;
+	
+	/** The index of the routing object of each node in the data set. */
+	protected int[] nodePoint;
+	
+	/** The distance of the farthest data object of the subtree of each node to its routing object. */
+	protected double[] nodeMaxDist;
+	
+	/** The distance of the routing object of each node to the routing object of its parent. */
+	protected double[] nodeParentDist;
+	
+	/** The position of the first data object of the subtree of each node in <code>dataIndex</code>. */
+	protected int[] nodeStart;
+	
+	/** The position of the first data object of the bucket of each node in <code>dataIndex</code>. The bucket holds the data objects that are not contained in a child node. */
+	protected int[] nodeBucket;
+	
+	/** The position after the last data object of the subtree of each node in <code>dataIndex</code>. */
+	protected int[] nodeEnd;
+	
+	/** The index of the first child of each node, -1 for leaves. */
+	protected int[] nodeFirstChild;
+	
+	/** The index of the next sibling of each node, -1 for the last child. */
+	protected int[] nodeNextSibling;
+	
+	/** The next free position in <code>dataIndex</code> during the construction. */
+	private int fill;
+	
+	/**
+	 * @param dataSet
+	 * @param distance a metric distance function
+	 */
+	public CoverTree(IndexedDataSet<T> dataSet, Distance<T> distance)
+	{
+		this(dataSet, distance, CoverTree.DEFAULT_EXPANSION, CoverTree.DEFAULT_BUCKET_SIZE);
+	}
+	
+	/**
+	 * @param dataSet
+	 * @param distance a metric distance function
+	 * @param expansion the ratio of the cover radii of two consecutive scales, must be larger than 1
+	 * @param bucketSize the maximal number of data objects in a leaf
+	 */
+	public CoverTree(IndexedDataSet<T> dataSet, Distance<T> distance, double expansion, int bucketSize)
+	{
+		if(!(expansion > 1.0d)) throw new IllegalArgumentException("The expansion must be larger than 1. Specified expansion: " + expansion);
+		if(bucketSize < 1) throw new IllegalArgumentException("The bucket size must be at least 1. Specified bucket size: " + bucketSize);
+		
+		this.dataSet = dataSet;
+		this.distanceFunction = distance;
+		this.expansion = expansion;
+		this.minScale = this.distanceToScale(Double.MIN_NORMAL);
+		this.bucketSize = bucketSize;
+		this.build = false;
+	}
+	
+	/**
+	 * @param distance a distance
+	 * @return the smallest scale whose cover radius is at least <code>distance</code>
+	 */
+	protected int distanceToScale(double distance)
+	{
+		return (int)Math.ceil(Math.log(distance)/Math.log(this.expansion));
+	}
+	
+	/**
+	 * @param scale a scale
+	 * @return the cover radius of the scale
+	 */
+	protected double scaleToDistance(int scale)
+	{
+		return Math.pow(this.expansion, scale);
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#build()
+	 */
+	@Override
+	public void build()
+	{
+		if(!this.dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		if(this.isBuild()) this.clearBuild();
+		
+		int j, n = this.dataSet.size();
+		int capacity;
+		
+		// if there are no data objects in the data set, do nothing.
+		if(n == 0) return;
+		
+		this.dataIndex = new int[n];
+		this.pointDist = new double[n];
+		
+		capacity = 2*(n/this.bucketSize + 1);
+		this.nodePoint = new int[capacity];
+		this.nodeMaxDist = new double[capacity];
+		this.nodeParentDist = new double[capacity];
+		this.nodeStart = new int[capacity];
+		this.nodeBucket = new int[capacity];
+		this.nodeEnd = new int[capacity];
+		this.nodeFirstChild = new int[capacity];
+		this.nodeNextSibling = new int[capacity];
+		this.nodeCount = 0;
+		this.height = 0;
+		this.fill = 0;
+		
+		// the first data object is the routing object of the root
+		int[] elements = new int[n-1];
+		double[] distances = new double[n-1];
+		T rootObject = this.dataSet.get(0).element;
+		for(j=1; j<n; j++)
+		{
+			elements[j-1] = j;
+			distances[j-1] = this.distanceFunction.distance(rootObject, this.dataSet.get(j).element);
+		}
+		
+		this.buildNode(0, Integer.MAX_VALUE, 0.0d, elements, distances, n-1, 0);
+		
+		this.build = true;
+	}
+	
+	/**
+	 * Creates the node with routing object <code>point</code> that covers the data objects <code>elements[0, size)</code>
+	 * and its subtree. The order of the elements is changed.
+	 * 
+	 * @param point the index of the routing object in the data set
+	 * @param maxScale the highest scale the node may have
+	 * @param parentDist the distance of the routing object to the routing object of the parent node
+	 * @param elements the indices of the data objects of the subtree in the data set, except for the routing object 
+	 * @param distances the distances of the elements to the routing object
+	 * @param size the number of elements
+	 * @param depth the depth of the node
+	 * @return the index of the new node
+	 */
+	private int buildNode(int point, int maxScale, double parentDist, int[] elements, double[] distances, int size, int depth)
+	{
+		int i, j, child, lastChild, scale, nearSize, farStart, farEnd, subSize, singletonCount, center;
+		int node = this.nodeCount;
+		int[] singletons, subElements;
+		double maxDist = 0.0d, coverRadius, dist, tmpDist;
+		double[] singletonDist, subDistances;
+		T centerObject;
+		
+		for(i=0; i<size; i++) maxDist = Math.max(maxDist, distances[i]);
+		
+		this.ensureNodeCapacity(node + 1);
+		this.nodeCount++;
+		this.nodePoint[node] = point;
+		this.nodeMaxDist[node] = maxDist;
+		this.nodeParentDist[node] = parentDist;
+		this.nodeStart[node] = this.fill;
+		this.nodeFirstChild[node] = -1;
+		this.nodeNextSibling[node] = -1;
+		this.height = Math.max(this.height, depth);
+		
+		scale = Math.min(this.distanceToScale(maxDist), maxScale);
+		
+		// leaf: few data objects, all data objects are identical or the distances can not be resolved any further
+		if(size < this.bucketSize || maxDist <= 0.0d || Double.isInfinite(maxDist) || scale <= this.minScale)
+		{
+			this.nodeBucket[node] = this.fill;
+			this.dataIndex[this.fill] = point;
+			this.pointDist[this.fill] = 0.0d;
+			this.fill++;
+			for(i=0; i<size; i++)
+			{
+				this.dataIndex[this.fill] = elements[i];
+				this.pointDist[this.fill] = distances[i];
+				this.fill++;
+			}
+			this.nodeEnd[node] = this.fill;
+			
+			return node;
+		}
+		
+		// the cover radius of the children must be smaller than the largest distance
+		while(scale > this.minScale + 1 && this.scaleToDistance(scale - 1) >= maxDist) scale--;
+		coverRadius = this.scaleToDistance(scale - 1);
+		
+		// the elements that are covered by the routing object on the next scale are moved to the front
+		nearSize = 0;
+		for(i=0; i<size; i++)
+		{
+			if(distances[i] <= coverRadius)
+			{
+				j = elements[i];		elements[i] = elements[nearSize];		elements[nearSize] = j;
+				tmpDist = distances[i];	distances[i] = distances[nearSize];	distances[nearSize] = tmpDist;
+				nearSize++;
+			}
+		}
+		
+		singletons = new int[size - nearSize + 1];
+		singletonDist = new double[size - nearSize + 1];
+		singletonCount = 0;
+		lastChild = -1;
+		
+		// the routing object continues on the next scale
+		if(nearSize > 0)
+		{
+			lastChild = this.buildNode(point, scale - 1, 0.0d, elements, distances, nearSize, depth + 1);
+			this.nodeFirstChild[node] = lastChild;
+		}
+		else
+		{
+			singletons[singletonCount] = point;
+			singletonDist[singletonCount] = 0.0d;
+			singletonCount++;
+		}
+		
+		// the remaining elements are grouped greedily around new routing objects
+		farStart = nearSize;
+		farEnd = size;
+		while(farStart < farEnd)
+		{
+			center = elements[farStart];
+			dist = distances[farStart];
+			farStart++;
+			centerObject = this.dataSet.get(center).element;
+			
+			subElements = new int[farEnd - farStart];
+			subDistances = new double[farEnd - farStart];
+			subSize = 0;
+			for(i=farStart; i<farEnd;)
+			{
+				tmpDist = this.distanceFunction.distance(centerObject, this.dataSet.get(elements[i]).element);
+				if(tmpDist <= coverRadius)
+				{
+					subElements[subSize] = elements[i];
+					subDistances[subSize] = tmpDist;
+					subSize++;
+					
+					farEnd--;
+					elements[i] = elements[farEnd];
+					distances[i] = distances[farEnd];
+				}
+				else i++;
+			}
+			
+			if(subSize == 0)
+			{
+				singletons[singletonCount] = center;
+				singletonDist[singletonCount] = dist;
+				singletonCount++;
+				continue;
+			}
+			
+			child = this.buildNode(center, scale - 1, dist, subElements, subDistances, subSize, depth + 1);
+			if(lastChild < 0) this.nodeFirstChild[node] = child;
+			else this.nodeNextSibling[lastChild] = child;
+			lastChild = child;
+		}
+		
+		// the bucket contains the data objects that are not covered by any child
+		this.nodeBucket[node] = this.fill;
+		for(i=0; i<singletonCount; i++)
+		{
+			this.dataIndex[this.fill] = singletons[i];
+			this.pointDist[this.fill] = singletonDist[i];
+			this.fill++;
+		}
+		this.nodeEnd[node] = this.fill;
+		
+		return node;
+	}
+	
+	/**
+	 * Makes sure that the node arrays can hold at least <code>count</code> nodes.
+	 * 
+	 * @param count the required number of nodes
+	 */
+	private void ensureNodeCapacity(int count)
+	{
+		if(count <= this.nodePoint.length) return;
+		
+		int capacity = Math.max(count, 2*this.nodePoint.length);
+		this.nodePoint = Arrays.copyOf(this.nodePoint, capacity);
+		this.nodeMaxDist = Arrays.copyOf(this.nodeMaxDist, capacity);
+		this.nodeParentDist = Arrays.copyOf(this.nodeParentDist, capacity);
+		this.nodeStart = Arrays.copyOf(this.nodeStart, capacity);
+		this.nodeBucket = Arrays.copyOf(this.nodeBucket, capacity);
+		this.nodeEnd = Arrays.copyOf(this.nodeEnd, capacity);
+		this.nodeFirstChild = Arrays.copyOf(this.nodeFirstChild, capacity);
+		this.nodeNextSibling = Arrays.copyOf(this.nodeNextSibling, capacity);
+	}
+	
+	/**
+	 * Adds the indices of all data objects of the subtree of a node to the result buffer of the query context.
+	 * 
+	 * @param context the query context
+	 * @param node the node
+	 */
+	private void collectSubtree(QueryContext context, int node)
+	{
+		for(int i=this.nodeStart[node]; i<this.nodeEnd[node]; i++) context.addResult(this.dataIndex[i]);
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereQueryProvider#sphereQuery(java.util.Collection, java.lang.Object, double)
+	 */
+	@Override
+	public Collection<IndexedDataObject<T>> sphereQuery(Collection<IndexedDataObject<T>> result, T centre, double radius)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(result == null) result = new ArrayList<IndexedDataObject<T>>();
+		
+		QueryContext context = new QueryContext();
+		int count = this.sphereQuery(centre, radius, context);
+		int[] indices = context.getResultIndices();
+		for(int i=0; i<count; i++) result.add(this.dataSet.get(indices[i]));
+		
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereIndexQueryProvider#sphereQuery(java.lang.Object, double, data.set.structures.QueryContext)
+	 */
+	@Override
+	public int sphereQuery(T centre, double radius, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		int i, node, child, stackSize = 0;
+		int[] stack = context.nodeStack(this.height + 16);
+		double[] stackDist = context.valueStack(this.height + 16);
+		double dist, childDist;
+		
+		context.startSphere();
+		stack[stackSize] = 0;
+		stackDist[stackSize] = this.distanceFunction.distance(centre, this.dataSet.get(this.nodePoint[0]).element);
+		stackSize++;
+		while(stackSize > 0)
+		{
+			stackSize--;
+			node = stack[stackSize];
+			dist = stackDist[stackSize];
+			
+			// if the query sphere does not intersect the subtree, do nothing
+			if(dist - this.nodeMaxDist[node] >= radius) continue;
+			
+			// if the query sphere covers the subtree completely, report all data objects of the subtree
+			if(dist + this.nodeMaxDist[node] < radius)
+			{
+				this.collectSubtree(context, node);
+				continue;
+			}
+			
+			for(child = this.nodeFirstChild[node]; child >= 0; child = this.nodeNextSibling[child])
+			{
+				if(this.nodePoint[child] == this.nodePoint[node])
+				{
+					childDist = dist;
+				}
+				else
+				{
+					// decide with the triangle inequality if possible
+					if(Math.abs(dist - this.nodeParentDist[child]) - this.nodeMaxDist[child] >= radius) continue;
+					if(dist + this.nodeParentDist[child] + this.nodeMaxDist[child] < radius)
+					{
+						this.collectSubtree(context, child);
+						continue;
+					}
+					childDist = this.distanceFunction.distance(centre, this.dataSet.get(this.nodePoint[child]).element);
+				}
+				
+				if(stackSize == stack.length)
+				{
+					stack = context.nodeStack(2*stackSize);
+					stackDist = context.valueStack(2*stackSize);
+				}
+				stack[stackSize] = child;
+				stackDist[stackSize] = childDist;
+				stackSize++;
+			}
+			
+			for(i=this.nodeBucket[node]; i<this.nodeEnd[node]; i++)
+			{
+				if(this.dataIndex[i] == this.nodePoint[node])
+				{
+					if(dist < radius) context.addResult(this.dataIndex[i]);
+					continue;
+				}
+				if(Math.abs(dist - this.pointDist[i]) >= radius) continue;
+				if(dist + this.pointDist[i] < radius || this.distanceFunction.distance(centre, this.dataSet.get(this.dataIndex[i]).element) < radius)
+				{
+					context.addResult(this.dataIndex[i]);
+				}
+			}
+		}
+		
+		return context.resultCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNQueryProvider#knnQuery(java.util.Collection, java.lang.Object, int)
+	 */
+	@Override
+	public Collection<IndexedDataObject<T>> knnQuery(Collection<IndexedDataObject<T>> result, T centre, int k)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(result == null) result = new ArrayList<IndexedDataObject<T>>(k);
+		if(k <= 0) return result;
+		
+		int[] indices = new int[k];
+		int count = this.knnQuery(centre, k, indices, null, new QueryContext(k));
+		for(int i=0; i<count; i++) result.add(this.dataSet.get(indices[i]));
+		
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNIndexQueryProvider#knnQuery(java.lang.Object, int, int[], double[], data.set.structures.QueryContext)
+	 */
+	@Override
+	public int knnQuery(T centre, int k, int[] indices, double[] distances, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(k <= 0) return 0;
+		if(indices.length < k || (distances != null && distances.length < k)) throw new IllegalArgumentException("The result arrays must have at least k elements. k: " + k);
+		
+		int i, node, child, queueSize = 0;
+		// min-heap of the nodes w.r.t. the lower bound of the distances, stored with negative keys in a max-heap
+		int[] queueNode = context.nodeStack(this.height + 16);
+		double[] queueKey = context.valueStack(this.height + 16);
+		// the distance of the routing object of each queued node to the query object
+		double[] nodeDist = context.nodeValues(this.nodeCount);
+		double dist, childDist, bound;
+		
+		// the routing objects are offered to the neighbour heap as soon as their distance is calculated
+		context.startKNN(k);
+		dist = this.distanceFunction.distance(centre, this.dataSet.get(this.nodePoint[0]).element);
+		context.offer(this.nodePoint[0], dist);
+		nodeDist[0] = dist;
+		DistanceHeap.siftUp(queueKey, queueNode, queueSize, -Math.max(0.0d, dist - this.nodeMaxDist[0]), 0);
+		queueSize++;
+		while(queueSize > 0)
+		{
+			// the node with the smallest lower bound
+			node = queueNode[0];
+			bound = -queueKey[0];
+			queueSize--;
+			DistanceHeap.siftDown(queueKey, queueNode, queueSize, queueKey[queueSize], queueNode[queueSize]);
+			
+			// no remaining node can contain a closer data object
+			if(bound >= context.kthDistance()) break;
+			
+			dist = nodeDist[node];
+			
+			for(child = this.nodeFirstChild[node]; child >= 0; child = this.nodeNextSibling[child])
+			{
+				if(this.nodePoint[child] == this.nodePoint[node])
+				{
+					childDist = dist;
+				}
+				else
+				{
+					// exclude the child with the triangle inequality if possible
+					if(Math.abs(dist - this.nodeParentDist[child]) - this.nodeMaxDist[child] >= context.kthDistance()) continue;
+					childDist = this.distanceFunction.distance(centre, this.dataSet.get(this.nodePoint[child]).element);
+					context.offer(this.nodePoint[child], childDist);
+				}
+				
+				bound = Math.max(0.0d, childDist - this.nodeMaxDist[child]);
+				if(bound >= context.kthDistance()) continue;
+				
+				if(queueSize == queueNode.length)
+				{
+					queueNode = context.nodeStack(2*queueSize);
+					queueKey = context.valueStack(2*queueSize);
+				}
+				nodeDist[child] = childDist;
+				DistanceHeap.siftUp(queueKey, queueNode, queueSize, -bound, child);
+				queueSize++;
+			}
+			
+			for(i=this.nodeBucket[node]; i<this.nodeEnd[node]; i++)
+			{
+				// the routing object is already offered
+				if(this.dataIndex[i] == this.nodePoint[node]) continue;
+				if(Math.abs(dist - this.pointDist[i]) >= context.kthDistance()) continue;
+				
+				context.offer(this.dataIndex[i], this.distanceFunction.distance(centre, this.dataSet.get(this.dataIndex[i]).element));
+			}
+		}
+		
+		// the result is in ascending order w.r.t. to the distances.
+		return context.drainNeighbours(indices, distances);
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#getDataSet()
+	 */
+	@Override
+	public IndexedDataSet<T> getDataSet()
+	{
+		return this.dataSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#setDataSet(data.set.IndexedDataSet)
+	 */
+	@Override
+	public void setDataSet(IndexedDataSet<T> dataSet)
+	{
+		if(!dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		this.clearBuild();
+		this.dataSet = dataSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#clearBuild()
+	 */
+	@Override
+	public void clearBuild()
+	{
+		this.dataIndex = null;
+		this.pointDist = null;
+		this.nodePoint = null;
+		this.nodeMaxDist = null;
+		this.nodeParentDist = null;
+		this.nodeStart = null;
+		this.nodeBucket = null;
+		this.nodeEnd = null;
+		this.nodeFirstChild = null;
+		this.nodeNextSibling = null;
+		this.nodeCount = 0;
+		this.height = 0;
+		this.build = false;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#isBuild()
+	 */
+	@Override
+	public boolean isBuild()
+	{
+		return this.build;
+	}
+
+	/**
+	 * @return the distanceFunction
+	 */
+	public Distance<T> getDistanceFunction()
+	{
+		return this.distanceFunction;
+	}
+
+	/**
+	 * @return the ratio of the cover radii of two consecutive scales
+	 */
+	public double getExpansion()
+	{
+		return this.expansion;
+	}
+
+	/**
+	 * @return the maximal number of data objects in a leaf
+	 */
+	public int getBucketSize()
+	{
+		return this.bucketSize;
+	}
+
+	/**
+	 * Sets the maximal number of data objects in a leaf. Takes effect with the next build.
+	 * 
+	 * @param bucketSize the maximal number of data objects in a leaf
+	 */
+	public void setBucketSize(int bucketSize)
+	{
+		if(bucketSize < 1) throw new IllegalArgumentException("The bucket size must be at least 1. Specified bucket size: " + bucketSize);
+		
+		this.bucketSize = bucketSize;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getNodeCount()
+	{
+		return this.nodeCount;
+	}
+
+	/**
+	 * @return the height of the tree
+	 */
+	public int height()
+	{
+		return this.height;
+	}
+	
+	/**
+	 * @return the number of data objects in the tree
+	 */
+	public int size()
+	{
+		return (this.build)? this.dataIndex.length : 0;
+	}
+}
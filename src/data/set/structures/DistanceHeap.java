@@ -0,0 +1,161 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set.structures;
+
+/**
+ * Operations of a binary max-heap of distances with an associated index per element, stored in two parallel arrays.
+ * Used by {@link QueryContext} to keep the k closest data objects found so far, with the farthest of them at position 0,
+ * by {@link DualTreeKNNJoin} with one heap per query object in shared arrays and by {@link CoverTree} as priority queue of the nodes.
+ *
+ * @author Roland Winkler
+ */
+final class DistanceHeap
+{
+	/** no instances */
+	private DistanceHeap()
+	{}
+	
+	/**
+	 * Inserts an element at position <code>pos</code> of a max-heap and moves it up.
+	 * 
+	 * @param heapDist the distances of the heap
+	 * @param heapIndex the indices of the heap
+	 * @param pos the position of the new element, that is, the size of the heap before the insertion
+	 * @param dist the distance of the new element
+	 * @param index the index of the new element
+	 */
+	static void siftUp(double[] heapDist, int[] heapIndex, int pos, double dist, int index)
+	{
+		DistanceHeap.siftUp(heapDist, heapIndex, 0, pos, dist, index);
+	}
+	
+	/**
+	 * Inserts an element at position <code>pos</code> of a max-heap that starts at position <code>offset</code>
+	 * of the arrays and moves it up.
+	 * 
+	 * @param heapDist the distances of the heap
+	 * @param heapIndex the indices of the heap
+	 * @param offset the position of the root of the heap in the arrays
+	 * @param pos the position of the new element relative to offset, that is, the size of the heap before the insertion
+	 * @param dist the distance of the new element
+	 * @param index the index of the new element
+	 */
+	static void siftUp(double[] heapDist, int[] heapIndex, int offset, int pos, double dist, int index)
+	{
+		int parent;
+		
+		while(pos > 0)
+		{
+			parent = (pos - 1) >>> 1;
+			if(heapDist[offset + parent] >= dist) break;
+			heapDist[offset + pos] = heapDist[offset + parent];
+			heapIndex[offset + pos] = heapIndex[offset + parent];
+			pos = parent;
+		}
+		heapDist[offset + pos] = dist;
+		heapIndex[offset + pos] = index;
+	}
+	
+	/**
+	 * Replaces the top of a max-heap of size <code>size</code> and moves the new element down.
+	 * 
+	 * @param heapDist the distances of the heap
+	 * @param heapIndex the indices of the heap
+	 * @param size the size of the heap
+	 * @param dist the distance of the new element
+	 * @param index the index of the new element
+	 */
+	static void siftDown(double[] heapDist, int[] heapIndex, int size, double dist, int index)
+	{
+		DistanceHeap.siftDown(heapDist, heapIndex, 0, size, dist, index);
+	}
+	
+	/**
+	 * Replaces the top of a max-heap of size <code>size</code> that starts at position <code>offset</code>
+	 * of the arrays and moves the new element down.
+	 * 
+	 * @param heapDist the distances of the heap
+	 * @param heapIndex the indices of the heap
+	 * @param offset the position of the root of the heap in the arrays
+	 * @param size the size of the heap
+	 * @param dist the distance of the new element
+	 * @param index the index of the new element
+	 */
+	static void siftDown(double[] heapDist, int[] heapIndex, int offset, int size, double dist, int index)
+	{
+		int pos = 0, child;
+		
+		while((child = 2*pos + 1) < size)
+		{
+			if(child + 1 < size && heapDist[offset + child + 1] > heapDist[offset + child]) child++;
+			if(heapDist[offset + child] <= dist) break;
+			heapDist[offset + pos] = heapDist[offset + child];
+			heapIndex[offset + pos] = heapIndex[offset + child];
+			pos = child;
+		}
+		if(size > 0)
+		{
+			heapDist[offset + pos] = dist;
+			heapIndex[offset + pos] = index;
+		}
+	}
+	
+	/**
+	 * Sorts a max-heap of size <code>size</code> that starts at position <code>offset</code> of the arrays
+	 * in place into ascending order w.r.t. the distances.
+	 * 
+	 * @param heapDist the distances of the heap
+	 * @param heapIndex the indices of the heap
+	 * @param offset the position of the root of the heap in the arrays
+	 * @param size the size of the heap
+	 */
+	static void sortAscending(double[] heapDist, int[] heapIndex, int offset, int size)
+	{
+		double topDist;
+		int topIndex;
+		
+		for(int i=size-1; i>0; i--)
+		{
+			topDist = heapDist[offset];
+			topIndex = heapIndex[offset];
+			DistanceHeap.siftDown(heapDist, heapIndex, offset, i, heapDist[offset + i], heapIndex[offset + i]);
+			heapDist[offset + i] = topDist;
+			heapIndex[offset + i] = topIndex;
+		}
+	}
+}
@@ -0,0 +1,659 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set.structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import data.objects.doubleArray.DAKernels;
+import data.set.DataSetNotSealedException;
+import data.set.AbstractDoubleArrayDataSet;
+import data.set.IndexedDataObject;
+import data.set.IndexedDataSet;
+import data.set.structures.queries.KNNIndexQueryProvider;
+import data.set.structures.queries.SphereIndexQueryProvider;
+
+/**
+ * A ball tree for double arrays with the euclidean distance that stores all nodes in parallel primitive arrays
+ * instead of one object per data object. The nodes are numbered in depth first order, so the left child of node
+ * <code>i</code> is node <code>i+1</code> and only the index of the right child is stored. Each node is a ball around
+ * the center of gravity of its data objects. The data objects are stored in leaf buckets of at most
+ * <code>bucketSize</code> objects, and the coordinates of all data objects are copied into one row-major array in
+ * the order of the leaves. A query therefore reads a few contiguous arrays instead of following references to
+ * objects scattered over the heap, and the subtree of a node covers a contiguous range of data objects.<br>
+ * <br>
+ * The tree is built top-down. Each node is split at the median of the projections of its data objects onto the line
+ * between two far apart data objects, so the height is at most log2(n/bucketSize) + 1. Nodes whose data objects
+ * are all identical are not split any further.<br>
+ * <br>
+ * The queries are iterative and report the same data objects as {@link BallTree}. The nodes can be traversed
+ * through their indices, which is what
+ * {@link datamining.clustering.protoype.altopt.FlatBallTreeFuzzyCMeansClusteringAlgorithm} does.
+ *
+ * Paper: Omohundro, S. M. Five Balltree Construction Algorithms International Computer Science Institute, 1989
+ *
+ * @author Roland Winkler
+ */
+public class DoubleArrayFlatBallTree implements KNNIndexQueryProvider<double[]>, SphereIndexQueryProvider<double[]>
+{
+	/**  */
+	private static final long	serialVersionUID	= -4829035771938465213L;
+
+	/** The default maximal number of data objects in a leaf. */
+	public static final int DEFAULT_BUCKET_SIZE = 16;
+	
+	/** The data set */
+	protected IndexedDataSet<double[]> dataSet;
+	
+	/** The maximal number of data objects in a leaf. */
+	protected int bucketSize;
+	
+	/** The number of coordinates of the data objects. */
+	protected int dimension;
+	
+	/** true if the tree is build */
+	protected boolean build;
+	
+	/** The number of nodes */
+	protected int nodeCount;
+	
+	/** The height of the tree, a tree that consists only of the root has height 0. */
+	protected int height;
+	
+	/** The indices of the data objects in the data set, in the order of the leaves. */
+	protected int[] dataIndex;
+	
+	/** The coordinates of the data objects in the order of the leaves, row-major. */
+	protected double[] points;
+	
+	/** The position of the first data object of each node in <code>dataIndex</code>. */
+	protected int[] nodeStart;
+	
+	/** The position after the last data object of each node in <code>dataIndex</code>. */
+	protected int[] nodeEnd;
+	
+	/** The index of the right child of each node, -1 for leaves. The left child of node i is node i+1. */
+	protected int[] nodeRight;
+	
+	/** The centers of gravity of the nodes, row-major. */
+	protected double[] nodeCenter;
+	
+	/** The distance from the center of gravity of each node to its farthest data object. */
+	protected double[] nodeRadius;
+	
+	/**
+	 * @param dataSet
+	 */
+	public DoubleArrayFlatBallTree(IndexedDataSet<double[]> dataSet)
+	{
+		this(dataSet, DoubleArrayFlatBallTree.DEFAULT_BUCKET_SIZE);
+	}
+	
+	/**
+	 * @param dataSet
+	 * @param bucketSize the maximal number of data objects in a leaf
+	 */
+	public DoubleArrayFlatBallTree(IndexedDataSet<double[]> dataSet, int bucketSize)
+	{
+		if(bucketSize < 1) throw new IllegalArgumentException("The bucket size must be at least 1. Specified bucket size: " + bucketSize);
+		
+		this.dataSet = dataSet;
+		this.bucketSize = bucketSize;
+		this.build = false;
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#build()
+	 */
+	@Override
+	public void build()
+	{
+		if(!this.dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		if(this.isBuild()) this.clearBuild();
+		
+		int j, n = this.dataSet.size();
+		int capacity;
+		
+		// if there are no data objects in the data set, do nothing.
+		if(n == 0) return;
+		
+		this.dimension = this.dataSet.get(0).element.length;
+		this.dataIndex = new int[n];
+		this.points = new double[n*this.dimension];
+		// data sets that store their coordinates themselves are read without creating data objects
+		AbstractDoubleArrayDataSet coordinateSet = (this.dataSet instanceof AbstractDoubleArrayDataSet)? (AbstractDoubleArrayDataSet)this.dataSet : null;
+		double[] x = new double[this.dimension];
+		for(j=0; j<n; j++)
+		{
+			this.dataIndex[j] = j;
+			System.arraycopy((coordinateSet != null)? coordinateSet.copyCoordinates(j, x) : this.dataSet.get(j).element, 0, this.points, j*this.dimension, this.dimension);
+		}
+		
+		// a median split creates leaves with at least bucketSize/2 data objects
+		capacity = 4*(n/this.bucketSize + 1);
+		this.nodeStart = new int[capacity];
+		this.nodeEnd = new int[capacity];
+		this.nodeRight = new int[capacity];
+		this.nodeRadius = new double[capacity];
+		this.nodeCenter = new double[capacity*this.dimension];
+		this.nodeCount = 0;
+		this.height = 0;
+		
+		this.buildNode(0, n, 0, new double[n], new double[this.dimension]);
+		
+		this.build = true;
+	}
+	
+	/**
+	 * Creates the node for the data objects at the positions [start, end) and its subtree.
+	 * 
+	 * @param start first position, inclusive
+	 * @param end last position, exclusive
+	 * @param depth the depth of the node
+	 * @param keys working array
+	 * @param direction working array of length dimension
+	 * @return the index of the new node
+	 */
+	private int buildNode(int start, int end, int depth, double[] keys, double[] direction)
+	{
+		int i, a, b, median;
+		int dim = this.dimension;
+		int node = this.nodeCount;
+		double distSq, distMax;
+		
+		this.ensureNodeCapacity(node + 1);
+		this.nodeCount++;
+		this.nodeStart[node] = start;
+		this.nodeEnd[node] = end;
+		this.nodeRight[node] = -1;
+		this.height = Math.max(this.height, depth);
+		
+		// center of gravity
+		for(i=start; i<end; i++)
+		{
+			for(int k=0; k<dim; k++) this.nodeCenter[node*dim + k] += this.points[i*dim + k];
+		}
+		for(int k=0; k<dim; k++) this.nodeCenter[node*dim + k] /= (double)(end - start);
+		
+		// radius, and the data object farthest away from the center
+		System.arraycopy(this.nodeCenter, node*dim, direction, 0, dim);
+		a = start;
+		distMax = 0.0d;
+		for(i=start; i<end; i++)
+		{
+			distSq = DAKernels.distanceSq(direction, this.points, i*dim, dim);
+			if(distSq > distMax)
+			{
+				distMax = distSq;
+				a = i;
+			}
+		}
+		this.nodeRadius[node] = Math.sqrt(distMax);
+		
+		if(end - start <= this.bucketSize || distMax == 0.0d) return node;
+		
+		// the data object farthest away from a
+		System.arraycopy(this.points, a*dim, direction, 0, dim);
+		b = a;
+		distMax = 0.0d;
+		for(i=start; i<end; i++)
+		{
+			distSq = DAKernels.distanceSq(direction, this.points, i*dim, dim);
+			if(distSq > distMax)
+			{
+				distMax = distSq;
+				b = i;
+			}
+		}
+		
+		// split at the median of the projections onto the line from a to b
+		for(int k=0; k<dim; k++) direction[k] = this.points[b*dim + k] - direction[k];
+		for(i=start; i<end; i++)
+		{
+			keys[i] = 0.0d;
+			for(int k=0; k<dim; k++) keys[i] += direction[k]*this.points[i*dim + k];
+		}
+		median = (start + end) >>> 1;
+		this.select(keys, start, end, median);
+		
+		this.buildNode(start, median, depth + 1, keys, direction);
+		this.nodeRight[node] = this.buildNode(median, end, depth + 1, keys, direction);
+		
+		return node;
+	}
+	
+	/**
+	 * Grows the node arrays if necessary.
+	 * 
+	 * @param capacity the required number of nodes
+	 */
+	private void ensureNodeCapacity(int capacity)
+	{
+		if(capacity <= this.nodeStart.length) return;
+		
+		capacity = Math.max(capacity, 2*this.nodeStart.length);
+		this.nodeStart = Arrays.copyOf(this.nodeStart, capacity);
+		this.nodeEnd = Arrays.copyOf(this.nodeEnd, capacity);
+		this.nodeRight = Arrays.copyOf(this.nodeRight, capacity);
+		this.nodeRadius = Arrays.copyOf(this.nodeRadius, capacity);
+		this.nodeCenter = Arrays.copyOf(this.nodeCenter, capacity*this.dimension);
+	}
+	
+	/**
+	 * Rearranges the data objects at the positions [from, to) such that the one at position <code>k</code> is at the
+	 * position it would have if they were sorted by <code>keys</code>. Uses three-way partitioning.
+	 * 
+	 * @param keys the keys, swapped along with the data objects
+	 * @param from first position, inclusive
+	 * @param to last position, exclusive
+	 * @param k the position to select
+	 */
+	private void select(double[] keys, int from, int to, int k)
+	{
+		int lo = from, hi = to - 1, lt, gt, i;
+		double pivot, x, y, z;
+		
+		while(lo < hi)
+		{
+			// median of three as pivot
+			x = keys[lo];
+			y = keys[(lo + hi) >>> 1];
+			z = keys[hi];
+			pivot = Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+			
+			lt = lo;
+			gt = hi;
+			i = lo;
+			while(i <= gt)
+			{
+				if(keys[i] < pivot)			this.swap(keys, lt++, i++);
+				else if(keys[i] > pivot)	this.swap(keys, i, gt--);
+				else						i++;
+			}
+			
+			if(k < lt)		hi = lt - 1;
+			else if(k > gt)	lo = gt + 1;
+			else			return;
+		}
+	}
+	
+	/**
+	 * Swaps the data objects at positions i and j, including their coordinates and keys.
+	 */
+	private void swap(double[] keys, int i, int j)
+	{
+		int dim = this.dimension;
+		int tmpIndex = this.dataIndex[i];
+		double tmp = keys[i];
+		
+		keys[i] = keys[j];
+		keys[j] = tmp;
+		this.dataIndex[i] = this.dataIndex[j];
+		this.dataIndex[j] = tmpIndex;
+		for(int k=0; k<dim; k++)
+		{
+			tmp = this.points[i*dim + k];
+			this.points[i*dim + k] = this.points[j*dim + k];
+			this.points[j*dim + k] = tmp;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereQueryProvider#sphereQuery(java.util.Collection, java.lang.Object, double)
+	 */
+	@Override
+	public Collection<IndexedDataObject<double[]>> sphereQuery(Collection<IndexedDataObject<double[]>> result, double[] centre, double radius)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(result == null) result = new ArrayList<IndexedDataObject<double[]>>();
+		
+		QueryContext context = new QueryContext();
+		int count = this.sphereQuery(centre, radius, context);
+		int[] indices = context.getResultIndices();
+		for(int i=0; i<count; i++) result.add(this.dataSet.get(indices[i]));
+		
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereIndexQueryProvider#sphereQuery(java.lang.Object, double, data.set.structures.QueryContext)
+	 */
+	@Override
+	public int sphereQuery(double[] centre, double radius, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		int i, node, stackSize = 0;
+		int dim = this.dimension;
+		int[] stack = context.nodeStack(this.height + 2);
+		double dist;
+		
+		context.startSphere();
+		stack[stackSize++] = 0;
+		while(stackSize > 0)
+		{
+			node = stack[--stackSize];
+			dist = Math.sqrt(DAKernels.distanceSq(centre, this.nodeCenter, node*dim, dim));
+			
+			// if the query ball does not intersects the node ball, do nothing
+			if(dist > radius + this.nodeRadius[node]) continue;
+			
+			// if the query covers the node ball completely, report all data objects of the node
+			if(dist + this.nodeRadius[node] < radius)
+			{
+				for(i=this.nodeStart[node]; i<this.nodeEnd[node]; i++) context.addResult(this.dataIndex[i]);
+				continue;
+			}
+			
+			if(this.nodeRight[node] < 0)
+			{
+				for(i=this.nodeStart[node]; i<this.nodeEnd[node]; i++)
+				{
+					if(Math.sqrt(DAKernels.distanceSq(centre, this.points, i*dim, dim)) < radius) context.addResult(this.dataIndex[i]);
+				}
+			}
+			else
+			{
+				stack[stackSize++] = this.nodeRight[node];
+				stack[stackSize++] = node + 1;
+			}
+		}
+		
+		return context.resultCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNQueryProvider#knnQuery(java.util.Collection, java.lang.Object, int)
+	 */
+	@Override
+	public Collection<IndexedDataObject<double[]>> knnQuery(Collection<IndexedDataObject<double[]>> result, double[] centre, int k)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(result == null) result = new ArrayList<IndexedDataObject<double[]>>(k);
+		if(k <= 0) return result;
+		
+		int[] indices = new int[k];
+		int count = this.knnQuery(centre, k, indices, null, new QueryContext(k));
+		for(int i=0; i<count; i++) result.add(this.dataSet.get(indices[i]));
+		
+		return result;
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNIndexQueryProvider#knnQuery(java.lang.Object, int, int[], double[], data.set.structures.QueryContext)
+	 */
+	@Override
+	public int knnQuery(double[] centre, int k, int[] indices, double[] distances, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(k <= 0) return 0;
+		if(indices.length < k || (distances != null && distances.length < k)) throw new IllegalArgumentException("The result arrays must have at least k elements. k: " + k);
+		
+		int i, node, left, right, count, stackSize = 0;
+		int dim = this.dimension;
+		int[] stack = context.nodeStack(this.height + 2);
+		double[] stackBound = context.valueStack(this.height + 2);
+		double dist, bound, boundLeft, boundRight;
+		
+		// the neighbour heap holds positions in dataIndex
+		context.startKNN(k);
+		stack[stackSize] = 0;
+		stackBound[stackSize] = 0.0d;
+		stackSize++;
+		while(stackSize > 0)
+		{
+			stackSize--;
+			node = stack[stackSize];
+			bound = stackBound[stackSize];
+			
+			// the node can not contain a closer data object
+			if(bound >= context.kthDistance()) continue;
+			
+			if(this.nodeRight[node] < 0)
+			{
+				for(i=this.nodeStart[node]; i<this.nodeEnd[node]; i++)
+				{
+					dist = Math.sqrt(DAKernels.distanceSq(centre, this.points, i*dim, dim));
+					context.offer(i, dist);
+				}
+			}
+			else
+			{
+				left = node + 1;
+				right = this.nodeRight[node];
+				boundLeft = Math.max(0.0d, Math.sqrt(DAKernels.distanceSq(centre, this.nodeCenter, left*dim, dim)) - this.nodeRadius[left]);
+				boundRight = Math.max(0.0d, Math.sqrt(DAKernels.distanceSq(centre, this.nodeCenter, right*dim, dim)) - this.nodeRadius[right]);
+				
+				// push the farther child first, so the closer one is processed first
+				if(boundLeft <= boundRight)
+				{
+					stack[stackSize] = right;	stackBound[stackSize] = boundRight;	stackSize++;
+					stack[stackSize] = left;	stackBound[stackSize] = boundLeft;	stackSize++;
+				}
+				else
+				{
+					stack[stackSize] = left;	stackBound[stackSize] = boundLeft;	stackSize++;
+					stack[stackSize] = right;	stackBound[stackSize] = boundRight;	stackSize++;
+				}
+			}
+		}
+		
+		// the result is in ascending order w.r.t. to the distances.
+		count = context.drainNeighbours(indices, distances);
+		for(i=0; i<count; i++) indices[i] = this.dataIndex[indices[i]];
+		
+		return count;
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#getDataSet()
+	 */
+	@Override
+	public IndexedDataSet<double[]> getDataSet()
+	{
+		return this.dataSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#setDataSet(data.set.IndexedDataSet)
+	 */
+	@Override
+	public void setDataSet(IndexedDataSet<double[]> dataSet)
+	{
+		if(!dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		this.clearBuild();
+		this.dataSet = dataSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#clearBuild()
+	 */
+	@Override
+	public void clearBuild()
+	{
+		this.dataIndex = null;
+		this.points = null;
+		this.nodeStart = null;
+		this.nodeEnd = null;
+		this.nodeRight = null;
+		this.nodeCenter = null;
+		this.nodeRadius = null;
+		this.nodeCount = 0;
+		this.height = 0;
+		this.build = false;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#isBuild()
+	 */
+	@Override
+	public boolean isBuild()
+	{
+		return this.build;
+	}
+
+	/**
+	 * @return the maximal number of data objects in a leaf
+	 */
+	public int getBucketSize()
+	{
+		return this.bucketSize;
+	}
+
+	/**
+	 * Sets the maximal number of data objects in a leaf. Takes effect with the next build.
+	 * 
+	 * @param bucketSize the maximal number of data objects in a leaf
+	 */
+	public void setBucketSize(int bucketSize)
+	{
+		if(bucketSize < 1) throw new IllegalArgumentException("The bucket size must be at least 1. Specified bucket size: " + bucketSize);
+		
+		this.bucketSize = bucketSize;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getNodeCount()
+	{
+		return this.nodeCount;
+	}
+
+	/**
+	 * @return the height of the tree
+	 */
+	public int height()
+	{
+		return this.height;
+	}
+	
+	/**
+	 * @return the number of data objects in the tree
+	 */
+	public int size()
+	{
+		return (this.build)? this.dataIndex.length : 0;
+	}
+	
+	/**
+	 * The root is node 0, the left child of an inner node <code>node</code> is node <code>node+1</code>.
+	 * 
+	 * @param node the index of the node
+	 * @return the index of the right child of the node, -1 if the node is a leaf
+	 */
+	public int getRightChild(int node)
+	{
+		return this.nodeRight[node];
+	}
+	
+	/**
+	 * @param node the index of the node
+	 * @return true if the node has no children
+	 */
+	public boolean isLeaf(int node)
+	{
+		return this.nodeRight[node] < 0;
+	}
+	
+	/**
+	 * @param node the index of the node
+	 * @return the position of the first data object of the node in the order of the leaves
+	 */
+	public int getNodeStart(int node)
+	{
+		return this.nodeStart[node];
+	}
+	
+	/**
+	 * @param node the index of the node
+	 * @return the position after the last data object of the node in the order of the leaves
+	 */
+	public int getNodeEnd(int node)
+	{
+		return this.nodeEnd[node];
+	}
+	
+	/**
+	 * @param node the index of the node
+	 * @return the distance from the center of gravity of the node to its farthest data object
+	 */
+	public double getNodeRadius(int node)
+	{
+		return this.nodeRadius[node];
+	}
+	
+	/**
+	 * Copies the center of gravity of a node into <code>center</code>.
+	 * 
+	 * @param node the index of the node
+	 * @param center array of length at least the dimension of the data objects
+	 * @return <code>center</code>
+	 */
+	public double[] copyNodeCenter(int node, double[] center)
+	{
+		System.arraycopy(this.nodeCenter, node*this.dimension, center, 0, this.dimension);
+		return center;
+	}
+	
+	/**
+	 * Copies the coordinates of the data object at a position in the order of the leaves into <code>point</code>.
+	 * 
+	 * @param position the position of the data object in the order of the leaves
+	 * @param point array of length at least the dimension of the data objects
+	 * @return <code>point</code>
+	 */
+	public double[] copyPoint(int position, double[] point)
+	{
+		System.arraycopy(this.points, position*this.dimension, point, 0, this.dimension);
+		return point;
+	}
+	
+	/**
+	 * @param position the position of a data object in the order of the leaves
+	 * @return the index of the data object in the data set
+	 */
+	public int getDataIndex(int position)
+	{
+		return this.dataIndex[position];
+	}
+}
@@ -0,0 +1,645 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set.structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import data.objects.doubleArray.DAKernels;
+import data.set.DataSetNotSealedException;
+import data.set.AbstractDoubleArrayDataSet;
+import data.set.IndexedDataObject;
+import data.set.IndexedDataSet;
+import data.set.structures.queries.KNNIndexQueryProvider;
+import data.set.structures.queries.SphereIndexQueryProvider;
+
+/**
+ * A kd-tree for double arrays with the euclidean distance. Like {@link DoubleArrayFlatBallTree}, the nodes are
+ * stored in parallel primitive arrays in depth first order and the data objects are stored in leaf buckets with
+ * contiguous coordinates.<br>
+ * <br>
+ * The cells are split with the sliding midpoint rule: the cell is cut in the middle of its longest side (if several
+ * sides are about equally long, the one along which the data objects are spread most). If all data
+ * objects lie on one side of the cut, it slides to the closest data object, so that no side is empty. This keeps the
+ * cells from becoming long and thin, which is important for the query performance. For pruning, each node stores the
+ * tight bounding box of its data objects, which is usually much smaller than its cell.
+ * Nodes whose data objects are all identical are not split any further.<br>
+ * <br>
+ * The queries are iterative and report the same data objects as {@link BallTree}.
+ *
+ * Paper: Bentley, J. L. Multidimensional binary search trees used for associative searching Communications of the ACM, 1975, 18, 509-517
+ * Paper: Maneewongvatana, S. & Mount, D. M. It's okay to be skinny, if your friends are fat Center for Geometric Computing 4th Annual Workshop on Computational Geometry, 1999
+ *
+ * @author Roland Winkler
+ */
+public class DoubleArrayKDTree implements KNNIndexQueryProvider<double[]>, SphereIndexQueryProvider<double[]>
+{
+	/**  */
+	private static final long	serialVersionUID	= 6107826315384932271L;
+
+	/** The default maximal number of data objects in a leaf. */
+	public static final int DEFAULT_BUCKET_SIZE = 16;
+	
+	/** Sides of a cell that are at most this much (relative) shorter than the longest side are considered as longest. */
+	protected static final double LONGEST_SIDE_TOLERANCE = 1.0e-3d;
+	
+	/** The data set */
+	protected IndexedDataSet<double[]> dataSet;
+	
+	/** The maximal number of data objects in a leaf. */
+	protected int bucketSize;
+	
+	/** The number of coordinates of the data objects. */
+	protected int dimension;
+	
+	/** true if the tree is build */
+	protected boolean build;
+	
+	/** The number of nodes */
+	protected int nodeCount;
+	
+	/** The height of the tree, a tree that consists only of the root has height 0. */
+	protected int height;
+	
+	/** The indices of the data objects in the data set, in the order of the leaves. */
+	protected int[] dataIndex;
+	
+	/** The coordinates of the data objects in the order of the leaves, row-major. */
+	protected double[] points;
+	
+	/** The position of the first data object of each node in <code>dataIndex</code>. */
+	protected int[] nodeStart;
+	
+	/** The position after the last data object of each node in <code>dataIndex</code>. */
+	protected int[] nodeEnd;
+	
+	/** The index of the right child of each node, -1 for leaves. The left child of node i is node i+1. */
+	protected int[] nodeRight;
+	
+	/** The lower corners of the bounding boxes of the nodes, row-major. */
+	protected double[] nodeMin;
+	
+	/** The upper corners of the bounding boxes of the nodes, row-major. */
+	protected double[] nodeMax;
+	
+	/**
+	 * @param dataSet
+	 */
+	public DoubleArrayKDTree(IndexedDataSet<double[]> dataSet)
+	{
+		this(dataSet, DoubleArrayKDTree.DEFAULT_BUCKET_SIZE);
+	}
+	
+	/**
+	 * @param dataSet
+	 * @param bucketSize the maximal number of data objects in a leaf
+	 */
+	public DoubleArrayKDTree(IndexedDataSet<double[]> dataSet, int bucketSize)
+	{
+		if(bucketSize < 1) throw new IllegalArgumentException("The bucket size must be at least 1. Specified bucket size: " + bucketSize);
+		
+		this.dataSet = dataSet;
+		this.bucketSize = bucketSize;
+		this.build = false;
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#build()
+	 */
+	@Override
+	public void build()
+	{
+		if(!this.dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		if(this.isBuild()) this.clearBuild();
+		
+		int j, k, n = this.dataSet.size();
+		int capacity;
+		
+		// if there are no data objects in the data set, do nothing.
+		if(n == 0) return;
+		
+		this.dimension = this.dataSet.get(0).element.length;
+		this.dataIndex = new int[n];
+		this.points = new double[n*this.dimension];
+		// data sets that store their coordinates themselves are read without creating data objects
+		AbstractDoubleArrayDataSet coordinateSet = (this.dataSet instanceof AbstractDoubleArrayDataSet)? (AbstractDoubleArrayDataSet)this.dataSet : null;
+		double[] x = new double[this.dimension];
+		for(j=0; j<n; j++)
+		{
+			this.dataIndex[j] = j;
+			System.arraycopy((coordinateSet != null)? coordinateSet.copyCoordinates(j, x) : this.dataSet.get(j).element, 0, this.points, j*this.dimension, this.dimension);
+		}
+		
+		capacity = 4*(n/this.bucketSize + 1);
+		this.nodeStart = new int[capacity];
+		this.nodeEnd = new int[capacity];
+		this.nodeRight = new int[capacity];
+		this.nodeMin = new double[capacity*this.dimension];
+		this.nodeMax = new double[capacity*this.dimension];
+		this.nodeCount = 0;
+		this.height = 0;
+		
+		// the cell of the root is the bounding box of the data set
+		double[] cellMin = new double[this.dimension];
+		double[] cellMax = new double[this.dimension];
+		Arrays.fill(cellMin, Double.POSITIVE_INFINITY);
+		Arrays.fill(cellMax, Double.NEGATIVE_INFINITY);
+		for(j=0; j<n; j++)
+		{
+			for(k=0; k<this.dimension; k++)
+			{
+				cellMin[k] = Math.min(cellMin[k], this.points[j*this.dimension + k]);
+				cellMax[k] = Math.max(cellMax[k], this.points[j*this.dimension + k]);
+			}
+		}
+		
+		this.buildNode(0, n, 0, cellMin, cellMax);
+		
+		this.build = true;
+	}
+	
+	/**
+	 * Creates the node for the data objects at the positions [start, end) and its subtree.
+	 * 
+	 * @param start first position, inclusive
+	 * @param end last position, exclusive
+	 * @param depth the depth of the node
+	 * @param cellMin the lower corner of the cell of the node, it is changed during the construction of the subtree
+	 * @param cellMax the upper corner of the cell of the node, it is changed during the construction of the subtree
+	 * @return the index of the new node
+	 */
+	private int buildNode(int start, int end, int depth, double[] cellMin, double[] cellMax)
+	{
+		int i, k, split, middle;
+		int dim = this.dimension;
+		int node = this.nodeCount;
+		double value, extent, maxExtent, spread, maxSpread, cellBound;
+		boolean identical = true;
+		
+		this.ensureNodeCapacity(node + 1);
+		this.nodeCount++;
+		this.nodeStart[node] = start;
+		this.nodeEnd[node] = end;
+		this.nodeRight[node] = -1;
+		this.height = Math.max(this.height, depth);
+		
+		// tight bounding box
+		System.arraycopy(this.points, start*dim, this.nodeMin, node*dim, dim);
+		System.arraycopy(this.points, start*dim, this.nodeMax, node*dim, dim);
+		for(i=start+1; i<end; i++)
+		{
+			for(k=0; k<dim; k++)
+			{
+				value = this.points[i*dim + k];
+				if(value < this.nodeMin[node*dim + k]) this.nodeMin[node*dim + k] = value;
+				else if(value > this.nodeMax[node*dim + k]) this.nodeMax[node*dim + k] = value;
+			}
+		}
+		for(k=0; k<dim; k++) identical &= (this.nodeMin[node*dim + k] == this.nodeMax[node*dim + k]);
+		
+		if(end - start <= this.bucketSize || identical) return node;
+		
+		// among the (nearly) longest sides of the cell, the one with the largest spread of the data objects
+		maxExtent = 0.0d;
+		for(k=0; k<dim; k++) maxExtent = Math.max(maxExtent, cellMax[k] - cellMin[k]);
+		split = 0;
+		maxSpread = -1.0d;
+		for(k=0; k<dim; k++)
+		{
+			extent = cellMax[k] - cellMin[k];
+			spread = this.nodeMax[node*dim + k] - this.nodeMin[node*dim + k];
+			if(extent >= (1.0d - DoubleArrayKDTree.LONGEST_SIDE_TOLERANCE)*maxExtent && spread > maxSpread)
+			{
+				maxSpread = spread;
+				split = k;
+			}
+		}
+		value = 0.5d*(cellMin[split] + cellMax[split]);
+		
+		// sliding midpoint: the cut slides to the closest data object if one side would be empty
+		if(value <= this.nodeMin[node*dim + split])
+		{
+			value = this.nodeMin[node*dim + split];
+			middle = this.moveExtreme(start, end, split, true) + 1;
+		}
+		else if(value > this.nodeMax[node*dim + split])
+		{
+			value = this.nodeMax[node*dim + split];
+			middle = this.moveExtreme(start, end, split, false);
+		}
+		else
+		{
+			middle = this.partition(start, end, split, value);
+		}
+		
+		// left subtree with the lower half of the cell
+		cellBound = cellMax[split];
+		cellMax[split] = value;
+		this.buildNode(start, middle, depth + 1, cellMin, cellMax);
+		cellMax[split] = cellBound;
+		
+		// right subtree with the upper half of the cell
+		cellBound = cellMin[split];
+		cellMin[split] = value;
+		this.nodeRight[node] = this.buildNode(middle, end, depth + 1, cellMin, cellMax);
+		cellMin[split] = cellBound;
+		
+		return node;
+	}
+	
+	/**
+	 * Moves the data objects at positions [start, end) with coordinate <code>split</code> smaller than
+	 * <code>value</code> in front of the others.
+	 * 
+	 * @return the position of the first data object with a coordinate not smaller than <code>value</code>
+	 */
+	private int partition(int start, int end, int split, double value)
+	{
+		int dim = this.dimension;
+		int lo = start, hi = end - 1;
+		
+		while(lo <= hi)
+		{
+			if(this.points[lo*dim + split] < value) lo++;
+			else this.swap(lo, hi--);
+		}
+		
+		return lo;
+	}
+	
+	/**
+	 * Moves a data object with the smallest or largest coordinate <code>split</code> to position <code>start</code> or <code>end-1</code>.
+	 * 
+	 * @param smallest true for the smallest coordinate at <code>start</code>, false for the largest at <code>end-1</code>
+	 * @return the new position of the data object
+	 */
+	private int moveExtreme(int start, int end, int split, boolean smallest)
+	{
+		int dim = this.dimension;
+		int i, best = start;
+		int target = smallest? start : end - 1;
+		
+		for(i=start+1; i<end; i++)
+		{
+			if(smallest? this.points[i*dim + split] < this.points[best*dim + split] : this.points[i*dim + split] > this.points[best*dim + split]) best = i;
+		}
+		this.swap(best, target);
+		
+		return target;
+	}
+	
+	/**
+	 * Grows the node arrays if necessary.
+	 * 
+	 * @param capacity the required number of nodes
+	 */
+	private void ensureNodeCapacity(int capacity)
+	{
+		if(capacity <= this.nodeStart.length) return;
+		
+		capacity = Math.max(capacity, 2*this.nodeStart.length);
+		this.nodeStart = Arrays.copyOf(this.nodeStart, capacity);
+		this.nodeEnd = Arrays.copyOf(this.nodeEnd, capacity);
+		this.nodeRight = Arrays.copyOf(this.nodeRight, capacity);
+		this.nodeMin = Arrays.copyOf(this.nodeMin, capacity*this.dimension);
+		this.nodeMax = Arrays.copyOf(this.nodeMax, capacity*this.dimension);
+	}
+	
+	/**
+	 * Swaps the data objects at positions i and j, including their coordinates.
+	 */
+	private void swap(int i, int j)
+	{
+		int dim = this.dimension;
+		int tmpIndex = this.dataIndex[i];
+		double tmp;
+		
+		this.dataIndex[i] = this.dataIndex[j];
+		this.dataIndex[j] = tmpIndex;
+		for(int k=0; k<dim; k++)
+		{
+			tmp = this.points[i*dim + k];
+			this.points[i*dim + k] = this.points[j*dim + k];
+			this.points[j*dim + k] = tmp;
+		}
+	}
+	
+	/**
+	 * @param x the query point
+	 * @param node the node
+	 * @return the squared distance of x to the closest point of the bounding box of the node
+	 */
+	protected double minDistanceSq(double[] x, int node)
+	{
+		int dim = this.dimension;
+		double distSq = 0.0d, tmp;
+		
+		for(int k=0; k<dim; k++)
+		{
+			tmp = this.nodeMin[node*dim + k] - x[k];
+			if(tmp > 0.0d)
+			{
+				distSq += tmp*tmp;
+				continue;
+			}
+			tmp = x[k] - this.nodeMax[node*dim + k];
+			if(tmp > 0.0d) distSq += tmp*tmp;
+		}
+		
+		return distSq;
+	}
+	
+	/**
+	 * @param x the query point
+	 * @param node the node
+	 * @return the squared distance of x to the farthest corner of the bounding box of the node
+	 */
+	protected double maxDistanceSq(double[] x, int node)
+	{
+		int dim = this.dimension;
+		double distSq = 0.0d, tmp;
+		
+		for(int k=0; k<dim; k++)
+		{
+			tmp = Math.max(x[k] - this.nodeMin[node*dim + k], this.nodeMax[node*dim + k] - x[k]);
+			distSq += tmp*tmp;
+		}
+		
+		return distSq;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereQueryProvider#sphereQuery(java.util.Collection, java.lang.Object, double)
+	 */
+	@Override
+	public Collection<IndexedDataObject<double[]>> sphereQuery(Collection<IndexedDataObject<double[]>> result, double[] centre, double radius)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(result == null) result = new ArrayList<IndexedDataObject<double[]>>();
+		
+		QueryContext context = new QueryContext();
+		int count = this.sphereQuery(centre, radius, context);
+		int[] indices = context.getResultIndices();
+		for(int i=0; i<count; i++) result.add(this.dataSet.get(indices[i]));
+		
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereIndexQueryProvider#sphereQuery(java.lang.Object, double, data.set.structures.QueryContext)
+	 */
+	@Override
+	public int sphereQuery(double[] centre, double radius, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		int i, node, stackSize = 0;
+		int dim = this.dimension;
+		int[] stack = context.nodeStack(this.height + 2);
+		
+		context.startSphere();
+		stack[stackSize++] = 0;
+		while(stackSize > 0)
+		{
+			node = stack[--stackSize];
+			
+			// if the query ball does not intersect the bounding box, do nothing
+			if(Math.sqrt(this.minDistanceSq(centre, node)) > radius) continue;
+			
+			// if the query covers the bounding box completely, report all data objects of the node
+			if(Math.sqrt(this.maxDistanceSq(centre, node)) < radius)
+			{
+				for(i=this.nodeStart[node]; i<this.nodeEnd[node]; i++) context.addResult(this.dataIndex[i]);
+				continue;
+			}
+			
+			if(this.nodeRight[node] < 0)
+			{
+				for(i=this.nodeStart[node]; i<this.nodeEnd[node]; i++)
+				{
+					if(Math.sqrt(DAKernels.distanceSq(centre, this.points, i*dim, dim)) < radius) context.addResult(this.dataIndex[i]);
+				}
+			}
+			else
+			{
+				stack[stackSize++] = this.nodeRight[node];
+				stack[stackSize++] = node + 1;
+			}
+		}
+		
+		return context.resultCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNQueryProvider#knnQuery(java.util.Collection, java.lang.Object, int)
+	 */
+	@Override
+	public Collection<IndexedDataObject<double[]>> knnQuery(Collection<IndexedDataObject<double[]>> result, double[] centre, int k)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(result == null) result = new ArrayList<IndexedDataObject<double[]>>(k);
+		if(k <= 0) return result;
+		
+		int[] indices = new int[k];
+		int count = this.knnQuery(centre, k, indices, null, new QueryContext(k));
+		for(int i=0; i<count; i++) result.add(this.dataSet.get(indices[i]));
+		
+		return result;
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNIndexQueryProvider#knnQuery(java.lang.Object, int, int[], double[], data.set.structures.QueryContext)
+	 */
+	@Override
+	public int knnQuery(double[] centre, int k, int[] indices, double[] distances, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(k <= 0) return 0;
+		if(indices.length < k || (distances != null && distances.length < k)) throw new IllegalArgumentException("The result arrays must have at least k elements. k: " + k);
+		
+		int i, node, left, right, count, stackSize = 0;
+		int dim = this.dimension;
+		int[] stack = context.nodeStack(this.height + 2);
+		double[] stackBound = context.valueStack(this.height + 2);
+		double dist, bound, boundLeft, boundRight;
+		
+		// the neighbour heap holds positions in dataIndex
+		context.startKNN(k);
+		stack[stackSize] = 0;
+		stackBound[stackSize] = 0.0d;
+		stackSize++;
+		while(stackSize > 0)
+		{
+			stackSize--;
+			node = stack[stackSize];
+			bound = stackBound[stackSize];
+			
+			// the node can not contain a closer data object
+			if(bound >= context.kthDistance()) continue;
+			
+			if(this.nodeRight[node] < 0)
+			{
+				for(i=this.nodeStart[node]; i<this.nodeEnd[node]; i++)
+				{
+					dist = Math.sqrt(DAKernels.distanceSq(centre, this.points, i*dim, dim));
+					context.offer(i, dist);
+				}
+			}
+			else
+			{
+				left = node + 1;
+				right = this.nodeRight[node];
+				boundLeft = Math.sqrt(this.minDistanceSq(centre, left));
+				boundRight = Math.sqrt(this.minDistanceSq(centre, right));
+				
+				// push the farther child first, so the closer one is processed first
+				if(boundLeft <= boundRight)
+				{
+					stack[stackSize] = right;	stackBound[stackSize] = boundRight;	stackSize++;
+					stack[stackSize] = left;	stackBound[stackSize] = boundLeft;	stackSize++;
+				}
+				else
+				{
+					stack[stackSize] = left;	stackBound[stackSize] = boundLeft;	stackSize++;
+					stack[stackSize] = right;	stackBound[stackSize] = boundRight;	stackSize++;
+				}
+			}
+		}
+		
+		// the result is in ascending order w.r.t. to the distances.
+		count = context.drainNeighbours(indices, distances);
+		for(i=0; i<count; i++) indices[i] = this.dataIndex[indices[i]];
+		
+		return count;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#getDataSet()
+	 */
+	@Override
+	public IndexedDataSet<double[]> getDataSet()
+	{
+		return this.dataSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#setDataSet(data.set.IndexedDataSet)
+	 */
+	@Override
+	public void setDataSet(IndexedDataSet<double[]> dataSet)
+	{
+		if(!dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		this.clearBuild();
+		this.dataSet = dataSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#clearBuild()
+	 */
+	@Override
+	public void clearBuild()
+	{
+		this.dataIndex = null;
+		this.points = null;
+		this.nodeStart = null;
+		this.nodeEnd = null;
+		this.nodeRight = null;
+		this.nodeMin = null;
+		this.nodeMax = null;
+		this.nodeCount = 0;
+		this.height = 0;
+		this.build = false;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#isBuild()
+	 */
+	@Override
+	public boolean isBuild()
+	{
+		return this.build;
+	}
+
+	/**
+	 * @return the maximal number of data objects in a leaf
+	 */
+	public int getBucketSize()
+	{
+		return this.bucketSize;
+	}
+
+	/**
+	 * Sets the maximal number of data objects in a leaf. Takes effect with the next build.
+	 * 
+	 * @param bucketSize the maximal number of data objects in a leaf
+	 */
+	public void setBucketSize(int bucketSize)
+	{
+		if(bucketSize < 1) throw new IllegalArgumentException("The bucket size must be at least 1. Specified bucket size: " + bucketSize);
+		
+		this.bucketSize = bucketSize;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getNodeCount()
+	{
+		return this.nodeCount;
+	}
+
+	/**
+	 * @return the height of the tree
+	 */
+	public int height()
+	{
+		return this.height;
+	}
+	
+	/**
+	 * @return the number of data objects in the tree
+	 */
+	public int size()
+	{
+		return (this.build)? this.dataIndex.length : 0;
+	}
+}
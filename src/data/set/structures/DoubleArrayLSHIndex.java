@@ -0,0 +1,503 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set.structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import data.objects.doubleArray.DAKernels;
+import data.set.DataSetNotSealedException;
+import data.set.IndexedDataObject;
+import data.set.IndexedDataSet;
+import data.set.structures.queries.KNNIndexQueryProvider;
+import data.set.structures.queries.SphereIndexQueryProvider;
+
+/**
+ * A locality-sensitive hashing index for double arrays with the euclidean distance. In high dimensions, the
+ * balls and boxes of the trees overlap the query spheres of almost all nodes, so the tree queries degenerate to
+ * linear scans with additional overhead. This index does not search at all: each data object is hashed into one
+ * bucket of each of several hash tables, such that close data objects are likely to share a bucket in at least one of
+ * them. A query only looks at the data objects in its own buckets.<br>
+ * <br>
+ * The hash functions are p-stable: each of the <code>hashCount</code> hash values of a table is
+ * <code>floor((a x + b) / w)</code>, with a random gaussian direction <code>a</code>, a random offset <code>b</code>
+ * in [0, w) and the bucket width <code>w</code>. Two data objects with distance d have the same hash value with a
+ * probability that decreases with d/w. More hash values per table make the buckets smaller and more selective,
+ * more tables increase the chance that a close data object is found. The bucket width should be about the radius of
+ * the sphere queries, or the distance of the k-th nearest neighbour, up to a small factor.<br>
+ * <br>
+ * The queries are approximate: data objects that do not share a bucket with the query object are missed. If the
+ * candidates are verified (default), their exact distances are calculated: sphere queries report only data objects
+ * within the radius and knn queries report the k closest candidates. Without verification, sphere queries report all
+ * candidates and knn queries the k candidates that share a bucket with the query object in the most tables, which
+ * avoids nearly all distance calculations, but also admits data objects that are not close.<br>
+ * <br>
+ * The buckets of a table are stored as one sorted array of 64 bit entries: the bucket hash in the upper 32 bits and the
+ * index of the data object in the lower 32 bits, so a bucket is a contiguous range that is found by binary search.
+ *
+ * Paper: Datar, M.; Immorlica, N.; Indyk, P. & Mirrokni, V. S. Locality-sensitive hashing scheme based on p-stable distributions Proceedings of the twentieth annual symposium on Computational geometry, 2004, 253-262
+ *
+ * @author Roland Winkler
+ */
+public class DoubleArrayLSHIndex implements KNNIndexQueryProvider<double[]>, SphereIndexQueryProvider<double[]>
+{
+	/**  */
+	private static final long	serialVersionUID	= -3094818650232867761L;
+
+	/** The default number of hash tables. */
+	public static final int DEFAULT_TABLE_COUNT = 10;
+	
+	/** The default number of hash values per table. */
+	public static final int DEFAULT_HASH_COUNT = 8;
+	
+	/** The seed for the random hash functions, so the hash functions are the same for each build. */
+	private static final long HASH_SEED = 2290416735191L;
+	
+	/** The data set */
+	protected IndexedDataSet<double[]> dataSet;
+	
+	/** The number of hash tables. */
+	protected int tableCount;
+	
+	/** The number of hash values per table. */
+	protected int hashCount;
+	
+	/** The width of the buckets of the hash values. */
+	protected double bucketWidth;
+	
+	/** true if the candidates of the queries are verified by their exact distances. */
+	protected boolean verify;
+	
+	/** The number of coordinates of the data objects. */
+	protected int dimension;
+	
+	/** true if the index is build */
+	protected boolean build;
+	
+	/** The projection directions of all hash values, table by table, row-major. */
+	protected double[] directions;
+	
+	/** The offsets of all hash values, table by table. */
+	protected double[] offsets;
+	
+	/** For each table, the sorted entries of the data objects: bucket hash in the upper and index in the lower 32 bits. */
+	protected long[][] tables;
+	
+	/**
+	 * @param dataSet
+	 * @param bucketWidth the width of the buckets of the hash values
+	 */
+	public DoubleArrayLSHIndex(IndexedDataSet<double[]> dataSet, double bucketWidth)
+	{
+		this(dataSet, DoubleArrayLSHIndex.DEFAULT_TABLE_COUNT, DoubleArrayLSHIndex.DEFAULT_HASH_COUNT, bucketWidth);
+	}
+	
+	/**
+	 * @param dataSet
+	 * @param tableCount the number of hash tables
+	 * @param hashCount the number of hash values per table
+	 * @param bucketWidth the width of the buckets of the hash values
+	 */
+	public DoubleArrayLSHIndex(IndexedDataSet<double[]> dataSet, int tableCount, int hashCount, double bucketWidth)
+	{
+		if(tableCount < 1) throw new IllegalArgumentException("The number of tables must be at least 1. Specified number of tables: " + tableCount);
+		if(hashCount < 1) throw new IllegalArgumentException("The number of hash values must be at least 1. Specified number of hash values: " + hashCount);
+		if(!(bucketWidth > 0.0d)) throw new IllegalArgumentException("The bucket width must be larger than 0. Specified bucket width: " + bucketWidth);
+		
+		this.dataSet = dataSet;
+		this.tableCount = tableCount;
+		this.hashCount = hashCount;
+		this.bucketWidth = bucketWidth;
+		this.verify = true;
+		this.build = false;
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#build()
+	 */
+	@Override
+	public void build()
+	{
+		if(!this.dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		if(this.isBuild()) this.clearBuild();
+		
+		int i, j, l, n = this.dataSet.size();
+		Random rand = new Random(DoubleArrayLSHIndex.HASH_SEED);
+		long[] table;
+		
+		// if there are no data objects in the data set, do nothing.
+		if(n == 0) return;
+		
+		this.dimension = this.dataSet.get(0).element.length;
+		this.directions = new double[this.tableCount*this.hashCount*this.dimension];
+		this.offsets = new double[this.tableCount*this.hashCount];
+		for(i=0; i<this.directions.length; i++) this.directions[i] = rand.nextGaussian();
+		for(j=0; j<this.offsets.length; j++) this.offsets[j] = rand.nextDouble()*this.bucketWidth;
+		
+		this.tables = new long[this.tableCount][];
+		for(l=0; l<this.tableCount; l++)
+		{
+			table = new long[n];
+			for(i=0; i<n; i++) table[i] = DoubleArrayLSHIndex.entry(this.hash(this.dataSet.get(i).element, l), i);
+			Arrays.sort(table);
+			this.tables[l] = table;
+		}
+		
+		this.build = true;
+	}
+	
+	/**
+	 * Calculates the bucket hash of a data object in one table. The hash values of the table are combined
+	 * and mixed into 32 bits. Different buckets might get the same bucket hash, which only adds a few
+	 * candidates to the queries.
+	 * 
+	 * @param x the data object
+	 * @param l the table
+	 * @return the bucket hash
+	 */
+	protected int hash(double[] x, int l)
+	{
+		int j, base = l*this.hashCount;
+		long h = 0L;
+		double value;
+		
+		for(j=base; j<base+this.hashCount; j++)
+		{
+			value = (DAKernels.scalarProduct(x, this.directions, j*this.dimension, this.dimension) + this.offsets[j])/this.bucketWidth;
+			h = (h + (long)Math.floor(value))*0x9E3779B97F4A7C15L;
+		}
+		h ^= h >>> 29;
+		h *= 0xBF58476D1CE4E5B9L;
+		h ^= h >>> 32;
+		
+		return (int)h;
+	}
+	
+	/**
+	 * @param hash the bucket hash
+	 * @param index the index of the data object
+	 * @return the table entry of the data object
+	 */
+	private static long entry(int hash, int index)
+	{
+		return (((long)hash) << 32) | index;
+	}
+	
+	/**
+	 * @param table the sorted entries of a table
+	 * @param hash a bucket hash
+	 * @return the position of the first entry of the bucket, or of the next larger bucket if the bucket is empty
+	 */
+	private static int bucketStart(long[] table, int hash)
+	{
+		long key = DoubleArrayLSHIndex.entry(hash, 0);
+		int low = 0, high = table.length, middle;
+		
+		while(low < high)
+		{
+			middle = (low + high) >>> 1;
+			if(table[middle] < key) low = middle + 1;
+			else high = middle;
+		}
+		
+		return low;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereQueryProvider#sphereQuery(java.util.Collection, java.lang.Object, double)
+	 */
+	@Override
+	public Collection<IndexedDataObject<double[]>> sphereQuery(Collection<IndexedDataObject<double[]>> result, double[] centre, double radius)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(result == null) result = new ArrayList<IndexedDataObject<double[]>>();
+		
+		QueryContext context = new QueryContext();
+		int count = this.sphereQuery(centre, radius, context);
+		int[] indices = context.getResultIndices();
+		for(int i=0; i<count; i++) result.add(this.dataSet.get(indices[i]));
+		
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.SphereIndexQueryProvider#sphereQuery(java.lang.Object, double, data.set.structures.QueryContext)
+	 */
+	@Override
+	public int sphereQuery(double[] centre, double radius, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		int i, l, hash, index, n = this.dataSet.size();
+		int mark = context.startMarks(n);
+		int[] marks = context.getMarks();
+		long[] table;
+		double radiusSq = radius*radius;
+		
+		context.startSphere();
+		for(l=0; l<this.tableCount; l++)
+		{
+			table = this.tables[l];
+			hash = this.hash(centre, l);
+			for(i=DoubleArrayLSHIndex.bucketStart(table, hash); i<n && (int)(table[i] >> 32) == hash; i++)
+			{
+				index = (int)table[i];
+				if(marks[index] == mark) continue;
+				marks[index] = mark;
+				
+				if(!this.verify || DAKernels.distanceSq(centre, this.dataSet.get(index).element, this.dimension) < radiusSq) context.addResult(index);
+			}
+		}
+		
+		return context.resultCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNQueryProvider#knnQuery(java.util.Collection, java.lang.Object, int)
+	 */
+	@Override
+	public Collection<IndexedDataObject<double[]>> knnQuery(Collection<IndexedDataObject<double[]>> result, double[] centre, int k)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(result == null) result = new ArrayList<IndexedDataObject<double[]>>(k);
+		if(k <= 0) return result;
+		
+		int[] indices = new int[k];
+		int count = this.knnQuery(centre, k, indices, null, new QueryContext(k));
+		for(int i=0; i<count; i++) result.add(this.dataSet.get(indices[i]));
+		
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNIndexQueryProvider#knnQuery(java.lang.Object, int, int[], double[], data.set.structures.QueryContext)
+	 */
+	@Override
+	public int knnQuery(double[] centre, int k, int[] indices, double[] distances, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(k <= 0) return 0;
+		if(indices.length < k || (distances != null && distances.length < k)) throw new IllegalArgumentException("The result arrays must have at least k elements. k: " + k);
+		
+		int i, l, hash, index, count, n = this.dataSet.size();
+		int mark = context.startMarks(n);
+		int[] marks = context.getMarks();
+		int[] candidates;
+		double[] collisions = null;
+		long[] table;
+		
+		if(this.verify) context.startKNN(k);
+		else
+		{
+			// the candidates are collected in the result buffer, their collision counts in the node values
+			context.startSphere();
+			collisions = context.nodeValues(n);
+		}
+		
+		for(l=0; l<this.tableCount; l++)
+		{
+			table = this.tables[l];
+			hash = this.hash(centre, l);
+			for(i=DoubleArrayLSHIndex.bucketStart(table, hash); i<n && (int)(table[i] >> 32) == hash; i++)
+			{
+				index = (int)table[i];
+				if(this.verify)
+				{
+					if(marks[index] == mark) continue;
+					marks[index] = mark;
+					context.offer(index, Math.sqrt(DAKernels.distanceSq(centre, this.dataSet.get(index).element, this.dimension)));
+				}
+				else if(marks[index] == mark) collisions[index]++;
+				else
+				{
+					marks[index] = mark;
+					collisions[index] = 1.0d;
+					context.addResult(index);
+				}
+			}
+		}
+		
+		if(!this.verify)
+		{
+			// select the k candidates with the most collisions, then order them by distance
+			count = context.resultCount();
+			candidates = context.getResultIndices();
+			context.startKNN(k);
+			for(i=0; i<count; i++) context.offer(candidates[i], -collisions[candidates[i]]);
+			count = context.drainNeighbours(indices, null);
+			
+			context.startKNN(k);
+			for(i=0; i<count; i++) context.offer(indices[i], Math.sqrt(DAKernels.distanceSq(centre, this.dataSet.get(indices[i]).element, this.dimension)));
+		}
+		
+		// the result is in ascending order w.r.t. to the distances.
+		return context.drainNeighbours(indices, distances);
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#getDataSet()
+	 */
+	@Override
+	public IndexedDataSet<double[]> getDataSet()
+	{
+		return this.dataSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#setDataSet(data.set.IndexedDataSet)
+	 */
+	@Override
+	public void setDataSet(IndexedDataSet<double[]> dataSet)
+	{
+		if(!dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		this.clearBuild();
+		this.dataSet = dataSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#clearBuild()
+	 */
+	@Override
+	public void clearBuild()
+	{
+		this.directions = null;
+		this.offsets = null;
+		this.tables = null;
+		this.build = false;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#isBuild()
+	 */
+	@Override
+	public boolean isBuild()
+	{
+		return this.build;
+	}
+
+	/**
+	 * @return the number of hash tables
+	 */
+	public int getTableCount()
+	{
+		return this.tableCount;
+	}
+
+	/**
+	 * Sets the number of hash tables. Takes effect with the next build.
+	 * 
+	 * @param tableCount the number of hash tables
+	 */
+	public void setTableCount(int tableCount)
+	{
+		if(tableCount < 1) throw new IllegalArgumentException("The number of tables must be at least 1. Specified number of tables: " + tableCount);
+		
+		this.tableCount = tableCount;
+	}
+
+	/**
+	 * @return the number of hash values per table
+	 */
+	public int getHashCount()
+	{
+		return this.hashCount;
+	}
+
+	/**
+	 * Sets the number of hash values per table. Takes effect with the next build.
+	 * 
+	 * @param hashCount the number of hash values per table
+	 */
+	public void setHashCount(int hashCount)
+	{
+		if(hashCount < 1) throw new IllegalArgumentException("The number of hash values must be at least 1. Specified number of hash values: " + hashCount);
+		
+		this.hashCount = hashCount;
+	}
+
+	/**
+	 * @return the width of the buckets of the hash values
+	 */
+	public double getBucketWidth()
+	{
+		return this.bucketWidth;
+	}
+
+	/**
+	 * Sets the width of the buckets of the hash values. Takes effect with the next build.
+	 * 
+	 * @param bucketWidth the width of the buckets of the hash values
+	 */
+	public void setBucketWidth(double bucketWidth)
+	{
+		if(!(bucketWidth > 0.0d)) throw new IllegalArgumentException("The bucket width must be larger than 0. Specified bucket width: " + bucketWidth);
+		
+		this.bucketWidth = bucketWidth;
+	}
+
+	/**
+	 * @return true if the candidates of the queries are verified by their exact distances
+	 */
+	public boolean isVerify()
+	{
+		return this.verify;
+	}
+
+	/**
+	 * Sets whether the candidates of the queries are verified by their exact distances. Takes effect immediately.
+	 * 
+	 * @param verify true to verify the candidates
+	 */
+	public void setVerify(boolean verify)
+	{
+		this.verify = verify;
+	}
+	
+	/**
+	 * @return the number of data objects in the index
+	 */
+	public int size()
+	{
+		return (this.build)? this.tables[0].length : 0;
+	}
+}
@@ -0,0 +1,526 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set.structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import data.algebra.Distance;
+import data.set.IndexedDataObject;
+import data.set.IndexedDataSet;
+
+/**
+ * Calculates the k nearest neighbours of all data objects of a query data set in a reference data set by
+ * traversing a tree of the query data set and a tree of the reference data set together. If both trees are the same,
+ * the result are the k nearest neighbours of each data object among all other data objects (monochromatic join),
+ * otherwise it is a bichromatic join between two different data sets. The trees can be {@link BallTree}s or
+ * {@link CenteredBallTree}s and must use the same metric distance function.<br>
+ * <br>
+ * The traversal visits pairs of a query node and a reference node. A pair is pruned if the smallest possible distance
+ * between their balls is not smaller than the largest k-th neighbour distance found so far in the query subtree, so a
+ * reference subtree is excluded for a whole group of query objects at once. Otherwise, the node with the larger radius
+ * is split. Compared to a k-nearest neighbour query for each data object, which always starts at the root, this
+ * saves most of the distance calculations near the root of the reference tree. The savings are largest for data sets
+ * with a low intrinsic dimension. In higher dimensions, the balls of the nodes overlap too much for pruning whole
+ * pairs of subtrees and individual k-nearest neighbour queries can require less distance calculations.<br>
+ * <br>
+ * The result is stored in two arrays of size n*k, row i contains the IDs of the neighbours of the query data object
+ * with ID i and their distances, in ascending order w.r.t. the distances. If the reference data set contains less than
+ * k (other) data objects, the rows are filled up with -1 and positive infinity.
+ *
+ * Paper: Gray, A. G. & Moore, A. W. 'N-Body' Problems in Statistical Learning Advances in Neural Information Processing Systems 13, MIT Press, 2001, 521-527
+ * Paper: Curtin, R. R.; March, W. B.; Ram, P.; Anderson, D. V.; Gray, A. G. & Isbell, C. L. Tree-Independent Dual-Tree Algorithms Proceedings of the 30th International Conference on Machine Learning, 2013, 1435-1443
+ *
+ * @author Roland Winkler
+ */
+public class DualTreeKNNJoin<T>
+{
+	/**
+	 * A tree in a flat representation for the traversal. Each node has a ball that contains its subtree and
+	 * the own data objects of the node, that is, the data object of the node and its equivalents.
+	 * The own data objects are at the same location, which might not be the centre of the ball.
+	 */
+	private static class FlatTree<T>
+	{
+		/** The number of nodes */
+		private int nodeCount;
+		
+		/** The centres of the balls of the nodes */
+		private ArrayList<T> center;
+		
+		/** The radii of the balls of the nodes */
+		private double[] radius;
+		
+		/** The distance of the location of the own data objects to the centre of the ball, 0 for ball trees */
+		private double[] ownRadius;
+		
+		/** The location of the own data objects of the nodes */
+		private ArrayList<T> ownLocation;
+		
+		/** The position of the first own data object of each node in <code>ownID</code>. */
+		private int[] ownStart;
+		
+		/** The position after the last own data object of each node in <code>ownID</code>. */
+		private int[] ownEnd;
+		
+		/** The IDs of the own data objects of the nodes */
+		private int[] ownID;
+		
+		/** The left children, -1 if there is none */
+		private int[] left;
+		
+		/** The right children, -1 if there is none */
+		private int[] right;
+		
+		/** true if the own data objects are not located at the centre of the ball */
+		private boolean centered;
+		
+		/**
+		 * Converts a built tree into the flat representation.
+		 * 
+		 * @param root the root of the tree
+		 * @param size the number of data objects in the tree
+		 * @param centered true if the ball of the nodes is around the center of gravity
+		 * @param distance the distance function, used to calculate the own radii of centered trees
+		 */
+		private <N extends AbstractTreeNode<T, N, ?>> FlatTree(N root, int size, boolean centered, Distance<T> distance)
+		{
+			int i, node, ownCount = 0;
+			N treeNode;
+			ArrayList<N> nodes = new ArrayList<N>(size);
+			
+			this.centered = centered;
+			
+			// the nodes in breadth first order, the children of node i are found later in the list
+			nodes.add(root);
+			for(i=0; i<nodes.size(); i++)
+			{
+				treeNode = nodes.get(i);
+				if(treeNode.leftChild != null) nodes.add(treeNode.leftChild);
+				if(treeNode.rightChild != null) nodes.add(treeNode.rightChild);
+			}
+			
+			this.nodeCount = nodes.size();
+			this.center = new ArrayList<T>(this.nodeCount);
+			this.ownLocation = new ArrayList<T>(this.nodeCount);
+			this.radius = new double[this.nodeCount];
+			this.ownRadius = new double[this.nodeCount];
+			this.ownStart = new int[this.nodeCount];
+			this.ownEnd = new int[this.nodeCount];
+			this.ownID = new int[size];
+			this.left = new int[this.nodeCount];
+			this.right = new int[this.nodeCount];
+			
+			int child = 1;
+			for(node=0; node<this.nodeCount; node++)
+			{
+				treeNode = nodes.get(node);
+				
+				if(centered)
+				{
+					CenteredBallTreeNode<?> centeredNode = (CenteredBallTreeNode<?>)treeNode;
+					this.center.add(DualTreeKNNJoin.<T>cast(centeredNode.getCenterOfGravity()));
+					this.radius[node] = centeredNode.getRadius();
+					this.ownRadius[node] = distance.distance(this.center.get(node), treeNode.obj.element);
+				}
+				else
+				{
+					this.center.add(treeNode.obj.element);
+					this.radius[node] = ((BallTreeNode<?>)treeNode).getRadius();
+					this.ownRadius[node] = 0.0d;
+				}
+				this.ownLocation.add(treeNode.obj.element);
+				
+				this.ownStart[node] = ownCount;
+				this.ownID[ownCount++] = treeNode.obj.getID();
+				if(treeNode.equivalents != null) for(IndexedDataObject<T> equivalent:treeNode.equivalents) this.ownID[ownCount++] = equivalent.getID();
+				this.ownEnd[node] = ownCount;
+				
+				this.left[node] = -1;
+				this.right[node] = -1;
+				if(treeNode.leftChild != null) this.left[node] = child++;
+				if(treeNode.rightChild != null) this.right[node] = child++;
+			}
+		}
+		
+		/**
+		 * @param node a node
+		 * @return true if the node has no children
+		 */
+		private boolean isLeaf(int node)
+		{
+			return this.left[node] < 0 && this.right[node] < 0;
+		}
+	}
+	
+	/** The distance function */
+	protected final Distance<T> distanceFunction;
+	
+	/** The number of neighbours */
+	protected final int k;
+	
+	/** The query data set */
+	protected final IndexedDataSet<T> queryDataSet;
+	
+	/** true if the query and the reference tree are the same, a data object is then not its own neighbour */
+	protected final boolean monochromatic;
+	
+	/** The query tree */
+	private final FlatTree<T> query;
+	
+	/** The reference tree */
+	private final FlatTree<T> reference;
+	
+	/** The IDs of the neighbours, row-major, k per query data object */
+	protected int[] neighbourIndices;
+	
+	/** The distances of the neighbours, row-major, k per query data object */
+	protected double[] neighbourDistances;
+	
+	/** The number of neighbours found for each query data object */
+	protected int[] neighbourCount;
+	
+	/** For each query node, an upper bound for the k-th neighbour distance of all data objects in its subtree */
+	private double[] nodeBound;
+	
+	/**
+	 * Monochromatic join: the k nearest other data objects for each data object of the tree.
+	 * 
+	 * @param tree a built ball tree
+	 * @param k the number of neighbours
+	 */
+	public DualTreeKNNJoin(BallTree<T> tree, int k)
+	{
+		this(tree, tree, k);
+	}
+	
+	/**
+	 * Bichromatic join: the k nearest data objects of the reference tree for each data object of the query tree.
+	 * If both trees are the same object, the join is monochromatic.
+	 * 
+	 * @param queryTree a built ball tree of the query data set
+	 * @param referenceTree a built ball tree of the reference data set, with the same distance function
+	 * @param k the number of neighbours
+	 */
+	public DualTreeKNNJoin(BallTree<T> queryTree, BallTree<T> referenceTree, int k)
+	{
+		if(k < 1) throw new IllegalArgumentException("The number of neighbours must be at least 1. Specified number: " + k);
+		if(!queryTree.isBuild() || !referenceTree.isBuild()) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		this.distanceFunction = queryTree.getDistanceFunction();
+		this.k = k;
+		this.queryDataSet = queryTree.getDataSet();
+		this.monochromatic = (queryTree == referenceTree);
+		this.query = new FlatTree<T>(queryTree.root, queryTree.size(), false, this.distanceFunction);
+		this.reference = (this.monochromatic)? this.query : new FlatTree<T>(referenceTree.root, referenceTree.size(), false, this.distanceFunction);
+	}
+	
+	/**
+	 * Monochromatic join: the k nearest other data objects for each data object of the tree.
+	 * 
+	 * @param tree a built centered ball tree
+	 * @param k the number of neighbours
+	 */
+	public DualTreeKNNJoin(CenteredBallTree<T> tree, int k)
+	{
+		this(tree, tree, k);
+	}
+	
+	/**
+	 * Bichromatic join: the k nearest data objects of the reference tree for each data object of the query tree.
+	 * If both trees are the same object, the join is monochromatic.
+	 * 
+	 * @param queryTree a built centered ball tree of the query data set
+	 * @param referenceTree a built centered ball tree of the reference data set, with the same distance function
+	 * @param k the number of neighbours
+	 */
+	public DualTreeKNNJoin(CenteredBallTree<T> queryTree, CenteredBallTree<T> referenceTree, int k)
+	{
+		if(k < 1) throw new IllegalArgumentException("The number of neighbours must be at least 1. Specified number: " + k);
+		if(!queryTree.isBuild() || !referenceTree.isBuild()) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		this.distanceFunction = queryTree.getDistanceFunction();
+		this.k = k;
+		this.queryDataSet = queryTree.getDataSet();
+		this.monochromatic = (queryTree == referenceTree);
+		this.query = new FlatTree<T>(queryTree.root, queryTree.size(), true, this.distanceFunction);
+		this.reference = (this.monochromatic)? this.query : new FlatTree<T>(referenceTree.root, referenceTree.size(), true, this.distanceFunction);
+	}
+	
+	/**
+	 * The centre of gravity of a centered ball tree node has the type of the data objects.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T cast(Object obj)
+	{
+		return (T)obj;
+	}
+	
+	/**
+	 * Calculates the neighbours of all query data objects.
+	 */
+	public void apply()
+	{
+		int n = this.queryDataSet.size();
+		
+		this.neighbourIndices = new int[n*this.k];
+		this.neighbourDistances = new double[n*this.k];
+		this.neighbourCount = new int[n];
+		this.nodeBound = new double[this.query.nodeCount];
+		Arrays.fill(this.nodeBound, Double.POSITIVE_INFINITY);
+		
+		this.traverse(0, false, 0, false, this.distanceFunction.distance(this.query.center.get(0), this.reference.center.get(0)));
+		
+		// sort the neighbours and fill up the rows
+		for(int i=0; i<n; i++)
+		{
+			DistanceHeap.sortAscending(this.neighbourDistances, this.neighbourIndices, i*this.k, this.neighbourCount[i]);
+			for(int j=this.neighbourCount[i]; j<this.k; j++)
+			{
+				this.neighbourIndices[i*this.k + j] = -1;
+				this.neighbourDistances[i*this.k + j] = Double.POSITIVE_INFINITY;
+			}
+		}
+		this.nodeBound = null;
+	}
+	
+	/**
+	 * Processes all pairs of query data objects of the query node and reference data objects of the reference node.
+	 * 
+	 * @param q the query node
+	 * @param qOwn if true, only the own data objects of the query node are considered, otherwise its whole subtree
+	 * @param r the reference node
+	 * @param rOwn if true, only the own data objects of the reference node are considered, otherwise its whole subtree
+	 * @param dist the distance between the centres of the query and the reference node
+	 */
+	private void traverse(int q, boolean qOwn, int r, boolean rOwn, double dist)
+	{
+		int leftChild, rightChild;
+		double distLeft, distRight;
+		
+		qOwn |= this.query.isLeaf(q);
+		rOwn |= this.reference.isLeaf(r);
+		
+		double qRadius = (qOwn)? this.query.ownRadius[q] : this.query.radius[q];
+		double rRadius = (rOwn)? this.reference.ownRadius[r] : this.reference.radius[r];
+		
+		// prune if no reference data object can improve the neighbours of any query data object
+		if(dist - qRadius - rRadius >= ((qOwn)? this.ownBound(q) : this.subtreeBound(q))) return;
+		
+		if(qOwn && rOwn)
+		{
+			this.baseCase(q, r, dist);
+			return;
+		}
+		
+		// split the reference node if the query node can not be split or if the reference ball is larger
+		if(qOwn || (!rOwn && rRadius > qRadius))
+		{
+			leftChild = this.reference.left[r];
+			rightChild = this.reference.right[r];
+			distLeft = (leftChild < 0)? 0.0d : this.distanceFunction.distance(this.query.center.get(q), this.reference.center.get(leftChild));
+			distRight = (rightChild < 0)? 0.0d : this.distanceFunction.distance(this.query.center.get(q), this.reference.center.get(rightChild));
+			
+			// closer child first
+			if(rightChild < 0 || (leftChild >= 0 && distLeft <= distRight))
+			{
+				if(leftChild >= 0) this.traverse(q, qOwn, leftChild, false, distLeft);
+				if(rightChild >= 0) this.traverse(q, qOwn, rightChild, false, distRight);
+			}
+			else
+			{
+				this.traverse(q, qOwn, rightChild, false, distRight);
+				if(leftChild >= 0) this.traverse(q, qOwn, leftChild, false, distLeft);
+			}
+			
+			// the own data objects of the reference node last, the bounds of the query node are tighter then
+			this.traverse(q, qOwn, r, true, dist);
+		}
+		else
+		{
+			this.traverse(q, true, r, rOwn, dist);
+			
+			// the bound of the subtree is also a bound for the subtrees of the children
+			double bound = this.subtreeBound(q);
+			leftChild = this.query.left[q];
+			rightChild = this.query.right[q];
+			if(leftChild >= 0) this.nodeBound[leftChild] = Math.min(this.nodeBound[leftChild], bound);
+			if(rightChild >= 0) this.nodeBound[rightChild] = Math.min(this.nodeBound[rightChild], bound);
+			
+			if(leftChild >= 0) this.traverse(leftChild, false, r, rOwn, this.distanceFunction.distance(this.query.center.get(leftChild), this.reference.center.get(r)));
+			if(rightChild >= 0) this.traverse(rightChild, false, r, rOwn, this.distanceFunction.distance(this.query.center.get(rightChild), this.reference.center.get(r)));
+			
+			this.nodeBound[q] = this.subtreeBound(q);
+		}
+	}
+	
+	/**
+	 * Offers the own data objects of the reference node to the neighbours of the own data objects of the query node.
+	 * 
+	 * @param q the query node
+	 * @param r the reference node
+	 * @param dist the distance between the centres of the query and the reference node
+	 */
+	private void baseCase(int q, int r, double dist)
+	{
+		int i, j, queryID, referenceID;
+		
+		// the own data objects are at the centre in ball trees
+		if(this.query.centered) dist = this.distanceFunction.distance(this.query.ownLocation.get(q), this.reference.ownLocation.get(r));
+		
+		for(i=this.query.ownStart[q]; i<this.query.ownEnd[q]; i++)
+		{
+			queryID = this.query.ownID[i];
+			for(j=this.reference.ownStart[r]; j<this.reference.ownEnd[r]; j++)
+			{
+				referenceID = this.reference.ownID[j];
+				if(this.monochromatic && queryID == referenceID) continue;
+				
+				this.offer(queryID, referenceID, dist);
+			}
+		}
+	}
+	
+	/**
+	 * Offers a reference data object to the neighbours of a query data object.
+	 * 
+	 * @param queryID the ID of the query data object
+	 * @param referenceID the ID of the reference data object
+	 * @param dist the distance between them
+	 */
+	private void offer(int queryID, int referenceID, double dist)
+	{
+		int offset = queryID*this.k;
+		
+		if(this.neighbourCount[queryID] < this.k)
+		{
+			DistanceHeap.siftUp(this.neighbourDistances, this.neighbourIndices, offset, this.neighbourCount[queryID], dist, referenceID);
+			this.neighbourCount[queryID]++;
+		}
+		else if(dist < this.neighbourDistances[offset])
+		{
+			DistanceHeap.siftDown(this.neighbourDistances, this.neighbourIndices, offset, this.k, dist, referenceID);
+		}
+	}
+	
+	/**
+	 * The bound of a subtree is the largest bound of its parts. Additionally,
+	 * the neighbours of the own data objects are also within reach of all other data objects of the subtree:
+	 * for a data object x in the subtree and an own data object o, the k-th neighbour distance of x is at most
+	 * the k-th neighbour distance of o plus dist(o, x), which is bounded by the radius and the own radius.
+	 * 
+	 * @param q a query node
+	 * @return an upper bound for the k-th neighbour distance of all data objects in the subtree of the query node
+	 */
+	private double subtreeBound(int q)
+	{
+		double ownBound = this.ownBound(q);
+		double maxBound = ownBound;
+		
+		// the largest bound of the own data objects and the subtrees of the children
+		if(this.query.left[q] >= 0) maxBound = Math.max(maxBound, this.nodeBound[this.query.left[q]]);
+		if(this.query.right[q] >= 0) maxBound = Math.max(maxBound, this.nodeBound[this.query.right[q]]);
+		
+		return Math.min(this.nodeBound[q], Math.min(maxBound, ownBound + this.query.ownRadius[q] + this.query.radius[q]));
+	}
+	
+	/**
+	 * @param q a query node
+	 * @return the largest k-th neighbour distance of the own data objects of the query node found so far
+	 */
+	private double ownBound(int q)
+	{
+		int queryID;
+		double bound = 0.0d;
+		
+		for(int i=this.query.ownStart[q]; i<this.query.ownEnd[q]; i++)
+		{
+			queryID = this.query.ownID[i];
+			if(this.neighbourCount[queryID] < this.k) return Double.POSITIVE_INFINITY;
+			bound = Math.max(bound, this.neighbourDistances[queryID*this.k]);
+		}
+		
+		return bound;
+	}
+
+	/**
+	 * Returns the IDs of the neighbours. Row i, that is, the positions [i*k, (i+1)*k), contains the neighbours of the
+	 * query data object with ID i in ascending order w.r.t. the distances.
+	 * 
+	 * @return the IDs of the neighbours in the reference data set
+	 */
+	public int[] getNeighbourIndices()
+	{
+		return this.neighbourIndices;
+	}
+
+	/**
+	 * Returns the distances of the neighbours, in the same layout as {@link #getNeighbourIndices()}.
+	 * 
+	 * @return the distances of the neighbours
+	 */
+	public double[] getNeighbourDistances()
+	{
+		return this.neighbourDistances;
+	}
+	
+	/**
+	 * @param queryID the ID of a query data object
+	 * @return the number of neighbours found for the query data object, less than k only if the reference data set is too small
+	 */
+	public int getNeighbourCount(int queryID)
+	{
+		return this.neighbourCount[queryID];
+	}
+
+	/**
+	 * @return the number of neighbours
+	 */
+	public int getK()
+	{
+		return this.k;
+	}
+
+	/**
+	 * @return true if the query and the reference tree are the same
+	 */
+	public boolean isMonochromatic()
+	{
+		return this.monochromatic;
+	}
+}
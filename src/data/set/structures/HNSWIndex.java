@@ -0,0 +1,765 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set.structures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import data.algebra.Distance;
+import data.set.DataSetNotSealedException;
+import data.set.IndexedDataObject;
+import data.set.IndexedDataSet;
+import data.set.structures.queries.KNNIndexQueryProvider;
+
+/**
+ * A hierarchical navigable small world graph for approximate k-nearest neighbour queries. In high dimensional
+ * data sets, the balls of the nodes of a tree overlap so much that a k-nearest neighbour query visits most of the
+ * tree. This index trades exactness for speed instead: the data objects are nodes of a graph, in which each data
+ * object is linked to some of its nearest neighbours. A query walks greedily through the graph towards the query object.<br>
+ * <br>
+ * Each data object is assigned to a random number of layers, with an exponentially decreasing probability for the
+ * higher layers. Each layer is a proximity graph of its data objects with at most M links per data object, 2M on
+ * the lowest layer, which contains all data objects. A query descends greedily from the single data object of the
+ * highest layer to the lowest one, where a best-first search keeps the efSearch closest data objects found so far.
+ * The links of a new data object are selected from the efConstruction closest data objects with a heuristic that
+ * prefers links into different directions, which keeps the graph connected for clustered data.<br>
+ * <br>
+ * M and efConstruction control the quality and the construction time of the graph, efSearch controls the trade-off
+ * between recall and speed of the queries and can be changed after the construction. The reported distances are exact,
+ * but some of the true k nearest neighbours might be missing.<br>
+ * <br>
+ * With a parallelism larger than 1, the data objects are inserted concurrently in a fork/join pool. The links of
+ * each data object are guarded by striped locks, so the graph depends on the timing of the threads and differs
+ * slightly between builds, the layers of the data objects do not. The distance function must be safe for concurrent use.
+ *
+ * Paper: Malkov, Y. A. & Yashunin, D. A. Efficient and robust approximate nearest neighbor search using Hierarchical Navigable Small World graphs IEEE Transactions on Pattern Analysis and Machine Intelligence, 2020, 42, 824-836
+ *
+ * @author Roland Winkler
+ */
+public class HNSWIndex<T> implements KNNIndexQueryProvider<T>
+{
+	/**  */
+	private static final long	serialVersionUID	= 2983716491038470215L;
+
+	/** The default maximal number of links per data object on the layers above the lowest layer. */
+	public static final int DEFAULT_M = 16;
+	
+	/** The default number of candidates for the links of a new data object. */
+	public static final int DEFAULT_EF_CONSTRUCTION = 200;
+	
+	/** The default number of candidates of a query. */
+	public static final int DEFAULT_EF_SEARCH = 50;
+	
+	/** The seed for the random layers of the data objects, so the layers are the same for each build. */
+	private static final long LAYER_SEED = 5711931648201L;
+	
+	/** The number of locks for the links of the data objects during a parallel build. */
+	private static final int LOCK_COUNT = 4096;
+	
+	/** The minimal number of data objects that are inserted in one chunk if the graph is build in parallel. */
+	protected static final int MIN_PARALLEL_CHUNK_SIZE = 256;
+	
+	/** The data set */
+	protected IndexedDataSet<T> dataSet;
+	
+	/** The distance function */
+	protected final Distance<T> distanceFunction;
+	
+	/** The maximal number of links per data object on the layers above the lowest layer. */
+	protected final int m;
+	
+	/** The maximal number of links per data object on the lowest layer. */
+	protected final int m0;
+	
+	/** The number of candidates for the links of a new data object. */
+	protected final int efConstruction;
+	
+	/** The number of candidates of a query, at least k are used. */
+	protected int efSearch;
+	
+	/**
+	 *	The number of worker threads that are used by {@link #build()}. If it is 1, the graph is build
+	 *	sequentially in the calling thread.<br>
+	 *	<br>
+	 *	Range of values: <code>parallelism</code> >= 1
+	 */
+	protected int parallelism;
+	
+	/** true if the graph is build */
+	protected boolean build;
+	
+	/** The highest layer of each data object. */
+	protected int[] layer;
+	
+	/**
+	 * The links of each data object. For each layer of the data object, starting with the lowest one, the array contains
+	 * the number of links followed by the indices of the linked data objects, with space for {@link #m0} links on the
+	 * lowest layer and {@link #m} links on the other layers.
+	 */
+	protected int[][] links;
+	
+	/** The data object on the highest layer, where all searches start. */
+	protected volatile int entryPoint;
+	
+	/** The highest layer of the graph. */
+	protected volatile int maxLayer;
+	
+	/** The locks for the links of the data objects during the build. */
+	private transient Object[] locks;
+	
+	/** The lock for the entry point during the build. */
+	private transient Object entryLock;
+	
+	/**
+	 * @param dataSet
+	 * @param distance
+	 */
+	public HNSWIndex(IndexedDataSet<T> dataSet, Distance<T> distance)
+	{
+		this(dataSet, distance, HNSWIndex.DEFAULT_M, HNSWIndex.DEFAULT_EF_CONSTRUCTION);
+	}
+	
+	/**
+	 * @param dataSet
+	 * @param distance
+	 * @param m the maximal number of links per data object on the layers above the lowest layer, 2m on the lowest layer
+	 * @param efConstruction the number of candidates for the links of a new data object
+	 */
+	public HNSWIndex(IndexedDataSet<T> dataSet, Distance<T> distance, int m, int efConstruction)
+	{
+		if(m < 2) throw new IllegalArgumentException("The number of links must be at least 2. Specified number of links: " + m);
+		if(efConstruction < 1) throw new IllegalArgumentException("The number of construction candidates must be at least 1. Specified number: " + efConstruction);
+		
+		this.dataSet = dataSet;
+		this.distanceFunction = distance;
+		this.m = m;
+		this.m0 = 2*m;
+		this.efConstruction = efConstruction;
+		this.efSearch = HNSWIndex.DEFAULT_EF_SEARCH;
+		this.parallelism = 1;
+		this.build = false;
+	}
+	
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#build()
+	 */
+	@Override
+	public void build()
+	{
+		if(!this.dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		if(this.isBuild()) this.clearBuild();
+		
+		int i, n = this.dataSet.size();
+		Random rand = new Random(HNSWIndex.LAYER_SEED);
+		double layerFactor = 1.0d/Math.log(this.m);
+		
+		// if there are no data objects in the data set, the graph is empty.
+		if(n == 0)
+		{
+			this.layer = new int[0];
+			this.links = new int[0][];
+			this.build = true;
+			return;
+		}
+		
+		// the layers are drawn in advance, so they do not depend on the order of insertion
+		this.layer = new int[n];
+		this.links = new int[n][];
+		for(i=0; i<n; i++)
+		{
+			this.layer[i] = (int)(-Math.log(1.0d - rand.nextDouble())*layerFactor);
+			this.links[i] = new int[this.linkOffset(this.layer[i] + 1)];
+		}
+		this.locks = new Object[HNSWIndex.LOCK_COUNT];
+		for(i=0; i<HNSWIndex.LOCK_COUNT; i++) this.locks[i] = new Object();
+		this.entryLock = new Object();
+		this.entryPoint = 0;
+		this.maxLayer = this.layer[0];
+		
+		if(this.parallelism > 1 && n > HNSWIndex.MIN_PARALLEL_CHUNK_SIZE)
+		{
+			ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+			try
+			{
+				pool.invoke(new InsertionTask(1, n, Math.max(HNSWIndex.MIN_PARALLEL_CHUNK_SIZE, n/(8*this.parallelism))));
+			}
+			finally
+			{
+				pool.shutdown();
+			}
+		}
+		else
+		{
+			Insertion insertion = new Insertion();
+			for(i=1; i<n; i++) this.insert(i, insertion);
+		}
+		
+		this.locks = null;
+		this.entryLock = null;
+		this.build = true;
+	}
+	
+	/**
+	 * @param layer a layer
+	 * @return the position of the number of links of the layer in the link array of a data object
+	 */
+	private int linkOffset(int layer)
+	{
+		return (layer == 0)? 0 : (1 + this.m0) + (layer-1)*(1 + this.m);
+	}
+	
+	/**
+	 * @return the lock for the links of the data object
+	 */
+	private Object lock(int index)
+	{
+		return this.locks[index & (HNSWIndex.LOCK_COUNT - 1)];
+	}
+	
+	/**
+	 * Inserts a data object into the graph: descends greedily to its highest layer and links it on each
+	 * of its layers to neighbours selected from the closest data objects found.
+	 * 
+	 * @param index the index of the data object
+	 * @param insertion the working memory of the calling thread
+	 */
+	private void insert(int index, Insertion insertion)
+	{
+		T element = this.dataSet.get(index).element;
+		int entry, top, l, i, count, selectedCount, offset;
+		double entryDist;
+		
+		synchronized(this.entryLock)
+		{
+			entry = this.entryPoint;
+			top = this.maxLayer;
+		}
+		
+		entry = this.descend(element, entry, top, this.layer[index], insertion.linkBuffer);
+		entryDist = this.distanceFunction.distance(element, this.dataSet.get(entry).element);
+		
+		for(l = Math.min(top, this.layer[index]); l >= 0; l--)
+		{
+			this.searchLayer(element, entry, entryDist, this.efConstruction, l, insertion.context, insertion.linkBuffer);
+			count = insertion.context.drainNeighbours(insertion.candidates, insertion.candidateDist);
+			selectedCount = this.selectNeighbours(insertion.candidates, insertion.candidateDist, count, this.m, insertion.selected);
+			
+			offset = this.linkOffset(l);
+			synchronized(this.lock(index))
+			{
+				this.links[index][offset] = selectedCount;
+				System.arraycopy(insertion.selected, 0, this.links[index], offset+1, selectedCount);
+			}
+			for(i=0; i<selectedCount; i++) this.connect(insertion.selected[i], index, l, insertion);
+			
+			entry = insertion.candidates[0];
+			entryDist = insertion.candidateDist[0];
+		}
+		
+		if(this.layer[index] > top)
+		{
+			synchronized(this.entryLock)
+			{
+				if(this.layer[index] > this.maxLayer)
+				{
+					this.maxLayer = this.layer[index];
+					this.entryPoint = index;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Adds a link from a data object to a new data object. If the data object has the maximal number of links,
+	 * its links are selected again from its old links and the new data object.
+	 * 
+	 * @param index the index of the data object
+	 * @param newIndex the index of the new data object
+	 * @param l the layer
+	 * @param insertion the working memory of the calling thread
+	 */
+	private void connect(int index, int newIndex, int l, Insertion insertion)
+	{
+		int offset = this.linkOffset(l), maxLinks = (l == 0)? this.m0 : this.m;
+		int i, count;
+		int[] list;
+		T element = this.dataSet.get(index).element;
+		
+		synchronized(this.lock(index))
+		{
+			list = this.links[index];
+			count = list[offset];
+			if(count < maxLinks)
+			{
+				list[offset + 1 + count] = newIndex;
+				list[offset] = count + 1;
+				return;
+			}
+			
+			// sort the old links and the new data object by their distance to the data object
+			for(i=0; i<=count; i++)
+			{
+				int candidate = (i < count)? list[offset + 1 + i] : newIndex;
+				DistanceHeap.siftUp(insertion.shrinkDist, insertion.shrinkIndex, i, this.distanceFunction.distance(element, this.dataSet.get(candidate).element), candidate);
+			}
+			DistanceHeap.sortAscending(insertion.shrinkDist, insertion.shrinkIndex, 0, count + 1);
+			
+			count = this.selectNeighbours(insertion.shrinkIndex, insertion.shrinkDist, count + 1, maxLinks, insertion.shrinkSelected);
+			System.arraycopy(insertion.shrinkSelected, 0, list, offset+1, count);
+			list[offset] = count;
+		}
+	}
+	
+	/**
+	 * Selects at most <code>max</code> neighbours from the candidates. A candidate is only selected if it is closer to the
+	 * new data object than to all neighbours selected before, so the neighbours lie in different directions.
+	 * 
+	 * @param candidates the indices of the candidates, in ascending order w.r.t. their distance to the data object
+	 * @param candidateDist the distances of the candidates to the data object
+	 * @param count the number of candidates
+	 * @param max the maximal number of neighbours
+	 * @param selected the array for the selected neighbours
+	 * @return the number of selected neighbours
+	 */
+	private int selectNeighbours(int[] candidates, double[] candidateDist, int count, int max, int[] selected)
+	{
+		int i, j, selectedCount = 0;
+		T element;
+		
+		for(i=0; i<count && selectedCount < max; i++)
+		{
+			element = this.dataSet.get(candidates[i]).element;
+			for(j=0; j<selectedCount; j++)
+			{
+				if(this.distanceFunction.distance(element, this.dataSet.get(selected[j]).element) < candidateDist[i]) break;
+			}
+			if(j == selectedCount)
+			{
+				selected[selectedCount] = candidates[i];
+				selectedCount++;
+			}
+		}
+		
+		return selectedCount;
+	}
+	
+	/**
+	 * Walks greedily from the entry data object to the closest data object on each layer from <code>fromLayer</code>
+	 * down to <code>toLayer</code> (exclusive).
+	 * 
+	 * @param element the query object
+	 * @param entry the index of the entry data object
+	 * @param fromLayer the highest layer
+	 * @param toLayer the layer below the lowest layer of the walk
+	 * @param linkBuffer buffer to copy the links under a lock during the build, null for unsynchronised access
+	 * @return the index of the closest data object found on the lowest layer of the walk
+	 */
+	private int descend(T element, int entry, int fromLayer, int toLayer, int[] linkBuffer)
+	{
+		int l, i, count, offset, next;
+		int[] list;
+		double entryDist = this.distanceFunction.distance(element, this.dataSet.get(entry).element), dist;
+		boolean changed;
+		
+		for(l=fromLayer; l>toLayer; l--)
+		{
+			changed = true;
+			while(changed)
+			{
+				changed = false;
+				offset = this.linkOffset(l);
+				if(linkBuffer == null)
+				{
+					list = this.links[entry];
+					count = list[offset];
+					offset++;
+				}
+				else
+				{
+					count = this.copyLinks(entry, offset, linkBuffer);
+					list = linkBuffer;
+					offset = 0;
+				}
+				
+				for(i=0; i<count; i++)
+				{
+					next = list[offset + i];
+					dist = this.distanceFunction.distance(element, this.dataSet.get(next).element);
+					if(dist < entryDist)
+					{
+						entryDist = dist;
+						entry = next;
+						changed = true;
+					}
+				}
+			}
+		}
+		
+		return entry;
+	}
+	
+	/**
+	 * Copies the links of a data object on one layer under its lock.
+	 * 
+	 * @return the number of links
+	 */
+	private int copyLinks(int index, int offset, int[] buffer)
+	{
+		synchronized(this.lock(index))
+		{
+			int count = this.links[index][offset];
+			System.arraycopy(this.links[index], offset+1, buffer, 0, count);
+			return count;
+		}
+	}
+	
+	/**
+	 * Best-first search on one layer, starting at the entry data object. The <code>ef</code> closest data objects found
+	 * are stored in the neighbour heap of the query context. The search stops when the closest unexpanded
+	 * data object is farther away than all of them.
+	 * 
+	 * @param element the query object
+	 * @param entry the index of the entry data object
+	 * @param entryDist the distance of the entry data object to the query object
+	 * @param ef the number of data objects to be found
+	 * @param l the layer
+	 * @param context the working memory of the search
+	 * @param linkBuffer buffer to copy the links under a lock during the build, null for unsynchronised access
+	 */
+	private void searchLayer(T element, int entry, double entryDist, int ef, int l, QueryContext context, int[] linkBuffer)
+	{
+		int mark = context.startMarks(this.layer.length);
+		int[] marks = context.getMarks();
+		// min-heap of the candidates w.r.t. the distance, stored with negative keys in a max-heap
+		int[] queue = context.nodeStack(ef + 1);
+		double[] queueKey = context.valueStack(ef + 1);
+		int queueSize = 0, candidate, next, i, count, offset;
+		int[] list;
+		double dist;
+		
+		context.startKNN(ef);
+		marks[entry] = mark;
+		context.offer(entry, entryDist);
+		DistanceHeap.siftUp(queueKey, queue, queueSize, -entryDist, entry);
+		queueSize++;
+		while(queueSize > 0)
+		{
+			// all remaining candidates are farther than the ef closest data objects found so far
+			if(-queueKey[0] > context.kthDistance()) break;
+			
+			candidate = queue[0];
+			queueSize--;
+			DistanceHeap.siftDown(queueKey, queue, queueSize, queueKey[queueSize], queue[queueSize]);
+			
+			offset = this.linkOffset(l);
+			if(linkBuffer == null)
+			{
+				list = this.links[candidate];
+				count = list[offset];
+				offset++;
+			}
+			else
+			{
+				count = this.copyLinks(candidate, offset, linkBuffer);
+				list = linkBuffer;
+				offset = 0;
+			}
+			
+			for(i=0; i<count; i++)
+			{
+				next = list[offset + i];
+				if(marks[next] == mark) continue;
+				marks[next] = mark;
+				
+				dist = this.distanceFunction.distance(element, this.dataSet.get(next).element);
+				if(dist >= context.kthDistance()) continue;
+				
+				context.offer(next, dist);
+				if(queueSize == queue.length)
+				{
+					queue = context.nodeStack(2*queueSize);
+					queueKey = context.valueStack(2*queueSize);
+				}
+				DistanceHeap.siftUp(queueKey, queue, queueSize, -dist, next);
+				queueSize++;
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNQueryProvider#knnQuery(java.util.Collection, java.lang.Object, int)
+	 */
+	@Override
+	public Collection<IndexedDataObject<T>> knnQuery(Collection<IndexedDataObject<T>> result, T centre, int k)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(result == null) result = new ArrayList<IndexedDataObject<T>>(k);
+		if(k <= 0) return result;
+		
+		int[] indices = new int[k];
+		int count = this.knnQuery(centre, k, indices, null, new QueryContext(Math.max(k, this.efSearch)));
+		for(int i=0; i<count; i++) result.add(this.dataSet.get(indices[i]));
+		
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.set.structures.queries.KNNIndexQueryProvider#knnQuery(java.lang.Object, int, int[], double[], data.set.structures.QueryContext)
+	 */
+	@Override
+	public int knnQuery(T centre, int k, int[] indices, double[] distances, QueryContext context)
+	{
+		if(!this.build) throw new DataStructureNotBuildException("Data structure is not build.");
+		
+		if(k <= 0 || this.layer.length == 0) return 0;
+		if(indices.length < k || (distances != null && distances.length < k)) throw new IllegalArgumentException("The result arrays must have at least k elements. k: " + k);
+		
+		int entry = this.descend(centre, this.entryPoint, this.maxLayer, 0, null);
+		
+		this.searchLayer(centre, entry, this.distanceFunction.distance(centre, this.dataSet.get(entry).element), Math.max(k, this.efSearch), 0, context, null);
+		context.retainNearest(k);
+		
+		// the result is in ascending order w.r.t. to the distances.
+		return context.drainNeighbours(indices, distances);
+	}
+	
+	/**
+	 * Working memory of one thread during the build.
+	 */
+	private class Insertion
+	{
+		/** the working memory of the searches */
+		final QueryContext context = new QueryContext(HNSWIndex.this.efConstruction);
+		
+		/** buffer for links that are copied under a lock */
+		final int[] linkBuffer = new int[HNSWIndex.this.m0];
+		
+		/** the candidates for the links of the new data object */
+		final int[] candidates = new int[HNSWIndex.this.efConstruction];
+		
+		/** the distances of the candidates */
+		final double[] candidateDist = new double[HNSWIndex.this.efConstruction];
+		
+		/** the selected links of the new data object */
+		final int[] selected = new int[HNSWIndex.this.m];
+		
+		/** the old links and the new data object of a data object with too many links */
+		final int[] shrinkIndex = new int[HNSWIndex.this.m0 + 1];
+		
+		/** the distances of the old links and the new data object */
+		final double[] shrinkDist = new double[HNSWIndex.this.m0 + 1];
+		
+		/** the selected links of a data object with too many links */
+		final int[] shrinkSelected = new int[HNSWIndex.this.m0];
+	}
+	
+	/**
+	 * Fork/join task for the parallel insertion of the data objects with indices from <code>from</code> (inclusive)
+	 * to <code>to</code> (exclusive). The index range is split in halves until it is not larger than the chunk size.
+	 */
+	protected class InsertionTask extends RecursiveAction
+	{
+		/**  */
+		private static final long	serialVersionUID	= -6112589011635940237L;
+
+		/** the first data object index */
+		private final int from;
+		
+		/** the index after the last data object */
+		private final int to;
+		
+		/** the maximal number of data objects that are inserted without further splitting */
+		private final int chunkSize;
+		
+		/**
+		 * @param from
+		 * @param to
+		 * @param chunkSize
+		 */
+		public InsertionTask(int from, int to, int chunkSize)
+		{
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute()
+		{
+			if(this.to - this.from <= this.chunkSize)
+			{
+				Insertion insertion = new Insertion();
+				for(int i=this.from; i<this.to; i++) HNSWIndex.this.insert(i, insertion);
+				return;
+			}
+			
+			int middle = (this.from + this.to) >>> 1;
+			RecursiveAction.invokeAll(new InsertionTask(this.from, middle, this.chunkSize), new InsertionTask(middle, this.to, this.chunkSize));
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#getDataSet()
+	 */
+	@Override
+	public IndexedDataSet<T> getDataSet()
+	{
+		return this.dataSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#setDataSet(data.set.IndexedDataSet)
+	 */
+	@Override
+	public void setDataSet(IndexedDataSet<T> dataSet)
+	{
+		if(!dataSet.isSealed()) throw new DataSetNotSealedException("The data set is not sealed.");
+		this.clearBuild();
+		this.dataSet = dataSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#clearBuild()
+	 */
+	@Override
+	public void clearBuild()
+	{
+		this.layer = null;
+		this.links = null;
+		this.entryPoint = 0;
+		this.maxLayer = 0;
+		this.build = false;
+	}
+
+	/* (non-Javadoc)
+	 * @see data.DataSetFunctionalityProvider#isBuild()
+	 */
+	@Override
+	public boolean isBuild()
+	{
+		return this.build;
+	}
+
+	/**
+	 * @return the distanceFunction
+	 */
+	public Distance<T> getDistanceFunction()
+	{
+		return this.distanceFunction;
+	}
+
+	/**
+	 * @return the maximal number of links per data object on the layers above the lowest layer
+	 */
+	public int getM()
+	{
+		return this.m;
+	}
+
+	/**
+	 * @return the number of candidates for the links of a new data object
+	 */
+	public int getEfConstruction()
+	{
+		return this.efConstruction;
+	}
+
+	/**
+	 * @return the number of candidates of a query
+	 */
+	public int getEfSearch()
+	{
+		return this.efSearch;
+	}
+
+	/**
+	 * Sets the number of candidates of a query. Larger values increase the recall and the query time.
+	 * A query with k neighbours uses at least k candidates.
+	 * 
+	 * @param efSearch the number of candidates of a query
+	 */
+	public void setEfSearch(int efSearch)
+	{
+		if(efSearch < 1) throw new IllegalArgumentException("The number of search candidates must be at least 1. Specified number: " + efSearch);
+		
+		this.efSearch = efSearch;
+	}
+
+	/**
+	 * @return the number of worker threads used by {@link #build()}
+	 */
+	public int getParallelism()
+	{
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of worker threads used by {@link #build()}. A value of 1 selects the sequential construction.
+	 * 
+	 * @param parallelism the number of worker threads to set
+	 */
+	public void setParallelism(int parallelism)
+	{
+		if(parallelism < 1) throw new IllegalArgumentException("The parallelism must be at least 1. Specified parallelism: " + parallelism);
+		
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @return the highest layer of the graph
+	 */
+	public int getMaxLayer()
+	{
+		return this.maxLayer;
+	}
+	
+	/**
+	 * @return the number of data objects in the graph
+	 */
+	public int size()
+	{
+		return (this.build)? this.layer.length : 0;
+	}
+}
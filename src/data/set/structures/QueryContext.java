@@ -0,0 +1,326 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set.structures;
+
+import java.util.Arrays;
+
+import data.set.structures.queries.KNNIndexQueryProvider;
+import data.set.structures.queries.SphereIndexQueryProvider;
+
+/**
+ * Reusable working memory for the queries of {@link KNNIndexQueryProvider} and {@link SphereIndexQueryProvider}.
+ * A query context holds a binary max-heap of primitive distances and indices for the k nearest neighbours,
+ * a growable buffer for the indices reported by sphere queries, traversal stacks for the data structures and
+ * marks for visited sets of graph searches.
+ * The arrays grow when necessary and are kept for the next query, so after the first few queries,
+ * the queries do not allocate memory anymore.<br>
+ * <br>
+ * A query context is owned by the caller and may be shared between different data structures,
+ * but it must not be used by several threads at the same time. Use one query context per thread.
+ *
+ * @author Roland Winkler
+ */
+public class QueryContext
+{
+	/** The default initial capacity of the arrays. */
+	public static final int DEFAULT_CAPACITY = 32;
+	
+	/** The distances of the neighbour heap, the farthest neighbour is at position 0. */
+	protected double[] heapDist;
+	
+	/** The indices of the neighbour heap. */
+	protected int[] heapIndex;
+	
+	/** The number of neighbours in the heap. */
+	protected int heapSize;
+	
+	/** The number of requested neighbours. */
+	protected int k;
+	
+	/** The indices reported by a sphere query. */
+	protected int[] resultIndex;
+	
+	/** The number of indices reported by a sphere query. */
+	protected int resultSize;
+	
+	/** Traversal stack of nodes. */
+	protected int[] nodeStack;
+	
+	/** Traversal stack of values associated with the nodes, e.g. bounds or distances. */
+	protected double[] valueStack;
+	
+	/** Values per node, indexed by the node. */
+	protected double[] nodeValues;
+	
+	/** Marks per node, a node is marked if its value is equal to {@link #mark}. */
+	protected int[] marks;
+	
+	/** The value of the current marks. */
+	protected int mark;
+	
+	/**
+	 * Creates a query context with the default capacity.
+	 */
+	public QueryContext()
+	{
+		this(QueryContext.DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * @param capacity the initial capacity of the arrays, e.g. the expected number of neighbours or sphere query results
+	 */
+	public QueryContext(int capacity)
+	{
+		if(capacity < 1) throw new IllegalArgumentException("The capacity must be at least 1. Specified capacity: " + capacity);
+		
+		this.heapDist = new double[capacity];
+		this.heapIndex = new int[capacity];
+		this.heapSize = 0;
+		this.k = 0;
+		this.resultIndex = new int[capacity];
+		this.resultSize = 0;
+		this.nodeStack = new int[capacity];
+		this.valueStack = new double[capacity];
+		this.nodeValues = new double[capacity];
+		this.marks = new int[capacity];
+		this.mark = 0;
+	}
+	
+	/**
+	 * Starts a new k-nearest neighbour query and empties the neighbour heap.
+	 * 
+	 * @param k the number of neighbours
+	 */
+	public void startKNN(int k)
+	{
+		if(k > this.heapDist.length)
+		{
+			this.heapDist = new double[k];
+			this.heapIndex = new int[k];
+		}
+		this.k = k;
+		this.heapSize = 0;
+	}
+	
+	/**
+	 * Offers a data object to the neighbour heap. It is added if less than k neighbours are found so far
+	 * or if it is closer than the farthest neighbour found so far, which is removed in that case.
+	 * 
+	 * @param index the index of the data object
+	 * @param dist the distance of the data object to the query
+	 * @return true if the data object was added
+	 */
+	public boolean offer(int index, double dist)
+	{
+		if(this.heapSize < this.k)
+		{
+			DistanceHeap.siftUp(this.heapDist, this.heapIndex, this.heapSize, dist, index);
+			this.heapSize++;
+			return true;
+		}
+		if(this.heapSize > 0 && dist < this.heapDist[0])
+		{
+			DistanceHeap.siftDown(this.heapDist, this.heapIndex, this.heapSize, dist, index);
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * @return the distance of the farthest of the k neighbours found so far or positive infinity if less than k neighbours are found so far
+	 */
+	public double kthDistance()
+	{
+		return (this.heapSize < this.k)? Double.POSITIVE_INFINITY : this.heapDist[0];
+	}
+	
+	/**
+	 * @return the number of neighbours found so far
+	 */
+	public int neighbourCount()
+	{
+		return this.heapSize;
+	}
+	
+	/**
+	 * Removes the farthest neighbours from the neighbour heap until it contains at most k neighbours
+	 * and sets the number of requested neighbours to k. Used by searches that collect more candidates than requested.
+	 * 
+	 * @param k the number of neighbours to retain
+	 */
+	public void retainNearest(int k)
+	{
+		while(this.heapSize > k)
+		{
+			this.heapSize--;
+			DistanceHeap.siftDown(this.heapDist, this.heapIndex, this.heapSize, this.heapDist[this.heapSize], this.heapIndex[this.heapSize]);
+		}
+		this.k = k;
+	}
+	
+	/**
+	 * Empties the neighbour heap into the specified arrays, in ascending order w.r.t. the distances.
+	 * 
+	 * @param indices the array for the indices of the neighbours
+	 * @param distances the array for the distances of the neighbours, may be null
+	 * @return the number of neighbours
+	 */
+	public int drainNeighbours(int[] indices, double[] distances)
+	{
+		int count = this.heapSize;
+		
+		for(int i=count-1; i>=0; i--)
+		{
+			indices[i] = this.heapIndex[0];
+			if(distances != null) distances[i] = this.heapDist[0];
+			DistanceHeap.siftDown(this.heapDist, this.heapIndex, i, this.heapDist[i], this.heapIndex[i]);
+		}
+		this.heapSize = 0;
+		
+		return count;
+	}
+	
+	/**
+	 * Starts a new sphere query and empties the result buffer.
+	 */
+	public void startSphere()
+	{
+		this.resultSize = 0;
+	}
+	
+	/**
+	 * Adds an index to the result buffer of a sphere query.
+	 * 
+	 * @param index the index of the data object
+	 */
+	public void addResult(int index)
+	{
+		if(this.resultSize == this.resultIndex.length) this.resultIndex = Arrays.copyOf(this.resultIndex, 2*this.resultSize);
+		
+		this.resultIndex[this.resultSize] = index;
+		this.resultSize++;
+	}
+	
+	/**
+	 * @return the number of indices reported by the last sphere query
+	 */
+	public int resultCount()
+	{
+		return this.resultSize;
+	}
+	
+	/**
+	 * Returns the result buffer of the last sphere query. Only the first {@link #resultCount()} elements are valid
+	 * and the buffer is overwritten by the next query.
+	 * 
+	 * @return the indices reported by the last sphere query
+	 */
+	public int[] getResultIndices()
+	{
+		return this.resultIndex;
+	}
+	
+	/**
+	 * Returns the traversal stack of nodes with at least the specified length. If it needs to grow, its content is preserved.
+	 * 
+	 * @param capacity the required length
+	 * @return the traversal stack of nodes
+	 */
+	public int[] nodeStack(int capacity)
+	{
+		if(capacity > this.nodeStack.length) this.nodeStack = Arrays.copyOf(this.nodeStack, Math.max(capacity, 2*this.nodeStack.length));
+		
+		return this.nodeStack;
+	}
+	
+	/**
+	 * Returns the traversal stack of values with at least the specified length. If it needs to grow, its content is preserved.
+	 * 
+	 * @param capacity the required length
+	 * @return the traversal stack of values
+	 */
+	public double[] valueStack(int capacity)
+	{
+		if(capacity > this.valueStack.length) this.valueStack = Arrays.copyOf(this.valueStack, Math.max(capacity, 2*this.valueStack.length));
+		
+		return this.valueStack;
+	}
+	
+	/**
+	 * Returns the array of values per node with at least the specified length. If it needs to grow, its content is preserved.
+	 * 
+	 * @param capacity the required length, usually the number of nodes
+	 * @return the values per node
+	 */
+	public double[] nodeValues(int capacity)
+	{
+		if(capacity > this.nodeValues.length) this.nodeValues = Arrays.copyOf(this.nodeValues, Math.max(capacity, 2*this.nodeValues.length));
+		
+		return this.nodeValues;
+	}
+	
+	/**
+	 * Starts a new set of marks, e.g. the visited set of a graph search. All nodes are unmarked afterwards,
+	 * without clearing the array, because a new mark value is used.
+	 * 
+	 * @param capacity the required length of the marks array, usually the number of nodes
+	 * @return the mark value, nodes with this value in {@link #getMarks()} are marked
+	 */
+	public int startMarks(int capacity)
+	{
+		if(capacity > this.marks.length) this.marks = new int[Math.max(capacity, 2*this.marks.length)];
+		
+		this.mark++;
+		if(this.mark == 0)
+		{
+			// the mark values wrapped around, old marks might be taken as current ones
+			Arrays.fill(this.marks, 0);
+			this.mark = 1;
+		}
+		
+		return this.mark;
+	}
+	
+	/**
+	 * @return the array of marks, see {@link #startMarks(int)}
+	 */
+	public int[] getMarks()
+	{
+		return this.marks;
+	}
+}
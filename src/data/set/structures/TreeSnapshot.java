@@ -0,0 +1,438 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set.structures;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import data.set.IndexedDataObject;
+import data.set.IndexedDataSet;
+
+/**
+ * Binary snapshot files of built trees, used by {@link BallTree} and {@link CenteredBallTree} to store a tree and
+ * to restore it without building it again. The nodes are stored in preorder in flat arrays, so neither writing
+ * nor reading requires recursion. Reading maps the file into memory and restores the nodes directly from the mapped
+ * arrays, no distance calculations are required. The snapshot contains a fingerprint of the data set, which must
+ * match the data set of the tree to be restored.<br>
+ * <br>
+ * File format (little endian): a header of {@link #HEADER_SIZE} bytes, containing the magic number
+ * {@link #MAGIC_NUMBER} (int), the format version (int), the tree type (int), the dimension of the centers (int),
+ * the number of data objects (long), the fingerprint of the data set (long), the number of nodes (int) and the number
+ * of equivalent data objects (int), followed by the radii (double), the centers row-major (double, only for a dimension
+ * larger than 0), the data object indices, subtree sizes, heights, left and right child positions (int, -1 for no child)
+ * of all nodes, the start positions of the equivalents of each node plus the end position (int) and the indices of the
+ * equivalent data objects (int).<br>
+ * <br>
+ * Each of the arrays is mapped separately and therefore limited to Integer.MAX_VALUE bytes.
+ *
+ * @author Roland Winkler
+ */
+final class TreeSnapshot
+{
+	/** The magic number at the start of the file: "EDMT" */
+	static final int MAGIC_NUMBER = 0x45444D54;
+	
+	/** The version of the file format */
+	static final int FORMAT_VERSION = 1;
+	
+	/** The number of bytes before the first radius */
+	static final int HEADER_SIZE = 40;
+	
+	/** Tree type of a {@link BallTree} */
+	static final int BALL_TREE = 1;
+	
+	/** Tree type of a {@link CenteredBallTree} */
+	static final int CENTERED_BALL_TREE = 2;
+	
+	/** The number of nodes */
+	final int nodeCount;
+	
+	/** The dimension of the centers, 0 if no centers are stored */
+	final int centerDim;
+	
+	/** The radii of the nodes */
+	final DoubleBuffer radius;
+	
+	/** The centers of the nodes, row-major, or null */
+	final DoubleBuffer centers;
+	
+	/** The data object indices of the nodes */
+	final IntBuffer obj;
+	
+	/** The subtree sizes of the nodes */
+	final IntBuffer size;
+	
+	/** The heights of the nodes */
+	final IntBuffer height;
+	
+	/** The positions of the left children */
+	final IntBuffer left;
+	
+	/** The positions of the right children */
+	final IntBuffer right;
+	
+	/** The start positions of the equivalents of the nodes in {@link #equivalents}, with the end position as last element */
+	final IntBuffer equivalentStart;
+	
+	/** The data object indices of the equivalents */
+	final IntBuffer equivalents;
+	
+	/** The positions of the parent nodes, -1 for the root */
+	final int[] parent;
+	
+	/**
+	 * Maps the specified snapshot file and checks it against the data set.
+	 * 
+	 * @param file the snapshot file
+	 * @param treeType the expected tree type
+	 * @param dataSet the data set of the tree to be restored
+	 * @throws IOException if the file can not be read, is not a valid snapshot or does not match the data set
+	 */
+	TreeSnapshot(File file, int treeType, IndexedDataSet<?> dataSet) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		
+		try
+		{
+			FileChannel channel = raf.getChannel();
+			ByteBuffer header = ByteBuffer.allocate(TreeSnapshot.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			channel.read(header, 0L);
+			header.flip();
+			if(header.remaining() < TreeSnapshot.HEADER_SIZE) throw new IOException("File Format wrong: the file is too short for the header. (" + file + ")");
+			
+			int magic = header.getInt(), version = header.getInt(), type = header.getInt();
+			this.centerDim = header.getInt();
+			long dataSetSize = header.getLong(), fingerprint = header.getLong();
+			this.nodeCount = header.getInt();
+			int equivalentCount = header.getInt();
+			
+			if(magic != TreeSnapshot.MAGIC_NUMBER) throw new IOException("File Format wrong: unknown magic number. (" + file + ")");
+			if(version != TreeSnapshot.FORMAT_VERSION) throw new IOException("File Format wrong: unsupported version " + version + ". (" + file + ")");
+			if(type != treeType) throw new IOException("File Format wrong: the snapshot contains a different type of tree. (" + file + ")");
+			if(this.centerDim < 0 || this.nodeCount < 0 || equivalentCount < 0 || this.nodeCount + (long)equivalentCount != dataSetSize) throw new IOException("File Format wrong: invalid dimension (" + this.centerDim + ") or node count (" + this.nodeCount + "). (" + file + ")");
+			if(dataSetSize != dataSet.size()) throw new IOException("The snapshot does not match the data set. (" + file + ")");
+			
+			long position = TreeSnapshot.HEADER_SIZE;
+			long nodeBytes = 4L*this.nodeCount;
+			long length = position + 8L*this.nodeCount*(1 + this.centerDim) + 5L*nodeBytes + 4L*(this.nodeCount + 1) + 4L*equivalentCount;
+			if(raf.length() < length) throw new IOException("File Format wrong: the file is shorter than the header specifies. (" + file + ")");
+			if(fingerprint != TreeSnapshot.fingerprint(dataSet)) throw new IOException("The snapshot does not match the data set. (" + file + ")");
+			
+			this.radius = TreeSnapshot.map(channel, position, 2L*nodeBytes).asDoubleBuffer();
+			position += 2L*nodeBytes;
+			this.centers = (this.centerDim > 0)? TreeSnapshot.map(channel, position, 2L*nodeBytes*this.centerDim).asDoubleBuffer() : null;
+			position += 2L*nodeBytes*this.centerDim;
+			this.obj = TreeSnapshot.map(channel, position, nodeBytes).asIntBuffer();
+			position += nodeBytes;
+			this.size = TreeSnapshot.map(channel, position, nodeBytes).asIntBuffer();
+			position += nodeBytes;
+			this.height = TreeSnapshot.map(channel, position, nodeBytes).asIntBuffer();
+			position += nodeBytes;
+			this.left = TreeSnapshot.map(channel, position, nodeBytes).asIntBuffer();
+			position += nodeBytes;
+			this.right = TreeSnapshot.map(channel, position, nodeBytes).asIntBuffer();
+			position += nodeBytes;
+			this.equivalentStart = TreeSnapshot.map(channel, position, nodeBytes + 4L).asIntBuffer();
+			position += nodeBytes + 4L;
+			this.equivalents = TreeSnapshot.map(channel, position, 4L*equivalentCount).asIntBuffer();
+		}
+		finally
+		{
+			// the mapping stays valid after the channel is closed
+			raf.close();
+		}
+		
+		this.parent = this.checkStructure(file, dataSet.size());
+	}
+	
+	/**
+	 * Maps a read-only section of the file.
+	 * 
+	 * @param channel the file channel
+	 * @param position the start of the section
+	 * @param length the number of bytes of the section
+	 * @return the mapped section
+	 * @throws IOException if the section is larger than Integer.MAX_VALUE bytes or can not be mapped
+	 */
+	private static ByteBuffer map(FileChannel channel, long position, long length) throws IOException
+	{
+		if(length > Integer.MAX_VALUE) throw new IOException("The tree is too large for a snapshot: a section requires " + length + " bytes.");
+		
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	/**
+	 * Checks that the nodes form a tree in preorder with valid data object indices and calculates the parent positions.
+	 * 
+	 * @param file the file, for error messages
+	 * @param dataSetSize the number of data objects
+	 * @return the parent positions
+	 * @throws IOException if the structure is invalid
+	 */
+	private int[] checkStructure(File file, int dataSetSize) throws IOException
+	{
+		int[] parent = new int[this.nodeCount];
+		int i, c, index, start, end;
+		
+		Arrays.fill(parent, -1);
+		for(i=0; i<this.nodeCount; i++)
+		{
+			if(i > 0 && parent[i] < 0) throw new IOException("File Format wrong: node " + i + " has no parent. (" + file + ")");
+			
+			index = this.obj.get(i);
+			start = this.equivalentStart.get(i);
+			end = this.equivalentStart.get(i+1);
+			if(index < 0 || index >= dataSetSize || start < 0 || end < start || end > this.equivalents.capacity()) throw new IOException("File Format wrong: invalid data object of node " + i + ". (" + file + ")");
+			
+			for(c=0; c<2; c++)
+			{
+				index = (c == 0)? this.left.get(i) : this.right.get(i);
+				if(index == -1) continue;
+				if(index <= i || index >= this.nodeCount || parent[index] >= 0) throw new IOException("File Format wrong: invalid child of node " + i + ". (" + file + ")");
+				parent[index] = i;
+			}
+		}
+		
+		return parent;
+	}
+	
+	/**
+	 * Restores the data object independent information of a node: subtree size, height and equivalents.
+	 * 
+	 * @param node the node
+	 * @param i the position of the node in the snapshot
+	 * @param dataSet the data set
+	 */
+	<T> void restoreNode(AbstractTreeNode<T, ?, ?> node, int i, IndexedDataSet<T> dataSet)
+	{
+		int start = this.equivalentStart.get(i), end = this.equivalentStart.get(i+1);
+		
+		node.size = this.size.get(i);
+		node.height = this.height.get(i);
+		if(end > start)
+		{
+			node.equivalents = new HashSet<IndexedDataObject<T>>((int)((end - start)*1.34d) + 1);
+			for(int j=start; j<end; j++) node.equivalents.add(dataSet.get(this.equivalents.get(j)));
+		}
+	}
+	
+	/**
+	 * Writes a snapshot of a tree.
+	 * 
+	 * @param file the file to be written, an existing file is overwritten
+	 * @param treeType the tree type
+	 * @param dataSet the data set of the tree
+	 * @param nodes the nodes in preorder
+	 * @param radius the radii of the nodes
+	 * @param centerDim the dimension of the centers, 0 if no centers are stored
+	 * @param centers the centers of the nodes, row-major, or null
+	 * @throws IOException
+	 */
+	static void write(File file, int treeType, IndexedDataSet<?> dataSet, ArrayList<? extends AbstractTreeNode<?, ?, ?>> nodes, double[] radius, int centerDim, double[] centers) throws IOException
+	{
+		int nodeCount = nodes.size(), equivalentCount = 0, i;
+		int[] position = new int[dataSet.size()];
+		AbstractTreeNode<?, ?, ?> node;
+		
+		// the positions of the nodes, indexed by the data object index of the node
+		for(i=0; i<nodeCount; i++)
+		{
+			node = nodes.get(i);
+			position[node.obj.getID()] = i;
+			if(node.equivalents != null) equivalentCount += node.equivalents.size();
+		}
+		
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		
+		try
+		{
+			FileChannel channel = raf.getChannel();
+			ByteBuffer buffer = ByteBuffer.allocate(65536).order(ByteOrder.LITTLE_ENDIAN);
+			
+			raf.setLength(0L);
+			
+			buffer.putInt(TreeSnapshot.MAGIC_NUMBER);
+			buffer.putInt(TreeSnapshot.FORMAT_VERSION);
+			buffer.putInt(treeType);
+			buffer.putInt(centerDim);
+			buffer.putLong(dataSet.size());
+			buffer.putLong(TreeSnapshot.fingerprint(dataSet));
+			buffer.putInt(nodeCount);
+			buffer.putInt(equivalentCount);
+			
+			for(i=0; i<nodeCount; i++) buffer = TreeSnapshot.putDouble(channel, buffer, radius[i]);
+			for(i=0; i<nodeCount*centerDim; i++) buffer = TreeSnapshot.putDouble(channel, buffer, centers[i]);
+			for(i=0; i<nodeCount; i++) buffer = TreeSnapshot.putInt(channel, buffer, nodes.get(i).obj.getID());
+			for(i=0; i<nodeCount; i++) buffer = TreeSnapshot.putInt(channel, buffer, nodes.get(i).size);
+			for(i=0; i<nodeCount; i++) buffer = TreeSnapshot.putInt(channel, buffer, nodes.get(i).height);
+			for(i=0; i<nodeCount; i++)
+			{
+				node = nodes.get(i).leftChild;
+				buffer = TreeSnapshot.putInt(channel, buffer, (node == null)? -1 : position[node.obj.getID()]);
+			}
+			for(i=0; i<nodeCount; i++)
+			{
+				node = nodes.get(i).rightChild;
+				buffer = TreeSnapshot.putInt(channel, buffer, (node == null)? -1 : position[node.obj.getID()]);
+			}
+			equivalentCount = 0;
+			for(i=0; i<nodeCount; i++)
+			{
+				buffer = TreeSnapshot.putInt(channel, buffer, equivalentCount);
+				if(nodes.get(i).equivalents != null) equivalentCount += nodes.get(i).equivalents.size();
+			}
+			buffer = TreeSnapshot.putInt(channel, buffer, equivalentCount);
+			for(i=0; i<nodeCount; i++)
+			{
+				if(nodes.get(i).equivalents == null) continue;
+				for(IndexedDataObject<?> d:nodes.get(i).equivalents) buffer = TreeSnapshot.putInt(channel, buffer, d.getID());
+			}
+			
+			buffer.flip();
+			while(buffer.hasRemaining()) channel.write(buffer);
+		}
+		finally
+		{
+			raf.close();
+		}
+	}
+	
+	/**
+	 * Writes the buffer to the channel if it is full and adds the value.
+	 * 
+	 * @return the buffer
+	 */
+	private static ByteBuffer putDouble(FileChannel channel, ByteBuffer buffer, double value) throws IOException
+	{
+		if(buffer.remaining() < 8) TreeSnapshot.flush(channel, buffer);
+		return buffer.putDouble(value);
+	}
+	
+	/**
+	 * Writes the buffer to the channel if it is full and adds the value.
+	 * 
+	 * @return the buffer
+	 */
+	private static ByteBuffer putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException
+	{
+		if(buffer.remaining() < 4) TreeSnapshot.flush(channel, buffer);
+		return buffer.putInt(value);
+	}
+	
+	/**
+	 * Writes the content of the buffer to the channel and clears it.
+	 */
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException
+	{
+		buffer.flip();
+		while(buffer.hasRemaining()) channel.write(buffer);
+		buffer.clear();
+	}
+	
+	/**
+	 * Collects the nodes of a tree in preorder, without recursion.
+	 * 
+	 * @param root the root of the tree, or null
+	 * @param size the number of nodes, used as initial capacity
+	 * @return the nodes in preorder
+	 */
+	static <N extends AbstractTreeNode<?, N, ?>> ArrayList<N> preorder(N root, int size)
+	{
+		ArrayList<N> nodes = new ArrayList<N>(size);
+		ArrayList<N> stack = new ArrayList<N>();
+		N node;
+		
+		if(root != null) stack.add(root);
+		while(!stack.isEmpty())
+		{
+			node = stack.remove(stack.size()-1);
+			nodes.add(node);
+			if(node.rightChild != null) stack.add(node.rightChild);
+			if(node.leftChild != null) stack.add(node.leftChild);
+		}
+		
+		return nodes;
+	}
+	
+	/**
+	 * Calculates a 64 bit fingerprint of the content of a data set, in the order of the data object indices.
+	 * Double arrays are included with the bit patterns of all their values, arrays with their deep hash code
+	 * and other data objects with their hash code, which should therefore depend on the content of the data objects.
+	 * 
+	 * @param dataSet the data set
+	 * @return the fingerprint
+	 */
+	static long fingerprint(IndexedDataSet<?> dataSet)
+	{
+		long hash = TreeSnapshot.mix(0L, dataSet.size());
+		
+		for(IndexedDataObject<?> d:dataSet)
+		{
+			if(d.element instanceof double[])
+			{
+				double[] x = (double[])d.element;
+				hash = TreeSnapshot.mix(hash, x.length);
+				for(int k=0; k<x.length; k++) hash = TreeSnapshot.mix(hash, Double.doubleToLongBits(x[k]));
+			}
+			else
+			{
+				hash = TreeSnapshot.mix(hash, Arrays.deepHashCode(new Object[]{d.element}));
+			}
+		}
+		
+		return hash;
+	}
+	
+	/**
+	 * @return the hash combined with the value
+	 */
+	private static long mix(long hash, long value)
+	{
+		hash = Long.rotateLeft(hash, 23) ^ (value * 0x9E3779B97F4A7C15L);
+		return hash * 0xBF58476D1CE4E5B9L + 0x94D049BB133111EBL;
+	}
+}
@@ -0,0 +1,63 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set.structures.queries;
+
+import data.set.structures.QueryContext;
+
+/**
+ * A {@link KNNQueryProvider} that can report the result as primitive indices and distances.
+ * The working memory of the query is provided by the caller, so that repeated queries do not produce garbage.
+ *
+ * @author Roland Winkler
+ */
+public interface KNNIndexQueryProvider<T> extends KNNQueryProvider<T>
+{
+	/**
+	 * Performs a k-NN query on the data objects. The centre object does not need to be contained in the structure.
+	 * The indices of the neighbours in the data set and their distances to centre are written into
+	 * <code>indices</code> and <code>distances</code> in ascending order w.r.t. the distances.
+	 * 
+	 * @param centre the query object
+	 * @param k the number of neighbours
+	 * @param indices array of at least k elements for the indices of the neighbours
+	 * @param distances array of at least k elements for the distances of the neighbours, may be null
+	 * @param context the working memory of the query
+	 * @return the number of neighbours, which is less than k only if the data set contains less than k data objects
+	 */
+	public int knnQuery(T centre, int k, int[] indices, double[] distances, QueryContext context);
+}
@@ -0,0 +1,61 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package data.set.structures.queries;
+
+/**
+ * A {@link SphereQueryProvider} that can count the data objects in a query sphere without reporting them.
+ * Subtrees that are completely covered by the query sphere are counted by their size, so the data objects
+ * are neither visited nor copied.
+ *
+ * @author Roland Winkler
+ */
+public interface SphereCountQueryProvider<T> extends SphereQueryProvider<T>
+{
+	/**
+	 * Counts the data objects closer to centre than radius. The centre object does not need to be contained in the structure.
+	 * The query stops as soon as the count reaches the threshold, which is sufficient to decide, for example, whether a
+	 * data object has at least a certain number of neighbours. Use {@link Integer#MAX_VALUE} as threshold for an exact count.
+	 * 
+	 * @param centre the query object
+	 * @param radius the radius of the query sphere
+	 * @param threshold the count at which the query stops
+	 * @return the number of data objects in the query sphere if it is smaller than the threshold, otherwise a number
+	 * that is at least the threshold and at most the number of data objects in the query sphere
+	 */
+	public int sphereCount(T centre, double radius, int threshold);
+}
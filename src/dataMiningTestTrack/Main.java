@@ -37,6 +37,9 @@ THE POSSIBILITY OF SUCH DAMAGE.
 
 package dataMiningTestTrack;
 
+import data.set.structures.DoubleArrayFlatBallTree;
+import data.set.structures.DoubleArrayKDTree;
+import dataMiningTestTrack.tests.AlgebraSpeedTest;
 import dataMiningTestTrack.tests.ClusterAlgorithmVisualTest;
 import dataMiningTestTrack.tests.DataStructureSpeedTest;
 import dataMiningTestTrack.tests.DataStructureVisualTest;
@@ -56,6 +59,7 @@ public class Main
 
 //		Main.dataStructureVisualTest();
 //		Main.dataStructureSpeedTest();
+//		Main.algebraSpeedTest();
 		Main.clusterAlgorithmVisualTest();
 		
 	}
@@ -83,6 +87,45 @@ public class Main
 //		speedTest.showSimplifiedDataSet(20000);
 		speedTest.ballTreeSpeedTest();System.gc();
 		speedTest.centeredBallTreeSpeedTest();System.gc();
+		speedTest.sphereAggregateSpeedTest(20);System.gc();
+		speedTest.parallelBuildSpeedTest(Runtime.getRuntime().availableProcessors());System.gc();
+		speedTest.dynamicBallTreeSpeedTest(1000000, 10000, 20);System.gc();
+		DataStructureSpeedTest.ballTreeRemovalTest(200, 5, 20, 100);System.gc();
+		speedTest.snapshotSpeedTest();System.gc();
+		speedTest.flatBallTreeSpeedTest(DoubleArrayFlatBallTree.DEFAULT_BUCKET_SIZE);System.gc();
+		speedTest.kdTreeSpeedTest(DoubleArrayKDTree.DEFAULT_BUCKET_SIZE);System.gc();
+		speedTest.dualTreeKNNJoinSpeedTest(200000, 10);System.gc();
+		speedTest.dbScanSpeedTest(1000000, 0.002d, 20, Runtime.getRuntime().availableProcessors());System.gc();
+		speedTest.gridDBScanSpeedTest(1000000, 0.002d, 20);System.gc();
+		DataStructureSpeedTest.coverTreeSequenceTest(20000, 1000);System.gc();
+		speedTest = null;
+		
+		// approximate nearest neighbours are for data sets where the trees degenerate to linear scans
+		dim = 64;
+		number = 100000;
+		System.out.println("");
+		System.out.println("===== Randomly Generated High Dimensional Data Set =====");
+		System.out.print("Build data set ("+dim+" dim, "+number+" obj) .. ");
+		milliseconds = -System.currentTimeMillis();
+		speedTest = new DataStructureSpeedTest(dim, number, 1000);
+		milliseconds += System.currentTimeMillis();
+		System.out.print("done: "+ milliseconds + "ms");
+		speedTest.hnswSpeedTest(10);System.gc();
+		speedTest.lshSpeedTest(10);System.gc();
+		speedTest.distanceEngineTest(10, 10);System.gc();
+	}
+	
+	public static void algebraSpeedTest()
+	{
+		int[] dims = new int[]{2, 3, 4, 8, 16, 32, 64, 128, 256, 512};
+		
+		AlgebraSpeedTest speedTest = new AlgebraSpeedTest(10000);
+		speedTest.distanceSpeedTest(dims, 200);
+		speedTest.scalarProductSpeedTest(dims, 200);
+		
+		// typical fuzzifiers m and the distance exponents 1/(1-m)
+		double[] exponents = new double[]{1.1d, 1.3d, 1.7d, 2.0d, 1.0d/(1.0d-1.1d), 1.0d/(1.0d-1.3d), 1.0d/(1.0d-1.7d), 1.0d/(1.0d-2.0d)};
+		speedTest.powSpeedTest(exponents, 200);
 	}
 	
 	public static void clusterAlgorithmVisualTest()
@@ -93,6 +136,7 @@ public class Main
 //		clusterTest.showDataSet();
 //		clusterTest.showClusteredDataSet();
 //		clusterTest.testHardCMeans();
+//		clusterTest.testBallTreeHardCMeans();
 		clusterTest.testFuzzyCMeans();
 //		clusterTest.testFuzzyCMeansNoise();
 //		clusterTest.testPolynomialFuzzyCMeans();
@@ -104,6 +148,7 @@ public class Main
 //		clusterTest.testDistAdaptedFCM(); 
 //		clusterTest.testDistAdaptedFCMNoise();
 //		clusterTest.testBallTreeFuzzyCMeans();
+//		clusterTest.testFlatBallTreeFuzzyCMeans();
 //		clusterTest.testExpectationMaximization();
 //		clusterTest.testDBScan();
 		
@@ -0,0 +1,272 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package dataMiningTestTrack.tests;
+
+import java.util.ArrayList;
+
+import data.objects.doubleArray.DAKernels;
+import etc.DataGenerator;
+import etc.FixedExponentPower;
+import etc.MyMath;
+
+
+/**
+ * Speed test for the double array algebra kernels. It compares the plain scalar loops with the kernels
+ * that are used by the double array algebra classes for a range of dimensions, and the power function
+ * for a fixed exponent with {@link Math#pow(double, double)}.
+ *
+ * @author Roland Winkler
+ */
+public class AlgebraSpeedTest
+{
+	/** the number of vectors */
+	private int number;
+	
+	/** a random number generator with a fixed seed */
+	private DataGenerator dg;
+	
+	/** prevents the JIT compiler from removing the calculations */
+	private double sink;
+	
+	
+	/**
+	 * @param number the number of vectors to be used in each run
+	 */
+	public AlgebraSpeedTest(int number)
+	{
+		this.number = number;
+		this.dg = new DataGenerator(1234);
+		this.sink = 0.0d;
+	}
+	
+	/**
+	 * Measures the squared distance calculation of the plain scalar loop against the kernel, for each dimension
+	 * in <code>dims</code>. Each pair of vectors is evaluated <code>repetitions</code> times.
+	 * 
+	 * @param dims
+	 * @param repetitions
+	 */
+	public void distanceSpeedTest(int[] dims, int repetitions)
+	{
+		long scalarTime, kernelTime;
+		ArrayList<double[]> data;
+		double[] y;
+		int dim;
+		
+		System.out.println("===== Squared Distance: scalar loop vs. kernel =====");
+		for(int d=0; d<dims.length; d++)
+		{
+			dim = dims[d];
+			data = this.dg.uniformStandardPoints(dim, this.number);
+			y = this.dg.uniformStandardPoints(dim, 1).get(0);
+
+			// warm up
+			this.runDistance(data, y, dim, 5, false);
+			this.runDistance(data, y, dim, 5, true);
+			
+			scalarTime = -System.nanoTime();
+			this.runDistance(data, y, dim, repetitions, false);
+			scalarTime += System.nanoTime();
+			
+			kernelTime = -System.nanoTime();
+			this.runDistance(data, y, dim, repetitions, true);
+			kernelTime += System.nanoTime();
+			
+			this.printResult(dim, repetitions, scalarTime, kernelTime);
+		}
+		System.out.println("(checksum "+this.sink+")");
+	}
+	
+	/**
+	 * Measures the scalar product calculation of the plain scalar loop against the kernel, for each dimension
+	 * in <code>dims</code>. Each pair of vectors is evaluated <code>repetitions</code> times.
+	 * 
+	 * @param dims
+	 * @param repetitions
+	 */
+	public void scalarProductSpeedTest(int[] dims, int repetitions)
+	{
+		long scalarTime, kernelTime;
+		ArrayList<double[]> data;
+		double[] y;
+		int dim;
+		
+		System.out.println("===== Scalar Product: scalar loop vs. kernel =====");
+		for(int d=0; d<dims.length; d++)
+		{
+			dim = dims[d];
+			data = this.dg.uniformStandardPoints(dim, this.number);
+			y = this.dg.uniformStandardPoints(dim, 1).get(0);
+
+			this.runScalarProduct(data, y, dim, 5, false);
+			this.runScalarProduct(data, y, dim, 5, true);
+			
+			scalarTime = -System.nanoTime();
+			this.runScalarProduct(data, y, dim, repetitions, false);
+			scalarTime += System.nanoTime();
+			
+			kernelTime = -System.nanoTime();
+			this.runScalarProduct(data, y, dim, repetitions, true);
+			kernelTime += System.nanoTime();
+			
+			this.printResult(dim, repetitions, scalarTime, kernelTime);
+		}
+		System.out.println("(checksum "+this.sink+")");
+	}
+	
+	
+	/**
+	 * Measures {@link Math#pow(double, double)}, {@link MyMath#pow(double, double)} and {@link FixedExponentPower#pow(double)}
+	 * for each exponent in <code>exponents</code>. The base values are squared distances and membership values in
+	 * the range they appear in fuzzy c-means. Also reports the maximal relative difference to {@link Math#pow(double, double)}.
+	 * 
+	 * @param exponents
+	 * @param repetitions
+	 */
+	public void powSpeedTest(double[] exponents, int repetitions)
+	{
+		long mathTime, myMathTime, fixedTime;
+		double[] values = new double[this.number];
+		double n, sum, maxError, exact;
+		FixedExponentPower power;
+		int r, j;
+		
+		for(j=0; j<this.number; j++) values[j] = (j%2 == 0)? this.dg.generatorRand.nextDouble() : 10.0d*this.dg.generatorRand.nextDouble()*this.dg.generatorRand.nextDouble();
+		
+		System.out.println("===== Power: Math.pow vs. MyMath.pow vs. FixedExponentPower =====");
+		for(int e=0; e<exponents.length; e++)
+		{
+			n = exponents[e];
+			power = new FixedExponentPower(n);
+			
+			for(int warmUp=0; warmUp<5; warmUp++)
+			{
+				sum = 0.0d;
+				for(j=0; j<this.number; j++) sum += Math.pow(values[j], n) + MyMath.pow(values[j], n) + power.pow(values[j]);
+				this.sink += sum;
+			}
+			
+			sum = 0.0d;
+			mathTime = -System.nanoTime();
+			for(r=0; r<repetitions; r++) for(j=0; j<this.number; j++) sum += Math.pow(values[j], n);
+			mathTime += System.nanoTime();
+			
+			myMathTime = -System.nanoTime();
+			for(r=0; r<repetitions; r++) for(j=0; j<this.number; j++) sum += MyMath.pow(values[j], n);
+			myMathTime += System.nanoTime();
+			
+			fixedTime = -System.nanoTime();
+			for(r=0; r<repetitions; r++) for(j=0; j<this.number; j++) sum += power.pow(values[j]);
+			fixedTime += System.nanoTime();
+			this.sink += sum;
+			
+			maxError = 0.0d;
+			for(j=0; j<this.number; j++)
+			{
+				exact = Math.pow(values[j], n);
+				if(exact > 0.0d) maxError = Math.max(maxError, Math.abs(power.pow(values[j]) - exact)/exact);
+			}
+			
+			System.out.println("n = " + String.format("%.4f", n) + ":\tMath.pow " + (mathTime/1000000) + "ms\tMyMath.pow " + (myMathTime/1000000) + "ms\tFixedExponentPower " + (fixedTime/1000000) + "ms" +
+				"\tspeedup " + String.format("%.2f", ((double)mathTime)/((double)fixedTime)) + "\tmax. rel. error " + maxError);
+		}
+		System.out.println("(checksum "+this.sink+")");
+	}
+	
+	private void runDistance(ArrayList<double[]> data, double[] y, int dim, int repetitions, boolean kernel)
+	{
+		double sum = 0.0d, tmp;
+		double[] x;
+		
+		for(int r=0; r<repetitions; r++)
+		{
+			for(int j=0; j<data.size(); j++)
+			{
+				x = data.get(j);
+				if(kernel)
+				{
+					sum += DAKernels.distanceSq(x, y, dim);
+				}
+				else
+				{
+					// the loop as used before the kernels were introduced
+					for(int i=0; i<dim; i++)
+					{
+						tmp = x[i]-y[i];
+						sum += tmp*tmp;
+					}
+				}
+			}
+		}
+		
+		this.sink += sum;
+	}
+	
+	private void runScalarProduct(ArrayList<double[]> data, double[] y, int dim, int repetitions, boolean kernel)
+	{
+		double sum = 0.0d;
+		double[] x;
+		
+		for(int r=0; r<repetitions; r++)
+		{
+			for(int j=0; j<data.size(); j++)
+			{
+				x = data.get(j);
+				if(kernel)
+				{
+					sum += DAKernels.scalarProduct(x, y, dim);
+				}
+				else
+				{
+					for(int i=0; i<dim; i++) sum += x[i]*y[i];
+				}
+			}
+		}
+		
+		this.sink += sum;
+	}
+	
+	private void printResult(int dim, int repetitions, long scalarTime, long kernelTime)
+	{
+		double evaluations = ((double)this.number)*repetitions;
+		
+		System.out.println("dim " + dim + ":\tscalar " + (scalarTime/1000000) + "ms (" + String.format("%.2f", scalarTime/evaluations) + "ns/op)" +
+			"\tkernel " + (kernelTime/1000000) + "ms (" + String.format("%.2f", kernelTime/evaluations) + "ns/op)" +
+			"\tspeedup " + String.format("%.2f", ((double)scalarTime)/((double)kernelTime)));
+	}
+}
@@ -49,6 +49,8 @@ import data.set.IndexedDataSet;
 import datamining.clustering.density.DBScan;
 import datamining.clustering.protoype.Centroid;
 import datamining.clustering.protoype.altopt.BallTreeFuzzyCMeansClusteringAlgorithm;
+import datamining.clustering.protoype.altopt.FlatBallTreeFuzzyCMeansClusteringAlgorithm;
+import datamining.clustering.protoype.altopt.BallTreeHardCMeansClusteringAlgorithm;
 import datamining.clustering.protoype.altopt.DistAdaptedFCMClusteringAlgorithm;
 import datamining.clustering.protoype.altopt.DistAdaptedFCMNoiseClusteringAlgorithm;
 import datamining.clustering.protoype.altopt.ExpectationMaximizationSGMMClusteringAlgorithm;
@@ -179,6 +181,18 @@ public class ClusterAlgorithmVisualTest extends TestVisualizer implements Serial
 	}
 	
 
+	/**
+	 * 
+	 */
+	public void testBallTreeHardCMeans()
+	{
+		BallTreeHardCMeansClusteringAlgorithm<double[]> clusterAlgo = new BallTreeHardCMeansClusteringAlgorithm<double[]>(this.dataSet, new DAEuclideanVectorSpace(this.dataSet.first().element.length), new DAEuclideanDistance());
+		clusterAlgo.initializeWithPositions(this.initialPositons);
+		clusterAlgo.apply(50);
+		this.showClusteringAlgorithm(clusterAlgo, clusterAlgo.algorithmName(), "BTHCM_" + this.dataSet.first().element.length + "d_"+ this.clusterCount+"c");
+	}
+	
+
 	/**
 	 * 
 	 */
@@ -341,6 +355,20 @@ public class ClusterAlgorithmVisualTest extends TestVisualizer implements Serial
 		this.showClusteringAlgorithm(clusterAlgo, clusterAlgo.algorithmName(), "BTFCM_" + this.dataSet.first().element.length + "d_"+ this.clusterCount+"c");
 	}
 
+	/**
+	 * 
+	 */
+	public void testFlatBallTreeFuzzyCMeans()
+	{
+		FlatBallTreeFuzzyCMeansClusteringAlgorithm clusterAlgo = new FlatBallTreeFuzzyCMeansClusteringAlgorithm(this.dataSet, new DAEuclideanVectorSpace(this.dataSet.first().element.length), new DAEuclideanDistance());
+		clusterAlgo.initializeWithPositions(this.initialPositons);
+		clusterAlgo.setFuzzifier(2.0d);
+		clusterAlgo.setMaximalMembershipIntervalLength(0.2d);
+		clusterAlgo.setEpsilon(0.01d);
+		clusterAlgo.apply(50);
+		this.showClusteringAlgorithm(clusterAlgo, clusterAlgo.algorithmName(), "FBTFCM_" + this.dataSet.first().element.length + "d_"+ this.clusterCount+"c");
+	}
+
 
 	/**
 	 * 
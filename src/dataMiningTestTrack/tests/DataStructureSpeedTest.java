@@ -37,17 +37,40 @@ THE POSSIBILITY OF SUCH DAMAGE.
 
 package dataMiningTestTrack.tests;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Random;
 
+import data.algebra.AbstractDistance;
+import data.algebra.Distance;
 import data.objects.doubleArray.DAEuclideanDistance;
 import data.objects.doubleArray.DAEuclideanVectorSpace;
+import data.objects.sequence.DoubleArraySequence;
+import data.objects.sequence.PointSamplingDistance;
+import data.set.DoubleArrayBlockDistanceEngine;
 import data.set.IndexedDataObject;
 import data.set.IndexedDataSet;
+import data.set.structures.AbstractTreeNode;
 import data.set.structures.BallTree;
 import data.set.structures.CenteredBallTree;
+import data.set.structures.CoverTree;
+import data.set.structures.DoubleArrayFlatBallTree;
+import data.set.structures.DoubleArrayKDTree;
+import data.set.structures.DoubleArrayLSHIndex;
+import data.set.structures.DualTreeKNNJoin;
+import data.set.structures.HNSWIndex;
+import data.set.structures.QueryContext;
+import datamining.clustering.density.DBScan;
+import datamining.clustering.density.GridDBScan;
+import datamining.clustering.protoype.altopt.DistAdaptedFCMClusteringAlgorithm;
+import datamining.clustering.protoype.altopt.FuzzyCMeansClusteringAlgorithm;
+import datamining.clustering.protoype.altopt.FuzzyCMeansNoiseClusteringAlgorithm;
+import datamining.clustering.protoype.altopt.RewardingCrispFCMClusteringAlgorithm;
+import datamining.clustering.protoype.altopt.VoronoiPartitionFCMClusteringAlgorithm;
 import etc.DataGenerator;
 import etc.DataManipulator;
 
@@ -69,6 +92,49 @@ public class DataStructureSpeedTest extends TestVisualizer implements Serializab
 	private ArrayList<double[]> knnQueryRandomList;
 	private ArrayList<IndexedDataObject<double[]>> knnQueryDataList;
 	
+	/**
+	 * Passes the distance calculations to another distance function and counts them.
+	 * 
+	 * @author Roland Winkler
+	 */
+	private static class CountingDistance<T> extends AbstractDistance<T> implements Serializable
+	{
+		/**  */
+		private static final long	serialVersionUID	= -5012880147362215386L;
+		
+		/** the distance function that calculates the distances */
+		private final Distance<T> distance;
+		
+		/** the number of distance calculations */
+		public long counter;
+		
+		public CountingDistance(Distance<T> distance)
+		{
+			this.distance = distance;
+			this.counter = 0L;
+		}
+
+		/* (non-Javadoc)
+		 * @see data.algebra.Distance#distance(java.lang.Object, java.lang.Object)
+		 */
+		@Override
+		public double distance(T x, T y)
+		{
+			this.counter++;
+			return this.distance.distance(x, y);
+		}
+
+		/* (non-Javadoc)
+		 * @see data.algebra.Distance#distanceSq(java.lang.Object, java.lang.Object)
+		 */
+		@Override
+		public double distanceSq(T x, T y)
+		{
+			this.counter++;
+			return this.distance.distanceSq(x, y);
+		}
+	}
+	
 	
 	public DataStructureSpeedTest(int dim, int dataObjectCount, int queryNumber)
 	{
@@ -116,6 +182,17 @@ public class DataStructureSpeedTest extends TestVisualizer implements Serializab
 	}
 	
 	public void ballTreeSpeedTest()
+	{
+		this.ballTreeSpeedTest(false);
+		this.ballTreeSpeedTest(true);
+	}
+	
+	/**
+	 * Builds a ball tree, reports build time and shape and measures the query speed.
+	 * 
+	 * @param balanced if true, the tree is build with {@link BallTree#buildBalanced()}, otherwise with {@link BallTree#buildNaive()}
+	 */
+	public void ballTreeSpeedTest(boolean balanced)
 	{
 		long milliseconds = 0;
 		int queryNumber = 100000;
@@ -126,11 +203,12 @@ public class DataStructureSpeedTest extends TestVisualizer implements Serializab
 				
 		// build tree
 		System.out.println("");
-		System.out.println("===== Ball Tree =====");
+		System.out.println("===== Ball Tree ("+ (balanced? "balanced":"naive") +" build) =====");
 		System.out.print("Build ball tree structure .. ");
 		milliseconds = -System.currentTimeMillis();
 		BallTree<double[]> ballTree = new BallTree<double[]>(this.dataSet, new DAEuclideanDistance());
-		ballTree.buildNaive();
+		if(balanced)	ballTree.buildBalanced();
+		else			ballTree.buildNaive();
 		milliseconds += System.currentTimeMillis();
 		System.out.println("done: "+ milliseconds + "ms");
 		
@@ -187,6 +265,36 @@ public class DataStructureSpeedTest extends TestVisualizer implements Serializab
 		milliseconds += System.currentTimeMillis();		
 		System.out.println("done: "+ milliseconds + "ms");
 		System.out.println("Number of reported objects: " + queryResultCounter);
+		
+		// queries with primitive results and a reused query context
+		QueryContext context = new QueryContext();
+		int[] knnIndices = new int[knnK];
+		double[] knnDistances = new double[knnK];
+		System.out.println("");
+		System.out.print(queryNumber + " sphere queries with query context ");
+		queryResultCounter = 0L;
+		milliseconds = -System.currentTimeMillis();
+		for(int i=0; i<queryNumber; i++)
+		{
+			if((i+1)%(queryNumber/10) == 0) System.out.print(".");
+			queryResultCounter += ballTree.sphereQuery(this.sphereQueryList.get(i), this.shereQueryRadius[i], context);
+		}
+		milliseconds += System.currentTimeMillis();		
+		System.out.println("done: "+ milliseconds + "ms");
+		System.out.println("Number of reported objects: " + queryResultCounter);
+		
+		System.out.println("");
+		System.out.print(queryNumber + " knn queries with random locations and query context ");
+		queryResultCounter = 0L;
+		milliseconds = -System.currentTimeMillis();
+		for(int i=0; i<queryNumber; i++)
+		{
+			if((i+1)%(queryNumber/10) == 0) System.out.print(".");
+			queryResultCounter += ballTree.knnQuery(this.knnQueryRandomList.get(i), knnK, knnIndices, knnDistances, context);
+		}
+		milliseconds += System.currentTimeMillis();		
+		System.out.println("done: "+ milliseconds + "ms");
+		System.out.println("Number of reported objects: " + queryResultCounter);
 	}
 
 	public void centeredBallTreeSpeedTest()
@@ -263,4 +371,1010 @@ public class DataStructureSpeedTest extends TestVisualizer implements Serializab
 		System.out.println("done: "+ milliseconds + "ms");
 		System.out.println("Number of reported objects: " + queryResultCounter);
 	}
+
+	/**
+	 * @param bucketSize the maximal number of data objects in a leaf
+	 */
+	public void flatBallTreeSpeedTest(int bucketSize)
+	{
+		long milliseconds = 0;
+		int queryNumber = 100000;
+		int knnK = 20;
+		long queryResultCounter = 0L;
+				
+		ArrayList<IndexedDataObject<double[]>> queryResults = new ArrayList<IndexedDataObject<double[]>>(10000);
+				
+		// build tree
+		System.out.println("");
+		System.out.println("===== Flat Ball Tree (bucket size "+ bucketSize +") =====");
+		System.out.print("Build tree structure .. ");
+		milliseconds = -System.currentTimeMillis();
+		DoubleArrayFlatBallTree ballTree = new DoubleArrayFlatBallTree(this.dataSet, bucketSize);
+		ballTree.build();
+		milliseconds += System.currentTimeMillis();
+		System.out.println("done: "+ milliseconds + "ms");
+		
+		System.out.println("height: " + ballTree.height());
+		System.out.println("tree size: " + ballTree.size());
+		System.out.println("number of nodes: " + ballTree.getNodeCount());
+		
+		// sphere query
+		System.out.println("");
+		System.out.print(queryNumber + " sphere queries ");
+		queryResultCounter = 0L;
+		milliseconds = -System.currentTimeMillis();
+		for(int i=0; i<queryNumber; i++)
+		{
+			if((i+1)%(queryNumber/10) == 0) System.out.print(".");
+			queryResults.clear();
+			ballTree.sphereQuery(queryResults, this.sphereQueryList.get(i), this.shereQueryRadius[i]);
+			queryResultCounter += queryResults.size(); 
+		}
+		milliseconds += System.currentTimeMillis();		
+		System.out.println("done: "+ milliseconds + "ms");
+		System.out.println("Number of reported objects: " + queryResultCounter);
+		
+		// knn queries of random locations
+		System.out.println("");
+		System.out.print(queryNumber + " knn queries with random locations ");
+		queryResultCounter = 0L;
+		milliseconds = -System.currentTimeMillis();
+		for(int i=0; i<queryNumber; i++)
+		{
+			if((i+1)%(queryNumber/10) == 0) System.out.print(".");
+			queryResults.clear();
+			ballTree.knnQuery(queryResults, this.knnQueryRandomList.get(i), knnK);
+			queryResultCounter += queryResults.size(); 
+		}
+		milliseconds += System.currentTimeMillis();		
+		System.out.println("done: "+ milliseconds + "ms");
+		System.out.println("Number of reported objects: " + queryResultCounter);
+		
+		// knn queries of data set locations
+		System.out.println("");
+		System.out.print(queryNumber + " knn queries with locations from data set");
+		queryResultCounter = 0L;
+		milliseconds = -System.currentTimeMillis();
+		for(int i=0; i<queryNumber; i++)
+		{
+			if((i+1)%(queryNumber/10) == 0) System.out.print(".");
+			queryResults.clear();
+			ballTree.knnQuery(queryResults, this.knnQueryDataList.get(i).element, knnK);
+			queryResultCounter += queryResults.size(); 
+		}
+		milliseconds += System.currentTimeMillis();		
+		System.out.println("done: "+ milliseconds + "ms");
+		System.out.println("Number of reported objects: " + queryResultCounter);
+	}
+	
+	/**
+	 * @param bucketSize the maximal number of data objects in a leaf
+	 */
+	public void kdTreeSpeedTest(int bucketSize)
+	{
+		long milliseconds = 0;
+		int queryNumber = 100000;
+		int knnK = 20;
+		long queryResultCounter = 0L;
+				
+		ArrayList<IndexedDataObject<double[]>> queryResults = new ArrayList<IndexedDataObject<double[]>>(10000);
+				
+		// build tree
+		System.out.println("");
+		System.out.println("===== KD-Tree (bucket size "+ bucketSize +") =====");
+		System.out.print("Build tree structure .. ");
+		milliseconds = -System.currentTimeMillis();
+		DoubleArrayKDTree kdTree = new DoubleArrayKDTree(this.dataSet, bucketSize);
+		kdTree.build();
+		milliseconds += System.currentTimeMillis();
+		System.out.println("done: "+ milliseconds + "ms");
+		
+		System.out.println("height: " + kdTree.height());
+		System.out.println("tree size: " + kdTree.size());
+		System.out.println("number of nodes: " + kdTree.getNodeCount());
+		
+		// sphere query
+		System.out.println("");
+		System.out.print(queryNumber + " sphere queries ");
+		queryResultCounter = 0L;
+		milliseconds = -System.currentTimeMillis();
+		for(int i=0; i<queryNumber; i++)
+		{
+			if((i+1)%(queryNumber/10) == 0) System.out.print(".");
+			queryResults.clear();
+			kdTree.sphereQuery(queryResults, this.sphereQueryList.get(i), this.shereQueryRadius[i]);
+			queryResultCounter += queryResults.size(); 
+		}
+		milliseconds += System.currentTimeMillis();		
+		System.out.println("done: "+ milliseconds + "ms");
+		System.out.println("Number of reported objects: " + queryResultCounter);
+		
+		// knn queries of random locations
+		System.out.println("");
+		System.out.print(queryNumber + " knn queries with random locations ");
+		queryResultCounter = 0L;
+		milliseconds = -System.currentTimeMillis();
+		for(int i=0; i<queryNumber; i++)
+		{
+			if((i+1)%(queryNumber/10) == 0) System.out.print(".");
+			queryResults.clear();
+			kdTree.knnQuery(queryResults, this.knnQueryRandomList.get(i), knnK);
+			queryResultCounter += queryResults.size(); 
+		}
+		milliseconds += System.currentTimeMillis();		
+		System.out.println("done: "+ milliseconds + "ms");
+		System.out.println("Number of reported objects: " + queryResultCounter);
+		
+		// knn queries of data set locations
+		System.out.println("");
+		System.out.print(queryNumber + " knn queries with locations from data set");
+		queryResultCounter = 0L;
+		milliseconds = -System.currentTimeMillis();
+		for(int i=0; i<queryNumber; i++)
+		{
+			if((i+1)%(queryNumber/10) == 0) System.out.print(".");
+			queryResults.clear();
+			kdTree.knnQuery(queryResults, this.knnQueryDataList.get(i).element, knnK);
+			queryResultCounter += queryResults.size(); 
+		}
+		milliseconds += System.currentTimeMillis();		
+		System.out.println("done: "+ milliseconds + "ms");
+		System.out.println("Number of reported objects: " + queryResultCounter);
+	}
+	
+	/**
+	 * Builds the ball tree and the centered ball tree with an increasing number of worker threads, reports the build
+	 * times and the speed-up relative to the sequential build and checks that the trees are identical to the sequential ones.
+	 * 
+	 * @param maxParallelism the largest number of worker threads, the number of threads is doubled starting from 1
+	 */
+	public void parallelBuildSpeedTest(int maxParallelism)
+	{
+		long milliseconds = 0, sequentialMilliseconds = 0;
+		int dim = this.dataSet.first().element.length;
+		BallTree<double[]> sequentialBallTree = null, ballTree;
+		CenteredBallTree<double[]> sequentialCenteredTree = null, centeredTree;
+		
+		System.out.println("");
+		System.out.println("===== Parallel Ball Tree Build =====");
+		for(int p=1; p<=maxParallelism; p*=2)
+		{
+			System.out.print(p + " threads .. ");
+			ballTree = new BallTree<double[]>(this.dataSet, new DAEuclideanDistance());
+			ballTree.setParallelism(p);
+			milliseconds = -System.currentTimeMillis();
+			ballTree.buildBalanced();
+			milliseconds += System.currentTimeMillis();
+			if(p == 1)
+			{
+				sequentialBallTree = ballTree;
+				sequentialMilliseconds = milliseconds;
+			}
+			System.out.print("done: "+ milliseconds + "ms, speed-up: " + ((double)sequentialMilliseconds)/Math.max(1L, milliseconds));
+			System.out.println(", identical: " + DataStructureSpeedTest.identicalSubtrees(sequentialBallTree.getRoot(), ballTree.getRoot()));
+			System.gc();
+		}
+
+		System.out.println("");
+		System.out.println("===== Parallel Centered Ball Tree Build =====");
+		for(int p=1; p<=maxParallelism; p*=2)
+		{
+			System.out.print(p + " threads .. ");
+			centeredTree = new CenteredBallTree<double[]>(this.dataSet, new DAEuclideanVectorSpace(dim), new DAEuclideanDistance());
+			centeredTree.setParallelism(p);
+			milliseconds = -System.currentTimeMillis();
+			centeredTree.buildNaive();
+			milliseconds += System.currentTimeMillis();
+			if(p == 1)
+			{
+				sequentialCenteredTree = centeredTree;
+				sequentialMilliseconds = milliseconds;
+			}
+			System.out.print("done: "+ milliseconds + "ms, speed-up: " + ((double)sequentialMilliseconds)/Math.max(1L, milliseconds));
+			System.out.println(", identical: " + DataStructureSpeedTest.identicalSubtrees(sequentialCenteredTree.getRoot(), centeredTree.getRoot()));
+			System.gc();
+		}
+	}
+	
+	/**
+	 * Grows a data set in batches and compares the update of a ball tree with rebuilding it after each batch.
+	 * Each batch adds <code>batchSize</code> data objects of the original data set and removes half as many random data objects.
+	 * 
+	 * @param initialSize the number of data objects before the first batch
+	 * @param batchSize the number of added data objects per batch
+	 * @param batchCount the number of batches
+	 */
+	public void dynamicBallTreeSpeedTest(int initialSize, int batchSize, int batchCount)
+	{
+		long updateMilliseconds = 0, rebuildMilliseconds = 0;
+		long updateDistanceCounter = 0, rebuildDistanceCounter = 0;
+		int next = 0;
+		Random rand = new Random(4321);
+		IndexedDataSet<double[]> growingData = new IndexedDataSet<double[]>(initialSize + batchSize*batchCount);
+		CountingDistance<double[]> distance = new CountingDistance<double[]>(new DAEuclideanDistance());
+		
+		for(; next<initialSize && next<this.dataSet.size(); next++) growingData.add(new IndexedDataObject<double[]>(this.dataSet.get(next).element));
+		BallTree<double[]> dynamicTree = new BallTree<double[]>(growingData, distance);
+		dynamicTree.update();
+		
+		System.out.println("");
+		System.out.println("===== Dynamic Ball Tree ("+ batchCount +" batches of "+ batchSize +" data objects) =====");
+		for(int b=0; b<batchCount; b++)
+		{
+			for(int i=0; i<batchSize && next<this.dataSet.size(); i++, next++) growingData.add(new IndexedDataObject<double[]>(this.dataSet.get(next).element));
+			for(int i=0; i<batchSize/2; i++) growingData.remove(rand.nextInt(growingData.size()));
+			
+			distance.counter = 0L;
+			updateMilliseconds -= System.currentTimeMillis();
+			dynamicTree.update();
+			updateMilliseconds += System.currentTimeMillis();
+			updateDistanceCounter += distance.counter;
+			
+			// the rebuild is the balanced construction of a new tree from scratch
+			BallTree<double[]> rebuildTree = new BallTree<double[]>(growingData, distance);
+			distance.counter = 0L;
+			rebuildMilliseconds -= System.currentTimeMillis();
+			rebuildTree.update();
+			rebuildMilliseconds += System.currentTimeMillis();
+			rebuildDistanceCounter += distance.counter;
+		}
+		System.out.println("final size: " + dynamicTree.size() + ", height: " + dynamicTree.height());
+		System.out.println("update:  " + updateMilliseconds + "ms, " + updateDistanceCounter + " distance calculations");
+		System.out.println("rebuild: " + rebuildMilliseconds + "ms, " + rebuildDistanceCounter + " distance calculations");
+	}
+	
+	/**
+	 * Removes random data objects from data sets on a coarse grid, where most data objects are equivalents of others,
+	 * and checks after each {@link BallTree#update()} that the tree contains exactly the data objects of the data set.
+	 * Every second data object is removed by index, the others by reference.
+	 * 
+	 * @param numberOfDataObjects the number of data objects of each data set
+	 * @param gridSize the number of grid positions per dimension
+	 * @param removeCount the number of removed data objects per round
+	 * @param rounds the number of data sets
+	 */
+	public static void ballTreeRemovalTest(int numberOfDataObjects, int gridSize, int removeCount, int rounds)
+	{
+		int badRounds = 0;
+		
+		System.out.println("");
+		System.out.println("===== Ball Tree Removal ("+ rounds +" rounds, "+ removeCount +" of "+ numberOfDataObjects +" data objects on a "+ gridSize +"x"+ gridSize +" grid) =====");
+		for(int r=0; r<rounds; r++)
+		{
+			Random rand = new Random(r);
+			IndexedDataSet<double[]> data = new IndexedDataSet<double[]>(numberOfDataObjects);
+			for(int i=0; i<numberOfDataObjects; i++) data.add(new IndexedDataObject<double[]>(new double[]{rand.nextInt(gridSize), rand.nextInt(gridSize)}));
+			BallTree<double[]> tree = new BallTree<double[]>(data, new DAEuclideanDistance());
+			tree.update();
+			
+			for(int i=0; i<removeCount; i++)
+			{
+				if(i%2 == 0)	data.remove(rand.nextInt(data.size()));
+				else			data.remove(data.get(rand.nextInt(data.size())));
+			}
+			
+			try
+			{
+				tree.update();
+				if(!DataStructureSpeedTest.containsExactly(tree, data)) badRounds++;
+			}
+			catch(RuntimeException e)
+			{
+				e.printStackTrace();
+				badRounds++;
+			}
+		}
+		System.out.println("inconsistent trees: " + badRounds + " of " + rounds);
+	}
+	
+	/**
+	 * Checks that each data object of the data set is contained in exactly one node of the tree, either as the data
+	 * object of the node or as an equivalent that can be found in the equivalents of the node, that no other data
+	 * objects are contained and that the subtree sizes of all nodes are correct.
+	 * 
+	 * @param tree the tree
+	 * @param data the data set of the tree
+	 * @return true if the tree is consistent with the data set
+	 */
+	private static boolean containsExactly(BallTree<double[]> tree, IndexedDataSet<double[]> data)
+	{
+		boolean[] contained = new boolean[data.size()];
+		ArrayList<AbstractTreeNode<double[], ?, ?>> stack = new ArrayList<AbstractTreeNode<double[], ?, ?>>();
+		ArrayList<IndexedDataObject<double[]>> nodeObjects = new ArrayList<IndexedDataObject<double[]>>();
+		AbstractTreeNode<double[], ?, ?> node;
+		int size;
+		
+		if(tree.size() != data.size()) return false;
+		
+		if(tree.getRoot() != null) stack.add(tree.getRoot());
+		while(!stack.isEmpty())
+		{
+			node = stack.remove(stack.size()-1);
+			
+			nodeObjects.clear();
+			nodeObjects.add(node.getObj());
+			if(node.getEquivalents() != null)
+			{
+				for(IndexedDataObject<double[]> d:node.getEquivalents())
+				{
+					if(!node.getEquivalents().contains(d)) return false;
+					nodeObjects.add(d);
+				}
+			}
+			for(IndexedDataObject<double[]> d:nodeObjects)
+			{
+				if(!d.isInSet(data) || contained[d.getID()]) return false;
+				contained[d.getID()] = true;
+			}
+			
+			size = nodeObjects.size();
+			if(node.getLeftChild() != null)
+			{
+				size += node.getLeftChild().getSize();
+				stack.add(node.getLeftChild());
+			}
+			if(node.getRightChild() != null)
+			{
+				size += node.getRightChild().getSize();
+				stack.add(node.getRightChild());
+			}
+			if(size != node.getSize()) return false;
+		}
+		
+		for(int i=0; i<contained.length; i++) if(!contained[i]) return false;
+		
+		return true;
+	}
+	
+	/**
+	 * Compares building the ball tree and the centered ball tree with writing and restoring them from snapshot files.
+	 * The snapshot files are temporary files that are deleted afterwards.
+	 */
+	public void snapshotSpeedTest()
+	{
+		long milliseconds = 0;
+		int dim = this.dataSet.first().element.length;
+		File ballTreeFile = null, centeredTreeFile = null;
+		
+		try
+		{
+			ballTreeFile = File.createTempFile("ballTree", ".snapshot");
+			centeredTreeFile = File.createTempFile("centeredBallTree", ".snapshot");
+			
+			System.out.println("");
+			System.out.println("===== Tree Snapshots =====");
+			BallTree<double[]> ballTree = new BallTree<double[]>(this.dataSet, new DAEuclideanDistance());
+			System.out.print("Build ball tree .. ");
+			milliseconds = -System.currentTimeMillis();
+			ballTree.build();
+			milliseconds += System.currentTimeMillis();
+			System.out.println("done: "+ milliseconds + "ms");
+			System.out.print("Write snapshot .. ");
+			milliseconds = -System.currentTimeMillis();
+			ballTree.writeSnapshot(ballTreeFile);
+			milliseconds += System.currentTimeMillis();
+			System.out.println("done: "+ milliseconds + "ms, " + ballTreeFile.length() + " bytes");
+			System.out.print("Restore from snapshot .. ");
+			BallTree<double[]> restoredBallTree = new BallTree<double[]>(this.dataSet, new DAEuclideanDistance());
+			milliseconds = -System.currentTimeMillis();
+			restoredBallTree.buildFromSnapshot(ballTreeFile);
+			milliseconds += System.currentTimeMillis();
+			System.out.println("done: "+ milliseconds + "ms, identical: " + DataStructureSpeedTest.identicalSubtrees(ballTree.getRoot(), restoredBallTree.getRoot()));
+			ballTree = null;
+			restoredBallTree = null;
+			System.gc();
+		
+			CenteredBallTree<double[]> centeredTree = new CenteredBallTree<double[]>(this.dataSet, new DAEuclideanVectorSpace(dim), new DAEuclideanDistance());
+			System.out.print("Build centered ball tree .. ");
+			milliseconds = -System.currentTimeMillis();
+			centeredTree.build();
+			milliseconds += System.currentTimeMillis();
+			System.out.println("done: "+ milliseconds + "ms");
+			System.out.print("Write snapshot .. ");
+			milliseconds = -System.currentTimeMillis();
+			centeredTree.writeSnapshot(centeredTreeFile);
+			milliseconds += System.currentTimeMillis();
+			System.out.println("done: "+ milliseconds + "ms, " + centeredTreeFile.length() + " bytes");
+			System.out.print("Restore from snapshot .. ");
+			CenteredBallTree<double[]> restoredCenteredTree = new CenteredBallTree<double[]>(this.dataSet, new DAEuclideanVectorSpace(dim), new DAEuclideanDistance());
+			milliseconds = -System.currentTimeMillis();
+			restoredCenteredTree.buildFromSnapshot(centeredTreeFile);
+			milliseconds += System.currentTimeMillis();
+			System.out.println("done: "+ milliseconds + "ms, identical: " + DataStructureSpeedTest.identicalSubtrees(centeredTree.getRoot(), restoredCenteredTree.getRoot()));
+		}
+		catch(IOException e)
+		{
+			e.printStackTrace();
+		}
+		finally
+		{
+			if(ballTreeFile != null) ballTreeFile.delete();
+			if(centeredTreeFile != null) centeredTreeFile.delete();
+		}
+	}
+	
+	/**
+	 * Compares the data objects, sizes and heights of all nodes of two subtrees.
+	 * 
+	 * @param a the root of the first subtree
+	 * @param b the root of the second subtree
+	 * @return true if both subtrees have the same structure
+	 */
+	private static boolean identicalSubtrees(AbstractTreeNode<?, ?, ?> a, AbstractTreeNode<?, ?, ?> b)
+	{
+		ArrayList<AbstractTreeNode<?, ?, ?>> stackA = new ArrayList<AbstractTreeNode<?, ?, ?>>();
+		ArrayList<AbstractTreeNode<?, ?, ?>> stackB = new ArrayList<AbstractTreeNode<?, ?, ?>>();
+		
+		stackA.add(a);
+		stackB.add(b);
+		while(!stackA.isEmpty())
+		{
+			a = stackA.remove(stackA.size()-1);
+			b = stackB.remove(stackB.size()-1);
+			
+			if(a == null || b == null)
+			{
+				if(a != b) return false;
+				continue;
+			}
+			if(a.getObj().getID() != b.getObj().getID() || a.getSize() != b.getSize() || a.getHeight() != b.getHeight()) return false;
+			
+			stackA.add(a.getLeftChild());
+			stackA.add(a.getRightChild());
+			stackB.add(b.getLeftChild());
+			stackB.add(b.getRightChild());
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Compares the all-k-nearest neighbour join with one k-nearest neighbour query per data object on a subset of the data set.
+	 * 
+	 * @param numberOfDataObjects the number of data objects of the subset
+	 * @param k the number of neighbours
+	 */
+	public void dualTreeKNNJoinSpeedTest(int numberOfDataObjects, int k)
+	{
+		long milliseconds = 0;
+		ArrayList<double[]> subset = new ArrayList<double[]>(numberOfDataObjects);
+		
+		for(int i=0; i<numberOfDataObjects && i<this.dataSet.size(); i++) subset.add(this.dataSet.get(i).element);
+		IndexedDataSet<double[]> subsetData = new IndexedDataSet<double[]>(subset);
+		subsetData.seal();
+
+		CountingDistance<double[]> distance = new CountingDistance<double[]>(new DAEuclideanDistance());
+		BallTree<double[]> ballTree = new BallTree<double[]>(subsetData, distance);
+		ballTree.build();
+		
+		System.out.println("");
+		System.out.println("===== All "+ k +"-nearest neighbours of "+ subsetData.size() +" data objects =====");
+		System.out.print("Dual tree join .. ");
+		distance.counter = 0L;
+		milliseconds = -System.currentTimeMillis();
+		DualTreeKNNJoin<double[]> join = new DualTreeKNNJoin<double[]>(ballTree, k);
+		join.apply();
+		milliseconds += System.currentTimeMillis();
+		System.out.println("done: "+ milliseconds + "ms, " + distance.counter + " distance calculations");
+		
+		// the data object itself is the closest result of its query
+		System.out.print("One query per data object .. ");
+		QueryContext context = new QueryContext();
+		int[] indices = new int[k+1];
+		distance.counter = 0L;
+		milliseconds = -System.currentTimeMillis();
+		for(int i=0; i<subsetData.size(); i++) ballTree.knnQuery(subsetData.get(i).element, k+1, indices, null, context);
+		milliseconds += System.currentTimeMillis();
+		System.out.println("done: "+ milliseconds + "ms, " + distance.counter + " distance calculations");
+	}
+	
+	/**
+	 * Compares sphere queries that report the data objects with the aggregate queries that only count or average them,
+	 * on the ball tree and the centered ball tree. The threshold is applied like the core test of DBScan.
+	 * 
+	 * @param threshold the count at which the counting queries with early exit stop
+	 */
+	public void sphereAggregateSpeedTest(int threshold)
+	{
+		long milliseconds = 0;
+		int dim = this.dataSet.first().element.length;
+		int i, j, count, queryNumber = this.sphereQueryList.size();
+		long queryResultCounter = 0L, aboveThreshold = 0L;
+		double maxDeviation = 0.0d;
+		double[] mean = new double[dim], reference = new double[dim];
+		ArrayList<IndexedDataObject<double[]>> queryResults = new ArrayList<IndexedDataObject<double[]>>(10000);
+		DAEuclideanVectorSpace vectorSpace = new DAEuclideanVectorSpace(dim);
+		
+		CountingDistance<double[]> ballDistance = new CountingDistance<double[]>(new DAEuclideanDistance());
+		BallTree<double[]> ballTree = new BallTree<double[]>(this.dataSet, ballDistance);
+		ballTree.build();
+		CountingDistance<double[]> centeredDistance = new CountingDistance<double[]>(new DAEuclideanDistance());
+		CenteredBallTree<double[]> centeredTree = new CenteredBallTree<double[]>(this.dataSet, vectorSpace, centeredDistance);
+		centeredTree.buildNaive();
+		
+		System.out.println("");
+		System.out.println("===== Sphere aggregate queries, " + queryNumber + " queries =====");
+		
+		for(int tree=0; tree<2; tree++)
+		{
+			CountingDistance<double[]> distance = (tree == 0)? ballDistance : centeredDistance;
+			System.out.println((tree == 0)? "Ball tree" : "Centered ball tree");
+			
+			queryResultCounter = 0L;
+			distance.counter = 0L;
+			milliseconds = -System.currentTimeMillis();
+			for(i=0; i<queryNumber; i++)
+			{
+				queryResults.clear();
+				if(tree == 0)	ballTree.sphereQuery(queryResults, this.sphereQueryList.get(i), this.shereQueryRadius[i]);
+				else			centeredTree.sphereQuery(queryResults, this.sphereQueryList.get(i), this.shereQueryRadius[i]);
+				queryResultCounter += queryResults.size();
+			}
+			milliseconds += System.currentTimeMillis();
+			System.out.println("sphere query: "+ milliseconds + "ms, " + distance.counter + " distance calculations, " + queryResultCounter + " data objects");
+			
+			queryResultCounter = 0L;
+			distance.counter = 0L;
+			milliseconds = -System.currentTimeMillis();
+			for(i=0; i<queryNumber; i++)
+			{
+				if(tree == 0)	queryResultCounter += ballTree.sphereCount(this.sphereQueryList.get(i), this.shereQueryRadius[i], Integer.MAX_VALUE);
+				else			queryResultCounter += centeredTree.sphereCount(this.sphereQueryList.get(i), this.shereQueryRadius[i], Integer.MAX_VALUE);
+			}
+			milliseconds += System.currentTimeMillis();
+			System.out.println("exact count:  "+ milliseconds + "ms, " + distance.counter + " distance calculations, " + queryResultCounter + " data objects");
+
+			aboveThreshold = 0L;
+			distance.counter = 0L;
+			milliseconds = -System.currentTimeMillis();
+			for(i=0; i<queryNumber; i++)
+			{
+				if(tree == 0)	count = ballTree.sphereCount(this.sphereQueryList.get(i), this.shereQueryRadius[i], threshold);
+				else			count = centeredTree.sphereCount(this.sphereQueryList.get(i), this.shereQueryRadius[i], threshold);
+				if(count >= threshold) aboveThreshold++;
+			}
+			milliseconds += System.currentTimeMillis();
+			System.out.println("count >= " + threshold + ": "+ milliseconds + "ms, " + distance.counter + " distance calculations, " + aboveThreshold + " queries above threshold");
+		}
+		
+		centeredDistance.counter = 0L;
+		milliseconds = -System.currentTimeMillis();
+		for(i=0; i<queryNumber; i++) centeredTree.sphereMean(this.sphereQueryList.get(i), this.shereQueryRadius[i], mean);
+		milliseconds += System.currentTimeMillis();
+		System.out.println("mean:         "+ milliseconds + "ms, " + centeredDistance.counter + " distance calculations");
+		
+		// compare the means with the means of the reported data objects
+		for(i=0; i<queryNumber; i++)
+		{
+			count = centeredTree.sphereMean(this.sphereQueryList.get(i), this.shereQueryRadius[i], mean);
+			if(count == 0) continue;
+			queryResults.clear();
+			centeredTree.sphereQuery(queryResults, this.sphereQueryList.get(i), this.shereQueryRadius[i]);
+			vectorSpace.resetToAddNeutralElement(reference);
+			for(IndexedDataObject<double[]> d:queryResults) vectorSpace.add(reference, d.element);
+			vectorSpace.mul(reference, 1.0d/queryResults.size());
+			for(j=0; j<dim; j++) maxDeviation = Math.max(maxDeviation, Math.abs(mean[j] - reference[j]));
+		}
+		System.out.println("maximal deviation of the mean from the reported data objects: " + maxDeviation);
+	}
+	
+	/**
+	 * Compares the sequential DBScan with the parallel one on a subset of the data set, both with a ball tree.
+	 * The assignments differ only for data objects that are not core and close to several clusters.
+	 * 
+	 * @param numberOfDataObjects the number of data objects of the subset
+	 * @param coreDist the radius of the neighbourhoods
+	 * @param coreNum the minimal number of data objects in the neighbourhood of a core data object
+	 * @param maxParallelism the largest number of worker threads that is tested
+	 */
+	public void dbScanSpeedTest(int numberOfDataObjects, double coreDist, int coreNum, int maxParallelism)
+	{
+		long milliseconds = 0;
+		int i, differences, noise;
+		int[] sequential, parallel;
+		ArrayList<double[]> subset = new ArrayList<double[]>(numberOfDataObjects);
+		
+		for(i=0; i<numberOfDataObjects && i<this.dataSet.size(); i++) subset.add(this.dataSet.get(i).element);
+		IndexedDataSet<double[]> subsetData = new IndexedDataSet<double[]>(subset);
+		subsetData.seal();
+		
+		BallTree<double[]> ballTree = new BallTree<double[]>(subsetData, new DAEuclideanDistance());
+		ballTree.build();
+		DBScan<double[]> dbScan = new DBScan<double[]>(subsetData, coreDist, coreNum, new DAEuclideanDistance());
+		dbScan.registerSphereQueryProvider(ballTree);
+		
+		System.out.println("");
+		System.out.println("===== DBScan on "+ subsetData.size() +" data objects =====");
+		System.out.print("Sequential .. ");
+		milliseconds = -System.currentTimeMillis();
+		dbScan.apply();
+		milliseconds += System.currentTimeMillis();
+		sequential = dbScan.getAllCrispClusterAssignments();
+		noise = 0;
+		for(boolean b:dbScan.getCrispNoiseAssignments()) if(b) noise++;
+		System.out.println("done: "+ milliseconds + "ms, " + dbScan.getClusterCount() + " clusters, " + noise + " noise");
+		
+		for(int p=2; p<=Math.max(2, maxParallelism); p*=2)
+		{
+			dbScan.setParallelism(p);
+			System.out.print("Parallel, " + p + " threads .. ");
+			milliseconds = -System.currentTimeMillis();
+			dbScan.apply();
+			milliseconds += System.currentTimeMillis();
+			parallel = dbScan.getAllCrispClusterAssignments();
+			noise = 0;
+			for(boolean b:dbScan.getCrispNoiseAssignments()) if(b) noise++;
+			differences = 0;
+			for(i=0; i<parallel.length; i++) if(parallel[i] != sequential[i]) differences++;
+			System.out.println("done: "+ milliseconds + "ms, " + dbScan.getClusterCount() + " clusters, " + noise + " noise, " + differences + " different assignments");
+		}
+	}
+	
+	/**
+	 * Compares DBScan with a ball tree to the grid based DBScan on a subset of the data set. The exact grid based
+	 * DBScan finds the same clusters and noise, the assignments differ only for data objects that are not core and
+	 * close to several clusters. The approximate grid based DBScan might merge clusters that are close to each other.
+	 * The time of DBScan includes the construction of the ball tree, the grid is build in every application.
+	 * 
+	 * @param numberOfDataObjects the number of data objects of the subset
+	 * @param coreDist the radius of the neighbourhoods
+	 * @param coreNum the minimal number of data objects in the neighbourhood of a core data object
+	 */
+	public void gridDBScanSpeedTest(int numberOfDataObjects, double coreDist, int coreNum)
+	{
+		long milliseconds = 0;
+		int i, differences, noise;
+		int[] reference, grid;
+		double[] rhoValues = new double[]{0.0d, 0.01d, 0.1d, 0.5d};
+		ArrayList<double[]> subset = new ArrayList<double[]>(numberOfDataObjects);
+		
+		for(i=0; i<numberOfDataObjects && i<this.dataSet.size(); i++) subset.add(this.dataSet.get(i).element);
+		IndexedDataSet<double[]> subsetData = new IndexedDataSet<double[]>(subset);
+		subsetData.seal();
+		
+		System.out.println("");
+		System.out.println("===== DBScan vs. Grid DBScan on "+ subsetData.size() +" data objects =====");
+		System.out.print("DBScan with ball tree .. ");
+		milliseconds = -System.currentTimeMillis();
+		BallTree<double[]> ballTree = new BallTree<double[]>(subsetData, new DAEuclideanDistance());
+		ballTree.build();
+		DBScan<double[]> dbScan = new DBScan<double[]>(subsetData, coreDist, coreNum, new DAEuclideanDistance());
+		dbScan.registerSphereQueryProvider(ballTree);
+		dbScan.apply();
+		milliseconds += System.currentTimeMillis();
+		reference = dbScan.getAllCrispClusterAssignments();
+		noise = 0;
+		for(boolean b:dbScan.getCrispNoiseAssignments()) if(b) noise++;
+		System.out.println("done: "+ milliseconds + "ms, " + dbScan.getClusterCount() + " clusters, " + noise + " noise");
+		
+		GridDBScan gridDBScan = new GridDBScan(subsetData, coreDist, coreNum);
+		for(double rho:rhoValues)
+		{
+			gridDBScan.setRho(rho);
+			System.out.print("Grid DBScan, rho = " + rho + " .. ");
+			milliseconds = -System.currentTimeMillis();
+			gridDBScan.apply();
+			milliseconds += System.currentTimeMillis();
+			grid = gridDBScan.getAllCrispClusterAssignments();
+			noise = 0;
+			for(boolean b:gridDBScan.getCrispNoiseAssignments()) if(b) noise++;
+			differences = 0;
+			for(i=0; i<grid.length; i++) if(grid[i] != reference[i]) differences++;
+			System.out.println("done: "+ milliseconds + "ms, " + gridDBScan.getCellCount() + " cells, " + gridDBScan.getClusterCount() + " clusters, " + noise + " noise, " + differences + " different assignments");
+		}
+	}
+	
+	/**
+	 * Compares the approximate k-nearest neighbour queries of the HNSW index with the exact queries of the ball tree
+	 * on the knn query objects taken from the data set, because uniformly distributed query objects are far away from
+	 * all data objects in high dimensions. For several numbers of search candidates, the recall, i.e. the fraction of the
+	 * true k nearest neighbours that is found, and the number of queries per second are reported.
+	 * The index is build with one worker thread per available processor.
+	 * 
+	 * @param k the number of neighbours
+	 */
+	public void hnswSpeedTest(int k)
+	{
+		long milliseconds = 0;
+		int i, j, l, found, queryNumber = this.knnQueryDataList.size();
+		int[] efSearchValues = new int[]{10, 20, 50, 100, 200};
+		int[][] exact = new int[queryNumber][k];
+		int[] indices = new int[k];
+		QueryContext context = new QueryContext();
+		
+		System.out.println("");
+		System.out.println("===== HNSW index vs. Ball Tree, "+ k +" nearest neighbours =====");
+		BallTree<double[]> ballTree = new BallTree<double[]>(this.dataSet, new DAEuclideanDistance());
+		System.out.print("Build ball tree .. ");
+		milliseconds = -System.currentTimeMillis();
+		ballTree.build();
+		milliseconds += System.currentTimeMillis();
+		System.out.println("done: "+ milliseconds + "ms");
+		
+		System.out.print("Exact queries .. ");
+		milliseconds = -System.currentTimeMillis();
+		for(i=0; i<queryNumber; i++) ballTree.knnQuery(this.knnQueryDataList.get(i).element, k, exact[i], null, context);
+		milliseconds += System.currentTimeMillis();
+		System.out.println("done: "+ milliseconds + "ms, " + (1000L*queryNumber/Math.max(1L, milliseconds)) + " queries/s");
+		ballTree = null;
+		
+		HNSWIndex<double[]> index = new HNSWIndex<double[]>(this.dataSet, new DAEuclideanDistance());
+		index.setParallelism(Runtime.getRuntime().availableProcessors());
+		System.out.print("Build HNSW index (M = "+ index.getM() +", efConstruction = "+ index.getEfConstruction() +", "+ index.getParallelism() +" threads) .. ");
+		milliseconds = -System.currentTimeMillis();
+		index.build();
+		milliseconds += System.currentTimeMillis();
+		System.out.println("done: "+ milliseconds + "ms, " + (index.getMaxLayer()+1) + " layers");
+		
+		for(int efSearch : efSearchValues)
+		{
+			index.setEfSearch(efSearch);
+			found = 0;
+			milliseconds = -System.currentTimeMillis();
+			for(i=0; i<queryNumber; i++)
+			{
+				index.knnQuery(this.knnQueryDataList.get(i).element, k, indices, null, context);
+				for(j=0; j<k; j++) for(l=0; l<k; l++) if(indices[j] == exact[i][l])
+				{
+					found++;
+					break;
+				}
+			}
+			milliseconds += System.currentTimeMillis();
+			System.out.println("efSearch = " + efSearch + ": recall@" + k + " " + String.format("%.4f", ((double)found)/(k*queryNumber)) + ", " + (1000L*queryNumber/Math.max(1L, milliseconds)) + " queries/s");
+		}
+	}
+	
+	/**
+	 * Compares the locality-sensitive hashing index with the exact queries of the ball tree on the knn query objects
+	 * taken from the data set. The radius of the sphere queries is the lower quartile of the distances of the k-th nearest
+	 * neighbours, which is about the scale of the clusters, the bucket width is four times that radius. For several numbers of tables, with and without verification of the
+	 * candidates, the recall of the knn and sphere queries, the precision of the sphere queries and the number
+	 * of queries per second are reported.
+	 * 
+	 * @param k the number of neighbours
+	 */
+	public void lshSpeedTest(int k)
+	{
+		long milliseconds = 0;
+		long exactCount = 0, reportedCount, foundCount;
+		int i, j, l, found, count, queryNumber = this.knnQueryDataList.size();
+		int[] tableCounts = new int[]{5, 10, 20};
+		int[][] exact = new int[queryNumber][k];
+		double[] kthDistances = new double[queryNumber];
+		double[] distances = new double[k];
+		int[] indices = new int[k];
+		boolean[] inSphere = new boolean[this.dataSet.size()];
+		int[][] exactSphere = new int[queryNumber][];
+		double radius;
+		double[] centre;
+		QueryContext context = new QueryContext();
+		
+		System.out.println("");
+		System.out.println("===== LSH index vs. Ball Tree, "+ k +" nearest neighbours =====");
+		BallTree<double[]> ballTree = new BallTree<double[]>(this.dataSet, new DAEuclideanDistance());
+		ballTree.build();
+		
+		System.out.print("Exact knn queries .. ");
+		milliseconds = -System.currentTimeMillis();
+		for(i=0; i<queryNumber; i++)
+		{
+			ballTree.knnQuery(this.knnQueryDataList.get(i).element, k, exact[i], distances, context);
+			kthDistances[i] = distances[k-1];
+		}
+		milliseconds += System.currentTimeMillis();
+		System.out.println("done: "+ milliseconds + "ms, " + (1000L*queryNumber/Math.max(1L, milliseconds)) + " queries/s");
+		
+		Arrays.sort(kthDistances);
+		radius = kthDistances[queryNumber/4];
+		System.out.print("Exact sphere queries (radius "+ String.format("%.4f", radius) +") .. ");
+		milliseconds = -System.currentTimeMillis();
+		for(i=0; i<queryNumber; i++)
+		{
+			count = ballTree.sphereQuery(this.knnQueryDataList.get(i).element, radius, context);
+			exactSphere[i] = Arrays.copyOf(context.getResultIndices(), count);
+			exactCount += count;
+		}
+		milliseconds += System.currentTimeMillis();
+		System.out.println("done: "+ milliseconds + "ms, " + (1000L*queryNumber/Math.max(1L, milliseconds)) + " queries/s, " + exactCount + " data objects");
+		ballTree = null;
+		
+		for(boolean verify : new boolean[]{true, false})
+		{
+			for(int tableCount : tableCounts)
+			{
+				DoubleArrayLSHIndex index = new DoubleArrayLSHIndex(this.dataSet, tableCount, DoubleArrayLSHIndex.DEFAULT_HASH_COUNT, 4.0d*radius);
+				index.setVerify(verify);
+				System.out.print((verify? "verified" : "unverified") + ", " + tableCount + " tables: build .. ");
+				milliseconds = -System.currentTimeMillis();
+				index.build();
+				milliseconds += System.currentTimeMillis();
+				System.out.print("done: "+ milliseconds + "ms");
+				
+				found = 0;
+				milliseconds = -System.currentTimeMillis();
+				for(i=0; i<queryNumber; i++)
+				{
+					count = index.knnQuery(this.knnQueryDataList.get(i).element, k, indices, null, context);
+					for(j=0; j<count; j++) for(l=0; l<k; l++) if(indices[j] == exact[i][l])
+					{
+						found++;
+						break;
+					}
+				}
+				milliseconds += System.currentTimeMillis();
+				System.out.print(", knn: recall " + String.format("%.4f", ((double)found)/(k*queryNumber)) + ", " + (1000L*queryNumber/Math.max(1L, milliseconds)) + " queries/s");
+				
+				reportedCount = 0;
+				foundCount = 0;
+				milliseconds = -System.currentTimeMillis();
+				for(i=0; i<queryNumber; i++)
+				{
+					centre = this.knnQueryDataList.get(i).element;
+					count = index.sphereQuery(centre, radius, context);
+					reportedCount += count;
+					for(j=0; j<exactSphere[i].length; j++) inSphere[exactSphere[i][j]] = true;
+					for(j=0; j<count; j++) if(inSphere[context.getResultIndices()[j]]) foundCount++;
+					for(j=0; j<exactSphere[i].length; j++) inSphere[exactSphere[i][j]] = false;
+				}
+				milliseconds += System.currentTimeMillis();
+				System.out.println(", sphere: recall " + String.format("%.4f", ((double)foundCount)/Math.max(1L, exactCount)) + ", precision " + String.format("%.4f", ((double)foundCount)/Math.max(1L, reportedCount)) + ", " + (1000L*queryNumber/Math.max(1L, milliseconds)) + " queries/s");
+			}
+		}
+	}
+	
+	/**
+	 * Runs fuzzy c-means with and without a {@link DoubleArrayBlockDistanceEngine} and compares the run times and the
+	 * prototypes. Also checks that the fuzzy c-means variants that calculate the distances only with their distance
+	 * function reject the engine.
+	 * 
+	 * @param clusterCount the number of clusters
+	 * @param steps the number of iterations
+	 */
+	public void distanceEngineTest(int clusterCount, int steps)
+	{
+		long milliseconds = 0;
+		int i, rejected;
+		double maxDistance;
+		int dim = this.dataSet.first().element.length;
+		DAEuclideanVectorSpace vs = new DAEuclideanVectorSpace(dim);
+		DAEuclideanDistance dist = new DAEuclideanDistance();
+		ArrayList<double[]> initialPositions = new ArrayList<double[]>(clusterCount);
+		ArrayList<FuzzyCMeansClusteringAlgorithm<double[]>> withoutEngine = new ArrayList<FuzzyCMeansClusteringAlgorithm<double[]>>();
+		
+		for(i=0; i<clusterCount; i++) initialPositions.add(this.dataSet.get(i*(this.dataSet.size()/clusterCount)).element.clone());
+		
+		System.out.println("");
+		System.out.println("===== Block Distance Engine ("+ clusterCount +" clusters, "+ steps +" iterations) =====");
+		FuzzyCMeansClusteringAlgorithm<double[]> plain = new FuzzyCMeansClusteringAlgorithm<double[]>(this.dataSet, vs, dist);
+		plain.initializeWithPositions(initialPositions);
+		plain.setObjectiveFunctionMonitoring(false);
+		milliseconds = -System.currentTimeMillis();
+		plain.apply(steps);
+		milliseconds += System.currentTimeMillis();
+		System.out.println("fcm with distance function: " + milliseconds + "ms");
+		
+		milliseconds = -System.currentTimeMillis();
+		DoubleArrayBlockDistanceEngine engine = new DoubleArrayBlockDistanceEngine(this.dataSet);
+		milliseconds += System.currentTimeMillis();
+		System.out.println("create engine: " + milliseconds + "ms");
+		
+		FuzzyCMeansClusteringAlgorithm<double[]> blocked = new FuzzyCMeansClusteringAlgorithm<double[]>(this.dataSet, vs, dist);
+		blocked.initializeWithPositions(initialPositions);
+		blocked.setObjectiveFunctionMonitoring(false);
+		blocked.setDistanceEngine(engine);
+		milliseconds = -System.currentTimeMillis();
+		blocked.apply(steps);
+		milliseconds += System.currentTimeMillis();
+		maxDistance = 0.0d;
+		for(i=0; i<clusterCount; i++) maxDistance = Math.max(maxDistance, dist.distance(plain.getPrototypes().get(i).getPosition(), blocked.getPrototypes().get(i).getPosition()));
+		System.out.println("fcm with engine: " + milliseconds + "ms, maximal prototype difference: " + maxDistance);
+		
+		withoutEngine.add(new FuzzyCMeansNoiseClusteringAlgorithm<double[]>(this.dataSet, vs, dist));
+		withoutEngine.add(new VoronoiPartitionFCMClusteringAlgorithm<double[]>(this.dataSet, vs));
+		withoutEngine.add(new RewardingCrispFCMClusteringAlgorithm<double[]>(this.dataSet, vs, dist));
+		withoutEngine.add(new DistAdaptedFCMClusteringAlgorithm<double[]>(this.dataSet, vs, dist));
+		rejected = 0;
+		for(FuzzyCMeansClusteringAlgorithm<double[]> clusterAlgo:withoutEngine)
+		{
+			try
+			{
+				clusterAlgo.setDistanceEngine(engine);
+			}
+			catch(IllegalArgumentException e)
+			{
+				rejected++;
+			}
+		}
+		System.out.println("rejected by algorithms that do not use an engine: " + rejected + " of " + withoutEngine.size());
+	}
+	
+	/**
+	 * Compares the number of distance calculations of the cover tree and the ball tree on sequence data
+	 * with an expensive distance function. The sequences are random walks in the plane that start at a
+	 * few different locations. For reference, a linear scan requires one distance calculation per data object and query.
+	 * 
+	 * @param sequenceCount the number of sequences in the data set
+	 * @param queryNumber the number of queries of each type
+	 */
+	public static void coverTreeSequenceTest(int sequenceCount, int queryNumber)
+	{
+		long milliseconds = 0;
+		int knnK = 10;
+		int i, j, length;
+		long queryResultCounter = 0L;
+		double[] position;
+		Random rand = new Random();
+		ArrayList<double[]> points;
+		ArrayList<DoubleArraySequence> sequences = new ArrayList<DoubleArraySequence>(sequenceCount);
+		ArrayList<IndexedDataObject<DoubleArraySequence>> queryResults = new ArrayList<IndexedDataObject<DoubleArraySequence>>(1000);
+		
+		for(i=0; i<sequenceCount; i++)
+		{
+			length = 10 + rand.nextInt(20);
+			points = new ArrayList<double[]>(length);
+			position = new double[]{(i%20)*0.5d, (i%7)*0.3d};
+			for(j=0; j<length; j++)
+			{
+				position = new double[]{position[0] + 0.3d + 0.1d*rand.nextGaussian(), position[1] + 0.1d*rand.nextGaussian()};
+				points.add(position);
+			}
+			sequences.add(new DoubleArraySequence(points));
+		}
+		IndexedDataSet<DoubleArraySequence> sequenceSet = new IndexedDataSet<DoubleArraySequence>(sequences);
+		sequenceSet.seal();
+		
+		ArrayList<IndexedDataObject<DoubleArraySequence>> queryList = DataManipulator.selectWithoutCopy(sequenceSet, queryNumber);
+		double[] queryRadius = new double[queryNumber];
+		for(i=0; i<queryNumber; i++) queryRadius[i] = rand.nextDouble();
+		
+		CountingDistance<DoubleArraySequence> coverDistance = new CountingDistance<DoubleArraySequence>(new PointSamplingDistance(20));
+		CountingDistance<DoubleArraySequence> ballDistance = new CountingDistance<DoubleArraySequence>(new PointSamplingDistance(20));
+		CoverTree<DoubleArraySequence> coverTree = new CoverTree<DoubleArraySequence>(sequenceSet, coverDistance);
+		BallTree<DoubleArraySequence> ballTree = new BallTree<DoubleArraySequence>(sequenceSet, ballDistance);
+
+		System.out.println("");
+		System.out.println("===== Cover Tree vs. Ball Tree on "+ sequenceCount +" sequences =====");
+		System.out.print("Build cover tree .. ");
+		milliseconds = -System.currentTimeMillis();
+		coverTree.build();
+		milliseconds += System.currentTimeMillis();
+		System.out.println("done: "+ milliseconds + "ms, " + coverDistance.counter + " distance calculations");
+		System.out.println("height: " + coverTree.height() + ", number of nodes: " + coverTree.getNodeCount());
+		System.out.print("Build ball tree .. ");
+		milliseconds = -System.currentTimeMillis();
+		ballTree.build();
+		milliseconds += System.currentTimeMillis();
+		System.out.println("done: "+ milliseconds + "ms, " + ballDistance.counter + " distance calculations");
+		
+		// sphere queries
+		coverDistance.counter = 0L;
+		ballDistance.counter = 0L;
+		queryResultCounter = 0L;
+		for(i=0; i<queryNumber; i++)
+		{
+			queryResults.clear();
+			coverTree.sphereQuery(queryResults, queryList.get(i).element, queryRadius[i]);
+			queryResultCounter += queryResults.size();
+			ballTree.sphereQuery(null, queryList.get(i).element, queryRadius[i]);
+		}
+		System.out.println("");
+		System.out.println(queryNumber + " sphere queries, number of reported objects: " + queryResultCounter);
+		System.out.println("distance calculations per query: cover tree " + (coverDistance.counter/queryNumber) + ", ball tree " + (ballDistance.counter/queryNumber) + ", linear scan " + sequenceCount);
+		
+		// knn queries
+		coverDistance.counter = 0L;
+		ballDistance.counter = 0L;
+		queryResultCounter = 0L;
+		for(i=0; i<queryNumber; i++)
+		{
+			queryResults.clear();
+			coverTree.knnQuery(queryResults, queryList.get(i).element, knnK);
+			queryResultCounter += queryResults.size();
+			ballTree.knnQuery(null, queryList.get(i).element, knnK);
+		}
+		System.out.println("");
+		System.out.println(queryNumber + " knn queries, number of reported objects: " + queryResultCounter);
+		System.out.println("distance calculations per query: cover tree " + (coverDistance.counter/queryNumber) + ", ball tree " + (ballDistance.counter/queryNumber) + ", linear scan " + sequenceCount);
+	}
 }
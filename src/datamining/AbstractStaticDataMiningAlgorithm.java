@@ -37,6 +37,7 @@ THE POSSIBILITY OF SUCH DAMAGE.
 
 package datamining;
 
+import data.set.AbstractDoubleArrayDataSet;
 import data.set.DataSetNotSealedException;
 import data.set.IndexedDataSet;
 
@@ -76,6 +77,38 @@ public abstract class AbstractStaticDataMiningAlgorithm<T> implements DataMining
 	{
 		this.data					= c.data;
 	}
+	
+	/**
+	 * Creates a buffer for {@link #elementOf(int, Object)}. If the data set is an {@link AbstractDoubleArrayDataSet}, the
+	 * buffer is a double array of its dimension, otherwise the data set holds its elements as objects and no buffer is needed.
+	 * A buffer must only be used by one thread at a time.
+	 * 
+	 * @return a new buffer or null
+	 */
+	@SuppressWarnings("unchecked")
+	protected T newElementBuffer()
+	{
+		if(this.data instanceof AbstractDoubleArrayDataSet) return (T)new double[((AbstractDoubleArrayDataSet)this.data).getDimension()];
+		
+		return null;
+	}
+	
+	/**
+	 * Provides the element of the data object with the specified index. If a buffer is specified, the coordinates are
+	 * copied into it through the index based accessor of the {@link AbstractDoubleArrayDataSet}, so no data object is
+	 * created. The returned element is only valid until the buffer is used again.
+	 * 
+	 * @param index the index of the data object
+	 * @param buffer the buffer, created with {@link #newElementBuffer()}
+	 * @return the element of the data object
+	 */
+	protected T elementOf(int index, T buffer)
+	{
+		if(buffer != null) ((AbstractDoubleArrayDataSet)this.data).copyCoordinates(index, (double[])buffer);
+		else buffer = this.data.get(index).element;
+		
+		return buffer;
+	}
 		
 	/* (non-Javadoc)
 	 * @see datamining.DataMiningAlgorithm#getDataCount()
@@ -220,7 +220,6 @@ public class ClusterAnalyser<T>  implements Serializable
 	{
 		int i, j;
 		int clusterCount = fuzzyResult.get(0).length;
-		T tmpX = vs.getNewAddNeutralElement();	
 		ArrayList<T> prototypeLocations = new ArrayList<T>();
 		for(i=0; i<clusterCount; i++) prototypeLocations.add(vs.getNewAddNeutralElement());
 		double[] membershipValueSum = new double[clusterCount];
@@ -229,9 +228,7 @@ public class ClusterAnalyser<T>  implements Serializable
 		{
 			for(i=0; i<clusterCount; i++)
 			{
-				vs.copy(tmpX, dataSet.get(j).element);
-				vs.mul(tmpX, fuzzyResult.get(j)[i]);
-				vs.add(prototypeLocations.get(i), tmpX);
+				vs.addMul(prototypeLocations.get(i), dataSet.get(j).element, fuzzyResult.get(j)[i]);
 				
 				membershipValueSum[i] += fuzzyResult.get(j)[i];
 			}
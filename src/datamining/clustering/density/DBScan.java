@@ -38,12 +38,17 @@ THE POSSIBILITY OF SUCH DAMAGE.
 package datamining.clustering.density;
 
 import java.util.ArrayList;
-import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import data.algebra.Distance;
 import data.set.IndexedDataObject;
 import data.set.IndexedDataSet;
 import data.set.structures.BallTree;
+import data.set.structures.QueryContext;
+import data.set.structures.queries.SphereCountQueryProvider;
+import data.set.structures.queries.SphereIndexQueryProvider;
 import data.set.structures.queries.SphereQueryProvider;
 import datamining.clustering.AbstractClusteringAlgorithm;
 import datamining.clustering.CrispClusteringAlgorithm;
@@ -52,6 +57,14 @@ import datamining.clustering.CrispNoiseClusteringAlgorithm;
 /**
  * TODO Class Description
  * 
+ * If the parallelism is larger than 1, the clusters are not grown from seed data objects. Instead, the core data objects
+ * are determined in parallel, the neighbourhoods of core data objects are merged with a concurrent union-find structure
+ * and finally the remaining data objects are assigned to the cluster of a core data object in their neighbourhood or marked
+ * as noise. The core data objects and the noise are the same as in the sequential algorithm and the clusters are numbered in
+ * the same order. A data object that is not core but in the neighbourhood of several clusters is assigned to the one with the
+ * smallest number, in the sequential algorithm it might be assigned to a later cluster whose seed is close to it.
+ * The sphere query provider and the distance function must be safe for concurrent queries.
+ * 
  * Paper: Ester, M.; Kriegel, H.-P.; Jrg, S. & Xu, X. A density-based algorithm for discovering clusters in large spatial databases with noise 2nd International Conference on Knowledge Discovery and Data Mining, AAAI Press, 1996, 226-231
  * 
  * @author Roland Winkler
@@ -82,6 +95,26 @@ public class DBScan<T> extends AbstractClusteringAlgorithm<T> implements CrispCl
 	
 	/**  */
 	protected int[] clusterIDs;
+	
+	/**
+	 *	The number of worker threads that are used by {@link #apply()}. If it is 1, the clusters are grown sequentially
+	 *	in the calling thread. Otherwise, the core data objects and the clusters are determined in a fork/join pool.<br>
+	 *	<br>
+	 *	Range of values: <code>parallelism</code> >= 1
+	 */
+	protected int parallelism;
+	
+	/** The minimal number of data objects that are processed in one chunk if the clustering is done in parallel. */
+	protected static final int MIN_PARALLEL_CHUNK_SIZE = 256;
+	
+	/** Phase of the parallel clustering that determines the core data objects. */
+	private static final int CORE_PHASE = 0;
+	
+	/** Phase of the parallel clustering that merges the neighbourhoods of the core data objects. */
+	private static final int UNION_PHASE = 1;
+	
+	/** Phase of the parallel clustering that assigns the remaining data objects. */
+	private static final int BORDER_PHASE = 2;
 		
 	/** */
 	public DBScan(IndexedDataSet<T> dataSet, double coreDist, int coreNum, Distance<T> dist)
@@ -95,6 +128,7 @@ public class DBScan<T> extends AbstractClusteringAlgorithm<T> implements CrispCl
 		this.distanceFunction = dist;
 
 		this.sphereQueryProvider = null;
+		this.parallelism = 1;
 		
 		this.clusterIDs = new int[this.getDataCount()];
 		for(int i=0; i<this.getDataCount(); i++) this.clusterIDs[i] = DBScan.DBSCAN_UNASSIGNED_ID;
@@ -127,6 +161,7 @@ public class DBScan<T> extends AbstractClusteringAlgorithm<T> implements CrispCl
 		
 		this.distanceFunction		= c.distanceFunction;
 		this.sphereQueryProvider	= c.sphereQueryProvider;
+		this.parallelism			= c.parallelism;
 		
 		this.clusterIDs				= c.clusterIDs.clone();
 	}
@@ -165,10 +200,10 @@ public class DBScan<T> extends AbstractClusteringAlgorithm<T> implements CrispCl
 	@Override
 	public void apply()
 	{
-		TreeSet<IndexedDataObject<T>> cluster = new TreeSet<IndexedDataObject<T>>();
+		QueryContext context = new QueryContext();
 		ArrayList<IndexedDataObject<T>> query = new ArrayList<IndexedDataObject<T>>();
-		IndexedDataObject<T> current;
-		int currentID;
+		int[] indices;
+		int i, j, count, current, currentID, stackSize, n = this.getDataCount();
 		
 		System.out.println("apply DBScan");
 		
@@ -176,21 +211,30 @@ public class DBScan<T> extends AbstractClusteringAlgorithm<T> implements CrispCl
 		if(!this.sphereQueryProvider.isBuild()) this.sphereQueryProvider.build();
 		
 		// reset cluster assignments in case the algorithm was applied before.
-		for(int i=0; i<this.getDataCount(); i++) this.clusterIDs[i] = DBScan.DBSCAN_UNASSIGNED_ID;
+		for(i=0; i<n; i++) this.clusterIDs[i] = DBScan.DBSCAN_UNASSIGNED_ID;
 		
 		this.clusterCount = 0; // the noise cluster does not count!
-				
+		
+		if(this.parallelism > 1)
+		{
+			this.applyParallel();
+			return;
+		}
+		
+		// the frontier of the current cluster. A data object is only pushed while it is unassigned and it is assigned
+		// to the cluster at the same time, so each data object is pushed at most once and the stack never overflows.
+		int[] stack = new int[n];
+		
 		for(IndexedDataObject<T> d:this.data)
 		{			
 			// if the data object is already clustered, ignore it and continue with the next.
 			if(this.clusterIDs[d.getID()] != DBScan.DBSCAN_UNASSIGNED_ID) continue;
 			
 			// get all nearby data objects 
-			cluster.clear();
-			this.sphereQueryProvider.sphereQuery(cluster, d.element, this.coreDist);
+			count = this.neighbours(d.element, context, query);
 			
 			// if the nearby data objects are not enough to form a cluster, d is noise and the algorithm continues with the next data object
-			if(cluster.size() < this.coreNum)
+			if(count < this.coreNum)
 			{
 				this.clusterIDs[d.getID()] = DBScan.DBSCAN_NOISE_ID;
 				continue;
@@ -199,27 +243,39 @@ public class DBScan<T> extends AbstractClusteringAlgorithm<T> implements CrispCl
 			// increase cluster count and mark all query elements as in the new cluster
 			currentID = this.clusterCount;
 			this.clusterCount++;
-			for(IndexedDataObject<T> d2: cluster) this.clusterIDs[d2.getID()] = currentID;
+			indices = context.getResultIndices();
+			stackSize = 0;
+			for(j=0; j<count; j++)
+			{
+				// noise and data objects of earlier clusters are not core, their neighbourhoods do not need to be expanded
+				if(this.clusterIDs[indices[j]] == DBScan.DBSCAN_UNASSIGNED_ID && indices[j] != d.getID())
+				{
+					stack[stackSize] = indices[j];
+					stackSize++;
+				}
+				this.clusterIDs[indices[j]] = currentID;
+			}
 			
 			// the data object was unclustered and is not noise.
-			cluster.remove(d);
-			while(!cluster.isEmpty())
+			while(stackSize > 0)
 			{
-				current = cluster.pollFirst(); 
-				query.clear();
-				this.sphereQueryProvider.sphereQuery(query, current.element, this.coreDist);
-				if(query.size() >= this.coreNum)
+				stackSize--;
+				current = stack[stackSize];
+				count = this.neighbours(this.data.get(current).element, context, query);
+				if(count >= this.coreNum)
 				{
-					for(IndexedDataObject<T> q:query)
+					indices = context.getResultIndices();
+					for(j=0; j<count; j++)
 					{
-						if(this.clusterIDs[q.getID()] == DBScan.DBSCAN_NOISE_ID || this.clusterIDs[q.getID()] == DBScan.DBSCAN_UNASSIGNED_ID) // q is either noise or unclustered
+						if(this.clusterIDs[indices[j]] == DBScan.DBSCAN_UNASSIGNED_ID) // q is unclustered, it needs to be expanded
 						{
-							if(this.clusterIDs[q.getID()] == DBScan.DBSCAN_UNASSIGNED_ID) // if q is already known to be noise, it does not need to be checked again.
-							{
-								cluster.add(q);
-							}
-							
-							this.clusterIDs[q.getID()] = currentID;
+							stack[stackSize] = indices[j];
+							stackSize++;
+							this.clusterIDs[indices[j]] = currentID;
+						}
+						else if(this.clusterIDs[indices[j]] == DBScan.DBSCAN_NOISE_ID) // if q is already known to be noise, it does not need to be checked again.
+						{
+							this.clusterIDs[indices[j]] = currentID;
 						}
 					}
 				}
@@ -227,6 +283,284 @@ public class DBScan<T> extends AbstractClusteringAlgorithm<T> implements CrispCl
 		}
 	}
 	
+	/**
+	 * Clusters the data set in a fork/join pool. First, the core data objects are determined. Second, each core data object
+	 * is merged with the core data objects in its neighbourhood. Since the representative of a set is always its smallest
+	 * index, the representative of a cluster is its first core data object in the order of the data set, which is the
+	 * seed of the cluster in the sequential algorithm. Data objects that are not core but in the neighbourhood of a core
+	 * data object are marked as border. Third, each border data object is assigned to the cluster with the
+	 * smallest number among the core data objects in its neighbourhood, all other data objects are noise.
+	 */
+	protected void applyParallel()
+	{
+		int i, root, n = this.getDataCount();
+		int chunkSize = Math.max(DBScan.MIN_PARALLEL_CHUNK_SIZE, n/(8*this.parallelism));
+		boolean[] core = new boolean[n];
+		boolean[] border = new boolean[n];
+		AtomicIntegerArray parent = new AtomicIntegerArray(n);
+		for(i=0; i<n; i++) parent.set(i, i);
+		
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try
+		{
+			pool.invoke(new NeighbourhoodTask(DBScan.CORE_PHASE, 0, n, chunkSize, core, border, parent));
+			pool.invoke(new NeighbourhoodTask(DBScan.UNION_PHASE, 0, n, chunkSize, core, border, parent));
+			
+			// number the clusters in the order of their representatives
+			for(i=0; i<n; i++)
+			{
+				if(!core[i]) continue;
+				
+				root = DBScan.find(parent, i);
+				if(root == i)
+				{
+					this.clusterIDs[i] = this.clusterCount;
+					this.clusterCount++;
+				}
+				else
+				{
+					this.clusterIDs[i] = this.clusterIDs[root];
+				}
+			}
+			
+			pool.invoke(new NeighbourhoodTask(DBScan.BORDER_PHASE, 0, n, chunkSize, core, border, parent));
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Collects the indices of the data objects in the neighbourhood of a data object in the result buffer of the query context.
+	 * 
+	 * @param element the data object
+	 * @param context the query context
+	 * @param query buffer for providers that do not report indices
+	 * @return the number of data objects in the neighbourhood
+	 */
+	private int neighbours(T element, QueryContext context, ArrayList<IndexedDataObject<T>> query)
+	{
+		if(this.sphereQueryProvider instanceof SphereIndexQueryProvider)
+		{
+			return ((SphereIndexQueryProvider<T>)this.sphereQueryProvider).sphereQuery(element, this.coreDist, context);
+		}
+		
+		query.clear();
+		this.sphereQueryProvider.sphereQuery(query, element, this.coreDist);
+		context.startSphere();
+		for(IndexedDataObject<T> q:query) context.addResult(q.getID());
+		
+		return context.resultCount();
+	}
+	
+	/**
+	 * Determines the core data objects with indices in [from, to).
+	 */
+	private void markCorePoints(int from, int to, boolean[] core)
+	{
+		QueryContext context = new QueryContext();
+		ArrayList<IndexedDataObject<T>> query = new ArrayList<IndexedDataObject<T>>();
+		IndexedDataObject<T> d;
+		
+		for(int i=from; i<to; i++)
+		{
+			d = this.data.get(i);
+			if(this.sphereQueryProvider instanceof SphereCountQueryProvider)
+			{
+				core[d.getID()] = ((SphereCountQueryProvider<T>)this.sphereQueryProvider).sphereCount(d.element, this.coreDist, this.coreNum) >= this.coreNum;
+			}
+			else
+			{
+				core[d.getID()] = this.neighbours(d.element, context, query) >= this.coreNum;
+			}
+		}
+	}
+	
+	/**
+	 * Merges the core data objects with indices in [from, to) with the core data objects in their neighbourhoods
+	 * and marks the other data objects in their neighbourhoods as border.
+	 */
+	private void connectCorePoints(int from, int to, boolean[] core, boolean[] border, AtomicIntegerArray parent)
+	{
+		QueryContext context = new QueryContext();
+		ArrayList<IndexedDataObject<T>> query = new ArrayList<IndexedDataObject<T>>();
+		IndexedDataObject<T> d;
+		int i, j, count;
+		int[] indices;
+		
+		for(i=from; i<to; i++)
+		{
+			d = this.data.get(i);
+			if(!core[d.getID()]) continue;
+			
+			count = this.neighbours(d.element, context, query);
+			indices = context.getResultIndices();
+			for(j=0; j<count; j++)
+			{
+				if(core[indices[j]]) DBScan.union(parent, d.getID(), indices[j]);
+				else border[indices[j]] = true;
+			}
+		}
+	}
+	
+	/**
+	 * Assigns the border data objects with indices in [from, to) to the cluster with the smallest
+	 * number in their neighbourhood and marks the data objects that are neither core nor border as noise.
+	 */
+	private void assignBorderPoints(int from, int to, boolean[] core, boolean[] border)
+	{
+		QueryContext context = new QueryContext();
+		ArrayList<IndexedDataObject<T>> query = new ArrayList<IndexedDataObject<T>>();
+		IndexedDataObject<T> d;
+		int i, j, count, id;
+		int[] indices;
+		
+		for(i=from; i<to; i++)
+		{
+			d = this.data.get(i);
+			if(core[d.getID()]) continue;
+			if(!border[d.getID()])
+			{
+				this.clusterIDs[d.getID()] = DBScan.DBSCAN_NOISE_ID;
+				continue;
+			}
+			
+			id = Integer.MAX_VALUE;
+			count = this.neighbours(d.element, context, query);
+			indices = context.getResultIndices();
+			for(j=0; j<count; j++)
+			{
+				if(core[indices[j]] && this.clusterIDs[indices[j]] < id) id = this.clusterIDs[indices[j]];
+			}
+			this.clusterIDs[d.getID()] = id;
+		}
+	}
+	
+	/**
+	 * Finds the representative of a set of the union-find structure and halves the path to it.
+	 * Concurrent calls of find and {@link #union(AtomicIntegerArray, int, int)} are safe.
+	 * 
+	 * @param parent the parents of the union-find structure
+	 * @param i an element
+	 * @return the representative of the set of i, the smallest element in the set
+	 */
+	private static int find(AtomicIntegerArray parent, int i)
+	{
+		int p, gp;
+		
+		while((p = parent.get(i)) != i)
+		{
+			gp = parent.get(p);
+			if(p != gp) parent.compareAndSet(i, p, gp);
+			i = p;
+		}
+		
+		return i;
+	}
+	
+	/**
+	 * Merges the sets of two elements of the union-find structure. The representative with the larger index is
+	 * linked to the one with the smaller index, so the representative of a set is always its smallest element.
+	 * 
+	 * @param parent the parents of the union-find structure
+	 * @param a an element
+	 * @param b an element
+	 */
+	private static void union(AtomicIntegerArray parent, int a, int b)
+	{
+		int tmp;
+		
+		while(true)
+		{
+			a = DBScan.find(parent, a);
+			b = DBScan.find(parent, b);
+			if(a == b) return;
+			if(a < b)
+			{
+				tmp = a;
+				a = b;
+				b = tmp;
+			}
+			
+			// a is only linked if it is still a representative, otherwise retry
+			if(parent.compareAndSet(a, a, b)) return;
+		}
+	}
+	
+	/**
+	 * Fork/join task for one phase of {@link DBScan#applyParallel()}. The index range is split in halves until it is
+	 * not larger than the chunk size.
+	 */
+	protected class NeighbourhoodTask extends RecursiveAction
+	{
+		/**  */
+		private static final long	serialVersionUID	= 4417208355720263981L;
+
+		/** the phase of the parallel clustering */
+		private final int phase;
+		
+		/** the first data object index */
+		private final int from;
+		
+		/** the index after the last data object */
+		private final int to;
+		
+		/** the maximal number of data objects that are processed without further splitting */
+		private final int chunkSize;
+		
+		/** the core flags of the data objects */
+		private final boolean[] core;
+		
+		/** the border flags of the data objects */
+		private final boolean[] border;
+		
+		/** the parents of the union-find structure */
+		private final AtomicIntegerArray parent;
+		
+		/**
+		 * @param phase
+		 * @param from
+		 * @param to
+		 * @param chunkSize
+		 * @param core
+		 * @param border
+		 * @param parent
+		 */
+		public NeighbourhoodTask(int phase, int from, int to, int chunkSize, boolean[] core, boolean[] border, AtomicIntegerArray parent)
+		{
+			this.phase = phase;
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+			this.core = core;
+			this.border = border;
+			this.parent = parent;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute()
+		{
+			if(this.to - this.from <= this.chunkSize)
+			{
+				switch(this.phase)
+				{
+					case DBScan.CORE_PHASE:		DBScan.this.markCorePoints(this.from, this.to, this.core); break;
+					case DBScan.UNION_PHASE:	DBScan.this.connectCorePoints(this.from, this.to, this.core, this.border, this.parent); break;
+					default:					DBScan.this.assignBorderPoints(this.from, this.to, this.core, this.border); break;
+				}
+				return;
+			}
+			
+			int middle = (this.from + this.to) >>> 1;
+			RecursiveAction.invokeAll(new NeighbourhoodTask(this.phase, this.from, middle, this.chunkSize, this.core, this.border, this.parent),
+				new NeighbourhoodTask(this.phase, middle, this.to, this.chunkSize, this.core, this.border, this.parent));
+		}
+	}
+	
 	/* (non-Javadoc)
 	 * @see datamining.ClusterResultAlgorithm#getPrototypeCount()
 	 */
@@ -252,6 +586,26 @@ public class DBScan<T> extends AbstractClusteringAlgorithm<T> implements CrispCl
 		this.coreDist = coreDist;
 	}
 
+	/**
+	 * @return the number of worker threads used by {@link #apply()}
+	 */
+	public int getParallelism()
+	{
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of worker threads used by {@link #apply()}. A value of 1 selects the sequential algorithm.
+	 * 
+	 * @param parallelism the number of worker threads to set
+	 */
+	public void setParallelism(int parallelism)
+	{
+		if(parallelism < 1) throw new IllegalArgumentException("The parallelism must be at least 1. Specified parallelism: " + parallelism);
+		
+		this.parallelism = parallelism;
+	}
+
 	/**
 	 * @return the coreNum
 	 */
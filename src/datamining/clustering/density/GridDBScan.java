@@ -0,0 +1,925 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package datamining.clustering.density;
+
+import java.util.Arrays;
+
+import data.set.IndexedDataObject;
+import data.set.IndexedDataSet;
+import datamining.clustering.AbstractClusteringAlgorithm;
+import datamining.clustering.CrispClusteringAlgorithm;
+import datamining.clustering.CrispNoiseClusteringAlgorithm;
+
+/**
+ * DBScan for low dimensional double array data with the euclidean distance. Instead of sphere queries, the neighbourhoods
+ * are determined with a uniform grid of cell width coreDist/sqrt(d), d being the dimension of the data objects. Since the
+ * diameter of a cell is coreDist, all data objects of a cell are in the neighbourhood of each other, so a cell with at least
+ * coreNum data objects contains only core data objects and all core data objects of a cell belong to the same cluster. The
+ * neighbourhood of a data object is contained in the cells whose minimal distance to its cell is less than coreDist.
+ * Only occupied cells are stored, they are found by hashing their integer coordinates, so the memory follows the
+ * number of occupied cells and not the extent of the data set. The number of neighbouring cells grows exponentially
+ * with the dimension, so the algorithm is meant for 2 to 4 dimensional data, e.g. geodata.<br>
+ * <br>
+ * The algorithm works in three steps. First, the core data objects are determined by counting the data objects in the
+ * neighbouring cells. Second, two neighbouring cells that contain core data objects are merged with a union-find structure
+ * if they contain two core data objects with a distance less than coreDist. Third, each remaining data object is assigned
+ * to the cluster with the smallest number among the core data objects in its neighbourhood, all other data objects are noise.
+ * The clusters are numbered in the order of their first core data object in the data set. With that, the result is
+ * identical to the parallel mode of {@link DBScan} with the euclidean distance and can directly be compared to the
+ * sequential mode of {@link DBScan}, which differs only in the assignment of data objects that are in the neighbourhood of
+ * several clusters but not core.<br>
+ * <br>
+ * The second step searches for a close pair of core data objects for each pair of neighbouring cells, which can take
+ * quadratic time. If the approximation factor rho is larger than 0, the core data objects of each cell are replaced by the
+ * centres of a sub grid with cells of diameter at most rho*coreDist/2. Two cells are merged if two of their sub grid centres
+ * are closer than coreDist plus that diameter. Clusters that are connected with a distance less than coreDist are still
+ * merged, while clusters are only merged if they are connected with a distance less than (1+rho)*coreDist. Since the
+ * number of sub grid cells is bounded by a constant, the algorithm runs in linear expected time for fixed coreNum, rho and
+ * dimension. The core data objects are always determined exactly.<br>
+ * <br>
+ * Paper: Ester, M.; Kriegel, H.-P.; Sander, J. & Xu, X. A density-based algorithm for discovering clusters in large spatial databases with noise 2nd International Conference on Knowledge Discovery and Data Mining, AAAI Press, 1996, 226-231
+ * Paper: Gan, J. & Tao, Y. DBSCAN Revisited: Mis-Claim, Un-Fixability, and Approximation Proceedings of the 2015 ACM SIGMOD International Conference on Management of Data, ACM, 2015, 519-530
+ * 
+ * @author Roland Winkler
+ */
+public class GridDBScan extends AbstractClusteringAlgorithm<double[]> implements CrispClusteringAlgorithm<double[]>, CrispNoiseClusteringAlgorithm<double[]>
+{
+	/**  */
+	private static final long	serialVersionUID	= -2217456090311370284L;
+
+	private static final int DBSCAN_UNASSIGNED_ID = -2;
+	
+	private static final int DBSCAN_NOISE_ID = -1;
+	
+	/** The largest absolute value of integer cell coordinates, large enough to add neighbour offsets without overflow. */
+	private static final int MAX_CELL_COORDINATE = Integer.MAX_VALUE/2;
+	
+	/**  */
+	protected double coreDist;
+	
+	/**  */
+	protected int coreNum;
+	
+	/**
+	 *	The approximation factor of the merging of cells. If it is 0, the clustering is exact. Otherwise, clusters that
+	 *	are connected with a distance less than (1+rho)*coreDist might be merged.<br>
+	 *	<br>
+	 *	Range of values: <code>rho</code> >= 0
+	 */
+	protected double rho;
+	
+	/**  */
+	protected int clusterCount;
+	
+	/** The number of occupied grid cells of the last application of the algorithm. */
+	protected int cellCount;
+	
+	/**  */
+	protected int[] clusterIDs;
+	
+	/** The dimension of the data objects */
+	private int dim;
+	
+	/** The width of a grid cell */
+	private double cellWidth;
+	
+	/** The integer coordinates of the cells, dim values per cell */
+	private int[] cellKeys;
+	
+	/** The open addressing hash table of the cells, it contains the cell index + 1 or 0 for an empty slot */
+	private int[] table;
+	
+	/** The first position of the data objects of a cell in {@link #order}, the data objects of cell c are at the positions [cellStart[c], cellStart[c+1]) */
+	private int[] cellStart;
+	
+	/** The number of core data objects of a cell, they are stored at the first positions of the cell */
+	private int[] coreCount;
+	
+	/** The data object indices, sorted by cells */
+	private int[] order;
+	
+	/** The coordinates of the data objects in the order of {@link #order} */
+	private double[] coordinates;
+	
+	/** The offsets of the neighbouring cells, dim values per offset */
+	private int[] offsets;
+	
+	/** The first position of the neighbouring cells of a cell in {@link #neighbours} */
+	private int[] neighbourStart;
+	
+	/** The neighbouring cells of all cells, including the cells themselves */
+	private int[] neighbours;
+	
+	/** The union-find structure of the cells */
+	private int[] parent;
+	
+	/** The cluster of the core data objects of a cell */
+	private int[] cellCluster;
+	
+	/** The first sub grid centre of a cell in {@link #centres} for the approximate merging of cells */
+	private int[] centreStart;
+	
+	/** The sub grid centres of the core data objects, dim values per centre */
+	private double[] centres;
+	
+	
+	/** */
+	public GridDBScan(IndexedDataSet<double[]> dataSet, double coreDist, int coreNum)
+	{
+		super(dataSet);
+		
+		this.coreDist = coreDist;
+		this.coreNum = coreNum;
+		this.rho = 0.0d;
+		
+		this.clusterCount = 1;
+		this.cellCount = 0;
+		
+		this.clusterIDs = new int[this.getDataCount()];
+		for(int i=0; i<this.getDataCount(); i++) this.clusterIDs[i] = GridDBScan.DBSCAN_UNASSIGNED_ID;
+	}
+	
+	
+	/**
+	 *	The initial constructor for clustering.
+	 */
+	public GridDBScan(IndexedDataSet<double[]> dataSet)
+	{
+		this(dataSet, 1.0d, 4);
+	}
+		
+	/**
+	 * This constructor is meant to be used if the clustering algorithm should be changed. All data references
+	 * stay the same, still the data containers are reinitialized.
+	 * 
+	 * @param c the elders clustering algorithm object
+	 */
+	public GridDBScan(GridDBScan c)
+	{
+		super(c.data);
+		
+		this.coreDist				= c.coreDist;
+		this.coreNum				= c.coreNum;
+		this.rho					= c.rho;
+		
+		this.clusterCount			= c.clusterCount;
+		this.cellCount				= c.cellCount;
+		
+		this.clusterIDs				= c.clusterIDs.clone();
+	}
+	
+	
+	/* (non-Javadoc)
+	 * @see datamining.DataMiningAlgorithm#apply()
+	 */
+	@Override
+	public void apply()
+	{
+		int i, c, root, n = this.getDataCount();
+		int[] cellOf;
+		int[] rootCluster;
+		boolean[] core = new boolean[n];
+		
+		// reset cluster assignments in case the algorithm was applied before.
+		for(i=0; i<n; i++) this.clusterIDs[i] = GridDBScan.DBSCAN_UNASSIGNED_ID;
+		
+		this.clusterCount = 0; // the noise cluster does not count!
+		this.cellCount = 0;
+		
+		if(n == 0) return;
+		
+		try
+		{
+			cellOf = this.buildGrid();
+			this.buildNeighbourLists();
+			this.table = null;
+			this.offsets = null;
+			this.markCorePoints(core);
+			
+			this.parent = new int[this.cellCount];
+			for(c=0; c<this.cellCount; c++) this.parent[c] = c;
+			if(this.useApproximation()) this.buildCentres();
+			this.connectCells();
+			
+			// number the clusters in the order of their first core data object
+			rootCluster = new int[this.cellCount];
+			Arrays.fill(rootCluster, GridDBScan.DBSCAN_UNASSIGNED_ID);
+			for(i=0; i<n; i++)
+			{
+				if(!core[i]) continue;
+				
+				root = this.find(cellOf[i]);
+				if(rootCluster[root] == GridDBScan.DBSCAN_UNASSIGNED_ID)
+				{
+					rootCluster[root] = this.clusterCount;
+					this.clusterCount++;
+				}
+				this.clusterIDs[i] = rootCluster[root];
+			}
+			
+			// the cluster of the core data objects of a cell
+			this.cellCluster = new int[this.cellCount];
+			for(c=0; c<this.cellCount; c++) this.cellCluster[c] = this.coreCount[c] > 0? rootCluster[this.find(c)] : GridDBScan.DBSCAN_NOISE_ID;
+			
+			this.assignBorderPoints();
+		}
+		finally
+		{
+			// the grid is only needed during the application
+			this.cellKeys = null;
+			this.table = null;
+			this.cellStart = null;
+			this.coreCount = null;
+			this.order = null;
+			this.coordinates = null;
+			this.offsets = null;
+			this.neighbourStart = null;
+			this.neighbours = null;
+			this.parent = null;
+			this.cellCluster = null;
+			this.centreStart = null;
+			this.centres = null;
+		}
+	}
+	
+	/**
+	 * Sorts the data objects into the cells of the grid and determines the offsets of the neighbouring cells.
+	 * 
+	 * @return the cell of each data object
+	 */
+	private int[] buildGrid()
+	{
+		int i, k, c, n = this.getDataCount();
+		int[] key, cellOf = new int[n], counts;
+		long coordinate;
+		double[] x;
+		
+		this.dim = this.data.get(0).element.length;
+		this.cellWidth = this.coreDist / Math.sqrt(this.dim);
+		
+		this.cellKeys = new int[16*this.dim];
+		this.table = new int[32];
+		counts = new int[16];
+		key = new int[this.dim];
+		for(i=0; i<n; i++)
+		{
+			x = this.data.get(i).element;
+			for(k=0; k<this.dim; k++)
+			{
+				coordinate = (long)Math.floor(x[k] / this.cellWidth);
+				if(coordinate > GridDBScan.MAX_CELL_COORDINATE || coordinate < -GridDBScan.MAX_CELL_COORDINATE)
+				{
+					throw new IllegalArgumentException("The core distance is too small for the extent of the data set. Specified core distance: " + this.coreDist);
+				}
+				key[k] = (int)coordinate;
+			}
+			
+			c = this.findCell(key, 0);
+			if(c < 0)
+			{
+				c = this.addCell(key);
+				if(c >= counts.length) counts = Arrays.copyOf(counts, 2*counts.length);
+			}
+			cellOf[i] = c;
+			counts[c]++;
+		}
+		
+		// sort the data objects by cells
+		this.cellStart = new int[this.cellCount+1];
+		for(c=0; c<this.cellCount; c++) this.cellStart[c+1] = this.cellStart[c] + counts[c];
+		System.arraycopy(this.cellStart, 0, counts, 0, this.cellCount);
+		this.order = new int[n];
+		this.coordinates = new double[n*this.dim];
+		for(i=0; i<n; i++)
+		{
+			this.order[counts[cellOf[i]]] = i;
+			System.arraycopy(this.data.get(i).element, 0, this.coordinates, counts[cellOf[i]]*this.dim, this.dim);
+			counts[cellOf[i]]++;
+		}
+		
+		// the offsets of all cells with a minimal distance less than coreDist = sqrt(dim)*cellWidth
+		int range = (int)Math.ceil(Math.sqrt(this.dim)), offsetCount = 0, sum, gap;
+		int[] offset = new int[this.dim];
+		Arrays.fill(offset, -range);
+		this.offsets = new int[16*this.dim];
+		while(true)
+		{
+			sum = 0;
+			for(k=0; k<this.dim; k++)
+			{
+				gap = Math.max(Math.abs(offset[k]) - 1, 0);
+				sum += gap*gap;
+			}
+			if(sum < this.dim)
+			{
+				if((offsetCount+1)*this.dim > this.offsets.length) this.offsets = Arrays.copyOf(this.offsets, 2*this.offsets.length);
+				System.arraycopy(offset, 0, this.offsets, offsetCount*this.dim, this.dim);
+				offsetCount++;
+			}
+			
+			for(k=0; k<this.dim && offset[k] == range; k++) offset[k] = -range;
+			if(k == this.dim) break;
+			offset[k]++;
+		}
+		this.offsets = Arrays.copyOf(this.offsets, offsetCount*this.dim);
+		
+		return cellOf;
+	}
+	
+	/**
+	 * Calculates the hash value of the integer coordinates of a cell.
+	 * 
+	 * @param keys an array of cell coordinates
+	 * @param offset the position of the first coordinate of the cell
+	 * @return the hash value
+	 */
+	private int hash(int[] keys, int offset)
+	{
+		int h = 0;
+		
+		for(int k=0; k<this.dim; k++) h = 31*h + keys[offset+k];
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		
+		return h;
+	}
+	
+	/**
+	 * Finds the cell with the specified integer coordinates.
+	 * 
+	 * @param keys an array of cell coordinates
+	 * @param offset the position of the first coordinate of the cell
+	 * @return the index of the cell or -1 if the cell is not occupied
+	 */
+	private int findCell(int[] keys, int offset)
+	{
+		int k, c, mask = this.table.length - 1;
+		
+		for(int slot = this.hash(keys, offset) & mask; this.table[slot] != 0; slot = (slot + 1) & mask)
+		{
+			c = this.table[slot] - 1;
+			for(k=0; k<this.dim && this.cellKeys[c*this.dim + k] == keys[offset+k]; k++);
+			if(k == this.dim) return c;
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Adds a new cell to the hash table, the table is doubled if it is more than half full.
+	 * 
+	 * @param key the integer coordinates of the cell
+	 * @return the index of the cell
+	 */
+	private int addCell(int[] key)
+	{
+		int c, slot, mask;
+		
+		if((this.cellCount+1)*this.dim > this.cellKeys.length) this.cellKeys = Arrays.copyOf(this.cellKeys, 2*this.cellKeys.length);
+		System.arraycopy(key, 0, this.cellKeys, this.cellCount*this.dim, this.dim);
+		this.cellCount++;
+		
+		if(2*this.cellCount > this.table.length)
+		{
+			this.table = new int[2*this.table.length];
+			mask = this.table.length - 1;
+			for(c=0; c<this.cellCount-1; c++)
+			{
+				for(slot = this.hash(this.cellKeys, c*this.dim) & mask; this.table[slot] != 0; slot = (slot + 1) & mask);
+				this.table[slot] = c + 1;
+			}
+		}
+		
+		mask = this.table.length - 1;
+		for(slot = this.hash(key, 0) & mask; this.table[slot] != 0; slot = (slot + 1) & mask);
+		this.table[slot] = this.cellCount;
+		
+		return this.cellCount - 1;
+	}
+	
+	/**
+	 * Collects the occupied cells whose minimal distance to a cell is less than coreDist, including the cell itself, for
+	 * all cells. The neighbouring cells are needed in every step of the algorithm, so they are looked up only once.
+	 */
+	private void buildNeighbourLists()
+	{
+		int c, k, o, nb, count = 0;
+		int[] key = new int[this.dim];
+		
+		this.neighbourStart = new int[this.cellCount+1];
+		this.neighbours = new int[16];
+		for(c=0; c<this.cellCount; c++)
+		{
+			for(o=0; o<this.offsets.length; o+=this.dim)
+			{
+				for(k=0; k<this.dim; k++) key[k] = this.cellKeys[c*this.dim + k] + this.offsets[o + k];
+				nb = this.findCell(key, 0);
+				if(nb < 0) continue;
+				
+				if(count == this.neighbours.length) this.neighbours = Arrays.copyOf(this.neighbours, 2*this.neighbours.length);
+				this.neighbours[count] = nb;
+				count++;
+			}
+			this.neighbourStart[c+1] = count;
+		}
+	}
+	
+	/**
+	 * Calculates the square distance of two data objects, given by their positions in {@link #order}.
+	 */
+	private double distanceSq(int a, int b)
+	{
+		double diff, sum = 0.0d;
+		
+		for(int k=0; k<this.dim; k++)
+		{
+			diff = this.coordinates[a*this.dim + k] - this.coordinates[b*this.dim + k];
+			sum += diff*diff;
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Calculates the square of the minimal or maximal distance of a data object to the points of a cell.
+	 * 
+	 * @param pos the position of the data object in {@link #order}
+	 * @param c the cell
+	 * @param max whether the maximal distance is calculated
+	 * @return the square distance
+	 */
+	private double cellDistanceSq(int pos, int c, boolean max)
+	{
+		double x, low, high, diff, sum = 0.0d;
+		
+		for(int k=0; k<this.dim; k++)
+		{
+			x = this.coordinates[pos*this.dim + k];
+			low = this.cellKeys[c*this.dim + k] * this.cellWidth;
+			high = low + this.cellWidth;
+			if(max) diff = Math.max(x - low, high - x);
+			else diff = x < low? low - x : (x > high? x - high : 0.0d);
+			sum += diff*diff;
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Determines the core data objects and moves them to the first positions of their cells. All data objects
+	 * of a cell with at least coreNum data objects are core. For the data objects of the other cells, the data
+	 * objects in the neighbouring cells are counted until coreNum is reached. Cells that are completely inside
+	 * the neighbourhood are counted without distance calculations.
+	 * 
+	 * @param core the core flags of the data objects
+	 */
+	private void markCorePoints(boolean[] core)
+	{
+		int c, i, j, l, nb, count, size, tmp;
+		double coreDistSq = this.coreDist*this.coreDist;
+		double[] swap = new double[this.dim];
+		
+		this.coreCount = new int[this.cellCount];
+		for(c=0; c<this.cellCount; c++)
+		{
+			size = this.cellStart[c+1] - this.cellStart[c];
+			if(size >= this.coreNum)
+			{
+				for(i=this.cellStart[c]; i<this.cellStart[c+1]; i++) core[this.order[i]] = true;
+				this.coreCount[c] = size;
+				continue;
+			}
+			
+			for(i=this.cellStart[c]; i<this.cellStart[c+1]; i++)
+			{
+				count = size;
+				for(j=this.neighbourStart[c]; j<this.neighbourStart[c+1] && count<this.coreNum; j++)
+				{
+					nb = this.neighbours[j];
+					if(nb == c) continue;
+					if(this.cellDistanceSq(i, nb, true) < coreDistSq)
+					{
+						count += this.cellStart[nb+1] - this.cellStart[nb];
+						continue;
+					}
+					
+					for(l=this.cellStart[nb]; l<this.cellStart[nb+1] && count<this.coreNum; l++)
+					{
+						if(this.distanceSq(i, l) < coreDistSq) count++;
+					}
+				}
+				
+				if(count < this.coreNum) continue;
+				
+				// move the core data object to the front of the cell
+				core[this.order[i]] = true;
+				l = this.cellStart[c] + this.coreCount[c];
+				tmp = this.order[l];
+				this.order[l] = this.order[i];
+				this.order[i] = tmp;
+				System.arraycopy(this.coordinates, l*this.dim, swap, 0, this.dim);
+				System.arraycopy(this.coordinates, i*this.dim, this.coordinates, l*this.dim, this.dim);
+				System.arraycopy(swap, 0, this.coordinates, i*this.dim, this.dim);
+				this.coreCount[c]++;
+			}
+		}
+	}
+	
+	/**
+	 * Checks whether the approximate merging of cells is used. It is not used if rho is 0 or if the
+	 * number of sub grid cells of a cell exceeds the range of long values.
+	 */
+	private boolean useApproximation()
+	{
+		return this.rho > 0.0d && Math.pow(Math.ceil(2.0d/this.rho), this.dim) < Long.MAX_VALUE/2;
+	}
+	
+	/**
+	 * Determines the occupied sub grid cells of the core data objects of each cell and stores their centres. Each cell is
+	 * divided into m^dim sub grid cells, m = ceil(2/rho), so that the diameter of a sub grid cell is at most rho*coreDist/2.
+	 */
+	private void buildCentres()
+	{
+		int c, i, k, j, l, count, total = 0, m = (int)Math.ceil(2.0d/this.rho);
+		long key, factor;
+		double subWidth = this.cellWidth / m;
+		long[] keys = new long[16];
+		
+		this.centreStart = new int[this.cellCount+1];
+		this.centres = new double[16*this.dim];
+		for(c=0; c<this.cellCount; c++)
+		{
+			count = this.coreCount[c];
+			if(count > keys.length) keys = new long[Math.max(count, 2*keys.length)];
+			for(i=0; i<count; i++)
+			{
+				key = 0;
+				factor = 1;
+				for(k=0; k<this.dim; k++)
+				{
+					l = (int)((this.coordinates[(this.cellStart[c]+i)*this.dim + k] - this.cellKeys[c*this.dim + k] * this.cellWidth) / subWidth);
+					l = Math.max(0, Math.min(m-1, l));
+					key += l*factor;
+					factor *= m;
+				}
+				keys[i] = key;
+			}
+			Arrays.sort(keys, 0, count);
+			
+			for(i=0; i<count; i++)
+			{
+				if(i > 0 && keys[i] == keys[i-1]) continue;
+				
+				if((total+1)*this.dim > this.centres.length) this.centres = Arrays.copyOf(this.centres, 2*this.centres.length);
+				key = keys[i];
+				for(k=0; k<this.dim; k++)
+				{
+					j = (int)(key % m);
+					key /= m;
+					this.centres[total*this.dim + k] = this.cellKeys[c*this.dim + k] * this.cellWidth + (j + 0.5d)*subWidth;
+				}
+				total++;
+			}
+			this.centreStart[c+1] = total;
+		}
+	}
+	
+	/**
+	 * Merges all pairs of neighbouring cells that contain core data objects and that are connected.
+	 */
+	private void connectCells()
+	{
+		int c, j, nb;
+		boolean approximate = this.useApproximation();
+		
+		for(c=0; c<this.cellCount; c++)
+		{
+			if(this.coreCount[c] == 0) continue;
+			
+			for(j=this.neighbourStart[c]; j<this.neighbourStart[c+1]; j++)
+			{
+				nb = this.neighbours[j];
+				
+				// each pair of cells is only checked once and only if they are not merged yet
+				if(nb <= c || this.coreCount[nb] == 0) continue;
+				if(this.find(c) == this.find(nb)) continue;
+				
+				if(approximate? this.centresConnected(c, nb) : this.coresConnected(c, nb)) this.union(c, nb);
+			}
+		}
+	}
+	
+	/**
+	 * Checks whether two cells contain core data objects with a distance less than coreDist.
+	 */
+	private boolean coresConnected(int a, int b)
+	{
+		double coreDistSq = this.coreDist*this.coreDist;
+		
+		for(int i=this.cellStart[a]; i<this.cellStart[a]+this.coreCount[a]; i++)
+		{
+			if(this.cellDistanceSq(i, b, false) >= coreDistSq) continue;
+			
+			for(int j=this.cellStart[b]; j<this.cellStart[b]+this.coreCount[b]; j++)
+			{
+				if(this.distanceSq(i, j) < coreDistSq) return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Checks whether two cells contain sub grid centres with a distance less than coreDist plus the diameter of a sub grid cell.
+	 */
+	private boolean centresConnected(int a, int b)
+	{
+		int i, j, k;
+		double diff, sum, threshold = this.coreDist * (1.0d + 1.0d/Math.ceil(2.0d/this.rho));
+		
+		threshold *= threshold;
+		for(i=this.centreStart[a]; i<this.centreStart[a+1]; i++)
+		{
+			for(j=this.centreStart[b]; j<this.centreStart[b+1]; j++)
+			{
+				sum = 0.0d;
+				for(k=0; k<this.dim; k++)
+				{
+					diff = this.centres[i*this.dim + k] - this.centres[j*this.dim + k];
+					sum += diff*diff;
+				}
+				if(sum < threshold) return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Assigns the data objects that are not core to the cluster with the smallest number among the core data
+	 * objects in their neighbourhood or marks them as noise. All core data objects of a cell belong to the same
+	 * cluster, so a cell is only searched for a core data object in the neighbourhood if its cluster has a
+	 * smaller number than the best one found so far.
+	 */
+	private void assignBorderPoints()
+	{
+		int c, i, j, l, nb, id;
+		double coreDistSq = this.coreDist*this.coreDist;
+		
+		for(c=0; c<this.cellCount; c++)
+		{
+			if(this.coreCount[c] == this.cellStart[c+1] - this.cellStart[c]) continue;
+			
+			for(i=this.cellStart[c]+this.coreCount[c]; i<this.cellStart[c+1]; i++)
+			{
+				id = Integer.MAX_VALUE;
+				for(j=this.neighbourStart[c]; j<this.neighbourStart[c+1]; j++)
+				{
+					nb = this.neighbours[j];
+					if(this.coreCount[nb] == 0 || this.cellCluster[nb] >= id) continue;
+					if(this.cellDistanceSq(i, nb, false) >= coreDistSq) continue;
+					
+					for(l=this.cellStart[nb]; l<this.cellStart[nb]+this.coreCount[nb]; l++)
+					{
+						if(this.distanceSq(i, l) < coreDistSq)
+						{
+							id = this.cellCluster[nb];
+							break;
+						}
+					}
+				}
+				
+				this.clusterIDs[this.order[i]] = id == Integer.MAX_VALUE? GridDBScan.DBSCAN_NOISE_ID : id;
+			}
+		}
+	}
+	
+	/**
+	 * Finds the representative of a set of cells and halves the path to it.
+	 */
+	private int find(int c)
+	{
+		while(this.parent[c] != c)
+		{
+			this.parent[c] = this.parent[this.parent[c]];
+			c = this.parent[c];
+		}
+		
+		return c;
+	}
+	
+	/**
+	 * Merges the sets of two cells.
+	 */
+	private void union(int a, int b)
+	{
+		a = this.find(a);
+		b = this.find(b);
+		if(a < b) this.parent[b] = a;
+		else if(b < a) this.parent[a] = b;
+	}
+	
+	/* (non-Javadoc)
+	 * @see datamining.ClusterResultAlgorithm#getPrototypeCount()
+	 */
+	@Override
+	public int getClusterCount()
+	{
+		return this.clusterCount;
+	}
+
+	/**
+	 * @return the coreDist
+	 */
+	public double getCoreDist()
+	{
+		return this.coreDist;
+	}
+
+	/**
+	 * @param coreDist the coreDist to set
+	 */
+	public void setCoreDist(double coreDist)
+	{
+		this.coreDist = coreDist;
+	}
+
+	/**
+	 * @return the coreNum
+	 */
+	public int getCoreNum()
+	{
+		return this.coreNum;
+	}
+
+	/**
+	 * @param coreNum the coreNum to set
+	 */
+	public void setCoreNum(int coreNum)
+	{
+		this.coreNum = coreNum;
+	}
+
+	/**
+	 * @return the approximation factor, 0 if the clustering is exact
+	 */
+	public double getRho()
+	{
+		return this.rho;
+	}
+
+	/**
+	 * Sets the approximation factor. If it is 0, the clustering is exact. Otherwise, clusters might be merged
+	 * if they are connected with a distance less than (1+rho)*coreDist.
+	 * 
+	 * @param rho the approximation factor to set
+	 */
+	public void setRho(double rho)
+	{
+		if(rho < 0.0d) throw new IllegalArgumentException("The approximation factor must not be negative. Specified approximation factor: " + rho);
+		
+		this.rho = rho;
+	}
+
+	/**
+	 * @return the number of occupied grid cells of the last application of the algorithm
+	 */
+	public int getCellCount()
+	{
+		return this.cellCount;
+	}
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.AbstractDoubleArrayClusteringAlgorithm#algorithmName()
+	 */
+	@Override
+	public String algorithmName()
+	{
+		return "Grid DBScan Clustering Algorithm";
+	}
+
+	/* (non-Javadoc)
+	 * @see datamining.CrispClusterResultAlgorithm#getCrispIndicesResult()
+	 */
+	@Override
+	public int[] getAllCrispClusterAssignments()
+	{
+		int[] crispResult = new int[this.getDataCount()];
+		
+		for(int j=0; j<this.getDataCount(); j++)
+		{
+			crispResult[j] = this.clusterIDs[this.data.get(j).getID()];
+			crispResult[j] = (crispResult[j] == GridDBScan.DBSCAN_NOISE_ID || crispResult[j] == GridDBScan.DBSCAN_UNASSIGNED_ID)? CrispClusteringAlgorithm.UNASSIGNED_INDEX : crispResult[j];
+		}
+		
+		return crispResult;
+	}
+
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.CrispClusterResultAlgorithm#getCrispAssignment(data.set.IndexedDataObject)
+	 */
+	@Override
+	public int getCrispClusterAssignmentOf(IndexedDataObject<double[]> obj)
+	{
+		int assignment = this.clusterIDs[obj.getID()];
+		
+		// either the obj is unassigned or it is noise, in both cases, the assignment index is -1
+		assignment = (assignment == GridDBScan.DBSCAN_NOISE_ID || assignment == GridDBScan.DBSCAN_UNASSIGNED_ID)? CrispClusteringAlgorithm.UNASSIGNED_INDEX : assignment;
+		
+		return assignment;
+	}
+
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.CrispClusterResultAlgorithm#isCrispClusterAssigned(data.set.IndexedDataObject)
+	 */
+	@Override
+	public boolean isCrispAssigned(IndexedDataObject<double[]> obj)
+	{
+		return this.clusterIDs[obj.getID()] >= 0;
+	}
+
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.CrispNoiseClusteringAlgorithm#getCrispNoiseAssignments()
+	 */
+	@Override
+	public boolean[] getCrispNoiseAssignments()
+	{
+		boolean[] crispNoise = new boolean[this.getDataCount()];
+		
+		for(int j=0; j<this.getDataCount(); j++)
+		{
+			crispNoise[j] = this.clusterIDs[this.data.get(j).getID()] == GridDBScan.DBSCAN_NOISE_ID;
+		}
+		
+		return crispNoise;
+	}
+
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.CrispNoiseClusteringAlgorithm#isCrispNoiseAssigned(data.set.IndexedDataObject)
+	 */
+	@Override
+	public boolean isCrispNoiseAssigned(IndexedDataObject<double[]> obj)
+	{
+		return this.clusterIDs[obj.getID()] == GridDBScan.DBSCAN_NOISE_ID;
+	}
+
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.ClusteringAlgorithm#getActiveClusterCount()
+	 */
+	@Override
+	public int getActiveClusterCount()
+	{
+		return this.getClusterCount();
+	}
+
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.ClusteringAlgorithm#getInactiveClusterCount()
+	 */
+	@Override
+	public int getInactiveClusterCount()
+	{
+		return 0;
+	}
+}
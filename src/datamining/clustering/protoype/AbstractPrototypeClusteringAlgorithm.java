@@ -40,7 +40,9 @@ package datamining.clustering.protoype;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import data.algebra.Distance;
 import data.algebra.VectorSpace;
+import data.set.BlockDistanceEngine;
 import data.set.IndexedDataSet;
 import datamining.IterativeObjectiveFunctionOptimization;
 import datamining.clustering.AbstractClusteringAlgorithm;
@@ -86,6 +88,14 @@ public abstract class AbstractPrototypeClusteringAlgorithm<T, S extends Prototyp
 	 *	To ensure the algorithm does not stop, set <code>epsilon</code> to 0 or negative.
 	 */
 	protected double epsilon;
+	
+	/**
+	 *	If not null, algorithms that calculate the distances between all data objects and all prototypes in each iteration
+	 *	(for example fuzzy c-means, hard c-means and expectation maximization) use this engine to calculate them block-wise,
+	 *	instead of calling the distance function for each pair. The engine must calculate the same distance as the
+	 *	distance function of the algorithm and must be bound to the data set of the algorithm.
+	 */
+	protected BlockDistanceEngine<T> distanceEngine;
 		
 	/**
 	 *	The initial constructor for clustering. The number of clusters can be changed after initialization, but it
@@ -102,6 +112,7 @@ public abstract class AbstractPrototypeClusteringAlgorithm<T, S extends Prototyp
 		this.monitorObjectiveFunctionValues	= true;
 		this.objectiveFunctionValues		= new ArrayList<Double>(100);
 		this.epsilon						= 0;
+		this.distanceEngine					= null;
 		
 		this.prototypes						= new ArrayList<S>();
 	}
@@ -128,6 +139,7 @@ public abstract class AbstractPrototypeClusteringAlgorithm<T, S extends Prototyp
 		this.monitorObjectiveFunctionValues	= c.monitorObjectiveFunctionValues;
 		this.objectiveFunctionValues		= new ArrayList<Double>(100);
 		this.epsilon						= c.epsilon;
+		this.distanceEngine					= c.distanceEngine;
 		
 		if(useOnlyActivePrototypes)
 		{
@@ -318,6 +330,22 @@ public abstract class AbstractPrototypeClusteringAlgorithm<T, S extends Prototyp
 	{
 		return new ArrayList<S>(this.prototypes);
 	}
+	
+	/**
+	 * Returns a list of the position objects of all prototypes in the order of the prototypes. Because the prototypes
+	 * are moved by changing the content of their position objects, the list stays valid while the prototypes move.
+	 * It is used for the batch distance calculations of {@link data.algebra.Distance}.
+	 * 
+	 * @return the list of prototype positions
+	 */
+	protected ArrayList<T> getPrototypePositions()
+	{
+		ArrayList<T> positions = new ArrayList<T>(this.prototypes.size());
+		
+		for(S p:this.prototypes) positions.add(p.getPosition());
+		
+		return positions;
+	}
 
 	
 	
@@ -346,6 +374,39 @@ public abstract class AbstractPrototypeClusteringAlgorithm<T, S extends Prototyp
 		return this.prototypes.size();
 	}
 
+	/**
+	 * @return the distance function that is used to calculate the distances between data objects and prototypes,
+	 * or null if the algorithm does not use one. A distance engine is only accepted if it is equivalent to it.
+	 */
+	protected Distance<T> getDistanceFunction()
+	{
+		return null;
+	}
+
+	/**
+	 * @return the distance engine, or null if the distances are calculated by the distance function
+	 */
+	public BlockDistanceEngine<T> getDistanceEngine()
+	{
+		return this.distanceEngine;
+	}
+
+	/**
+	 * Sets the engine that is used to calculate the distances between the data objects and the prototypes block-wise.
+	 * The engine must be bound to the data set of the algorithm and it must calculate the same distances as the
+	 * distance function of the algorithm, see {@link BlockDistanceEngine#isEquivalentTo(Distance)}. Algorithms that
+	 * calculate the distances only with their distance function reject every engine.
+	 * 
+	 * @param distanceEngine the distance engine, or null to calculate the distances with the distance function
+	 */
+	public void setDistanceEngine(BlockDistanceEngine<T> distanceEngine)
+	{
+		if(distanceEngine != null && distanceEngine.getDataSet() != this.data) throw new IllegalArgumentException("The distance engine must be bound to the data set of the clustering algorithm.");
+		if(distanceEngine != null && (this.getDistanceFunction() == null || !distanceEngine.isEquivalentTo(this.getDistanceFunction()))) throw new IllegalArgumentException("The distance engine does not calculate the distances of the distance function of the clustering algorithm.");
+		
+		this.distanceEngine = distanceEngine;
+	}
+
 	/**
 	 * @param clone
 	 */
@@ -361,6 +422,7 @@ public abstract class AbstractPrototypeClusteringAlgorithm<T, S extends Prototyp
 		clone.objectiveFunctionValues = new ArrayList<Double>(this.objectiveFunctionValues.size());
 		clone.objectiveFunctionValues.addAll(this.objectiveFunctionValues);
 		clone.epsilon = this.epsilon;
+		clone.distanceEngine = this.distanceEngine;
 		for(Prototype<T> p:this.prototypes) clone.prototypes.add((S)p.clone());
 				
 		clone.iterationCount = this.iterationCount;
@@ -107,10 +107,21 @@ public class SphericalNormalDistributionPrototype extends Centroid<double[]>
 	
 
 	public double density(double[] x)
+	{
+		return this.densityOfDistanceSq(this.dist.distanceSq(x, this.position));
+	}
+	
+	/**
+	 * Calculates the density of a point from its squared distance to the center of the normal distribution.
+	 * 
+	 * @param distanceSq the squared distance of the point to the center
+	 * @return the density
+	 */
+	public double densityOfDistanceSq(double distanceSq)
 	{
 		double tmp=0.0d;
 		
-		tmp = this.dist.distanceSq(x, this.position);
+		tmp = distanceSq;
 		tmp /= this.variance;
 		tmp *= -0.5d;
 		tmp = Math.exp(tmp);
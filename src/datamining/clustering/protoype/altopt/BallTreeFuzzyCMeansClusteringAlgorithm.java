@@ -43,16 +43,20 @@ import java.util.Collection;
 
 import data.algebra.Distance;
 import data.algebra.VectorSpace;
+import data.set.BlockDistanceEngine;
 import data.set.IndexedDataSet;
 import data.set.structures.CenteredBallTree;
 import data.set.structures.CenteredBallTreeNode;
 import data.set.structures.queries.SphereQueryProvider;
 import datamining.clustering.protoype.AlgorithmNotInitializedException;
 import datamining.clustering.protoype.Centroid;
-import etc.MyMath;
+import etc.FixedExponentPower;
 
 /**
- * TODO Class Description
+ * Approximates fuzzy c-means on a {@link CenteredBallTree}. The membership values of the data objects of a node are
+ * bounded by an interval, and a node contributes to a prototype as a whole if the interval is not longer than
+ * <code>maximalMembershipIntervalLength</code>. For double arrays with the euclidean distance,
+ * {@link FlatBallTreeFuzzyCMeansClusteringAlgorithm} does the same on a {@link data.set.structures.DoubleArrayFlatBallTree}.
  * 
  * Paper: Hppner, F. Speeding up fuzzy c-means: using a hierarchical data organisation to control the precision of membership calculation Fuzzy Sets and Systems, 2002, 128, 365 - 376
  * Paper: Winkler, R.; Klawonn, F.; Hppner, F. & Kruse, R. A. Laurent, M.-J. L. (Ed.) Scalable Fuzzy Algorithms for Data Management and Analysis: Methods and Design Fuzzy Cluster Analysis of Larger Data Sets IGI Global: Information Science Reference, 2010, 302-331
@@ -76,6 +80,8 @@ public class BallTreeFuzzyCMeansClusteringAlgorithm<T> extends FuzzyCMeansCluste
 	private double[] intervalLength;
 	private int[]    calculationDepth;
 	private ArrayList<T> newPrototypePosition; 
+	private FixedExponentPower distancePower;
+	private FixedExponentPower fuzzifierPower;
 	
 	/**
 	 * 
@@ -224,12 +230,10 @@ public class BallTreeFuzzyCMeansClusteringAlgorithm<T> extends FuzzyCMeansCluste
 	protected void recursiveClustering(CenteredBallTreeNode<T> node)
 	{
 		int i, k;
-		double exponent = 2.0d/(1.0d - this.fuzzifier);
 		double distanceSum = 0.0d;
 		boolean recurse = false;
 		double min, max, tmp;
 		int distancesBelowRadius, lastDistBelowRadiusIndex;
-		T tmpX = this.vs.getNewAddNeutralElement();
 		
 		// calculate distances and powered distances from the prototypes to and the data object from node where necessary.
 		// also calculate the membership values.
@@ -241,7 +245,7 @@ public class BallTreeFuzzyCMeansClusteringAlgorithm<T> extends FuzzyCMeansCluste
 				// TODO: insert proper 0-distances handling. the current implementation uses numeric errors for correct calculation.
 				if(this.prototypeDistances[i] > 0.0d) 
 				{
-					this.prototypeDistancesPow[i] = MyMath.pow(this.prototypeDistances[i], exponent);
+					this.prototypeDistancesPow[i] = this.distancePower.pow(this.prototypeDistances[i]);
 				}
 				else
 				{
@@ -254,7 +258,7 @@ public class BallTreeFuzzyCMeansClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		distanceSum = 1.0d / distanceSum;
 		for(i=0; i<this.getClusterCount(); i++)
 		{
-			if(this.calculationDepth[i] == node.getDepth())	this.membershipValues[i] = MyMath.pow(this.prototypeDistancesPow[i] * distanceSum, this.fuzzifier);
+			if(this.calculationDepth[i] == node.getDepth())	this.membershipValues[i] = this.fuzzifierPower.pow(this.prototypeDistancesPow[i] * distanceSum);
 		}
 		
 		// if the node is a leaf, no further recursion must occur, therefore, calculate everything regardless the membership intervall length
@@ -266,9 +270,7 @@ public class BallTreeFuzzyCMeansClusteringAlgorithm<T> extends FuzzyCMeansCluste
 				{
 					this.membershipValueSum[i] += this.membershipValues[i];
 
-					this.vs.copy(tmpX, node.getObj().element);
-					this.vs.mul(tmpX, this.membershipValues[i]);
-					this.vs.add(this.newPrototypePosition.get(i), tmpX);
+					this.vs.addMul(this.newPrototypePosition.get(i), node.getObj().element, this.membershipValues[i]);
 				}
 			}
 			
@@ -303,7 +305,7 @@ public class BallTreeFuzzyCMeansClusteringAlgorithm<T> extends FuzzyCMeansCluste
 				for(k=0; k<this.getClusterCount(); k++)
 				{
 					if(k==i) continue;
-					min += MyMath.pow((this.prototypeDistances[k] - node.getRadius())*tmp, exponent);
+					min += this.distancePower.pow((this.prototypeDistances[k] - node.getRadius())*tmp);
 				}
 				
 				min = 1.0d/min;
@@ -320,7 +322,7 @@ public class BallTreeFuzzyCMeansClusteringAlgorithm<T> extends FuzzyCMeansCluste
 				for(k=0; k<this.getClusterCount(); k++)
 				{
 					if(k==i) continue;
-					max += MyMath.pow((this.prototypeDistances[k] + node.getRadius())*tmp, exponent);
+					max += this.distancePower.pow((this.prototypeDistances[k] + node.getRadius())*tmp);
 				}
 				
 				max = 1.0d/max;
@@ -347,18 +349,14 @@ public class BallTreeFuzzyCMeansClusteringAlgorithm<T> extends FuzzyCMeansCluste
 			{
 				this.membershipValueSum[i] += node.getSize() * this.membershipValues[i];
 
-				this.vs.copy(tmpX, node.getCenterOfGravity());
-				this.vs.mul(tmpX, this.membershipValues[i]* node.getSize());
-				this.vs.add(this.newPrototypePosition.get(i), tmpX);
+				this.vs.addMul(this.newPrototypePosition.get(i), node.getCenterOfGravity(), this.membershipValues[i]* node.getSize());
 			}
 			// for those prototypes that need more precision, calculate new prototype positions only for the data object of the current node
 			else if(this.calculationDepth[i] > node.getDepth())
 			{
 				this.membershipValueSum[i] += this.membershipValues[i];
 
-				this.vs.copy(tmpX, node.getObj().element);
-				this.vs.mul(tmpX, this.membershipValues[i]);
-				this.vs.add(this.newPrototypePosition.get(i), tmpX);
+				this.vs.addMul(this.newPrototypePosition.get(i), node.getObj().element, this.membershipValues[i]);
 			}
 		}
 		
@@ -393,6 +391,9 @@ public class BallTreeFuzzyCMeansClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
 		double maxPrototypeMovement;
 		
+		this.distancePower = new FixedExponentPower(2.0d/(1.0d - this.fuzzifier));
+		this.fuzzifierPower = new FixedExponentPower(this.fuzzifier);
+		
 		for(t = 0; t < steps; t++)
 		{
 			maxPrototypeMovement = 0.0d;
@@ -419,9 +420,7 @@ public class BallTreeFuzzyCMeansClusteringAlgorithm<T> extends FuzzyCMeansCluste
 			{
 				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
 				{
-					this.vs.sub(this.newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(this.newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(this.newPrototypePosition.get(i), this.prototypes.get(i).getPosition());	
+					this.vs.interpolate(this.newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
 				}
 				
 				doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), this.newPrototypePosition.get(i));
@@ -466,5 +465,27 @@ public class BallTreeFuzzyCMeansClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		return this.cBallTree;
 	}
 	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.altopt.FuzzyCMeansClusteringAlgorithm#setParallelism(int)
+	 */
+	@Override
+	public void setParallelism(int parallelism)
+	{
+		// apply(int) of this algorithm is sequential, a higher parallelism would be ignored
+		if(parallelism != 1) throw new IllegalArgumentException("The algorithm calculates sequentially, the parallelism must be 1. Specified parallelism: " + parallelism);
+		
+		super.setParallelism(parallelism);
+	}
 	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractPrototypeClusteringAlgorithm#setDistanceEngine(data.set.BlockDistanceEngine)
+	 */
+	@Override
+	public void setDistanceEngine(BlockDistanceEngine<T> distanceEngine)
+	{
+		// apply(int) of this algorithm calculates the distances with the distance function, an engine would be ignored
+		if(distanceEngine != null) throw new IllegalArgumentException("The clustering algorithm does not use a distance engine.");
+		
+		super.setDistanceEngine(distanceEngine);
+	}
 }
@@ -0,0 +1,331 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package datamining.clustering.protoype.altopt;
+
+import java.util.ArrayList;
+
+import data.algebra.Distance;
+import data.algebra.VectorSpace;
+import data.set.BlockDistanceEngine;
+import data.set.IndexedDataObject;
+import data.set.IndexedDataSet;
+import data.set.structures.CenteredBallTree;
+import data.set.structures.CenteredBallTreeNode;
+import datamining.clustering.protoype.AlgorithmNotInitializedException;
+
+/**
+ * A hard c-means clustering algorithm that uses the node summaries of a {@link CenteredBallTree} to filter the
+ * candidate prototypes of complete subtrees. Each node of the tree is visited with a list of candidate prototypes.
+ * A candidate is removed if the whole ball of the node lies on the far side of the bisecting hyperplane between it
+ * and the candidate that is closest to the center of gravity of the node. If only one candidate remains, the whole
+ * subtree is assigned to it by adding the weighted center of gravity of the node, without visiting its data objects.
+ * Otherwise, the data object of the node is assigned individually and the remaining candidates are passed on to the children.<br>
+ * 
+ * The hyperplane test requires the distance function to be the euclidean distance of the vector space.
+ * Candidates are only removed if they are strictly farther away from every point of the ball, so the data objects
+ * are assigned to the same prototypes as in {@link HardCMeansClusteringAlgorithm}. The prototype positions might
+ * differ in the last bits because the data objects are summed in a different order.<br>
+ * 
+ * The calculation stops if the squared prototype movement is not larger than <code>epsilon</code> squared.
+ * Because the data objects are not visited individually, the crisp cluster assignments are calculated once at the
+ * end of {@link #apply(int)} with respect to the final prototype positions.<br>
+ * 
+ * Paper: Kanungo, T.; Mount, D. M.; Netanyahu, N. S.; Piatko, C. D.; Silverman, R. & Wu, A. Y. An Efficient k-Means Clustering Algorithm: Analysis and Implementation IEEE Transactions on Pattern Analysis and Machine Intelligence, 2002, 24, 881-892
+ * 
+ * @author Roland Winkler
+ */
+public class BallTreeHardCMeansClusteringAlgorithm<T> extends HardCMeansClusteringAlgorithm<T>
+{
+	/**  */
+	private static final long	serialVersionUID	= 3624129877250934917L;
+
+	protected CenteredBallTree<T> cBallTree;
+	
+	/** The number of tree nodes that have been visited in the last iteration. */
+	protected int visitedNodeCount;
+
+	private int[] candidates;
+	private double[] candidateDistancesSq;
+	private double[] prototypeDistances;
+	private int[] clusterWeight;
+	private ArrayList<T> newPrototypePosition;
+	private boolean recordAssignments;
+	
+	/**
+	 * Builds the centered ball tree of the data set.
+	 * 
+	 * @param dataSet
+	 * @param vs
+	 * @param dist must be the euclidean distance of <code>vs</code>
+	 */
+	public BallTreeHardCMeansClusteringAlgorithm(IndexedDataSet<T> dataSet, VectorSpace<T> vs, Distance<T> dist)
+	{
+		super(dataSet, vs, dist);
+		
+		this.cBallTree = new CenteredBallTree<T>(dataSet, this.vs, this.dist);
+		this.cBallTree.build();
+		this.visitedNodeCount = 0;
+	}
+	
+	/**
+	 * @param c
+	 * @param useOnlyActivePrototypes
+	 */
+	public BallTreeHardCMeansClusteringAlgorithm(BallTreeHardCMeansClusteringAlgorithm<T> c, boolean useOnlyActivePrototypes)
+	{
+		super(c, useOnlyActivePrototypes);
+		
+		this.cBallTree = c.cBallTree;
+		this.visitedNodeCount = 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.altopt.HardCMeansClusteringAlgorithm#algorithmName()
+	 */
+	@Override
+	public String algorithmName()
+	{
+		return "Ball Tree Hard c-Means Clustering Algorithm";
+	}
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.altopt.HardCMeansClusteringAlgorithm#apply(int)
+	 */
+	@Override
+	public void apply(int steps)
+	{
+		if(!this.initialized) throw new AlgorithmNotInitializedException("Prototypes not initialized.");
+		
+		int i, t;
+		int c = this.getClusterCount();
+		double maxPrototypeMovement;
+		double[] drift = new double[c];
+		
+		this.candidates = new int[(this.cBallTree.getRoot().getHeight() + 2)*c];
+		this.candidateDistancesSq = new double[c];
+		this.prototypeDistances = new double[c*c];
+		this.clusterWeight = new int[c];
+		this.newPrototypePosition = new ArrayList<T>(c);
+		for(i=0; i<c; i++) this.newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
+		
+		for(t = 0; t < steps; t++)
+		{
+			this.filterAll(false);
+			
+			this.updatePrototypes(this.newPrototypePosition, this.clusterWeight, drift);
+			
+			maxPrototypeMovement = 0.0d;
+			for(i = 0; i < c; i++) maxPrototypeMovement = Math.max(maxPrototypeMovement, drift[i]*drift[i]);
+
+			this.iterationComplete();
+			
+			// without any movement, the partition is stable
+			if(maxPrototypeMovement <= this.epsilon*this.epsilon) break;
+		}
+		
+		// store the crisp assignments with respect to the final prototypes
+		this.filterAll(true);
+		
+		this.candidates = null;
+		this.candidateDistancesSq = null;
+		this.prototypeDistances = null;
+		this.clusterWeight = null;
+		this.newPrototypePosition = null;
+	}
+	
+	/**
+	 * Assigns all data objects to their closest prototypes by traversing the tree. The sums and weights of the
+	 * clusters are stored in <code>newPrototypePosition</code> and <code>clusterWeight</code>.
+	 * 
+	 * @param record if true, the assignment of each data object is stored in <code>clusteringResult</code>
+	 */
+	private void filterAll(boolean record)
+	{
+		int i, k;
+		int c = this.getClusterCount();
+		
+		for(i = 0; i < c; i++)
+		{
+			this.vs.resetToAddNeutralElement(this.newPrototypePosition.get(i));
+			this.clusterWeight[i] = 0;
+			this.candidates[i] = i;
+			
+			this.prototypeDistances[i*c + i] = 0.0d;
+			for(k = 0; k < i; k++)
+			{
+				this.prototypeDistances[i*c + k] = Math.sqrt(this.dist.distanceSq(this.prototypes.get(i).getPosition(), this.prototypes.get(k).getPosition()));
+				this.prototypeDistances[k*c + i] = this.prototypeDistances[i*c + k];
+			}
+		}
+		
+		this.recordAssignments = record;
+		this.visitedNodeCount = 0;
+		this.filter(this.cBallTree.getRoot(), 0, c);
+	}
+	
+	/**
+	 * Removes the candidates that can not be the closest prototype of any data object in the subtree of
+	 * <code>node</code> and assigns the subtree.
+	 * 
+	 * @param node the current node
+	 * @param offset the position of the candidates of this node in <code>candidates</code>
+	 * @param candidateCount the number of candidates
+	 */
+	protected void filter(CenteredBallTreeNode<T> node, int offset, int candidateCount)
+	{
+		int i, k, best, count;
+		int c = this.getClusterCount();
+		int childOffset = offset + c;
+		int equivalentCount = node.getSize();
+		double distSq, distMin, margin, scale;
+		
+		this.visitedNodeCount++;
+		
+		// the candidate closest to the center of gravity
+		best = -1;
+		distMin = Double.MAX_VALUE;
+		for(k = 0; k < candidateCount; k++)
+		{
+			i = this.candidates[offset + k];
+			this.candidateDistancesSq[i] = this.dist.distanceSq(this.prototypes.get(i).getPosition(), node.getCenterOfGravity());
+			if(this.candidateDistancesSq[i] < distMin)
+			{
+				distMin = this.candidateDistancesSq[i];
+				best = i;
+			}
+		}
+		
+		// remove candidates that are farther away than best from every point of the ball
+		count = 0;
+		for(k = 0; k < candidateCount; k++)
+		{
+			i = this.candidates[offset + k];
+			if(i != best && best >= 0)
+			{
+				distSq = this.candidateDistancesSq[i];
+				if(Double.isNaN(distSq)) continue;
+				
+				margin = 2.0d*node.getRadius()*this.prototypeDistances[best*c + i];
+				scale = distSq + distMin + margin;
+				if(distSq - distMin - margin > HardCMeansClusteringAlgorithm.BOUND_TOLERANCE*scale) continue;
+			}
+			this.candidates[childOffset + count] = i;
+			count++;
+		}
+		
+		// only one candidate left: assign the complete subtree
+		if(count == 1)
+		{
+			i = this.candidates[childOffset];
+			this.clusterWeight[i] += node.getSize();
+			this.vs.addMul(this.newPrototypePosition.get(i), node.getCenterOfGravity(), node.getSize());
+			if(this.recordAssignments) this.assignSubtree(node, i);
+			return;
+		}
+		
+		// assign the data object of the node and its equivalents individually
+		best = -1;
+		distMin = Double.MAX_VALUE;
+		for(k = 0; k < count; k++)
+		{
+			i = this.candidates[childOffset + k];
+			distSq = this.dist.distanceSq(this.prototypes.get(i).getPosition(), node.getObj().element);
+			if(distSq < distMin)
+			{
+				distMin = distSq;
+				best = i;
+			}
+		}
+		
+		if(node.getLeftChild() != null) equivalentCount -= node.getLeftChild().getSize();
+		if(node.getRightChild() != null) equivalentCount -= node.getRightChild().getSize();
+		this.clusterWeight[best] += equivalentCount;
+		this.vs.addMul(this.newPrototypePosition.get(best), node.getObj().element, equivalentCount);
+		if(this.recordAssignments)
+		{
+			this.clusteringResult[node.getObj().getID()] = best;
+			if(node.getEquivalents() != null) for(IndexedDataObject<T> x : node.getEquivalents()) this.clusteringResult[x.getID()] = best;
+		}
+
+		if(node.getLeftChild() != null) this.filter(node.getLeftChild(), childOffset, count);
+		if(node.getRightChild() != null) this.filter(node.getRightChild(), childOffset, count);
+	}
+	
+	/**
+	 * Assigns all data objects of the subtree of <code>node</code> to prototype <code>i</code>.
+	 * 
+	 * @param node the root of the subtree
+	 * @param i the prototype index
+	 */
+	private void assignSubtree(CenteredBallTreeNode<T> node, int i)
+	{
+		this.clusteringResult[node.getObj().getID()] = i;
+		if(node.getEquivalents() != null) for(IndexedDataObject<T> x : node.getEquivalents()) this.clusteringResult[x.getID()] = i;
+		
+		if(node.getLeftChild() != null) this.assignSubtree(node.getLeftChild(), i);
+		if(node.getRightChild() != null) this.assignSubtree(node.getRightChild(), i);
+	}
+
+	/**
+	 * @return the number of tree nodes that have been visited in the last traversal
+	 */
+	public int getVisitedNodeCount()
+	{
+		return this.visitedNodeCount;
+	}
+
+	/**
+	 * @return the cBallTree
+	 */
+	public CenteredBallTree<T> getCBallTree()
+	{
+		return this.cBallTree;
+	}
+	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractPrototypeClusteringAlgorithm#setDistanceEngine(data.set.BlockDistanceEngine)
+	 */
+	@Override
+	public void setDistanceEngine(BlockDistanceEngine<T> distanceEngine)
+	{
+		// apply(int) of this algorithm calculates the distances with the distance function, an engine would be ignored
+		if(distanceEngine != null) throw new IllegalArgumentException("The clustering algorithm does not use a distance engine.");
+		
+		super.setDistanceEngine(distanceEngine);
+	}
+}
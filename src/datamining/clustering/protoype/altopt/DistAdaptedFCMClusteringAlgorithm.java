@@ -44,12 +44,13 @@ import java.util.List;
 
 import data.algebra.Distance;
 import data.algebra.VectorSpace;
+import data.set.BlockDistanceEngine;
 import data.set.IndexedDataObject;
 import data.set.IndexedDataSet;
 import data.set.structures.BallTree;
 import datamining.clustering.protoype.AlgorithmNotInitializedException;
 import datamining.clustering.protoype.Centroid;
-import etc.MyMath;
+import etc.FixedExponentPower;
 import etc.SimpleStatistics;
 
 /**
@@ -136,15 +137,19 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double maxPrototypeMovement = 0.0d;
 		ArrayList<T> newPrototypePosition			= new ArrayList<T>(this.getClusterCount());
 		for(i=0; i<this.getClusterCount(); i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
 		double[] fuzzDistances						= new double[this.getClusterCount()];
 		double[] membershipValues					= new double[this.getClusterCount()];
 		double[] membershipSum						= new double[this.getClusterCount()];
-		T tmpX										= this.vs.getNewAddNeutralElement();
 		double[] distancesToData					= new double[this.getDataCount()];
 		double[] dynamicDistanceCorrectionValues 	= new double[this.getClusterCount()];
 		
@@ -181,14 +186,16 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 			// update membership values
 			for(j = 0; j < this.getDataCount(); j++)
 			{				
+				x = this.elementOf(j, buffer);
 				for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 				zeroDistanceCount = 0;
 				distanceSum = 0.0d;
+				this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
 					if(!this.getPrototypes().get(i).isActivated()) continue;
 					
-					doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+					doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 					if(doubleTMP <= 0.0d)
 					{
 						doubleTMP = 0.0d;
@@ -197,7 +204,7 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 					}
 					else
 					{
-						doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+						doubleTMP = distancePower.pow(doubleTMP);
 						fuzzDistances[i] = doubleTMP;
 						distanceSum += doubleTMP;
 					}
@@ -228,12 +235,10 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
 
-					doubleTMP = MyMath.pow(membershipValues[i], this.fuzzifier);
+					doubleTMP = fuzzifierPower.pow(membershipValues[i]);
 					membershipSum[i] += doubleTMP;
 
-					this.vs.copy(tmpX, this.data.get(j).element);
-					this.vs.mul(tmpX, doubleTMP);
-					this.vs.add(newPrototypePosition.get(i), tmpX);
+					this.vs.addMul(newPrototypePosition.get(i), x, doubleTMP);
 				}				
 			}
 
@@ -249,9 +254,7 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 			{
 				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
 				{
-					this.vs.sub(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());	
+					this.vs.interpolate(newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
 				}
 				
 				doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i));
@@ -293,8 +296,13 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances						= new double[this.getClusterCount()];
 		double[] distancesSq						= new double[this.getClusterCount()];
 		double[] distancesToData					= new double[this.getDataCount()];
@@ -317,13 +325,15 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 		// update membership values
 		for(j = 0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) distancesSq[i] = 0.0d;
 			distanceSum = 0.0d;
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				if(!this.getPrototypes().get(i).isActivated()) continue;
 				
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+				doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 				distancesSq[i] = doubleTMP;
 				if(doubleTMP <= 0.0d)
 				{
@@ -331,7 +341,7 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
@@ -340,7 +350,7 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 			for(i=0; i<this.getClusterCount(); i++)
 			{
 				doubleTMP = fuzzDistances[i] / distanceSum;
-				objectiveFunctionValue +=  MyMath.pow(doubleTMP, this.fuzzifier) * distancesSq[i];
+				objectiveFunctionValue +=  fuzzifierPower.pow(doubleTMP) * distancesSq[i];
 			}
 		}
 		
@@ -362,8 +372,12 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances						= new double[this.getClusterCount()];
 		double[] distancesToData					= new double[this.getDataCount()];
 		double[] dynamicDistanceCorrectionValues 	= new double[this.getClusterCount()];
@@ -386,14 +400,16 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 
 		for(j=0; j < this.getDataCount(); j++)
 		{			
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				if(!this.getPrototypes().get(i).isActivated()) continue;
 				
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+				doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -402,7 +418,7 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
@@ -448,8 +464,12 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances						= new double[this.getClusterCount()];
 		double[] distancesToData					= new double[this.getDataCount()];
 		double[] dynamicDistanceCorrectionValues 	= new double[this.getClusterCount()];
@@ -472,14 +492,16 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 
 		for(j=0; j < this.getDataCount(); j++)
 		{			
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				if(!this.getPrototypes().get(i).isActivated()) continue;
 				
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+				doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -488,7 +510,7 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
@@ -537,8 +559,11 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances						= new double[this.getClusterCount()];
 		double[] distancesToData					= new double[this.getDataCount()];
 		double[] dynamicDistanceCorrectionValues 	= new double[this.getClusterCount()];
@@ -562,11 +587,12 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 		for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 		zeroDistanceCount = 0;
 		distanceSum = 0.0d;
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i = 0; i < this.getClusterCount(); i++)
 		{
 			if(!this.getPrototypes().get(i).isActivated()) continue;
 			
-			doubleTMP = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+			doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 			if(doubleTMP <= 0.0d)
 			{
 				doubleTMP = 0.0d;
@@ -575,7 +601,7 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 			}
 			else
 			{
-				doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+				doubleTMP = distancePower.pow(doubleTMP);
 				fuzzDistances[i] = doubleTMP;
 				distanceSum += doubleTMP;
 			}
@@ -783,5 +809,27 @@ public class DistAdaptedFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteringA
 		this.distanceCorrectionParameter = distanceCorrectionParameter;
 	}
 	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.altopt.FuzzyCMeansClusteringAlgorithm#setParallelism(int)
+	 */
+	@Override
+	public void setParallelism(int parallelism)
+	{
+		// apply(int) of this algorithm is sequential, a higher parallelism would be ignored
+		if(parallelism != 1) throw new IllegalArgumentException("The algorithm calculates sequentially, the parallelism must be 1. Specified parallelism: " + parallelism);
+		
+		super.setParallelism(parallelism);
+	}
 	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractPrototypeClusteringAlgorithm#setDistanceEngine(data.set.BlockDistanceEngine)
+	 */
+	@Override
+	public void setDistanceEngine(BlockDistanceEngine<T> distanceEngine)
+	{
+		// apply(int) of this algorithm calculates the distances with the distance function, an engine would be ignored
+		if(distanceEngine != null) throw new IllegalArgumentException("The clustering algorithm does not use a distance engine.");
+		
+		super.setDistanceEngine(distanceEngine);
+	}
 }
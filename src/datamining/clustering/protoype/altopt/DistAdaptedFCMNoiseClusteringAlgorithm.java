@@ -46,7 +46,7 @@ import data.set.IndexedDataObject;
 import data.set.IndexedDataSet;
 import datamining.clustering.FuzzyNoiseClusteringAlgorithm;
 import datamining.clustering.protoype.AlgorithmNotInitializedException;
-import etc.MyMath;
+import etc.FixedExponentPower;
 import etc.SimpleStatistics;
 
 /**
@@ -111,15 +111,19 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double maxPrototypeMovement = 0.0d;
 		ArrayList<T> newPrototypePosition			= new ArrayList<T>(this.getClusterCount());
 		for(i=0; i<this.getClusterCount(); i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
 		double[] fuzzDistances						= new double[this.getClusterCount()];
 		double[] membershipValues					= new double[this.getClusterCount()];
 		double[] membershipSum						= new double[this.getClusterCount()];
-		T tmpX										= this.vs.getNewAddNeutralElement();
 		double[] distancesToData					= new double[this.getDataCount()];
 		double[] dynamicDistanceCorrectionValues 	= new double[this.getClusterCount()];
 		
@@ -156,14 +160,16 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 			// update membership values
 			for(j = 0; j < this.getDataCount(); j++)
 			{				
+				x = this.elementOf(j, buffer);
 				for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 				zeroDistanceCount = 0;
 				distanceSum = 0.0d;
+				this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
 					if(!this.getPrototypes().get(i).isActivated()) continue;
 					
-					doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+					doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 					if(doubleTMP <= 0.0d)
 					{
 						doubleTMP = 0.0d;
@@ -172,14 +178,14 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 					}
 					else
 					{
-						doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+						doubleTMP = distancePower.pow(doubleTMP);
 						fuzzDistances[i] = doubleTMP;
 						distanceSum += doubleTMP;
 					}
 				}
 				
 				// influence of the noise cluster
-				distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+				distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 
 				// special case handling: if one (or more) prototype sits on top of a data object
 				if(zeroDistanceCount>0)
@@ -206,12 +212,10 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
 
-					doubleTMP = MyMath.pow(membershipValues[i], this.fuzzifier);
+					doubleTMP = fuzzifierPower.pow(membershipValues[i]);
 					membershipSum[i] += doubleTMP;
 
-					this.vs.copy(tmpX, this.data.get(j).element);
-					this.vs.mul(tmpX, doubleTMP);
-					this.vs.add(newPrototypePosition.get(i), tmpX);
+					this.vs.addMul(newPrototypePosition.get(i), x, doubleTMP);
 				}				
 			}
 
@@ -227,9 +231,7 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 			{
 				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
 				{
-					this.vs.sub(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());	
+					this.vs.interpolate(newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
 				}
 				
 				doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i));
@@ -270,8 +272,13 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances						= new double[this.getClusterCount()];
 		double[] distancesSq						= new double[this.getClusterCount()];
 		double[] distancesToData					= new double[this.getDataCount()];
@@ -295,13 +302,15 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 		// update membership values
 		for(j = 0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) distancesSq[i] = 0.0d;
 			distanceSum = 0.0d;
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				if(!this.getPrototypes().get(i).isActivated()) continue;
 				
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+				doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 				distancesSq[i] = doubleTMP;
 				if(doubleTMP <= 0.0d)
 				{
@@ -309,23 +318,23 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
 			}
 			
-			fuzzNoiseDist = MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+			fuzzNoiseDist = distancePower.pow(this.noiseDistance*this.noiseDistance);
 			distanceSum += fuzzNoiseDist;
 
 			for(i=0; i<this.getClusterCount(); i++)
 			{
 				doubleTMP = fuzzDistances[i] / distanceSum;
-				objectiveFunctionValue +=  MyMath.pow(doubleTMP, this.fuzzifier) * distancesSq[i];
+				objectiveFunctionValue +=  fuzzifierPower.pow(doubleTMP) * distancesSq[i];
 			}
 			
 			doubleTMP = fuzzNoiseDist / distanceSum;			
-			objectiveFunctionValue += MyMath.pow(doubleTMP, this.fuzzifier) * this.noiseDistance*this.noiseDistance;
+			objectiveFunctionValue += fuzzifierPower.pow(doubleTMP) * this.noiseDistance*this.noiseDistance;
 		}
 		
 		return objectiveFunctionValue;
@@ -347,8 +356,12 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances						= new double[this.getClusterCount()];
 		double[] distancesToData					= new double[this.getDataCount()];
 		double[] dynamicDistanceCorrectionValues 	= new double[this.getClusterCount()];
@@ -371,14 +384,16 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 
 		for(j=0; j < this.getDataCount(); j++)
 		{			
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				if(!this.getPrototypes().get(i).isActivated()) continue;
 				
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+				doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -387,12 +402,12 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
 			}
-			distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+			distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 	
 			// special case handling: if one (or more) prototype sits on top of a data object
 			if(zeroDistanceCount>0)
@@ -435,8 +450,12 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances						= new double[this.getClusterCount()];
 		double[] distancesToData					= new double[this.getDataCount()];
 		double[] dynamicDistanceCorrectionValues 	= new double[this.getClusterCount()];
@@ -459,14 +478,16 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 
 		for(j=0; j < this.getDataCount(); j++)
 		{			
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				if(!this.getPrototypes().get(i).isActivated()) continue;
 				
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+				doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -475,12 +496,12 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
 			}
-			distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+			distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 			
 	
 			// special case handling: if one (or more) prototype sits on top of a data object
@@ -527,8 +548,11 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances						= new double[this.getClusterCount()];
 		double[] distancesToData					= new double[this.getDataCount()];
 		double[] dynamicDistanceCorrectionValues 	= new double[this.getClusterCount()];
@@ -552,11 +576,12 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 		for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 		zeroDistanceCount = 0;
 		distanceSum = 0.0d;
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i = 0; i < this.getClusterCount(); i++)
 		{
 			if(!this.getPrototypes().get(i).isActivated()) continue;
 			
-			doubleTMP = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+			doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 			if(doubleTMP <= 0.0d)
 			{
 				doubleTMP = 0.0d;
@@ -565,12 +590,12 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 			}
 			else
 			{
-				doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+				doubleTMP = distancePower.pow(doubleTMP);
 				fuzzDistances[i] = doubleTMP;
 				distanceSum += doubleTMP;
 			}
 		}
-		distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+		distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 
 		// special case handling: if one (or more) prototype sits on top of a data object
 		if(zeroDistanceCount>0)
@@ -613,8 +638,12 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] distancesToData					= new double[this.getDataCount()];
 		double[] dynamicDistanceCorrectionValues 	= new double[this.getClusterCount()];
 
@@ -638,14 +667,16 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 		// update membership values
 		for(j = 0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				if(!this.getPrototypes().get(i).isActivated()) continue;
 				
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+				doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -653,12 +684,12 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					distanceSum += doubleTMP;
 				}
 			}
 			
-			fuzzNoiseDist = MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+			fuzzNoiseDist = distancePower.pow(this.noiseDistance*this.noiseDistance);
 			distanceSum += fuzzNoiseDist;
 
 
@@ -692,8 +723,11 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 		// t: index for iterations	
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] distancesToData					= new double[this.getDataCount()];
 		double[] dynamicDistanceCorrectionValues 	= new double[this.getClusterCount()];
 
@@ -716,23 +750,24 @@ public class DistAdaptedFCMNoiseClusteringAlgorithm<T> extends DistAdaptedFCMClu
 		zeroDistanceCount = 0;
 		distanceSum = 0.0d;
 		
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i = 0; i < this.getClusterCount(); i++)
 		{
 			if(!this.getPrototypes().get(i).isActivated()) continue;
 			
-			doubleTMP = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition()) - dynamicDistanceCorrectionValues[i];
+			doubleTMP = prototypeDistancesSq[i] - dynamicDistanceCorrectionValues[i];
 			if(doubleTMP <= 0.0d)
 			{
 				zeroDistanceCount++;
 			}
 			else
 			{
-				doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+				doubleTMP = distancePower.pow(doubleTMP);
 				distanceSum += doubleTMP;
 			}
 		}
 		
-		fuzzNoiseDist = MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+		fuzzNoiseDist = distancePower.pow(this.noiseDistance*this.noiseDistance);
 		distanceSum += fuzzNoiseDist;
 
 
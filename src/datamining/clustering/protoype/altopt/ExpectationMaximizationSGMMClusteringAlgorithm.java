@@ -196,6 +196,15 @@ public class ExpectationMaximizationSGMMClusteringAlgorithm extends AbstractProt
 		this.recalculateProbabilities();
 	}
 	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractPrototypeClusteringAlgorithm#getDistanceFunction()
+	 */
+	@Override
+	protected Distance<double[]> getDistanceFunction()
+	{
+		return this.dist;
+	}
+
 	/* (non-Javadoc)
 	 * @see datamining.clustering.AbstractDoubleArrayClusteringAlgorithm#algorithmName()
 	 */
@@ -222,7 +231,11 @@ public class ExpectationMaximizationSGMMClusteringAlgorithm extends AbstractProt
 		double doubleTMP = 0.0d;									// a temporal variable for multiple purposes
 		double prototypeMovement = 0.0d;
 		double[] invCondDOProbSum = new double[this.getClusterCount()];
-		double[] tmpX = this.vs.getNewAddNeutralElement();
+		double[] varianceSum = new double[this.getClusterCount()];
+		ArrayList<double[]> prototypePositions = this.getPrototypePositions();
+		double[] buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] distanceTile = (this.distanceEngine != null)? new double[this.distanceEngine.getBlockSize()*this.getClusterCount()] : null;
+		int tileStart = 0, tileEnd = 0;
 
 		ArrayList<double[]> newExpectationValues = new ArrayList<double[]>(this.getClusterCount());
 		for(i=0; i<this.getClusterCount(); i++) newExpectationValues.add(this.vs.getNewAddNeutralElement());
@@ -239,13 +252,22 @@ public class ExpectationMaximizationSGMMClusteringAlgorithm extends AbstractProt
 			}
 			
 			// the expectation step			
+			tileEnd = 0;
 			for(j=0; j<this.getDataCount(); j++)
 			{
+				if(distanceTile != null && j >= tileEnd)
+				{
+					tileStart = j;
+					tileEnd = Math.min(this.getDataCount(), j + this.distanceEngine.getBlockSize());
+					this.distanceEngine.distanceSq(tileStart, tileEnd, prototypePositions, distanceTile);
+				}
+				
 				doubleTMP = 0.0d;
 				for(i=0; i<this.getClusterCount(); i++)
 				{
 					this.conditionalProbabilities.get(j)[i] = this.clusterProbability[i];
-					this.conditionalProbabilities.get(j)[i] *= this.prototypes.get(i).density(this.getDataSet().get(j).element);
+					if(distanceTile != null)	this.conditionalProbabilities.get(j)[i] *= this.prototypes.get(i).densityOfDistanceSq(distanceTile[(j-tileStart)*this.getClusterCount() + i]);
+					else						this.conditionalProbabilities.get(j)[i] *= this.prototypes.get(i).density(this.getDataSet().get(j).element);
 					doubleTMP += this.conditionalProbabilities.get(j)[i];
 					if(Double.isNaN(this.conditionalProbabilities.get(j)[i]))
 						System.out.println("MOEOEOEP 1");
@@ -279,9 +301,7 @@ public class ExpectationMaximizationSGMMClusteringAlgorithm extends AbstractProt
 			{
 				for(i=0; i<this.getClusterCount(); i++) 
 				{				
-					this.vs.copy(tmpX, this.data.get(j).element);
-					this.vs.mul(tmpX, this.conditionalProbabilities.get(j)[i]);
-					this.vs.add(newExpectationValues.get(i), tmpX);
+					this.vs.addMul(newExpectationValues.get(i), this.elementOf(j, buffer), this.conditionalProbabilities.get(j)[i]);
 				}
 			}
 
@@ -296,9 +316,7 @@ public class ExpectationMaximizationSGMMClusteringAlgorithm extends AbstractProt
 			{
 				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
 				{
-					this.vs.sub(newExpectationValues.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newExpectationValues.get(i), this.learningFactor);
-					this.vs.add(newExpectationValues.get(i), this.prototypes.get(i).getPosition());	
+					this.vs.interpolate(newExpectationValues.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
 				}
 				
 				doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), newExpectationValues.get(i));
@@ -308,12 +326,37 @@ public class ExpectationMaximizationSGMMClusteringAlgorithm extends AbstractProt
 			}
 			
 			// variances
+			if(distanceTile != null)
+			{
+				// the distances to the moved prototypes are calculated block-wise, the sums are accumulated in the same order
+				for(i=0; i<this.getClusterCount(); i++) varianceSum[i] = 0.0d;
+				for(j=0; j<this.getDataCount(); j+=this.distanceEngine.getBlockSize())
+				{
+					tileStart = j;
+					tileEnd = Math.min(this.getDataCount(), j + this.distanceEngine.getBlockSize());
+					this.distanceEngine.distanceSq(tileStart, tileEnd, prototypePositions, distanceTile);
+					for(int l=tileStart; l<tileEnd; l++)
+					{
+						for(i=0; i<this.getClusterCount(); i++)
+						{
+							varianceSum[i] += this.conditionalProbabilities.get(l)[i] * distanceTile[(l-tileStart)*this.getClusterCount() + i];
+						}
+					}
+				}
+			}
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = 0.0d;				
-				for(j=0; j<this.getDataCount(); j++)
+				if(distanceTile != null)
+				{
+					doubleTMP = varianceSum[i];
+				}
+				else
 				{
-					doubleTMP += this.conditionalProbabilities.get(j)[i] *  this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+					doubleTMP = 0.0d;				
+					for(j=0; j<this.getDataCount(); j++)
+					{
+						doubleTMP += this.conditionalProbabilities.get(j)[i] *  this.dist.distanceSq(this.elementOf(j, buffer), this.prototypes.get(i).getPosition());
+					}
 				}
 				doubleTMP *= invCondDOProbSum[i] / ((double)this.vs.getDimension());
 
@@ -350,6 +393,7 @@ public class ExpectationMaximizationSGMMClusteringAlgorithm extends AbstractProt
 		double objectiveFunctionValue = 0.0d;
 		int i,j;
 		double doubleTMP = 0.0d;
+		double[] buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 		double ln2Pi = 0.5d*((double)this.vs.getDimension())*Math.log(2.0d*Math.PI);
 
 		for(i=0; i<this.getClusterCount(); i++)
@@ -360,7 +404,7 @@ public class ExpectationMaximizationSGMMClusteringAlgorithm extends AbstractProt
 
 			for(j=0; j<this.getDataCount(); j++)	
 			{
-				objectiveFunctionValue += this.conditionalProbabilities.get(j)[i] * (doubleTMP - 0.5d*this.dist.distanceSq(this.prototypes.get(i).getPosition(), this.data.get(j).element)/this.prototypes.get(i).getVariance());
+				objectiveFunctionValue += this.conditionalProbabilities.get(j)[i] * (doubleTMP - 0.5d*this.dist.distanceSq(this.prototypes.get(i).getPosition(), this.elementOf(j, buffer))/this.prototypes.get(i).getVariance());
 			}
 		}
 		
@@ -0,0 +1,459 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package datamining.clustering.protoype.altopt;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import data.algebra.Distance;
+import data.algebra.VectorSpace;
+import data.objects.doubleArray.DAEuclideanDistance;
+import data.objects.doubleArray.DAEuclideanVectorSpace;
+import data.set.BlockDistanceEngine;
+import data.set.IndexedDataSet;
+import data.set.structures.DoubleArrayFlatBallTree;
+import datamining.clustering.protoype.AlgorithmNotInitializedException;
+import datamining.clustering.protoype.Centroid;
+import etc.FixedExponentPower;
+
+/**
+ * The same approximation of fuzzy c-means as {@link BallTreeFuzzyCMeansClusteringAlgorithm}, but on a
+ * {@link DoubleArrayFlatBallTree} instead of a {@link data.set.structures.CenteredBallTree}. For each node, the
+ * membership values of all data objects of the node are bounded by an interval, using the distances of the prototypes
+ * to the center of gravity of the node and the radius of the node. If the interval of a prototype is not longer than
+ * <code>maximalMembershipIntervalLength</code>, the data objects of the node contribute to the prototype with the
+ * membership value of the center of gravity, otherwise the children of the node are visited. In leaves that still
+ * need more precision, the membership values are calculated for each data object of the leaf bucket. With a
+ * <code>maximalMembershipIntervalLength</code> of 0, the result is that of {@link FuzzyCMeansClusteringAlgorithm}.<br>
+ * <br>
+ * Since the radius of the nodes is euclidean, only {@link DAEuclideanDistance} and {@link DAEuclideanVectorSpace}
+ * are accepted as distance function.
+ * 
+ * Paper: Hppner, F. Speeding up fuzzy c-means: using a hierarchical data organisation to control the precision of membership calculation Fuzzy Sets and Systems, 2002, 128, 365 - 376
+ *
+ * @author Roland Winkler
+ */
+public class FlatBallTreeFuzzyCMeansClusteringAlgorithm extends FuzzyCMeansClusteringAlgorithm<double[]>
+{
+	/**  */
+	private static final long	serialVersionUID	= 3320745167393216178L;
+
+	/** The ball tree over the data set. */
+	protected DoubleArrayFlatBallTree flatBallTree;
+
+	/** The maximal length of the membership interval for which a node is not further divided. */
+	protected double maximalMembershipIntervalLength;
+	
+	
+	private double[] membershipValueSum;
+	private double[] membershipValues;
+	private double[] prototypeDistances;
+	private double[] prototypeDistancesPow;
+	private double[] intervalLength;
+	private int[]    calculationDepth;
+	private ArrayList<double[]> newPrototypePosition;
+	private double[] buffer;
+	private FixedExponentPower distancePower;
+	private FixedExponentPower fuzzifierPower;
+	
+	/**
+	 * Builds a {@link DoubleArrayFlatBallTree} with the default bucket size over the data set.
+	 * 
+	 * @param dataSet the data set
+	 * @param vs the vector space of the data set
+	 * @param dist the distance, must be euclidean
+	 */
+	public FlatBallTreeFuzzyCMeansClusteringAlgorithm(IndexedDataSet<double[]> dataSet, VectorSpace<double[]> vs, Distance<double[]> dist)
+	{
+		this(new DoubleArrayFlatBallTree(dataSet), vs, dist);
+	}
+	
+	/**
+	 * Uses the specified ball tree, the tree is build if necessary.
+	 * 
+	 * @param flatBallTree the ball tree over the data set
+	 * @param vs the vector space of the data set
+	 * @param dist the distance, must be euclidean
+	 */
+	public FlatBallTreeFuzzyCMeansClusteringAlgorithm(DoubleArrayFlatBallTree flatBallTree, VectorSpace<double[]> vs, Distance<double[]> dist)
+	{
+		super(flatBallTree.getDataSet(), vs, dist);
+		
+		if(!(dist instanceof DAEuclideanDistance || dist instanceof DAEuclideanVectorSpace)) throw new IllegalArgumentException("The distance function must be euclidean.");
+		
+		this.flatBallTree = flatBallTree;
+		if(!this.flatBallTree.isBuild()) this.flatBallTree.build();
+		
+		this.maximalMembershipIntervalLength = 0.0d;
+		this.initializeCalculationArrays();
+	}
+	
+	/**
+	 * Creates the arrays that are used during the calculation, their size depends on the number of prototypes.
+	 */
+	private void initializeCalculationArrays()
+	{
+		this.membershipValueSum = new double[this.prototypes.size()];
+		this.membershipValues =  new double[this.prototypes.size()];
+		this.prototypeDistances = new double[this.prototypes.size()];
+		this.prototypeDistancesPow = new double[this.prototypes.size()];
+		this.intervalLength = new double[this.prototypes.size()];
+		this.calculationDepth = new int[this.prototypes.size()];
+		
+		this.newPrototypePosition = new ArrayList<double[]>(this.getClusterCount());
+		for(int i=0; i<this.getClusterCount(); i++) this.newPrototypePosition.add(this.vs.getNewAddNeutralElement());
+		this.buffer = this.vs.getNewAddNeutralElement();
+	}
+	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.altopt.FuzzyCMeansClusteringAlgorithm#algorithmName()
+	 */
+	@Override
+	public String algorithmName()
+	{
+		return "Flat Ball Tree Fuzzy c-Means";
+	}
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractCentroidClusteringAlgorithm#initializeWithPositions(java.util.Collection)
+	 */
+	@Override
+	public void initializeWithPositions(Collection<double[]> initialPrototypePositions)
+	{
+		super.initializeWithPositions(initialPrototypePositions);
+
+		this.initializeCalculationArrays();
+	}
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractPrototypeClusteringAlgorithm#initializeWithPrototypes(java.util.Collection)
+	 */
+	@Override
+	public void initializeWithPrototypes(Collection<Centroid<double[]>> initialPrototypes)
+	{
+		super.initializeWithPrototypes(initialPrototypes);
+
+		this.initializeCalculationArrays();
+	}
+	
+	/**
+	 * Calculates the distances of the prototypes with a calculation depth of at least <code>depth</code> to
+	 * <code>x</code> and returns the inverse of the sum of all powered distances.
+	 * 
+	 * @param x the position
+	 * @param depth the depth of the recursion
+	 * @return the inverse of the sum of the powered distances
+	 */
+	private double calculateDistances(double[] x, int depth)
+	{
+		int i;
+		double distanceSum = 0.0d;
+		
+		for(i=0; i<this.getClusterCount(); i++)
+		{
+			if(this.calculationDepth[i] >= depth)
+			{
+				this.prototypeDistances[i] = this.dist.distance(x, this.prototypes.get(i).getPosition());
+				// same 0-distance handling as in BallTreeFuzzyCMeansClusteringAlgorithm
+				if(this.prototypeDistances[i] > 0.0d) 
+				{
+					this.prototypeDistancesPow[i] = this.distancePower.pow(this.prototypeDistances[i]);
+				}
+				else
+				{
+					this.prototypeDistancesPow[i] = 0.001*Double.MAX_VALUE/this.getClusterCount();
+				}
+			}
+
+			distanceSum += this.prototypeDistancesPow[i];
+		}
+		
+		return 1.0d / distanceSum;
+	}
+
+	/**
+	 * Adds the data objects of a leaf to the prototypes that need more precision than the leaf provides.
+	 * 
+	 * @param node the index of the leaf
+	 * @param depth the depth of the leaf
+	 */
+	protected void leafClustering(int node, int depth)
+	{
+		int i, p;
+		double distanceSum;
+		
+		for(p=this.flatBallTree.getNodeStart(node); p<this.flatBallTree.getNodeEnd(node); p++)
+		{
+			this.flatBallTree.copyPoint(p, this.buffer);
+			distanceSum = this.calculateDistances(this.buffer, depth + 1);
+			
+			for(i=0; i<this.getClusterCount(); i++)
+			{
+				if(this.calculationDepth[i] > depth)
+				{
+					this.membershipValues[i] = this.fuzzifierPower.pow(this.prototypeDistancesPow[i] * distanceSum);
+					this.membershipValueSum[i] += this.membershipValues[i];
+					this.vs.addMul(this.newPrototypePosition.get(i), this.buffer, this.membershipValues[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param node the index of the node
+	 * @param depth the depth of the node
+	 */
+	protected void recursiveClustering(int node, int depth)
+	{
+		int i, k;
+		boolean recurse = false;
+		double min, max, tmp, distanceSum;
+		double radius = this.flatBallTree.getNodeRadius(node);
+		int size = this.flatBallTree.getNodeEnd(node) - this.flatBallTree.getNodeStart(node);
+		int distancesBelowRadius, lastDistBelowRadiusIndex;
+		
+		// calculate distances and powered distances from the prototypes to the center of gravity of the node where necessary.
+		// also calculate the membership values.
+		this.flatBallTree.copyNodeCenter(node, this.buffer);
+		distanceSum = this.calculateDistances(this.buffer, depth);
+		for(i=0; i<this.getClusterCount(); i++)
+		{
+			if(this.calculationDepth[i] == depth)	this.membershipValues[i] = this.fuzzifierPower.pow(this.prototypeDistancesPow[i] * distanceSum);
+		}
+
+		// calculate the interval length for those prototypes, that needed further precision at the last recursion		
+		distancesBelowRadius = 0;
+		lastDistBelowRadiusIndex = -1;
+		for(i=0; i<this.getClusterCount(); i++)
+		{
+			if(this.prototypeDistances[i] <= radius)
+			{
+				distancesBelowRadius++;
+				lastDistBelowRadiusIndex = i;
+			}
+		}
+
+		for(i=0; i<this.getClusterCount(); i++)
+		{
+			if(this.calculationDepth[i] < depth) continue;
+
+			tmp = 1.0d/(this.prototypeDistances[i] + radius);
+
+			if (distancesBelowRadius > 1 || (distancesBelowRadius == 1 && lastDistBelowRadiusIndex != i))
+			{
+				min = 0.0d;
+			}
+			else
+			{
+				min = 1.0d;
+				for(k=0; k<this.getClusterCount(); k++)
+				{
+					if(k==i) continue;
+					min += this.distancePower.pow((this.prototypeDistances[k] - radius)*tmp);
+				}
+				
+				min = 1.0d/min;
+			}
+
+			if(this.prototypeDistances[i] <= radius)
+			{
+				max = 1.0d;
+			}
+			else
+			{
+				tmp = 1.0d/(this.prototypeDistances[i] - radius);
+				max = 1.0d;
+				for(k=0; k<this.getClusterCount(); k++)
+				{
+					if(k==i) continue;
+					max += this.distancePower.pow((this.prototypeDistances[k] + radius)*tmp);
+				}
+				
+				max = 1.0d/max;
+			}
+			
+			this.intervalLength[i] = max - min;
+		}
+				
+		// the prototypes that need more precision are passed on to the children, all others get the center of gravity of the node
+		for(i=0; i<this.calculationDepth.length; i++)
+		{
+			if(this.calculationDepth[i] != depth) continue;
+			
+			if(this.intervalLength[i] > this.maximalMembershipIntervalLength)
+			{
+				this.calculationDepth[i]++;
+				recurse = true;
+			}
+			else
+			{
+				this.membershipValueSum[i] += size * this.membershipValues[i];
+				this.vs.addMul(this.newPrototypePosition.get(i), this.buffer, this.membershipValues[i] * size);
+			}
+		}
+		
+		if(recurse)
+		{
+			if(this.flatBallTree.isLeaf(node))
+			{
+				this.leafClustering(node, depth);
+			}
+			else
+			{
+				this.recursiveClustering(node + 1, depth + 1);
+				this.recursiveClustering(this.flatBallTree.getRightChild(node), depth + 1);
+			}
+			
+			// re-adjust the calculation depth because it is a global parameter
+			for(i=0; i<this.calculationDepth.length; i++)
+			{
+				if(this.calculationDepth[i] > depth)
+				{
+					this.calculationDepth[i]--;
+				}
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.altopt.FuzzyCMeansClusteringAlgorithm#apply(int)
+	 */
+	@Override
+	public void apply(int steps)
+	{
+		if(!this.initialized) throw new AlgorithmNotInitializedException("Prototypes not initialized.");	
+		
+		int i, t;
+ 
+		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		double maxPrototypeMovement;
+		
+		this.distancePower = new FixedExponentPower(2.0d/(1.0d - this.fuzzifier));
+		this.fuzzifierPower = new FixedExponentPower(this.fuzzifier);
+		
+		for(t = 0; t < steps; t++)
+		{
+			maxPrototypeMovement = 0.0d;
+			
+			for(i=0; i<this.getClusterCount(); i++)
+			{
+				this.calculationDepth[i] = 0;
+				this.membershipValueSum[i] = 0.0d;
+				this.membershipValues[i] = 0.0d;
+				this.vs.resetToAddNeutralElement(this.newPrototypePosition.get(i));				
+			}
+			
+			if(this.flatBallTree.size() > 0) this.recursiveClustering(0, 0);
+
+			// update prototype positions
+			for(i = 0; i < this.getClusterCount(); i++)
+			{
+				doubleTMP = 1.0d/this.membershipValueSum[i];
+				this.vs.mul(this.newPrototypePosition.get(i), doubleTMP);
+			}
+			
+			// copy new prototype values into prototypes wrt. learning factor
+			for(i = 0; i < this.getClusterCount(); i++)
+			{
+				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
+				{
+					this.vs.interpolate(this.newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
+				}
+				
+				doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), this.newPrototypePosition.get(i));
+				
+				maxPrototypeMovement = (doubleTMP > maxPrototypeMovement)? doubleTMP : maxPrototypeMovement;
+				
+				this.prototypes.get(i).moveTo(this.newPrototypePosition.get(i));
+			}
+
+			this.iterationComplete();
+			
+			if(maxPrototypeMovement < this.epsilon*this.epsilon) break;
+		}
+	}
+	
+	/**
+	 * @return the maximal length of the membership interval for which a node is not further divided
+	 */
+	public double getMaximalMembershipIntervalLength()
+	{
+		return this.maximalMembershipIntervalLength;
+	}
+
+	/**
+	 * @param maximalMembershipIntervalLength the maximal length of the membership interval for which a node is not further divided
+	 */
+	public void setMaximalMembershipIntervalLength(double maximalMembershipIntervalLength)
+	{
+		this.maximalMembershipIntervalLength = maximalMembershipIntervalLength;
+	}
+
+	/**
+	 * @return the ball tree over the data set
+	 */
+	public DoubleArrayFlatBallTree getFlatBallTree()
+	{
+		return this.flatBallTree;
+	}
+	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.altopt.FuzzyCMeansClusteringAlgorithm#setParallelism(int)
+	 */
+	@Override
+	public void setParallelism(int parallelism)
+	{
+		// apply(int) of this algorithm is sequential, a higher parallelism would be ignored
+		if(parallelism != 1) throw new IllegalArgumentException("The algorithm calculates sequentially, the parallelism must be 1. Specified parallelism: " + parallelism);
+		
+		super.setParallelism(parallelism);
+	}
+	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractPrototypeClusteringAlgorithm#setDistanceEngine(data.set.BlockDistanceEngine)
+	 */
+	@Override
+	public void setDistanceEngine(BlockDistanceEngine<double[]> distanceEngine)
+	{
+		// apply(int) of this algorithm calculates the distances with the distance function, an engine would be ignored
+		if(distanceEngine != null) throw new IllegalArgumentException("The clustering algorithm does not use a distance engine.");
+		
+		super.setDistanceEngine(distanceEngine);
+	}
+}
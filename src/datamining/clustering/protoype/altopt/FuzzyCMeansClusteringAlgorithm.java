@@ -39,6 +39,8 @@ package datamining.clustering.protoype.altopt;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import data.algebra.Distance;
 import data.algebra.EuclideanVectorSpace;
@@ -48,7 +50,7 @@ import data.set.IndexedDataSet;
 import datamining.clustering.FuzzyClusteringAlgorithm;
 import datamining.clustering.protoype.AbstractCentroidClusteringAlgorithm;
 import datamining.clustering.protoype.AlgorithmNotInitializedException;
-import etc.MyMath;
+import etc.FixedExponentPower;
 
 /**
  * TODO Class Description
@@ -73,6 +75,18 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 	
 	/**  */
 	protected final Distance<T> dist;
+	
+	/**
+	 *	The number of worker threads that are used to calculate the membership values and the new prototype positions.
+	 *	If it is 1, the calculation is done sequentially in the calling thread. Otherwise, the data set is split into chunks
+	 *	that are processed in a fork/join pool, each with its own membership sums and prototype accumulators.<br>
+	 *	<br>
+	 *	Range of values: <code>parallelism</code> >= 1
+	 */
+	protected int parallelism;
+	
+	/** The minimal number of data objects that are processed in one chunk if the calculation is done in parallel. */
+	protected static final int MIN_PARALLEL_CHUNK_SIZE = 1024;
 		
 	/**
 	 * @param data the data set
@@ -86,6 +100,7 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 		
 		this.fuzzifier					= 2.0d;
 		this.dist						= dist;
+		this.parallelism				= 1;
 	}
 	
 	/**
@@ -98,6 +113,16 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 
 		this.fuzzifier					= c.fuzzifier;
 		this.dist						= c.dist;
+		this.parallelism				= c.parallelism;
+	}
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractPrototypeClusteringAlgorithm#getDistanceFunction()
+	 */
+	@Override
+	protected Distance<T> getDistanceFunction()
+	{
+		return this.dist;
 	}
 
 	/* (non-Javadoc)
@@ -118,120 +143,251 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 		if(!this.initialized) throw new AlgorithmNotInitializedException("Prototypes not initialized.");	
 		
 		
-		int i, j, k, t; 
+		int i, t; 
 		// i: index for clusters
-		// j: index for data objects
-		// k: index for dimensions, others
 		// t: index for iterations	
 				
-		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
-		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
 		double maxPrototypeMovement = 0.0d;
 		ArrayList<T> newPrototypePosition	= new ArrayList<T>(this.getClusterCount());
 		for(i=0; i<this.getClusterCount(); i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
-		double[] fuzzDistances				= new double[this.getClusterCount()];
-		double[] membershipValues			= new double[this.getClusterCount()];
 		double[] membershipSum				= new double[this.getClusterCount()];
-		T tmpX								= this.vs.getNewAddNeutralElement();
 		
-		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
-		int zeroDistanceCount;
-
-		for(t = 0; t < steps; t++)
+		ForkJoinPool pool					= (this.parallelism > 1)? new ForkJoinPool(this.parallelism) : null;
+		int chunkSize						= Math.max(FuzzyCMeansClusteringAlgorithm.MIN_PARALLEL_CHUNK_SIZE, this.getDataCount()/(4*this.parallelism));
+		
+		try
 		{
-			// reset values
-			maxPrototypeMovement = 0.0d;
-			
-			for(i = 0; i < this.getClusterCount(); i++)
+			for(t = 0; t < steps; t++)
 			{
-				this.vs.resetToAddNeutralElement(newPrototypePosition.get(i));
-				membershipSum[i] = 0.0d;
-			}
-			
-			// update membership values
-			for(j = 0; j < this.getDataCount(); j++)
-			{				
-				for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
-				zeroDistanceCount = 0;
-				distanceSum = 0.0d;
+				// reset values
+				maxPrototypeMovement = 0.0d;
+				
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
-					doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
-					if(doubleTMP <= 0.0d)
-					{
-						doubleTMP = 0.0d;
-						zeroDistanceIndexList[zeroDistanceCount] = i;
-						zeroDistanceCount++;
-					}
-					else
-					{
-						doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
-						fuzzDistances[i] = doubleTMP;
-						distanceSum += doubleTMP;
-					}
+					this.vs.resetToAddNeutralElement(newPrototypePosition.get(i));
+					membershipSum[i] = 0.0d;
 				}
-
-				// special case handling: if one (or more) prototype sits on top of a data object
-				if(zeroDistanceCount>0)
+				
+				// update membership values
+				if(pool != null)
 				{
-					for(i = 0; i < this.getClusterCount(); i++)
-					{
-						membershipValues[i] = 0.0d;
-					}
-					doubleTMP = 1.0d / ((double)zeroDistanceCount);
-					for(k=0; k<zeroDistanceCount; k++)
-					{
-						membershipValues[zeroDistanceIndexList[k]] = doubleTMP;
-					}
+					pool.invoke(new MembershipAccumulationTask(0, this.getDataCount(), chunkSize, membershipSum, newPrototypePosition));
 				}
 				else
 				{
-					for(i = 0; i < this.getClusterCount(); i++)
-					{
-						doubleTMP = fuzzDistances[i] / distanceSum;
-						membershipValues[i] = doubleTMP;
-					}
+					this.accumulateMemberships(0, this.getDataCount(), membershipSum, newPrototypePosition);
+				}
+	
+				// update prototype positions
+				for(i = 0; i < this.getClusterCount(); i++)
+				{
+					doubleTMP = 1.0d/membershipSum[i];
+					this.vs.mul(newPrototypePosition.get(i), doubleTMP);
 				}
 				
+				// copy new prototype values into prototypes wrt. learning factor
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
-					doubleTMP = MyMath.pow(membershipValues[i], this.fuzzifier);
-					membershipSum[i] += doubleTMP;
-
-					this.vs.copy(tmpX, this.data.get(j).element);
-					this.vs.mul(tmpX, doubleTMP);
-					this.vs.add(newPrototypePosition.get(i), tmpX);
+					if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
+					{
+						this.vs.interpolate(newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
+					}
+					
+					doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i));
+					
+					maxPrototypeMovement = (doubleTMP > maxPrototypeMovement)? doubleTMP : maxPrototypeMovement;
+					
+					this.prototypes.get(i).moveTo(newPrototypePosition.get(i));
 				}
+				
+				this.iterationComplete();
+				
+				if(maxPrototypeMovement < this.epsilon*this.epsilon) break;
 			}
+		}
+		finally
+		{
+			if(pool != null) pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Calculates the membership values of the data objects with indices from <code>from</code> (inclusive) to
+	 * <code>to</code> (exclusive) and adds their contribution to the membership sums and the (unnormalised)
+	 * new prototype positions. The prototypes are only read, so several ranges can be processed concurrently
+	 * as long as each uses its own <code>membershipSum</code> and <code>newPrototypePosition</code>.
+	 * 
+	 * @param from the first data object index
+	 * @param to the index after the last data object
+	 * @param membershipSum the sums of the fuzzified membership values, one for each cluster
+	 * @param newPrototypePosition the membership weighted sums of data objects, one for each cluster
+	 */
+	protected void accumulateMemberships(int from, int to, double[] membershipSum, ArrayList<T> newPrototypePosition)
+	{
+		int i, j, k; 
+		// i: index for clusters
+		// j: index for data objects
+		// k: index for dimensions, others
+				
+		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
+		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
+		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
+		T buffer								= this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		T x;
+		double[] distanceTile					= (this.distanceEngine != null)? new double[this.distanceEngine.getBlockSize()*this.getClusterCount()] : null;
+		int tileStart = 0, tileEnd = 0;			// the range of data objects whose distances are stored in distanceTile
+		double[] fuzzDistances				= new double[this.getClusterCount()];
+		double[] membershipValues			= new double[this.getClusterCount()];
+		
+		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
+		int zeroDistanceCount;
 
-			// update prototype positions
-			for(i = 0; i < this.getClusterCount(); i++)
+		for(j = from; j < to; j++)
+		{				
+			x = this.elementOf(j, buffer);
+			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
+			zeroDistanceCount = 0;
+			distanceSum = 0.0d;
+			if(distanceTile != null)
 			{
-				doubleTMP = 1.0d/membershipSum[i];
-				this.vs.mul(newPrototypePosition.get(i), doubleTMP);
+				if(j >= tileEnd)
+				{
+					tileStart = j;
+					tileEnd = Math.min(to, j + this.distanceEngine.getBlockSize());
+					this.distanceEngine.distanceSq(tileStart, tileEnd, prototypePositions, distanceTile);
+				}
+				System.arraycopy(distanceTile, (j-tileStart)*this.getClusterCount(), prototypeDistancesSq, 0, this.getClusterCount());
+			}
+			else
+			{
+				this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			}
-			
-			// copy new prototype values into prototypes wrt. learning factor
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
-				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
+				doubleTMP = prototypeDistancesSq[i];
+				if(doubleTMP <= 0.0d)
 				{
-					this.vs.sub(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());	
+					doubleTMP = 0.0d;
+					zeroDistanceIndexList[zeroDistanceCount] = i;
+					zeroDistanceCount++;
 				}
-				
-				doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i));
-				
-				maxPrototypeMovement = (doubleTMP > maxPrototypeMovement)? doubleTMP : maxPrototypeMovement;
-				
-				this.prototypes.get(i).moveTo(newPrototypePosition.get(i));
+				else
+				{
+					doubleTMP = distancePower.pow(doubleTMP);
+					fuzzDistances[i] = doubleTMP;
+					distanceSum += doubleTMP;
+				}
+			}
+
+			// special case handling: if one (or more) prototype sits on top of a data object
+			if(zeroDistanceCount>0)
+			{
+				for(i = 0; i < this.getClusterCount(); i++)
+				{
+					membershipValues[i] = 0.0d;
+				}
+				doubleTMP = 1.0d / ((double)zeroDistanceCount);
+				for(k=0; k<zeroDistanceCount; k++)
+				{
+					membershipValues[zeroDistanceIndexList[k]] = doubleTMP;
+				}
+			}
+			else
+			{
+				for(i = 0; i < this.getClusterCount(); i++)
+				{
+					doubleTMP = fuzzDistances[i] / distanceSum;
+					membershipValues[i] = doubleTMP;
+				}
+			}
+			
+			for(i = 0; i < this.getClusterCount(); i++)
+			{
+				doubleTMP = fuzzifierPower.pow(membershipValues[i]);
+				membershipSum[i] += doubleTMP;
+
+				this.vs.addMul(newPrototypePosition.get(i), x, doubleTMP);
+			}
+		}
+	}
+	
+	/**
+	 * Fork/join task for the parallel calculation of {@link FuzzyCMeansClusteringAlgorithm#accumulateMemberships(int, int, double[], ArrayList)}.
+	 * The index range is split in halves until it is not larger than the chunk size. The left half reuses the
+	 * accumulators of its parent, the right half uses its own accumulators which are added to the ones of the
+	 * parent after both halves are complete. Since the splitting only depends on the number of data objects and
+	 * the chunk size, the summation order is the same for every run.
+	 */
+	protected class MembershipAccumulationTask extends RecursiveAction
+	{
+		/**  */
+		private static final long	serialVersionUID	= -3795133464961451706L;
+
+		/** the first data object index */
+		private final int from;
+		
+		/** the index after the last data object */
+		private final int to;
+		
+		/** the maximal number of data objects that are processed without further splitting */
+		private final int chunkSize;
+		
+		/** the membership sums of this task */
+		private final double[] membershipSum;
+		
+		/** the prototype accumulators of this task */
+		private final ArrayList<T> newPrototypePosition;
+		
+		/**
+		 * @param from
+		 * @param to
+		 * @param chunkSize
+		 * @param membershipSum
+		 * @param newPrototypePosition
+		 */
+		public MembershipAccumulationTask(int from, int to, int chunkSize, double[] membershipSum, ArrayList<T> newPrototypePosition)
+		{
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+			this.membershipSum = membershipSum;
+			this.newPrototypePosition = newPrototypePosition;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute()
+		{
+			if(this.to - this.from <= this.chunkSize)
+			{
+				FuzzyCMeansClusteringAlgorithm.this.accumulateMemberships(this.from, this.to, this.membershipSum, this.newPrototypePosition);
+				return;
 			}
 			
-			this.iterationComplete();
+			VectorSpace<T> vs = FuzzyCMeansClusteringAlgorithm.this.vs;
+			int clusterCount = this.membershipSum.length;
+			int middle = (this.from + this.to) >>> 1;
+			double[] rightMembershipSum = new double[clusterCount];
+			ArrayList<T> rightPrototypePosition = new ArrayList<T>(clusterCount);
+			for(int i=0; i<clusterCount; i++) rightPrototypePosition.add(vs.getNewAddNeutralElement());
 			
-			if(maxPrototypeMovement < this.epsilon*this.epsilon) break;
+			MembershipAccumulationTask left = new MembershipAccumulationTask(this.from, middle, this.chunkSize, this.membershipSum, this.newPrototypePosition);
+			MembershipAccumulationTask right = new MembershipAccumulationTask(middle, this.to, this.chunkSize, rightMembershipSum, rightPrototypePosition);
+			RecursiveAction.invokeAll(left, right);
+			
+			// reduce the partial results of the right half into the accumulators of this task
+			for(int i=0; i<clusterCount; i++)
+			{
+				this.membershipSum[i] += rightMembershipSum[i];
+				vs.add(this.newPrototypePosition.get(i), rightPrototypePosition.get(i));
+			}
 		}
 	}
 	
@@ -253,8 +409,15 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 		double objectiveFunctionValue = 0.0d;
 		
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
+		T buffer								= this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] distanceTile					= (this.distanceEngine != null)? new double[this.distanceEngine.getBlockSize()*this.getClusterCount()] : null;
+		int tileStart = 0, tileEnd = 0;			// the range of data objects whose distances are stored in distanceTile
 		double[] fuzzDistances					= new double[this.getClusterCount()];
 		double[] distancesSq					= new double[this.getClusterCount()];
 		
@@ -262,9 +425,23 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 		for(j=0; j < this.getDataCount(); j++)
 		{				
 			distanceSum = 0.0d;
+			if(distanceTile != null)
+			{
+				if(j >= tileEnd)
+				{
+					tileStart = j;
+					tileEnd = Math.min(this.getDataCount(), j + this.distanceEngine.getBlockSize());
+					this.distanceEngine.distanceSq(tileStart, tileEnd, prototypePositions, distanceTile);
+				}
+				System.arraycopy(distanceTile, (j-tileStart)*this.getClusterCount(), prototypeDistancesSq, 0, this.getClusterCount());
+			}
+			else
+			{
+				this.dist.distanceSq(this.elementOf(j, buffer), prototypePositions, prototypeDistancesSq);
+			}
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -274,7 +451,7 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 				else
 				{
 					distancesSq[i] = doubleTMP;
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
@@ -286,7 +463,7 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 			{
 				doubleTMP = fuzzDistances[i] / distanceSum;
 								
-				objectiveFunctionValue += MyMath.pow(doubleTMP, this.fuzzifier) * distancesSq[i];
+				objectiveFunctionValue += fuzzifierPower.pow(doubleTMP) * distancesSq[i];
 			}
 		}
 	
@@ -302,8 +479,12 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 		int i, j, k;
 		
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
+		T buffer								= this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValueSums		= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -315,9 +496,10 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
+			this.dist.distanceSq(this.elementOf(j, buffer), prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -326,7 +508,7 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
@@ -368,8 +550,12 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 		int i, j, k;
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
+		T buffer								= this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -381,9 +567,10 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
+			this.dist.distanceSq(this.elementOf(j, buffer), prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -392,7 +579,7 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
@@ -437,8 +624,11 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 		int i, k;
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] distances					= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -448,9 +638,10 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 		for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 		zeroDistanceCount = 0;
 		distanceSum = 0.0d;
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i=0; i<this.getClusterCount(); i++)
 		{
-			doubleTMP = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition());
+			doubleTMP = prototypeDistancesSq[i];
 			if(doubleTMP <= 0.0d)
 			{
 				doubleTMP = 0.0d;
@@ -459,7 +650,7 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 			}
 			else
 			{
-				doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+				doubleTMP = distancePower.pow(doubleTMP);
 				distances[i] = doubleTMP;
 				distanceSum += doubleTMP;
 			}
@@ -516,6 +707,34 @@ public class FuzzyCMeansClusteringAlgorithm<T> extends AbstractCentroidClusterin
 		this.fuzzifier = fuzzifier;
 	}
 
+	/**
+	 * @return the number of worker threads used by {@link #apply(int)}
+	 */
+	public int getParallelism()
+	{
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of worker threads used by {@link #apply(int)}. A value of 1 selects the sequential calculation.
+	 * The parallel calculation yields the same prototypes as the sequential one, up to floating point rounding
+	 * caused by the different summation order.<br>
+	 * <br>
+	 * Only this class calculates in parallel. The subclasses that replace {@link #apply(int)}, that is
+	 * {@link FuzzyCMeansNoiseClusteringAlgorithm}, {@link VoronoiPartitionFCMClusteringAlgorithm},
+	 * {@link RewardingCrispFCMClusteringAlgorithm}, {@link DistAdaptedFCMClusteringAlgorithm},
+	 * {@link BallTreeFuzzyCMeansClusteringAlgorithm}, {@link FlatBallTreeFuzzyCMeansClusteringAlgorithm} and their
+	 * subclasses, reject a parallelism other than 1.
+	 * 
+	 * @param parallelism the number of worker threads to set
+	 */
+	public void setParallelism(int parallelism)
+	{
+		if(parallelism < 1) throw new IllegalArgumentException("The parallelism must be at least 1. Specified parallelism: " + parallelism);
+		
+		this.parallelism = parallelism;
+	}
+
 	/**
 	 * @return the dist
 	 */
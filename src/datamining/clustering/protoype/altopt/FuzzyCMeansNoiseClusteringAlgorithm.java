@@ -43,11 +43,12 @@ import java.util.List;
 import data.algebra.Distance;
 import data.algebra.EuclideanVectorSpace;
 import data.algebra.VectorSpace;
+import data.set.BlockDistanceEngine;
 import data.set.IndexedDataObject;
 import data.set.IndexedDataSet;
 import datamining.clustering.FuzzyNoiseClusteringAlgorithm;
 import datamining.clustering.protoype.AlgorithmNotInitializedException;
-import etc.MyMath;
+import etc.FixedExponentPower;
 
 /**
  * TODO Class Description
@@ -106,15 +107,19 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 		// t: index for iterations	
 
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double maxPrototypeMovement = 0.0d;
 		ArrayList<T> newPrototypePosition	= new ArrayList<T>(this.getClusterCount());
 		for(i=0; i<this.getClusterCount(); i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		double[] membershipSum				= new double[this.getClusterCount()];
-		T tmpX								= this.vs.getNewAddNeutralElement();
 
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
 		int zeroDistanceCount;
@@ -133,12 +138,14 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 			// update membership values
 			for(j=0; j<this.getDataCount(); j++)
 			{				
+				x = this.elementOf(j, buffer);
 				for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 				zeroDistanceCount = 0;
 				distanceSum = 0.0d;
+				this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
-					doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+					doubleTMP = prototypeDistancesSq[i];
 					if(doubleTMP <= 0.0d)
 					{
 						doubleTMP = 0.0d;
@@ -147,14 +154,14 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 					}
 					else
 					{
-						doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+						doubleTMP = distancePower.pow(doubleTMP);
 						fuzzDistances[i] = doubleTMP;
 						distanceSum += doubleTMP;
 					}
 				}
 				
 				// influence of the noise cluster
-				distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+				distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 
 				// special case handling: if one (or more) prototype sits on top of a data object
 				if(zeroDistanceCount>0)
@@ -180,12 +187,10 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
 
-					doubleTMP = MyMath.pow(membershipValues[i], this.fuzzifier);
+					doubleTMP = fuzzifierPower.pow(membershipValues[i]);
 					membershipSum[i] += doubleTMP;
 
-					this.vs.copy(tmpX, this.data.get(j).element);
-					this.vs.mul(tmpX, doubleTMP);
-					this.vs.add(newPrototypePosition.get(i), tmpX);
+					this.vs.addMul(newPrototypePosition.get(i), x, doubleTMP);
 				}
 			}
 
@@ -201,9 +206,7 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 			{
 				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
 				{
-					this.vs.sub(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());		
+					this.vs.interpolate(newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
 				}
 
 				doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i));
@@ -235,8 +238,13 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 		double objectiveFunctionValue = 0.0d;
 		
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] distancesSq				= new double[this.getClusterCount()];
 		
@@ -245,11 +253,13 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 						
 		for(j=0; j < this.getDataCount(); j++)
 		{	
+			x = this.elementOf(j, buffer);
 			
 			distanceSum = 0.0d;
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -259,12 +269,12 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 				else
 				{
 					distancesSq[i] = doubleTMP;
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
 			}
-			fuzzNoiseDist = MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+			fuzzNoiseDist = distancePower.pow(this.noiseDistance*this.noiseDistance);
 			distanceSum += fuzzNoiseDist;
 
 			// don't check for distance sum to be zero.. that would just be rediculus!!
@@ -273,11 +283,11 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 			{
 				doubleTMP = fuzzDistances[i] / distanceSum;
 								
-				objectiveFunctionValue += MyMath.pow(doubleTMP, this.fuzzifier) * distancesSq[i];
+				objectiveFunctionValue += fuzzifierPower.pow(doubleTMP) * distancesSq[i];
 			}
 			doubleTMP = fuzzNoiseDist / distanceSum;
 			
-			objectiveFunctionValue += MyMath.pow(doubleTMP, this.fuzzifier) * this.noiseDistance*this.noiseDistance;
+			objectiveFunctionValue += fuzzifierPower.pow(doubleTMP) * this.noiseDistance*this.noiseDistance;
 		}
 	
 		return objectiveFunctionValue;
@@ -292,8 +302,12 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 		int i, j, k;
 		
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValueSums		= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -302,12 +316,14 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 						
 		for(j=0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -316,12 +332,12 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
 			}
-			distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+			distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 	
 			// special case handling: if one (or more) prototype sits on top of a data object
 			if(zeroDistanceCount>0)
@@ -359,8 +375,12 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 		int i, j, k;
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -369,12 +389,14 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 						
 		for(j=0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -383,12 +405,12 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
 			}
-			distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+			distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 	
 			// special case handling: if one (or more) prototype sits on top of a data object
 			if(zeroDistanceCount>0)
@@ -429,8 +451,11 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 		int i, k;
 				
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] distances					= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -440,9 +465,10 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 		for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 		zeroDistanceCount = 0;
 		distanceSum = 0.0d;
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i=0; i<this.getClusterCount(); i++)
 		{
-			doubleTMP = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition());
+			doubleTMP = prototypeDistancesSq[i];
 			if(doubleTMP <= 0.0d)
 			{
 				doubleTMP = 0.0d;
@@ -451,12 +477,12 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 			}
 			else
 			{
-				doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+				doubleTMP = distancePower.pow(doubleTMP);
 				distances[i] = doubleTMP;
 				distanceSum += doubleTMP;
 			}
 		}
-		distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+		distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 
 		// special case handling: if one (or more) prototype sits on top of a data object
 		if(zeroDistanceCount>0)
@@ -508,8 +534,11 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 		
 		
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		
 		double fuzzNoiseDist				= 0.0d;
 		double noiseMembership				= 0.0d;
@@ -520,9 +549,10 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 		for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 		zeroDistanceCount = 0;
 		distanceSum = 0.0d;
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i=0; i<this.getClusterCount(); i++)
 		{
-			doubleTMP = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition());
+			doubleTMP = prototypeDistancesSq[i];
 			if(doubleTMP <= 0.0d)
 			{
 				doubleTMP = 0.0d;
@@ -531,12 +561,12 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 			}
 			else
 			{
-				doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+				doubleTMP = distancePower.pow(doubleTMP);
 				distanceSum += doubleTMP;
 			}
 		}
 		// influence of the noise cluster
-		fuzzNoiseDist = MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+		fuzzNoiseDist = distancePower.pow(this.noiseDistance*this.noiseDistance);
 		distanceSum += fuzzNoiseDist;
 
 		// special case handling: if one (or more) prototype sits on top of a data object
@@ -567,8 +597,12 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 		
 		
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		
 		double fuzzNoiseDist				= 0.0d;
@@ -579,12 +613,14 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 		
 		for(j=0; j<this.getDataCount(); j++)
 		{
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				if(doubleTMP <= 0.0d)
 				{
 					doubleTMP = 0.0d;
@@ -593,13 +629,13 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 				}
 				else
 				{
-					doubleTMP = MyMath.pow(doubleTMP, distanceExponent);
+					doubleTMP = distancePower.pow(doubleTMP);
 					fuzzDistances[i] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
 			}
 			// influence of the noise cluster
-			fuzzNoiseDist = MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+			fuzzNoiseDist = distancePower.pow(this.noiseDistance*this.noiseDistance);
 			distanceSum += fuzzNoiseDist;
 	
 			// special case handling: if one (or more) prototype sits on top of a data object
@@ -651,5 +687,28 @@ public class FuzzyCMeansNoiseClusteringAlgorithm<T> extends FuzzyCMeansClusterin
 		this.clone(clone);
 		return clone;
 	}
-
+	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.altopt.FuzzyCMeansClusteringAlgorithm#setParallelism(int)
+	 */
+	@Override
+	public void setParallelism(int parallelism)
+	{
+		// apply(int) of this algorithm is sequential, a higher parallelism would be ignored
+		if(parallelism != 1) throw new IllegalArgumentException("The algorithm calculates sequentially, the parallelism must be 1. Specified parallelism: " + parallelism);
+		
+		super.setParallelism(parallelism);
+	}
+	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractPrototypeClusteringAlgorithm#setDistanceEngine(data.set.BlockDistanceEngine)
+	 */
+	@Override
+	public void setDistanceEngine(BlockDistanceEngine<T> distanceEngine)
+	{
+		// apply(int) of this algorithm calculates the distances with the distance function, an engine would be ignored
+		if(distanceEngine != null) throw new IllegalArgumentException("The clustering algorithm does not use a distance engine.");
+		
+		super.setDistanceEngine(distanceEngine);
+	}
 }
@@ -54,6 +54,15 @@ import datamining.clustering.protoype.Centroid;
  *
  * Paper: MacQueen, J. B. Some Methods for Classification and Analysis of MultiVariate Observations Proc. of the fifth Berkeley Symposium on Mathematical Statistics and Probability, University of California Press, 1967, 1, 281-297
  * 
+ * The assignment step can be accelerated by keeping upper and lower bounds on the distances
+ * between data objects and prototypes and skipping distance calculations with the triangle inequality.
+ * The accelerated variants produce exactly the same assignments as the plain algorithm, but they
+ * require the distance function to be a metric.<br>
+ * 
+ * Paper: Hamerly, G. Making k-means even faster Proceedings of the 2010 SIAM International Conference on Data Mining, 2010, 130-140<br>
+ * Paper: Elkan, C. Using the Triangle Inequality to Accelerate k-Means Proceedings of the Twentieth International Conference on Machine Learning, 2003, 147-153<br>
+ * Paper: Ding, Y.; Zhao, Y.; Shen, X.; Musuvathi, M. & Mytkowicz, T. Yinyang K-Means: A Drop-In Replacement of the Classic K-Means with Consistent Speedup Proceedings of the 32nd International Conference on Machine Learning, 2015, 579-587
+ * 
  * @author Roland Winkler
  */
 public class HardCMeansClusteringAlgorithm<T> extends AbstractCentroidClusteringAlgorithm<T> implements CrispClusteringAlgorithm<T>
@@ -61,11 +70,43 @@ public class HardCMeansClusteringAlgorithm<T> extends AbstractCentroidClustering
 	/**  */
 	private static final long	serialVersionUID	= -2518725991257149820L;
 
+	/**
+	 * The strategy that is used to avoid distance calculations in the assignment step.
+	 */
+	public static enum BoundAcceleration
+	{
+		/** All distances are calculated in every iteration. */
+		NONE,
+		/** One upper and one lower bound per data object, best for few prototypes. */
+		HAMERLY,
+		/** One upper bound and one lower bound per data object and prototype, best for a moderate number of prototypes. */
+		ELKAN,
+		/** One upper bound and one lower bound per data object and group of prototypes, best for many prototypes. */
+		YINYANG,
+		/** Selects one of the other strategies according to the number of prototypes. */
+		AUTOMATIC
+	}
+	
+	/** The highest number of prototypes for which {@link BoundAcceleration#AUTOMATIC} selects {@link BoundAcceleration#HAMERLY}. */
+	public static final int HAMERLY_MAX_CLUSTER_COUNT = 16;
+	
+	/** The highest number of prototypes for which {@link BoundAcceleration#AUTOMATIC} selects {@link BoundAcceleration#ELKAN}. */
+	public static final int ELKAN_MAX_CLUSTER_COUNT = 64;
+	
+	/** The average number of prototypes in one group of the Yinyang algorithm. */
+	public static final int YINYANG_GROUP_SIZE = 10;
+	
+	/** Relative slack of the bounds that compensates rounding errors, so that no closer prototype is ever skipped. */
+	protected static final double BOUND_TOLERANCE = 1.0e-10d;
+	
 	/**  */
 	protected Distance<T> dist;
 	
 	protected int[] clusteringResult;
 	
+	/** The strategy that is used to avoid distance calculations. */
+	protected BoundAcceleration acceleration;
+	
 	/**
 	 * @param data
 	 * @param numberOfClusters
@@ -75,6 +116,7 @@ public class HardCMeansClusteringAlgorithm<T> extends AbstractCentroidClustering
 		super(data, vs);
 
 		this.dist = dist;
+		this.acceleration = BoundAcceleration.NONE;
 		this.clusteringResult = new int[this.data.size()];
 		for(int j=0; j<this.getDataCount(); j++) this.clusteringResult[j] = -1;
 	}
@@ -88,6 +130,7 @@ public class HardCMeansClusteringAlgorithm<T> extends AbstractCentroidClustering
 		super(fcmA, useOnlyActivePrototypes);
 		
 		this.dist = fcmA.dist;
+		this.acceleration = fcmA.acceleration;
 		this.clusteringResult = fcmA.clusteringResult.clone();
 		for(int j=0; j<this.getDataCount(); j++) this.clusteringResult[j] = -1;
 	}
@@ -119,18 +162,20 @@ public class HardCMeansClusteringAlgorithm<T> extends AbstractCentroidClustering
 	 */
 	private void recalculateClusterAssignments()
 	{
-		int i;
+		int i, j;
+		T x, buffer = this.newElementBuffer();
 		double distMin, dist;
 		int pMin = 0;
 		
 		// separate data according to closest prototype 
-		for(IndexedDataObject<T> x : this.data)
+		for(j=0; j<this.getDataCount(); j++)
 		{
+			x = this.elementOf(j, buffer);
 			pMin = 0;
 			distMin = Double.MAX_VALUE;
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				dist = this.dist.distanceSq(this.prototypes.get(i).getPosition(), x.element); 
+				dist = this.dist.distanceSq(this.prototypes.get(i).getPosition(), x); 
 				if(dist < distMin)
 				{
 					distMin = dist;
@@ -138,10 +183,54 @@ public class HardCMeansClusteringAlgorithm<T> extends AbstractCentroidClustering
 				}
 			}
 			
-			this.clusteringResult[x.getID()] = pMin;
+			this.clusteringResult[j] = pMin;
 		}
 	}
 
+	/**
+	 * @return the strategy that is used to avoid distance calculations
+	 */
+	public BoundAcceleration getAcceleration()
+	{
+		return this.acceleration;
+	}
+
+	/**
+	 * Sets the strategy that is used to avoid distance calculations. All strategies produce the same
+	 * cluster assignments, the accelerated ones require the distance function to be a metric.
+	 * If a strategy other than {@link BoundAcceleration#NONE} is selected, the distance engine is not used.
+	 * 
+	 * @param acceleration the strategy
+	 */
+	public void setAcceleration(BoundAcceleration acceleration)
+	{
+		if(acceleration == null) throw new IllegalArgumentException("The acceleration strategy must not be null.");
+		
+		this.acceleration = acceleration;
+	}
+	
+	/**
+	 * Resolves {@link BoundAcceleration#AUTOMATIC} to the strategy that fits the number of prototypes.
+	 * 
+	 * @return the strategy that is used by {@link #apply(int)}
+	 */
+	public BoundAcceleration getSelectedAcceleration()
+	{
+		if(this.acceleration != BoundAcceleration.AUTOMATIC)		return this.acceleration;
+		if(this.getClusterCount() <= HAMERLY_MAX_CLUSTER_COUNT)	return BoundAcceleration.HAMERLY;
+		if(this.getClusterCount() <= ELKAN_MAX_CLUSTER_COUNT)	return BoundAcceleration.ELKAN;
+		return BoundAcceleration.YINYANG;
+	}
+
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractPrototypeClusteringAlgorithm#getDistanceFunction()
+	 */
+	@Override
+	protected Distance<T> getDistanceFunction()
+	{
+		return this.dist;
+	}
+
 	/* (non-Javadoc)
 	 * @see datamining.clustering.AbstractDoubleArrayClusteringAlgorithm#algorithmName()
 	 */
@@ -159,13 +248,24 @@ public class HardCMeansClusteringAlgorithm<T> extends AbstractCentroidClustering
 	{
 		if(!this.initialized) throw new AlgorithmNotInitializedException("Prototypes not initialized.");
 		
-		int i, t; 
+		switch(this.getSelectedAcceleration())
+		{
+			case HAMERLY:	this.applyHamerly(steps);	return;
+			case ELKAN:		this.applyElkan(steps);		return;
+			case YINYANG:	this.applyYinyang(steps);	return;
+			default:		break;
+		}
+		
+		int i, j, t; 
 		
 		int pMin;
 		double distMin, dist;
-		double doubleTMP;
 		boolean assignmentChanged;
 		int[] clusterWeight = new int[this.getClusterCount()];
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		ArrayList<T> prototypePositions = this.getPrototypePositions();
+		double[] distanceTile = (this.distanceEngine != null)? new double[this.distanceEngine.getBlockSize()*this.getClusterCount()] : null;
+		int tileStart = 0, tileEnd = 0;
 		
 		ArrayList<T> newPrototypePosition = new ArrayList<T>(this.getClusterCount());
 		for(i=0; i<this.getClusterCount(); i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
@@ -181,13 +281,23 @@ public class HardCMeansClusteringAlgorithm<T> extends AbstractCentroidClustering
 			assignmentChanged = false;
 			
 			// separate data according to closest prototype 
-			for(IndexedDataObject<T> x : this.data)
+			tileEnd = 0;
+			for(j=0; j<this.getDataCount(); j++)
 			{
+				x = this.elementOf(j, buffer);
+				if(distanceTile != null && j >= tileEnd)
+				{
+					tileStart = j;
+					tileEnd = Math.min(this.getDataCount(), j + this.distanceEngine.getBlockSize());
+					this.distanceEngine.distanceSq(tileStart, tileEnd, prototypePositions, distanceTile);
+				}
+				
 				pMin = -1;
 				distMin = Double.MAX_VALUE;
 				for(i=0; i<this.getClusterCount(); i++)
 				{
-					dist = this.dist.distanceSq(this.prototypes.get(i).getPosition(), x.element); 
+					if(distanceTile != null)	dist = distanceTile[(j-tileStart)*this.getClusterCount() + i];
+					else						dist = this.dist.distanceSq(this.prototypes.get(i).getPosition(), x); 
 					if(dist < distMin)
 					{
 						distMin = dist;
@@ -195,32 +305,571 @@ public class HardCMeansClusteringAlgorithm<T> extends AbstractCentroidClustering
 					}
 				}
 				
-				assignmentChanged |= (this.clusteringResult[x.getID()] != pMin); 
+				assignmentChanged |= (this.clusteringResult[j] != pMin); 
 				
-				this.clusteringResult[x.getID()] = pMin;
+				this.clusteringResult[j] = pMin;
 				clusterWeight[pMin]++;
-				this.vs.add(newPrototypePosition.get(pMin), x.element);
+				this.vs.add(newPrototypePosition.get(pMin), x);
+			}
+			
+			this.updatePrototypes(newPrototypePosition, clusterWeight, null);
+
+			this.iterationComplete();
+			
+//			System.out.println("assignmentChanged = " + assignmentChanged);
+			if(t>0 && !assignmentChanged)	break;
+		}
+	}
+	
+	/**
+	 * Moves the prototypes to the means of their assigned data objects. <code>newPrototypePosition</code> contains
+	 * the sums of the assigned data objects and is overwritten.
+	 * 
+	 * @param newPrototypePosition the sums of the data objects, one per prototype
+	 * @param clusterWeight the number of data objects assigned to each prototype
+	 * @param drift if not null, it is filled with the distances the prototypes moved
+	 * @return true if no prototype moved infinitely far, that is, if the bounds of the accelerated variants remain valid
+	 */
+	protected boolean updatePrototypes(ArrayList<T> newPrototypePosition, int[] clusterWeight, double[] drift)
+	{
+		int i;
+		double doubleTMP;
+		boolean finite = true;
+		
+		for(i=0; i<this.getClusterCount();i++)
+		{
+			doubleTMP = 1.0d/((double)clusterWeight[i]);				
+			this.vs.mul(newPrototypePosition.get(i), doubleTMP);
+
+			if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
+			{
+				this.vs.interpolate(newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
+			}
+			
+			if(drift != null)
+			{
+				drift[i] = Math.sqrt(this.dist.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i)));
+				// a prototype without data objects gets an undefined position, its distances are NaN and it is never selected again
+				if(Double.isNaN(drift[i])) drift[i] = 0.0d;
+				finite &= !Double.isInfinite(drift[i]);
 			}
 			
-			for(i=0; i<this.getClusterCount();i++)
+			this.getPrototypes().get(i).moveTo(newPrototypePosition.get(i));
+		}
+		
+		return finite;
+	}
+	
+	/**
+	 * Assigns the data object to its closest prototype by calculating all distances, exactly as the
+	 * plain algorithm does. The squared distances are stored in <code>distancesSq</code>.
+	 * 
+	 * @param x the data object
+	 * @param distancesSq array of length {@link #getClusterCount()} that receives the squared distances
+	 * @return the index of the closest prototype
+	 */
+	protected int closestPrototype(T x, double[] distancesSq)
+	{
+		int i, pMin = -1;
+		double distMin = Double.MAX_VALUE;
+		
+		for(i=0; i<this.getClusterCount(); i++)
+		{
+			distancesSq[i] = this.dist.distanceSq(this.prototypes.get(i).getPosition(), x); 
+			if(distancesSq[i] < distMin)
+			{
+				distMin = distancesSq[i];
+				pMin = i;
+			}
+		}
+		
+		return pMin;
+	}
+	
+	/**
+	 * Calculates the distances between all pairs of prototypes and half of the distance
+	 * of each prototype to its closest other prototype.
+	 * 
+	 * @param centerDistances array of length c*c that receives the distances, may be null
+	 * @param halfSeparation array of length c that receives half of the distance to the closest other prototype
+	 */
+	protected void calculatePrototypeSeparation(double[] centerDistances, double[] halfSeparation)
+	{
+		int i, k;
+		int c = this.getClusterCount();
+		double d;
+		
+		for(i=0; i<c; i++) halfSeparation[i] = Double.MAX_VALUE;
+		for(i=0; i<c; i++)
+		{
+			if(centerDistances != null) centerDistances[i*c + i] = 0.0d;
+			for(k=i+1; k<c; k++)
 			{
-				doubleTMP = 1.0d/((double)clusterWeight[i]);				
-				this.vs.mul(newPrototypePosition.get(i), doubleTMP);
+				d = Math.sqrt(this.dist.distanceSq(this.prototypes.get(i).getPosition(), this.prototypes.get(k).getPosition()));
+				if(centerDistances != null)
+				{
+					centerDistances[i*c + k] = HardCMeansClusteringAlgorithm.lowerBound(d);
+					centerDistances[k*c + i] = centerDistances[i*c + k];
+				}
+				if(d < halfSeparation[i]) halfSeparation[i] = d;
+				if(d < halfSeparation[k]) halfSeparation[k] = d;
+			}
+		}
+		for(i=0; i<c; i++) halfSeparation[i] = HardCMeansClusteringAlgorithm.lowerBound(0.5d*halfSeparation[i]);
+	}
+	
+	/**
+	 * Widens an upper bound by the relative bound tolerance.
+	 * 
+	 * @param u the upper bound
+	 * @return the widened upper bound
+	 */
+	protected static double upperBound(double u)
+	{
+		return u + BOUND_TOLERANCE*Math.abs(u);
+	}
+	
+	/**
+	 * Widens a lower bound by the relative bound tolerance.
+	 * 
+	 * @param l the lower bound
+	 * @return the widened lower bound
+	 */
+	protected static double lowerBound(double l)
+	{
+		return l - BOUND_TOLERANCE*Math.abs(l);
+	}
+	
+	/**
+	 * Hamerly's algorithm: each data object keeps an upper bound of the distance to its assigned prototype
+	 * and one lower bound of the distances to all other prototypes.
+	 * 
+	 * @param steps the maximal number of iterations
+	 */
+	protected void applyHamerly(int steps)
+	{
+		int i, j, t, a;
+		int c = this.getClusterCount();
+		int maxDriftIndex;
+		double bound, maxDrift, secondMaxDrift, distMin, distSecond;
+		boolean assignmentChanged, boundsValid = false;
+		int[] clusterWeight = new int[c];
+		double[] upper = new double[this.getDataCount()];
+		double[] lower = new double[this.getDataCount()];
+		double[] drift = new double[c];
+		double[] halfSeparation = new double[c];
+		double[] distancesSq = new double[c];
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		
+		ArrayList<T> newPrototypePosition = new ArrayList<T>(c);
+		for(i=0; i<c; i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
+				
+		for(t = 0; t < steps; t++)
+		{
+			for(i = 0; i < c; i++)
+			{
+				this.vs.resetToAddNeutralElement(newPrototypePosition.get(i));
+				clusterWeight[i] = 0;
+			}
+			assignmentChanged = false;
+			if(boundsValid) this.calculatePrototypeSeparation(null, halfSeparation);
+			
+			for(j=0; j<this.getDataCount(); j++)
+			{
+				x = this.elementOf(j, buffer);
+				a = -1;
+				
+				if(boundsValid)
+				{
+					a = this.clusteringResult[j];
+					bound = Math.max(halfSeparation[a], lower[j]);
+					if(!(upper[j] < bound))
+					{
+						upper[j] = Math.sqrt(this.dist.distanceSq(this.prototypes.get(a).getPosition(), x));
+						if(!(upper[j] < bound)) a = -1;
+					}
+				}
+				
+				if(a < 0)
+				{
+					a = this.closestPrototype(x, distancesSq);
+					distMin = Double.MAX_VALUE;
+					distSecond = Double.MAX_VALUE;
+					for(i=0; i<c; i++)
+					{
+						if(i == a) distMin = distancesSq[i];
+						else if(distancesSq[i] < distSecond) distSecond = distancesSq[i];
+					}
+					upper[j] = Math.sqrt(distMin);
+					lower[j] = Math.sqrt(distSecond);
+				}
+				
+				assignmentChanged |= (this.clusteringResult[j] != a); 
+				
+				this.clusteringResult[j] = a;
+				clusterWeight[a]++;
+				this.vs.add(newPrototypePosition.get(a), x);
+			}
+			
+			boundsValid = this.updatePrototypes(newPrototypePosition, clusterWeight, drift);
 
-				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
+			this.iterationComplete();
+			
+			if(t>0 && !assignmentChanged)	break;
+			if(!boundsValid) continue;
+			
+			maxDriftIndex = 0;
+			maxDrift = 0.0d;
+			secondMaxDrift = 0.0d;
+			for(i=0; i<c; i++)
+			{
+				if(drift[i] > maxDrift)
 				{
-					this.vs.sub(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());	
+					secondMaxDrift = maxDrift;
+					maxDrift = drift[i];
+					maxDriftIndex = i;
 				}
+				else if(drift[i] > secondMaxDrift) secondMaxDrift = drift[i];
+			}
+			
+			for(j=0; j<this.getDataCount(); j++)
+			{
+				a = this.clusteringResult[j];
+				upper[j] = HardCMeansClusteringAlgorithm.upperBound(upper[j] + drift[a]);
+				lower[j] = HardCMeansClusteringAlgorithm.lowerBound(lower[j] - ((a == maxDriftIndex)? secondMaxDrift : maxDrift));
+			}
+		}
+	}
+	
+	/**
+	 * Elkan's algorithm: each data object keeps an upper bound of the distance to its assigned prototype
+	 * and a lower bound of the distance to every prototype.
+	 * 
+	 * @param steps the maximal number of iterations
+	 */
+	protected void applyElkan(int steps)
+	{
+		int i, j, t, a;
+		int c = this.getClusterCount();
+		double distSq, distSqA;
+		boolean assignmentChanged, boundsValid = false, upperTight;
+		int[] clusterWeight = new int[c];
+		double[] upper = new double[this.getDataCount()];
+		double[] lower = new double[this.getDataCount()*c];
+		double[] drift = new double[c];
+		double[] halfSeparation = new double[c];
+		double[] centerDistances = new double[c*c];
+		double[] distancesSq = new double[c];
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		
+		ArrayList<T> newPrototypePosition = new ArrayList<T>(c);
+		for(i=0; i<c; i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
 				
-				this.getPrototypes().get(i).moveTo(newPrototypePosition.get(i));
+		for(t = 0; t < steps; t++)
+		{
+			for(i = 0; i < c; i++)
+			{
+				this.vs.resetToAddNeutralElement(newPrototypePosition.get(i));
+				clusterWeight[i] = 0;
 			}
+			assignmentChanged = false;
+			if(boundsValid) this.calculatePrototypeSeparation(centerDistances, halfSeparation);
+			
+			for(j=0; j<this.getDataCount(); j++)
+			{
+				x = this.elementOf(j, buffer);
+				
+				if(!boundsValid)
+				{
+					a = this.closestPrototype(x, distancesSq);
+					for(i=0; i<c; i++) lower[j*c + i] = Math.sqrt(distancesSq[i]);
+					upper[j] = lower[j*c + a];
+				}
+				else
+				{
+					a = this.clusteringResult[j];
+					if(!(upper[j] < halfSeparation[a]))
+					{
+						upperTight = false;
+						distSqA = 0.0d;
+						for(i=0; i<c; i++)
+						{
+							if(i == a || upper[j] < lower[j*c + i] || upper[j] < 0.5d*centerDistances[a*c + i] || Double.isNaN(centerDistances[a*c + i])) continue;
+							
+							if(!upperTight)
+							{
+								distSqA = this.dist.distanceSq(this.prototypes.get(a).getPosition(), x);
+								upper[j] = Math.sqrt(distSqA);
+								lower[j*c + a] = upper[j];
+								upperTight = true;
+								if(upper[j] < lower[j*c + i] || upper[j] < 0.5d*centerDistances[a*c + i]) continue;
+							}
+							
+							distSq = this.dist.distanceSq(this.prototypes.get(i).getPosition(), x);
+							lower[j*c + i] = Math.sqrt(distSq);
+							if(distSq < distSqA || (distSq == distSqA && i < a))
+							{
+								a = i;
+								distSqA = distSq;
+								upper[j] = lower[j*c + i];
+							}
+						}
+					}
+				}
+				
+				assignmentChanged |= (this.clusteringResult[j] != a); 
+				
+				this.clusteringResult[j] = a;
+				clusterWeight[a]++;
+				this.vs.add(newPrototypePosition.get(a), x);
+			}
+			
+			boundsValid = this.updatePrototypes(newPrototypePosition, clusterWeight, drift);
 
 			this.iterationComplete();
 			
-//			System.out.println("assignmentChanged = " + assignmentChanged);
 			if(t>0 && !assignmentChanged)	break;
+			if(!boundsValid) continue;
+			
+			for(j=0; j<this.getDataCount(); j++)
+			{
+				a = this.clusteringResult[j];
+				upper[j] = HardCMeansClusteringAlgorithm.upperBound(upper[j] + drift[a]);
+				for(i=0; i<c; i++) lower[j*c + i] = HardCMeansClusteringAlgorithm.lowerBound(lower[j*c + i] - drift[i]);
+			}
+		}
+	}
+	
+	/**
+	 * Partitions the prototypes into groups of close prototypes for the Yinyang algorithm
+	 * by a few iterations of the plain algorithm on the prototype positions.
+	 * 
+	 * @param groupCount the number of groups
+	 * @return the group index of each prototype, the groups are numbered consecutively and none of them is empty
+	 */
+	protected int[] groupPrototypes(int groupCount)
+	{
+		int i, g, t, gMin, count;
+		int c = this.getClusterCount();
+		double distMin, dist;
+		int[] group = new int[c];
+		int[] groupSize = new int[groupCount];
+		int[] groupIndex = new int[groupCount];
+		ArrayList<T> groupCenters = new ArrayList<T>(groupCount);
+		ArrayList<T> groupSums = new ArrayList<T>(groupCount);
+		
+		for(g=0; g<groupCount; g++)
+		{
+			groupCenters.add(this.vs.copyNew(this.prototypes.get((g*c)/groupCount).getPosition()));
+			groupSums.add(this.vs.getNewAddNeutralElement());
+		}
+		
+		for(t=0; t<5; t++)
+		{
+			for(g=0; g<groupCount; g++)
+			{
+				this.vs.resetToAddNeutralElement(groupSums.get(g));
+				groupSize[g] = 0;
+			}
+			
+			for(i=0; i<c; i++)
+			{
+				gMin = 0;
+				distMin = Double.MAX_VALUE;
+				for(g=0; g<groupCount; g++)
+				{
+					dist = this.dist.distanceSq(groupCenters.get(g), this.prototypes.get(i).getPosition());
+					if(dist < distMin)
+					{
+						distMin = dist;
+						gMin = g;
+					}
+				}
+				group[i] = gMin;
+				groupSize[gMin]++;
+				this.vs.add(groupSums.get(gMin), this.prototypes.get(i).getPosition());
+			}
+			
+			for(g=0; g<groupCount; g++)
+			{
+				if(groupSize[g] == 0) continue;
+				this.vs.mul(groupSums.get(g), 1.0d/((double)groupSize[g]));
+				this.vs.copy(groupCenters.get(g), groupSums.get(g));
+			}
+		}
+		
+		// remove empty groups
+		count = 0;
+		for(g=0; g<groupCount; g++)
+		{
+			groupIndex[g] = count;
+			if(groupSize[g] > 0) count++;
+		}
+		for(i=0; i<c; i++) group[i] = groupIndex[group[i]];
+		
+		return group;
+	}
+	
+	/**
+	 * Yinyang algorithm: the prototypes are partitioned into groups and each data object keeps an upper bound of
+	 * the distance to its assigned prototype and a lower bound of the distances to the prototypes of each group.
+	 * 
+	 * @param steps the maximal number of iterations
+	 */
+	protected void applyYinyang(int steps)
+	{
+		int i, j, k, g, t, a, b;
+		int c = this.getClusterCount();
+		int groupCount = Math.max(1, c/YINYANG_GROUP_SIZE);
+		double distSq, distSqA, globalLower;
+		boolean assignmentChanged, boundsValid = false;
+		int[] clusterWeight = new int[c];
+		int[] group = this.groupPrototypes(groupCount);
+		double[] drift = new double[c];
+		double[] distancesSq = new double[c];
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+
+		groupCount = 0;
+		for(i=0; i<c; i++) groupCount = Math.max(groupCount, group[i]+1);
+		
+		int[][] groupMembers = new int[groupCount][];
+		int[] groupSize = new int[groupCount];
+		for(i=0; i<c; i++) groupSize[group[i]]++;
+		for(g=0; g<groupCount; g++) groupMembers[g] = new int[groupSize[g]];
+		for(g=0; g<groupCount; g++) groupSize[g] = 0;
+		for(i=0; i<c; i++) groupMembers[group[i]][groupSize[group[i]]++] = i;
+		
+		double[] upper = new double[this.getDataCount()];
+		double[] groupLower = new double[this.getDataCount()*groupCount];
+		double[] groupDrift = new double[groupCount];
+		boolean[] groupExamined = new boolean[groupCount];
+		
+		ArrayList<T> newPrototypePosition = new ArrayList<T>(c);
+		for(i=0; i<c; i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
+				
+		for(t = 0; t < steps; t++)
+		{
+			for(i = 0; i < c; i++)
+			{
+				this.vs.resetToAddNeutralElement(newPrototypePosition.get(i));
+				clusterWeight[i] = 0;
+			}
+			assignmentChanged = false;
+			
+			for(j=0; j<this.getDataCount(); j++)
+			{
+				x = this.elementOf(j, buffer);
+				
+				if(!boundsValid)
+				{
+					a = this.closestPrototype(x, distancesSq);
+					upper[j] = Math.sqrt(distancesSq[a]);
+					for(g=0; g<groupCount; g++) groupExamined[g] = true;
+					this.updateGroupLowerBounds(groupLower, j, groupMembers, groupExamined, distancesSq, a);
+				}
+				else
+				{
+					a = this.clusteringResult[j];
+					globalLower = Double.MAX_VALUE;
+					for(g=0; g<groupCount; g++) globalLower = Math.min(globalLower, groupLower[j*groupCount + g]);
+					
+					if(!(upper[j] < globalLower))
+					{
+						distSqA = this.dist.distanceSq(this.prototypes.get(a).getPosition(), x);
+						upper[j] = Math.sqrt(distSqA);
+						
+						if(!(upper[j] < globalLower))
+						{
+							// examine all groups whose lower bound does not exclude them
+							b = a;
+							distancesSq[a] = distSqA;
+							for(g=0; g<groupCount; g++)
+							{
+								groupExamined[g] = !(upper[j] < groupLower[j*groupCount + g]);
+								if(!groupExamined[g]) continue;
+								
+								for(k=0; k<groupMembers[g].length; k++)
+								{
+									i = groupMembers[g][k];
+									if(i == a)	distSq = distSqA;
+									else		distSq = this.dist.distanceSq(this.prototypes.get(i).getPosition(), x);
+									distancesSq[i] = distSq;
+									
+									if(distSq < distancesSq[b] || (distSq == distancesSq[b] && i < b))
+									{
+										b = i;
+										upper[j] = Math.sqrt(distSq);
+									}
+								}
+							}
+							
+							// the distance to the old prototype is only known to its group if that group has been examined
+							if(b != a && !groupExamined[group[a]])
+							{
+								groupLower[j*groupCount + group[a]] = Math.min(groupLower[j*groupCount + group[a]], Math.sqrt(distSqA));
+							}
+							this.updateGroupLowerBounds(groupLower, j, groupMembers, groupExamined, distancesSq, b);
+							a = b;
+						}
+					}
+				}
+				
+				assignmentChanged |= (this.clusteringResult[j] != a); 
+				
+				this.clusteringResult[j] = a;
+				clusterWeight[a]++;
+				this.vs.add(newPrototypePosition.get(a), x);
+			}
+			
+			boundsValid = this.updatePrototypes(newPrototypePosition, clusterWeight, drift);
+
+			this.iterationComplete();
+			
+			if(t>0 && !assignmentChanged)	break;
+			if(!boundsValid) continue;
+			
+			for(g=0; g<groupCount; g++)
+			{
+				groupDrift[g] = 0.0d;
+				for(k=0; k<groupMembers[g].length; k++) groupDrift[g] = Math.max(groupDrift[g], drift[groupMembers[g][k]]);
+			}
+			
+			for(j=0; j<this.getDataCount(); j++)
+			{
+				a = this.clusteringResult[j];
+				upper[j] = HardCMeansClusteringAlgorithm.upperBound(upper[j] + drift[a]);
+				for(g=0; g<groupCount; g++) groupLower[j*groupCount + g] = HardCMeansClusteringAlgorithm.lowerBound(groupLower[j*groupCount + g] - groupDrift[g]);
+			}
+		}
+	}
+	
+	/**
+	 * Sets the lower bounds of the examined groups of data object <code>j</code> to the smallest distance
+	 * to a prototype of the group other than the assigned prototype.
+	 * 
+	 * @param groupLower the lower bounds, one per data object and group
+	 * @param j the index of the data object
+	 * @param groupMembers the prototype indices of each group
+	 * @param groupExamined marks the groups for which <code>distancesSq</code> contains the distances
+	 * @param distancesSq the squared distances of the data object to the prototypes
+	 * @param a the index of the assigned prototype
+	 */
+	private void updateGroupLowerBounds(double[] groupLower, int j, int[][] groupMembers, boolean[] groupExamined, double[] distancesSq, int a)
+	{
+		int g, k, i;
+		double distMin;
+		
+		for(g=0; g<groupMembers.length; g++)
+		{
+			if(!groupExamined[g]) continue;
+			
+			distMin = Double.MAX_VALUE;
+			for(k=0; k<groupMembers[g].length; k++)
+			{
+				i = groupMembers[g][k];
+				if(i != a && distancesSq[i] < distMin) distMin = distancesSq[i];
+			}
+			groupLower[j*groupMembers.length + g] = Math.sqrt(distMin);
 		}
 	}
 
@@ -232,18 +881,20 @@ public class HardCMeansClusteringAlgorithm<T> extends AbstractCentroidClustering
 	{
 		if(!this.initialized) throw new AlgorithmNotInitializedException("Prototypes not initialized.");
 		
-		int i; 		
+		int i, j; 		
 		double distMin, dist;
 		double objectiveFunctionValue = 0.0d;
+		T x, buffer = this.newElementBuffer();
 		
 
 		// separate data according to closest prototype 
-		for(IndexedDataObject<T> x : this.data)
+		for(j=0; j<this.getDataCount(); j++)
 		{
+			x = this.elementOf(j, buffer);
 			distMin = Double.MAX_VALUE;
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				dist = this.dist.distanceSq(this.prototypes.get(i).getPosition(), x.element); 
+				dist = this.dist.distanceSq(this.prototypes.get(i).getPosition(), x); 
 				if(dist < distMin)
 				{
 					distMin = dist;
@@ -140,6 +140,9 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double maxPrototypeMovement = 0.0d;
@@ -147,7 +150,6 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 		for(i=0; i<this.getClusterCount(); i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
 		double[] membershipValues			= new double[this.getClusterCount()];
 		double[] membershipSum				= new double[this.getClusterCount()];
-		T tmpX								= this.vs.getNewAddNeutralElement();
 		SortablePrototype sp;
 		
 		int zeroDistanceCount				= 0;
@@ -167,14 +169,16 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 			
 			for(j = 0; j < this.getDataCount(); j++)
 			{
+				x = this.elementOf(j, buffer);
 				zeroDistanceCount = 0;
 				distanceSum = 0.0d;
 				
 				
+				this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
 					unsortedPrototypes.get(i).included = false;
-					unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+					unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 					if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 				}
 				
@@ -233,9 +237,7 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 						doubleTMP = (hFunctionBetaA*membershipValues[i] + hFunctionBetaB)*membershipValues[i]; 
 						membershipSum[i] += doubleTMP;
 
-						this.vs.copy(tmpX, this.data.get(j).element);
-						this.vs.mul(tmpX, doubleTMP);
-						this.vs.add(newPrototypePosition.get(i), tmpX);
+						this.vs.addMul(newPrototypePosition.get(i), x, doubleTMP);
 					}
 				}
 			}
@@ -259,9 +261,7 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 			{
 				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
 				{
-					this.vs.sub(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());	
+					this.vs.interpolate(newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
 				}
 				
 				doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i));
@@ -294,6 +294,9 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 		
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double objectiveFunctionValue = 0.0d;
@@ -307,14 +310,16 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 						
 		for(j=0; j < this.getDataCount(); j++)
 		{
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
 			
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				unsortedPrototypes.get(i).included = false;
-				unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 			}
 			
@@ -382,6 +387,8 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double[] membershipValues			= new double[this.getClusterCount()];		
@@ -396,10 +403,11 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 		distanceSum = 0.0d;
 		
 		
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i = 0; i < this.getClusterCount(); i++)
 		{
 			unsortedPrototypes.get(i).included = false;
-			unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition());
+			unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 			if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 		}
 		
@@ -476,6 +484,9 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double[] membershipValues			= new double[this.getClusterCount()];		
@@ -488,14 +499,16 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 				
 		for(j = 0; j < this.getDataCount(); j++)
 		{
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
 			
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				unsortedPrototypes.get(i).included = false;
-				unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 			}
 			
@@ -574,6 +587,9 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double[] membershipValues			= new double[this.getClusterCount()];
@@ -587,14 +603,16 @@ public class PolynomFCMClusteringAlgorithm<T> extends AbstractCentroidClustering
 				
 		for(j = 0; j < this.getDataCount(); j++)
 		{
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
 			
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				unsortedPrototypes.get(i).included = false;
-				unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 			}
 			
@@ -108,6 +108,9 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double maxPrototypeMovement = 0.0d;
@@ -115,7 +118,6 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		for(i=0; i<this.getClusterCount(); i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
 		double[] membershipValues			= new double[this.getClusterCount()];
 		double[] membershipSum				= new double[this.getClusterCount()];
-		T tmpX								= this.vs.getNewAddNeutralElement();
 		
 		int zeroDistanceCount				= 0;
 		SortablePrototype sp;
@@ -139,14 +141,16 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 			
 			for(j = 0; j < this.getDataCount(); j++)
 			{
+				x = this.elementOf(j, buffer);
 				zeroDistanceCount = 0;
 				distanceSum = 0.0d;
 				
 				
+				this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
 					unsortedPrototypes.get(i).included = false;
-					unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+					unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 					if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 				}
 				sortedNoise.included = false;
@@ -207,9 +211,7 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 						doubleTMP = (hFunctionBetaA*membershipValues[i] + hFunctionBetaB)*membershipValues[i]; 
 						membershipSum[i] += doubleTMP;
 
-						this.vs.copy(tmpX, this.data.get(j).element);
-						this.vs.mul(tmpX, doubleTMP);
-						this.vs.add(newPrototypePosition.get(i), tmpX);
+						this.vs.addMul(newPrototypePosition.get(i), x, doubleTMP);
 					}
 				}
 			}
@@ -233,9 +235,7 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 			{
 				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
 				{
-					this.vs.sub(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());	
+					this.vs.interpolate(newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
 				}
 				
 				doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i));
@@ -267,6 +267,9 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double objectiveFunctionValue = 0.0d;
@@ -283,14 +286,16 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 						
 		for(j=0; j < this.getDataCount(); j++)
 		{
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
 			
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				unsortedPrototypes.get(i).included = false;
-				unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 			}
 			
@@ -356,6 +361,8 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double[] membershipValues			= new double[this.getClusterCount()];		
@@ -373,10 +380,11 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		distanceSum = 0.0d;
 		
 		
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i = 0; i < this.getClusterCount(); i++)
 		{
 			unsortedPrototypes.get(i).included = false;
-			unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition());
+			unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 			if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 		}
 		
@@ -453,6 +461,9 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double[] membershipValues			= new double[this.getClusterCount()];		
@@ -468,14 +479,16 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		
 		for(j = 0; j < this.getDataCount(); j++)
 		{
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
 			
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				unsortedPrototypes.get(i).included = false;
-				unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 			}
 			
@@ -554,6 +567,9 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double[] membershipValues			= new double[this.getClusterCount()];
@@ -570,14 +586,16 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 				
 		for(j = 0; j < this.getDataCount(); j++)
 		{
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
 			
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				unsortedPrototypes.get(i).included = false;
-				unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 			}
 			
@@ -665,6 +683,9 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double[] noiseMembershipValues = new double[this.getDataCount()];		
@@ -680,14 +701,16 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		
 		for(j = 0; j < this.getDataCount(); j++)
 		{
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
 			
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i = 0; i < this.getClusterCount(); i++)
 			{
 				unsortedPrototypes.get(i).included = false;
-				unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 			}
 			
@@ -748,6 +771,8 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;								 	// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		int hatC = 0;
 		
 		double noiseMembershipValue = 0.0d;		
@@ -765,10 +790,11 @@ public class PolynomFCMNoiseClusteringAlgorithm<T> extends PolynomFCMClusteringA
 		distanceSum = 0.0d;
 		
 		
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i = 0; i < this.getClusterCount(); i++)
 		{
 			unsortedPrototypes.get(i).included = false;
-			unsortedPrototypes.get(i).squareDistance = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition());
+			unsortedPrototypes.get(i).squareDistance = prototypeDistancesSq[i];
 			if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
 		}
 		
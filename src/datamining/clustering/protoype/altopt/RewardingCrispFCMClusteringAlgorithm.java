@@ -42,10 +42,11 @@ import java.util.List;
 
 import data.algebra.Distance;
 import data.algebra.VectorSpace;
+import data.set.BlockDistanceEngine;
 import data.set.IndexedDataObject;
 import data.set.IndexedDataSet;
 import datamining.clustering.protoype.AlgorithmNotInitializedException;
-import etc.MyMath;
+import etc.FixedExponentPower;
 
 /**
  * TODO Class Description
@@ -99,13 +100,16 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 				
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double maxPrototypeMovement = 0.0d;
 		ArrayList<T> newPrototypePosition	= new ArrayList<T>(this.getClusterCount());
 		for(i=0; i<this.getClusterCount(); i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		double[] membershipSum				= new double[this.getClusterCount()];
-		T tmpX								= this.vs.getNewAddNeutralElement();
 		double minDistValue					= 0.0d;
 		
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -125,14 +129,16 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 			// update membership values
 			for(j = 0; j < this.getDataCount(); j++)
 			{				
+				x = this.elementOf(j, buffer);
 				for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 				zeroDistanceCount = 0;
 				distanceSum = 0.0d;
 				minDistValue = Double.MAX_VALUE;
 
+				this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 				for(i=0; i<this.getClusterCount(); i++)
 				{
-					doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+					doubleTMP = prototypeDistancesSq[i];
 					fuzzDistances[i] = doubleTMP;
 					if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 				}
@@ -180,12 +186,10 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
 
-					doubleTMP = MyMath.pow(membershipValues[i], this.fuzzifier);
+					doubleTMP = fuzzifierPower.pow(membershipValues[i]);
 					membershipSum[i] += doubleTMP;
 
-					this.vs.copy(tmpX, this.data.get(j).element);
-					this.vs.mul(tmpX, doubleTMP);
-					this.vs.add(newPrototypePosition.get(i), tmpX);
+					this.vs.addMul(newPrototypePosition.get(i), x, doubleTMP);
 				}				
 			}
 
@@ -201,9 +205,7 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 			{
 				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
 				{
-					this.vs.sub(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());	
+					this.vs.interpolate(newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
 				}
 				
 				doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i));
@@ -238,6 +240,10 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 		
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances					= new double[this.getClusterCount()];
 		double[] distancesSq					= new double[this.getClusterCount()];
 		double minDistValue = 0.0d;
@@ -245,12 +251,14 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 		
 		for(j=0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			distanceSum = 0.0d;
 			minDistValue = Double.MAX_VALUE;
 
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				distancesSq[i] = doubleTMP;
 				if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 			}
@@ -277,7 +285,7 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 			{
 				doubleTMP = fuzzDistances[i] / distanceSum;
 								
-				objectiveFunctionValue += MyMath.pow(doubleTMP, this.fuzzifier) * (distancesSq[i] - minDistValue);
+				objectiveFunctionValue += fuzzifierPower.pow(doubleTMP) * (distancesSq[i] - minDistValue);
 			}
 		}
 		
@@ -299,6 +307,9 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 				
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -308,14 +319,16 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 						
 		for(j=0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			minDistValue = Double.MAX_VALUE;
 
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				fuzzDistances[i] = doubleTMP;
 				if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 			}
@@ -380,6 +393,9 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 				
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValueSums		= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -389,14 +405,16 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 						
 		for(j=0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			minDistValue = Double.MAX_VALUE;
 
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				fuzzDistances[i] = doubleTMP;
 				if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 			}
@@ -454,6 +472,8 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 				
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -465,9 +485,10 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 		distanceSum = 0.0d;
 		minDistValue = Double.MAX_VALUE;
 
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i=0; i<this.getClusterCount(); i++)
 		{
-			doubleTMP = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition());
+			doubleTMP = prototypeDistancesSq[i];
 			fuzzDistances[i] = doubleTMP;
 			if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 		}
@@ -539,4 +560,28 @@ public class RewardingCrispFCMClusteringAlgorithm<T> extends FuzzyCMeansClusteri
 	{
 		return "Rewarding Crisp Memberships FcM";
 	}
+	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.altopt.FuzzyCMeansClusteringAlgorithm#setParallelism(int)
+	 */
+	@Override
+	public void setParallelism(int parallelism)
+	{
+		// apply(int) of this algorithm is sequential, a higher parallelism would be ignored
+		if(parallelism != 1) throw new IllegalArgumentException("The algorithm calculates sequentially, the parallelism must be 1. Specified parallelism: " + parallelism);
+		
+		super.setParallelism(parallelism);
+	}
+	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractPrototypeClusteringAlgorithm#setDistanceEngine(data.set.BlockDistanceEngine)
+	 */
+	@Override
+	public void setDistanceEngine(BlockDistanceEngine<T> distanceEngine)
+	{
+		// apply(int) of this algorithm calculates the distances with the distance function, an engine would be ignored
+		if(distanceEngine != null) throw new IllegalArgumentException("The clustering algorithm does not use a distance engine.");
+		
+		super.setDistanceEngine(distanceEngine);
+	}
 }
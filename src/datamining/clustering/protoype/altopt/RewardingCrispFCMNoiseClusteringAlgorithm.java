@@ -47,7 +47,7 @@ import data.set.IndexedDataSet;
 import datamining.clustering.FuzzyClusteringAlgorithm;
 import datamining.clustering.FuzzyNoiseClusteringAlgorithm;
 import datamining.clustering.protoype.AlgorithmNotInitializedException;
-import etc.MyMath;
+import etc.FixedExponentPower;
 
 /**
  * TODO Class Description
@@ -101,13 +101,16 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 				
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double maxPrototypeMovement = 0.0d;
 		ArrayList<T> newPrototypePosition	= new ArrayList<T>(this.getClusterCount());
 		for(i=0; i<this.getClusterCount(); i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		double[] membershipSum				= new double[this.getClusterCount()];
-		T tmpX								= this.vs.getNewAddNeutralElement();
 		double minDistValue					= 0.0d;
 		
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -127,14 +130,16 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 			// update membership values
 			for(j = 0; j < this.getDataCount(); j++)
 			{				
+				x = this.elementOf(j, buffer);
 				for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 				zeroDistanceCount = 0;
 				distanceSum = 0.0d;
 				minDistValue = Double.MAX_VALUE;
 
+				this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 				for(i=0; i<this.getClusterCount(); i++)
 				{
-					doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+					doubleTMP = prototypeDistancesSq[i];
 					fuzzDistances[i] = doubleTMP;
 					if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 				}
@@ -184,12 +189,10 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 				for(i = 0; i < this.getClusterCount(); i++)
 				{
 
-					doubleTMP = MyMath.pow(membershipValues[i], this.fuzzifier);
+					doubleTMP = fuzzifierPower.pow(membershipValues[i]);
 					membershipSum[i] += doubleTMP;
 
-					this.vs.copy(tmpX, this.data.get(j).element);
-					this.vs.mul(tmpX, doubleTMP);
-					this.vs.add(newPrototypePosition.get(i), tmpX);
+					this.vs.addMul(newPrototypePosition.get(i), x, doubleTMP);
 				}				
 			}
 
@@ -205,9 +208,7 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 			{
 				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
 				{
-					this.vs.sub(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());	
+					this.vs.interpolate(newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
 				}
 				
 				doubleTMP = this.dist.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i));
@@ -242,6 +243,10 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 		
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances					= new double[this.getClusterCount()];
 		double[] distancesSq					= new double[this.getClusterCount()];
 		double minDistValue = 0.0d;
@@ -249,12 +254,14 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 		
 		for(j=0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			distanceSum = 0.0d;
 			minDistValue = Double.MAX_VALUE;
 
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				distancesSq[i] = doubleTMP;
 				if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 			}
@@ -284,11 +291,11 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 			{
 				doubleTMP = fuzzDistances[i] / distanceSum;
 								
-				objectiveFunctionValue += MyMath.pow(doubleTMP, this.fuzzifier) * (distancesSq[i] - minDistValue);
+				objectiveFunctionValue += fuzzifierPower.pow(doubleTMP) * (distancesSq[i] - minDistValue);
 			}
 			doubleTMP = fuzzyNoiseDist / distanceSum;
 			
-			objectiveFunctionValue += MyMath.pow(doubleTMP, this.fuzzifier) * (this.noiseDistance*this.noiseDistance - minDistValue);
+			objectiveFunctionValue += fuzzifierPower.pow(doubleTMP) * (this.noiseDistance*this.noiseDistance - minDistValue);
 		}
 		
 		return objectiveFunctionValue;
@@ -307,6 +314,9 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 				
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValueSums		= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -316,14 +326,16 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 						
 		for(j=0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			minDistValue = Double.MAX_VALUE;
 
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				fuzzDistances[i] = doubleTMP;
 				if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 			}
@@ -385,6 +397,9 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 				
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -394,14 +409,16 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 						
 		for(j=0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			for(i=0; i<this.getClusterCount(); i++) zeroDistanceIndexList[i] = -1;
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			minDistValue = Double.MAX_VALUE;
 
+			this.dist.distanceSq(x, prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(this.data.get(j).element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				fuzzDistances[i] = doubleTMP;
 				if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 			}
@@ -466,6 +483,8 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 				
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		int[] zeroDistanceIndexList			= new int[this.getClusterCount()];
@@ -477,9 +496,10 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 		distanceSum = 0.0d;
 		minDistValue = Double.MAX_VALUE;
 
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i=0; i<this.getClusterCount(); i++)
 		{
-			doubleTMP = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition());
+			doubleTMP = prototypeDistancesSq[i];
 			fuzzDistances[i] = doubleTMP;
 			if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 		}
@@ -560,6 +580,8 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 				
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		int zeroDistanceCount;
 		double minDistValue = 0.0d;
@@ -576,9 +598,10 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 			distanceSum = 0.0d;
 			minDistValue = Double.MAX_VALUE;
 			
+			this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 			for(i=0; i<this.getClusterCount(); i++)
 			{
-				doubleTMP = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition());
+				doubleTMP = prototypeDistancesSq[i];
 				fuzzDistances[i] = doubleTMP;
 				if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 			}
@@ -626,6 +649,8 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 				
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		ArrayList<T> prototypePositions			= this.getPrototypePositions();
+		double[] prototypeDistancesSq			= new double[this.getClusterCount()];
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		int zeroDistanceCount;
 		double minDistValue = 0.0d;
@@ -636,9 +661,10 @@ public class RewardingCrispFCMNoiseClusteringAlgorithm<T> extends RewardingCrisp
 		distanceSum = 0.0d;
 		minDistValue = Double.MAX_VALUE;
 
+		this.dist.distanceSq(obj.element, prototypePositions, prototypeDistancesSq);
 		for(i=0; i<this.getClusterCount(); i++)
 		{
-			doubleTMP = this.dist.distanceSq(obj.element, this.prototypes.get(i).getPosition());
+			doubleTMP = prototypeDistancesSq[i];
 			fuzzDistances[i] = doubleTMP;
 			if(minDistValue > doubleTMP) minDistValue = doubleTMP;
 		}
@@ -42,11 +42,12 @@ import java.util.List;
 import java.util.PriorityQueue;
 
 import data.algebra.EuclideanVectorSpace;
+import data.set.BlockDistanceEngine;
 import data.set.IndexedDataObject;
 import data.set.IndexedDataSet;
 import datamining.clustering.protoype.AlgorithmNotInitializedException;
 import datamining.clustering.protoype.Centroid;
-import etc.MyMath;
+import etc.FixedExponentPower;
 
 /**
  * TODO Class Description
@@ -133,15 +134,17 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		int i, j, t; 
 
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 		double maxPrototypeMovement = 0.0d;
 		ArrayList<T> newPrototypePosition	= new ArrayList<T>(this.getClusterCount());
 		for(i=0; i<this.getClusterCount(); i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		double[] membershipSum				= new double[this.getClusterCount()];
-		T tmpX								= this.vs.getNewAddNeutralElement();
 		SortablePrototype sp;
 		
 		PriorityQueue<SortablePrototype> sortedPrototypes = new PriorityQueue<SortablePrototype>(this.getClusterCount());		
@@ -165,6 +168,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 			// update membership values
 			for(j = 0; j < this.getDataCount(); j++)
 			{				
+				x = this.elementOf(j, buffer);
 				zeroDistanceCount = 0;
 				distanceSum = 0.0d;
 				
@@ -173,7 +177,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 				for(i=0; i<this.getClusterCount(); i++)
 				{
 					this.evs.copy(unsortedPrototypes.get(i).relativeVecToDataObject, unsortedPrototypes.get(i).prototype.getPosition());
-					this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, this.data.get(j).element);
+					this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, x);
 					unsortedPrototypes.get(i).squareDistance = this.evs.lengthSq(unsortedPrototypes.get(i).relativeVecToDataObject);
 
 					if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
@@ -224,7 +228,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 						if(sp.included)
 						{
 							includedPrototypes.add(sp);
-							doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+							doubleTMP = distancePower.pow(sp.squareDistance);
 							fuzzDistances[sp.prototype.getClusterIndex()] = doubleTMP;
 							distanceSum += doubleTMP;
 						}
@@ -247,12 +251,10 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 
 				for(i=0; i<this.getClusterCount(); i++)
 				{
-					doubleTMP = MyMath.pow(membershipValues[i], this.fuzzifier);
+					doubleTMP = fuzzifierPower.pow(membershipValues[i]);
 					membershipSum[i] += doubleTMP;
 
-					this.vs.copy(tmpX, this.data.get(j).element);
-					this.vs.mul(tmpX, doubleTMP);
-					this.vs.add(newPrototypePosition.get(i), tmpX);
+					this.vs.addMul(newPrototypePosition.get(i), x, doubleTMP);
 				}
 			}
 
@@ -276,9 +278,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 			{
 				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
 				{
-					this.vs.sub(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());	
+					this.vs.interpolate(newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
 				}
 				
 				doubleTMP = this.evs.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i));
@@ -306,8 +306,11 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		int i, j; 
 	
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses 
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		double objectiveFunctionValue		= 0.0d;
@@ -324,6 +327,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		// update membership values
 		for(j = 0; j < this.getDataCount(); j++)
 		{		
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
@@ -332,7 +336,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 			for(i=0; i<this.getClusterCount(); i++)
 			{
 				this.evs.copy(unsortedPrototypes.get(i).relativeVecToDataObject, unsortedPrototypes.get(i).prototype.getPosition());
-				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, this.data.get(j).element);
+				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, x);
 				unsortedPrototypes.get(i).squareDistance = this.evs.lengthSq(unsortedPrototypes.get(i).relativeVecToDataObject);
 
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)
@@ -376,7 +380,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 					if(sp.included)
 					{
 						includedPrototypes.add(sp);
-						doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+						doubleTMP = distancePower.pow(sp.squareDistance);
 						fuzzDistances[sp.prototype.getClusterIndex()] = doubleTMP;
 						distanceSum += doubleTMP;
 					}
@@ -397,7 +401,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 				
 				for(i=0; i<this.getClusterCount(); i++)
 				{
-					objectiveFunctionValue += MyMath.pow(membershipValues[i], this.fuzzifier) * unsortedPrototypes.get(i).squareDistance;
+					objectiveFunctionValue += fuzzifierPower.pow(membershipValues[i]) * unsortedPrototypes.get(i).squareDistance;
 				}
 			}
 		}
@@ -417,8 +421,10 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		int i, j; 
 
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 		 
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
@@ -435,6 +441,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		// update membership values
 		for(j = 0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
@@ -443,7 +450,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 			for(i=0; i<this.getClusterCount(); i++)
 			{
 				this.evs.copy(unsortedPrototypes.get(i).relativeVecToDataObject, unsortedPrototypes.get(i).prototype.getPosition());
-				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, this.data.get(j).element);
+				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, x);
 				unsortedPrototypes.get(i).squareDistance = this.evs.lengthSq(unsortedPrototypes.get(i).relativeVecToDataObject);
 
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
@@ -494,7 +501,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 					if(sp.included)
 					{
 						includedPrototypes.add(sp);
-						doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+						doubleTMP = distancePower.pow(sp.squareDistance);
 						fuzzDistances[sp.prototype.getClusterIndex()] = doubleTMP;
 						distanceSum += doubleTMP;
 					}
@@ -536,8 +543,10 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		int i, j; 
 
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 		 
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
@@ -553,6 +562,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		// update membership values
 		for(j = 0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
@@ -561,7 +571,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 			for(i=0; i<this.getClusterCount(); i++)
 			{
 				this.evs.copy(unsortedPrototypes.get(i).relativeVecToDataObject, unsortedPrototypes.get(i).prototype.getPosition());
-				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, this.data.get(j).element);
+				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, x);
 				unsortedPrototypes.get(i).squareDistance = this.evs.lengthSq(unsortedPrototypes.get(i).relativeVecToDataObject);
 
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
@@ -612,7 +622,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 					if(sp.included)
 					{
 						includedPrototypes.add(sp);
-						doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+						doubleTMP = distancePower.pow(sp.squareDistance);
 						fuzzDistances[sp.prototype.getClusterIndex()] = doubleTMP;
 						distanceSum += doubleTMP;
 					}
@@ -650,6 +660,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		int i; 
 
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
 		 
@@ -722,7 +733,7 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 				if(sp.included)
 				{
 					includedPrototypes.add(sp);
-					doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+					doubleTMP = distancePower.pow(sp.squareDistance);
 					fuzzDistances[sp.prototype.getClusterIndex()] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
@@ -754,5 +765,27 @@ public class VoronoiPartitionFCMClusteringAlgorithm<T> extends FuzzyCMeansCluste
 		return this.evs;
 	}
 	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.altopt.FuzzyCMeansClusteringAlgorithm#setParallelism(int)
+	 */
+	@Override
+	public void setParallelism(int parallelism)
+	{
+		// apply(int) of this algorithm is sequential, a higher parallelism would be ignored
+		if(parallelism != 1) throw new IllegalArgumentException("The algorithm calculates sequentially, the parallelism must be 1. Specified parallelism: " + parallelism);
+		
+		super.setParallelism(parallelism);
+	}
 	
+	/* (non-Javadoc)
+	 * @see datamining.clustering.protoype.AbstractPrototypeClusteringAlgorithm#setDistanceEngine(data.set.BlockDistanceEngine)
+	 */
+	@Override
+	public void setDistanceEngine(BlockDistanceEngine<T> distanceEngine)
+	{
+		// apply(int) of this algorithm calculates the distances with the distance function, an engine would be ignored
+		if(distanceEngine != null) throw new IllegalArgumentException("The clustering algorithm does not use a distance engine.");
+		
+		super.setDistanceEngine(distanceEngine);
+	}
 }
@@ -47,7 +47,7 @@ import data.set.IndexedDataSet;
 import datamining.clustering.FuzzyNoiseClusteringAlgorithm;
 import datamining.clustering.protoype.AlgorithmNotInitializedException;
 import datamining.clustering.protoype.Centroid;
-import etc.MyMath;
+import etc.FixedExponentPower;
 
 /**
  * TODO Class Description
@@ -105,15 +105,17 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 		int i, j, t; 
 
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 		double maxPrototypeMovement = 0.0d;
 		ArrayList<T> newPrototypePosition	= new ArrayList<T>(this.getClusterCount());
 		for(i=0; i<this.getClusterCount(); i++) newPrototypePosition.add(this.vs.getNewAddNeutralElement()); 
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		double[] membershipSum				= new double[this.getClusterCount()];
-		T tmpX								= this.vs.getNewAddNeutralElement();
 		SortablePrototype sp;
 		
 		PriorityQueue<SortablePrototype> sortedPrototypes = new PriorityQueue<SortablePrototype>(this.getClusterCount());		
@@ -137,6 +139,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 			// update membership values
 			for(j = 0; j < this.getDataCount(); j++)
 			{				
+				x = this.elementOf(j, buffer);
 				zeroDistanceCount = 0;
 				distanceSum = 0.0d;
 				
@@ -145,7 +148,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 				for(i=0; i<this.getClusterCount(); i++)
 				{
 					this.evs.copy(unsortedPrototypes.get(i).relativeVecToDataObject, unsortedPrototypes.get(i).prototype.getPosition());
-					this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, this.data.get(j).element);
+					this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, x);
 					unsortedPrototypes.get(i).squareDistance = this.evs.lengthSq(unsortedPrototypes.get(i).relativeVecToDataObject);
 
 					if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
@@ -196,13 +199,13 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 						if(sp.included)
 						{
 							includedPrototypes.add(sp);
-							doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+							doubleTMP = distancePower.pow(sp.squareDistance);
 							fuzzDistances[sp.prototype.getClusterIndex()] = doubleTMP;
 							distanceSum += doubleTMP;
 						}
 					}
 					// influence of the noise cluster
-					distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+					distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 										
 					for(i=0; i<this.getClusterCount(); i++)
 					{
@@ -221,12 +224,10 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 
 				for(i=0; i<this.getClusterCount(); i++)
 				{
-					doubleTMP = MyMath.pow(membershipValues[i], this.fuzzifier);
+					doubleTMP = fuzzifierPower.pow(membershipValues[i]);
 					membershipSum[i] += doubleTMP;
 
-					this.vs.copy(tmpX, this.data.get(j).element);
-					this.vs.mul(tmpX, doubleTMP);
-					this.vs.add(newPrototypePosition.get(i), tmpX);
+					this.vs.addMul(newPrototypePosition.get(i), x, doubleTMP);
 				}
 			}
 
@@ -250,9 +251,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 			{
 				if(Math.abs(this.learningFactor - 1.0d) > 0.01d)
 				{
-					this.vs.sub(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());
-					this.vs.mul(newPrototypePosition.get(i), this.learningFactor);
-					this.vs.add(newPrototypePosition.get(i), this.prototypes.get(i).getPosition());	
+					this.vs.interpolate(newPrototypePosition.get(i), this.prototypes.get(i).getPosition(), this.learningFactor);
 				}
 				
 				doubleTMP = this.evs.distanceSq(this.prototypes.get(i).getPosition(), newPrototypePosition.get(i));
@@ -280,8 +279,11 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 		int i, j; 
 	
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
+		FixedExponentPower fuzzifierPower			= new FixedExponentPower(this.fuzzifier);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses 
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
 		double objectiveFunctionValue		= 0.0d;
@@ -299,6 +301,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 		// update membership values
 		for(j = 0; j < this.getDataCount(); j++)
 		{		
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
@@ -307,7 +310,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 			for(i=0; i<this.getClusterCount(); i++)
 			{
 				this.evs.copy(unsortedPrototypes.get(i).relativeVecToDataObject, unsortedPrototypes.get(i).prototype.getPosition());
-				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, this.data.get(j).element);
+				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, x);
 				unsortedPrototypes.get(i).squareDistance = this.evs.lengthSq(unsortedPrototypes.get(i).relativeVecToDataObject);
 
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)
@@ -351,13 +354,13 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 					if(sp.included)
 					{
 						includedPrototypes.add(sp);
-						doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+						doubleTMP = distancePower.pow(sp.squareDistance);
 						fuzzDistances[sp.prototype.getClusterIndex()] = doubleTMP;
 						distanceSum += doubleTMP;
 					}
 				}
 				
-				fuzzNoiseDist = MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+				fuzzNoiseDist = distancePower.pow(this.noiseDistance*this.noiseDistance);
 				distanceSum += fuzzNoiseDist;
 					
 				for(i=0; i<this.getClusterCount(); i++)
@@ -375,11 +378,11 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 				
 				for(i=0; i<this.getClusterCount(); i++)
 				{
-					objectiveFunctionValue += MyMath.pow(membershipValues[i], this.fuzzifier) * unsortedPrototypes.get(i).squareDistance;
+					objectiveFunctionValue += fuzzifierPower.pow(membershipValues[i]) * unsortedPrototypes.get(i).squareDistance;
 				}
 				
 				doubleTMP = fuzzNoiseDist / distanceSum;				
-				objectiveFunctionValue += MyMath.pow(doubleTMP, this.fuzzifier) * this.noiseDistance*this.noiseDistance;
+				objectiveFunctionValue += fuzzifierPower.pow(doubleTMP) * this.noiseDistance*this.noiseDistance;
 			}
 		}
 		
@@ -398,8 +401,10 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 		int i, j; 
 
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 		 
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
@@ -416,6 +421,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 		// update membership values
 		for(j = 0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
@@ -424,7 +430,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 			for(i=0; i<this.getClusterCount(); i++)
 			{
 				this.evs.copy(unsortedPrototypes.get(i).relativeVecToDataObject, unsortedPrototypes.get(i).prototype.getPosition());
-				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, this.data.get(j).element);
+				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, x);
 				unsortedPrototypes.get(i).squareDistance = this.evs.lengthSq(unsortedPrototypes.get(i).relativeVecToDataObject);
 
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
@@ -475,12 +481,12 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 					if(sp.included)
 					{
 						includedPrototypes.add(sp);
-						doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+						doubleTMP = distancePower.pow(sp.squareDistance);
 						fuzzDistances[sp.prototype.getClusterIndex()] = doubleTMP;
 						distanceSum += doubleTMP;
 					}
 				}
-				distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+				distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 									
 				for(i=0; i<this.getClusterCount(); i++)
 				{
@@ -518,8 +524,10 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 		int i, j; 
 
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 		 
 		double[] fuzzDistances				= new double[this.getClusterCount()];
 		double[] membershipValues			= new double[this.getClusterCount()];
@@ -535,6 +543,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 		// update membership values
 		for(j = 0; j < this.getDataCount(); j++)
 		{				
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
@@ -543,7 +552,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 			for(i=0; i<this.getClusterCount(); i++)
 			{
 				this.evs.copy(unsortedPrototypes.get(i).relativeVecToDataObject, unsortedPrototypes.get(i).prototype.getPosition());
-				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, this.data.get(j).element);
+				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, x);
 				unsortedPrototypes.get(i).squareDistance = this.evs.lengthSq(unsortedPrototypes.get(i).relativeVecToDataObject);
 
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
@@ -594,12 +603,12 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 					if(sp.included)
 					{
 						includedPrototypes.add(sp);
-						doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+						doubleTMP = distancePower.pow(sp.squareDistance);
 						fuzzDistances[sp.prototype.getClusterIndex()] = doubleTMP;
 						distanceSum += doubleTMP;
 					}
 				}
-				distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+				distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 									
 				for(i=0; i<this.getClusterCount(); i++)
 				{
@@ -633,6 +642,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 		int i; 
 
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
 		 
@@ -706,12 +716,12 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 				if(sp.included)
 				{
 					includedPrototypes.add(sp);
-					doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+					doubleTMP = distancePower.pow(sp.squareDistance);
 					fuzzDistances[sp.prototype.getClusterIndex()] = doubleTMP;
 					distanceSum += doubleTMP;
 				}
 			}
-			distanceSum += MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent);
+			distanceSum += distancePower.pow(this.noiseDistance*this.noiseDistance);
 								
 			for(i=0; i<this.getClusterCount(); i++)
 			{
@@ -750,8 +760,10 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 		int i, j; 
 
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
+		T x, buffer = this.newElementBuffer();	// buffer for the coordinates of data objects of index based data sets
 
 		double fuzzNoiseDist				= 0.0d;
 		double[] noiseMemberships			= new double[this.getDataCount()];
@@ -766,6 +778,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 		
 		for(j=0; j<this.getDataCount(); j++)
 		{
+			x = this.elementOf(j, buffer);
 			zeroDistanceCount = 0;
 			distanceSum = 0.0d;
 			
@@ -774,7 +787,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 			for(i=0; i<this.getClusterCount(); i++)
 			{
 				this.evs.copy(unsortedPrototypes.get(i).relativeVecToDataObject, unsortedPrototypes.get(i).prototype.getPosition());
-				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, this.data.get(j).element);
+				this.evs.sub(unsortedPrototypes.get(i).relativeVecToDataObject, x);
 				unsortedPrototypes.get(i).squareDistance = this.evs.lengthSq(unsortedPrototypes.get(i).relativeVecToDataObject);
 	
 				if(unsortedPrototypes.get(i).squareDistance <= 0.0d)	zeroDistanceCount++;
@@ -814,11 +827,11 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 					if(sp.included)
 					{
 						includedPrototypes.add(sp);
-						doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+						doubleTMP = distancePower.pow(sp.squareDistance);
 						distanceSum += doubleTMP;
 					}
 				}
-				fuzzNoiseDist = MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent); 
+				fuzzNoiseDist = distancePower.pow(this.noiseDistance*this.noiseDistance); 
 				distanceSum += fuzzNoiseDist;
 				
 				noiseMemberships[j] = fuzzNoiseDist/distanceSum; 
@@ -839,6 +852,7 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 		int i; 
 
 		double distanceExponent = 1.0d / (1.0d - this.fuzzifier);	// to reduce the usage of divisions
+		FixedExponentPower distancePower			= new FixedExponentPower(distanceExponent);
 		double distanceSum = 0.0d;									// the sum_i dist[i][l]^{2/(1-fuzzifier)}: the sum of all parametrised distances for one cluster l 
 		double doubleTMP = 0.0d;									// a temporarly variable for multiple perpuses
 
@@ -900,11 +914,11 @@ public class VoronoiPartitionFCMNoiseClusteringAlgorithm<T> extends VoronoiParti
 				if(sp.included)
 				{
 					includedPrototypes.add(sp);
-					doubleTMP = MyMath.pow(sp.squareDistance, distanceExponent);
+					doubleTMP = distancePower.pow(sp.squareDistance);
 					distanceSum += doubleTMP;
 				}
 			}
-			fuzzNoiseDist = MyMath.pow(this.noiseDistance*this.noiseDistance, distanceExponent); 
+			fuzzNoiseDist = distancePower.pow(this.noiseDistance*this.noiseDistance); 
 			distanceSum += fuzzNoiseDist;
 		}
 
@@ -0,0 +1,182 @@
+/**
+Copyright (c) 2011, The EDMOAL Project
+
+	DLR Deutsches Zentrum fuer Luft- und Raumfahrt e.V.
+	German Aerospace Center e.V.
+	Institut fuer Flugfuehrung/Institute of Flight Guidance
+	Tel. +49 531 295 2500, Fax: +49 531 295 2550
+	WWW: http://www.dlr.de/fl/		
+ 
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+    	this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+    	this list of conditions and the following disclaimer in the documentation and/or
+    	other materials provided with the distribution.
+    * Neither the name of the DLR nor the names of its contributors
+    	may be used to endorse or promote products derived from this software
+    	without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF
+THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+
+package etc;
+
+import java.io.Serializable;
+
+/**
+ * The power function x^n for a fixed exponent n. Clustering algorithms like fuzzy c-means raise millions of values
+ * to the same (non-integer) exponent, e.g. the squared distances to 1/(1-m) and the membership values to the
+ * fuzzifier m. For exponents that are handled exactly by {@link MyMath#pow(double, double)} (multiples of 1/8),
+ * that method is used. For all other exponents, the power is calculated as 2^(n * log2(x)) with table based
+ * approximations of log2 and exp2:
+ * <ul>
+ * <li>x = 2^e * m with 1 <= m < 2. The mantissa m is divided by a tabulated value c close to it (256 entries),
+ * such that |m/c - 1| < 2^-8, and log(m/c) is approximated by a polynomial of degree 5.</li>
+ * <li>To keep the precision if e is large, n is split into a part with few significant bits, whose product with e
+ * is exact, and the remainder.</li>
+ * <li>The result y = n * log2(x) is rounded to a multiple k + j/256 of 1/256 without branches, by adding a large
+ * constant. 2^y is the product of 2^k, which is applied by setting the exponent bits directly, the tabulated value
+ * 2^(j/256) (256 entries) and a polynomial of degree 5 for the remainder, which is at most 2^-9.</li>
+ * </ul>
+ * The truncation errors of both polynomials are below 10^-17, so the relative error of the result is dominated by
+ * rounding and is bounded by {@link #RELATIVE_ERROR_BOUND} times max(1, |n|) for all positive x for which the
+ * result is a normal double number. For zero, negative, subnormal, infinite and NaN inputs and results outside of the
+ * normal double range, {@link Math#pow(double, double)} is used.
+ *
+ * @author Roland Winkler
+ */
+public class FixedExponentPower implements Serializable
+{
+	/**  */
+	private static final long	serialVersionUID	= 6063212858393845216L;
+
+	/** The bound of the relative error of {@link #pow(double)}, multiplied by max(1, |n|). */
+	public static final double RELATIVE_ERROR_BOUND = 1.0e-15d;
+	
+	/** The number of bits of the mantissa and fraction that are used as table index */
+	private static final int TABLE_BITS = 8;
+	
+	/** The size of the tables */
+	private static final int TABLE_SIZE = 1 << FixedExponentPower.TABLE_BITS;
+	
+	/** 1/ln(2) */
+	private static final double INV_LN2 = 1.0d/Math.log(2.0d);
+	
+	/** Adding this constant to a number of moderate size rounds it to a multiple of 1/256, which is stored in the lowest bits */
+	private static final double ROUNDING_SHIFT = 1.5d*(1L << (52 - FixedExponentPower.TABLE_BITS));
+	
+	/** ln(2) */
+	private static final double LN2 = Math.log(2.0d);
+	
+	/** The inverse of the tabulated mantissa values, 1/c_i with c_i = 1 + (i+0.5)/256 */
+	private static final double[] INV_MANTISSA = new double[FixedExponentPower.TABLE_SIZE];
+	
+	/** log2(c_i), calculated from the inverse to be consistent with {@link #INV_MANTISSA} */
+	private static final double[] LOG2_MANTISSA = new double[FixedExponentPower.TABLE_SIZE];
+	
+	/** 2^(i/256) */
+	private static final double[] EXP2_FRACTION = new double[FixedExponentPower.TABLE_SIZE];
+	
+	static
+	{
+		double inv;
+		
+		for(int i=0; i<FixedExponentPower.TABLE_SIZE; i++)
+		{
+			inv = 1.0d/(1.0d + (i + 0.5d)/FixedExponentPower.TABLE_SIZE);
+			FixedExponentPower.INV_MANTISSA[i] = inv;
+			FixedExponentPower.LOG2_MANTISSA[i] = -Math.log(inv)*FixedExponentPower.INV_LN2;
+			FixedExponentPower.EXP2_FRACTION[i] = Math.pow(2.0d, ((double)i)/FixedExponentPower.TABLE_SIZE);
+		}
+	}
+	
+	/** The exponent */
+	protected final double exponent;
+	
+	/** The exponent with the lower 27 bits of the mantissa cleared, its product with any double exponent is exact */
+	protected final double exponentHigh;
+	
+	/** exponent - exponentHigh */
+	protected final double exponentLow;
+	
+	/** true if the exponent is handled exactly by {@link MyMath#pow(double, double)} */
+	protected final boolean exact;
+	
+	
+	/**
+	 * @param exponent the exponent n of x^n
+	 */
+	public FixedExponentPower(double exponent)
+	{
+		double m = 8.0d*Math.abs(exponent);
+		
+		this.exponent = exponent;
+		this.exponentHigh = Double.longBitsToDouble(Double.doubleToRawLongBits(exponent) & 0xFFFFFFFFF8000000L);
+		this.exponentLow = exponent - this.exponentHigh;
+		this.exact = (m < 48.0d && m == Math.floor(m)) || Double.isNaN(exponent) || Double.isInfinite(exponent);
+	}
+	
+	/**
+	 * @param x
+	 * @return x^n
+	 */
+	public double pow(double x)
+	{
+		if(this.exact) return MyMath.pow(x, this.exponent);
+		if(!(x >= Double.MIN_NORMAL && x <= Double.MAX_VALUE)) return Math.pow(x, this.exponent);
+		
+		long bits = Double.doubleToRawLongBits(x);
+		int e = (int)(bits >>> 52) - 1023;
+		int i = (int)(bits >>> (52 - FixedExponentPower.TABLE_BITS)) & (FixedExponentPower.TABLE_SIZE - 1);
+		double m = Double.longBitsToDouble((bits & 0x000FFFFFFFFFFFFFL) | 0x3FF0000000000000L);
+		double t, logM, yHigh, yLow, shifted, z, result;
+		int index, k;
+		
+		// log2(x) = e + log2(c_i) + log2(m/c_i)
+		t = m*FixedExponentPower.INV_MANTISSA[i] - 1.0d;
+		logM = t*(1.0d + t*(-0.5d + t*(1.0d/3.0d + t*(-0.25d + t*0.2d))));
+		logM = FixedExponentPower.LOG2_MANTISSA[i] + logM*FixedExponentPower.INV_LN2;
+		
+		// y = n*log2(x), exponentHigh*e is exact and the remainder is small, which keeps the precision of the fraction
+		yHigh = this.exponentHigh*e;
+		yLow = this.exponentLow*e + this.exponent*logM;
+		
+		// round y to a multiple of 1/256 by adding a large constant, the rounded value r*256 is in the lower bits
+		shifted = (yHigh + yLow) + FixedExponentPower.ROUNDING_SHIFT;
+		index = (int)Double.doubleToRawLongBits(shifted);
+		z = ((yHigh - (shifted - FixedExponentPower.ROUNDING_SHIFT)) + yLow)*FixedExponentPower.LN2;
+		k = index >> FixedExponentPower.TABLE_BITS;
+		
+		if(k < -1022 || k > 1022 || !(yHigh + yLow < 2048.0d && yHigh + yLow > -2048.0d)) return Math.pow(x, this.exponent);
+		
+		// 2^y = 2^k * 2^(j/256) * 2^(z/ln2) with |z| <= ln(2)/512
+		result = 1.0d + z*(1.0d + z*(0.5d + z*(1.0d/6.0d + z*(1.0d/24.0d + z*(1.0d/120.0d)))));
+		result *= FixedExponentPower.EXP2_FRACTION[index & (FixedExponentPower.TABLE_SIZE - 1)];
+		
+		return result * Double.longBitsToDouble(((long)(k + 1023)) << 52);
+	}
+	
+	/**
+	 * @return the exponent
+	 */
+	public double getExponent()
+	{
+		return this.exponent;
+	}
+}